@@ -22,6 +22,8 @@ CREATE TABLE cursos (
     descripcion TEXT,
     creditos INTEGER NOT NULL,
     horas_semanales INTEGER,
+    nivel_dificultad VARCHAR(20),
+    carga_academica VARCHAR(20),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
@@ -62,8 +64,312 @@ CREATE TABLE inscripciones (
 CREATE INDEX idx_profesores_email ON profesores(email);
 CREATE INDEX idx_profesores_especialidad ON profesores(especialidad);
 CREATE INDEX idx_cursos_codigo ON cursos(codigo);
+CREATE INDEX idx_cursos_nivel_dificultad ON cursos(nivel_dificultad);
+CREATE INDEX idx_cursos_carga_academica ON cursos(carga_academica);
 CREATE INDEX idx_estudiantes_carnet ON estudiantes(carnet);
 CREATE INDEX idx_estudiantes_email ON estudiantes(email);
+CREATE INDEX idx_estudiantes_fecha_ingreso ON estudiantes(fecha_ingreso DESC, id DESC);
+CREATE INDEX idx_estudiantes_fecha_nacimiento ON estudiantes(fecha_nacimiento);
+CREATE INDEX idx_profesores_fecha_contratacion ON profesores(fecha_contratacion);
 CREATE INDEX idx_inscripciones_estudiante ON inscripciones(estudiante_id);
 CREATE INDEX idx_inscripciones_curso ON inscripciones(curso_id);
-CREATE INDEX idx_inscripciones_profesor ON inscripciones(profesor_id);
\ No newline at end of file
+CREATE INDEX idx_inscripciones_profesor ON inscripciones(profesor_id);
+
+-- Búsqueda por subcadena y similitud (LOWER(x) LIKE '%termino%')
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX idx_estudiantes_nombre_trgm ON estudiantes USING GIN (LOWER(nombre) gin_trgm_ops);
+CREATE INDEX idx_estudiantes_apellido_trgm ON estudiantes USING GIN (LOWER(apellido) gin_trgm_ops);
+CREATE INDEX idx_profesores_nombre_trgm ON profesores USING GIN (LOWER(nombre) gin_trgm_ops);
+CREATE INDEX idx_profesores_apellido_trgm ON profesores USING GIN (LOWER(apellido) gin_trgm_ops);
+CREATE INDEX idx_cursos_codigo_trgm ON cursos USING GIN (LOWER(codigo) gin_trgm_ops);
+CREATE INDEX idx_cursos_nombre_trgm ON cursos USING GIN (LOWER(nombre) gin_trgm_ops);
+
+-- ============ TABLAS DE RESUMEN PARA REPORTES ============
+-- Se mantienen con triggers en la misma transacción que cada escritura sobre inscripciones
+-- y cursos, así los reportes leen una fila por curso, ciclo o profesor en lugar de agrupar
+-- todas las inscripciones. POST /api/reportes/resumenes/verificar las compara contra la
+-- agregación directa y, con reconstruir=true, las vuelve a generar.
+
+-- Columnas que mapean las entidades Inscripcion y Curso
+ALTER TABLE inscripciones ADD COLUMN IF NOT EXISTS ciclo_academico VARCHAR(20);
+ALTER TABLE inscripciones ADD COLUMN IF NOT EXISTS nota_final DOUBLE PRECISION;
+ALTER TABLE cursos ADD COLUMN IF NOT EXISTS profesor_id INTEGER REFERENCES profesores(id);
+ALTER TABLE cursos ADD COLUMN IF NOT EXISTS nivel_dificultad VARCHAR(20);
+ALTER TABLE cursos ADD COLUMN IF NOT EXISTS carga_academica VARCHAR(20);
+
+-- Suma y cantidad de notas e inscritos por curso y ciclo ('' = sin ciclo)
+CREATE TABLE resumen_notas_curso (
+    id BIGSERIAL PRIMARY KEY,
+    curso_id INTEGER NOT NULL REFERENCES cursos(id) ON DELETE CASCADE,
+    ciclo_academico VARCHAR(20) NOT NULL,
+    suma_notas NUMERIC NOT NULL DEFAULT 0,
+    notas_registradas BIGINT NOT NULL DEFAULT 0,
+    inscritos BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT uq_resumen_notas_curso UNIQUE (curso_id, ciclo_academico)
+);
+
+-- Inscripciones de cada estudiante por ciclo: permite llevar la cuenta de estudiantes distintos
+CREATE TABLE resumen_ciclo_estudiante (
+    ciclo_academico VARCHAR(20) NOT NULL,
+    estudiante_id INTEGER NOT NULL,
+    inscripciones BIGINT NOT NULL,
+    PRIMARY KEY (ciclo_academico, estudiante_id)
+);
+
+-- Estudiantes distintos por ciclo
+CREATE TABLE resumen_estudiantes_ciclo (
+    ciclo_academico VARCHAR(20) PRIMARY KEY,
+    estudiantes BIGINT NOT NULL
+);
+
+-- Cursos que imparte cada profesor
+CREATE TABLE resumen_cursos_profesor (
+    profesor_id INTEGER PRIMARY KEY REFERENCES profesores(id) ON DELETE CASCADE,
+    cursos BIGINT NOT NULL
+);
+
+-- Suma (signo 1) o resta (signo -1) las inscripciones de una sentencia en los resúmenes; las
+-- filas que quedan en cero se borran. Cada resumen se actualiza con una sola sentencia que
+-- agrega los cambios por clave y escribe las filas en orden de clave: una sentencia bloquea
+-- cada fila una vez y todas las toman en el mismo orden, así que dos escrituras concurrentes
+-- esperan una a la otra en lugar de bloquearse mutuamente.
+CREATE OR REPLACE FUNCTION resumen_aplicar_inscripciones(p_cursos INTEGER[], p_estudiantes INTEGER[],
+                                                        p_ciclos VARCHAR[], p_notas DOUBLE PRECISION[],
+                                                        p_signos INTEGER[]) RETURNS VOID AS $$
+BEGIN
+    INSERT INTO resumen_notas_curso AS r (curso_id, ciclo_academico, suma_notas, notas_registradas, inscritos)
+    SELECT c.curso_id, c.ciclo, SUM(c.signo * COALESCE(c.nota::NUMERIC, 0)),
+           SUM(c.signo * (c.nota IS NOT NULL)::INTEGER), SUM(c.signo)
+    FROM unnest(p_cursos, p_ciclos, p_notas, p_signos) AS c(curso_id, ciclo, nota, signo)
+    GROUP BY c.curso_id, c.ciclo
+    ORDER BY c.curso_id, c.ciclo
+    ON CONFLICT (curso_id, ciclo_academico) DO UPDATE
+        SET suma_notas = r.suma_notas + EXCLUDED.suma_notas,
+            notas_registradas = r.notas_registradas + EXCLUDED.notas_registradas,
+            inscritos = r.inscritos + EXCLUDED.inscritos;
+    DELETE FROM resumen_notas_curso
+    WHERE inscritos = 0
+      AND (curso_id, ciclo_academico) IN (SELECT * FROM unnest(p_cursos, p_ciclos));
+
+    -- El estudiante cuenta en el ciclo desde su primera inscripción hasta que se elimina la
+    -- última: el total del ciclo cambia con los estudiantes que pasan de 0 a más o de más a 0
+    WITH cambios AS (
+        SELECT c.ciclo, c.estudiante_id, SUM(c.signo) AS cambio
+        FROM unnest(p_ciclos, p_estudiantes, p_signos) AS c(ciclo, estudiante_id, signo)
+        GROUP BY c.ciclo, c.estudiante_id
+        HAVING SUM(c.signo) <> 0
+    ), aplicados AS (
+        INSERT INTO resumen_ciclo_estudiante AS r (ciclo_academico, estudiante_id, inscripciones)
+        SELECT ciclo, estudiante_id, cambio FROM cambios ORDER BY ciclo, estudiante_id
+        ON CONFLICT (ciclo_academico, estudiante_id) DO UPDATE SET inscripciones = r.inscripciones + EXCLUDED.inscripciones
+        RETURNING r.ciclo_academico, r.estudiante_id, r.inscripciones
+    )
+    INSERT INTO resumen_estudiantes_ciclo AS r (ciclo_academico, estudiantes)
+    SELECT a.ciclo_academico,
+           SUM(CASE WHEN a.inscripciones > 0 AND a.inscripciones - c.cambio = 0 THEN 1
+                    WHEN a.inscripciones = 0 AND a.inscripciones - c.cambio > 0 THEN -1
+                    ELSE 0 END) AS estudiantes
+    FROM aplicados a
+    JOIN cambios c ON c.ciclo = a.ciclo_academico AND c.estudiante_id = a.estudiante_id
+    GROUP BY a.ciclo_academico
+    HAVING SUM(CASE WHEN a.inscripciones > 0 AND a.inscripciones - c.cambio = 0 THEN 1
+                    WHEN a.inscripciones = 0 AND a.inscripciones - c.cambio > 0 THEN -1
+                    ELSE 0 END) <> 0
+    ORDER BY a.ciclo_academico
+    ON CONFLICT (ciclo_academico) DO UPDATE SET estudiantes = r.estudiantes + EXCLUDED.estudiantes;
+
+    DELETE FROM resumen_ciclo_estudiante
+    WHERE inscripciones = 0
+      AND (ciclo_academico, estudiante_id) IN (SELECT * FROM unnest(p_ciclos, p_estudiantes));
+    DELETE FROM resumen_estudiantes_ciclo WHERE estudiantes = 0 AND ciclo_academico = ANY(p_ciclos);
+END;
+$$ LANGUAGE plpgsql;
+
+-- Un disparo por sentencia: las filas afectadas llegan en las tablas de transición y se
+-- aplican juntas, así un lote de inscripciones actualiza cada fila de resumen una sola vez
+CREATE OR REPLACE FUNCTION fn_resumen_inscripciones() RETURNS TRIGGER AS $$
+DECLARE
+    v_cursos INTEGER[];
+    v_estudiantes INTEGER[];
+    v_ciclos VARCHAR[];
+    v_notas DOUBLE PRECISION[];
+    v_signos INTEGER[];
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        SELECT array_agg(curso_id), array_agg(estudiante_id), array_agg(COALESCE(ciclo_academico, '')),
+               array_agg(nota_final), array_agg(1)
+        INTO v_cursos, v_estudiantes, v_ciclos, v_notas, v_signos
+        FROM nuevas;
+    ELSIF TG_OP = 'DELETE' THEN
+        SELECT array_agg(curso_id), array_agg(estudiante_id), array_agg(COALESCE(ciclo_academico, '')),
+               array_agg(nota_final), array_agg(-1)
+        INTO v_cursos, v_estudiantes, v_ciclos, v_notas, v_signos
+        FROM anteriores;
+    ELSE
+        -- Hibernate actualiza todas las columnas: solo cuentan las filas que cambian el resumen,
+        -- que se restan con sus valores anteriores y se suman con los nuevos
+        SELECT array_agg(c.curso_id), array_agg(c.estudiante_id), array_agg(COALESCE(c.ciclo_academico, '')),
+               array_agg(c.nota_final), array_agg(c.signo)
+        INTO v_cursos, v_estudiantes, v_ciclos, v_notas, v_signos
+        FROM anteriores a
+        JOIN nuevas n ON n.id = a.id
+        CROSS JOIN LATERAL (VALUES (a.curso_id, a.estudiante_id, a.ciclo_academico, a.nota_final, -1),
+                                   (n.curso_id, n.estudiante_id, n.ciclo_academico, n.nota_final, 1))
+            AS c(curso_id, estudiante_id, ciclo_academico, nota_final, signo)
+        WHERE (a.curso_id, a.estudiante_id, a.ciclo_academico, a.nota_final)
+                IS DISTINCT FROM (n.curso_id, n.estudiante_id, n.ciclo_academico, n.nota_final);
+    END IF;
+    IF v_signos IS NOT NULL THEN
+        PERFORM resumen_aplicar_inscripciones(v_cursos, v_estudiantes, v_ciclos, v_notas, v_signos);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_resumen_inscripciones_insercion
+    AFTER INSERT ON inscripciones REFERENCING NEW TABLE AS nuevas
+    FOR EACH STATEMENT EXECUTE FUNCTION fn_resumen_inscripciones();
+
+CREATE TRIGGER trg_resumen_inscripciones_actualizacion
+    AFTER UPDATE ON inscripciones REFERENCING OLD TABLE AS anteriores NEW TABLE AS nuevas
+    FOR EACH STATEMENT EXECUTE FUNCTION fn_resumen_inscripciones();
+
+CREATE TRIGGER trg_resumen_inscripciones_eliminacion
+    AFTER DELETE ON inscripciones REFERENCING OLD TABLE AS anteriores
+    FOR EACH STATEMENT EXECUTE FUNCTION fn_resumen_inscripciones();
+
+CREATE OR REPLACE FUNCTION fn_resumen_cursos() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'UPDATE' AND OLD.profesor_id IS NOT DISTINCT FROM NEW.profesor_id THEN
+        RETURN NULL;
+    END IF;
+    IF TG_OP IN ('UPDATE', 'DELETE') AND OLD.profesor_id IS NOT NULL THEN
+        UPDATE resumen_cursos_profesor SET cursos = cursos - 1 WHERE profesor_id = OLD.profesor_id;
+        DELETE FROM resumen_cursos_profesor WHERE profesor_id = OLD.profesor_id AND cursos = 0;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') AND NEW.profesor_id IS NOT NULL THEN
+        INSERT INTO resumen_cursos_profesor AS r (profesor_id, cursos)
+        VALUES (NEW.profesor_id, 1)
+        ON CONFLICT (profesor_id) DO UPDATE SET cursos = r.cursos + 1;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_resumen_cursos
+    AFTER INSERT OR UPDATE OR DELETE ON cursos
+    FOR EACH ROW EXECUTE FUNCTION fn_resumen_cursos();
+
+-- ============ RESUMEN DIARIO PARA REPORTES POR RANGO DE FECHAS ============
+-- Inscripciones, notas registradas y suma de notas por día de inscripción, curso y ciclo,
+-- para que un rango de un año lea como máximo 365 filas por curso y ciclo en lugar de las
+-- inscripciones. No lo mantienen triggers fila a fila: lo actualiza un proceso programado
+-- (app.reportes.diario.intervalo) que vuelve a agregar los días desde la marca de agua y los
+-- días anteriores marcados como pendientes. POST /api/reportes/resumen-diario/actualizar
+-- lo ejecuta en el momento y, con reconstruir=true, lo regenera completo. Las escrituras
+-- sobre inscripciones no bloquean ni esperan nada de este proceso.
+
+CREATE INDEX idx_inscripciones_fecha ON inscripciones(fecha_inscripcion);
+
+CREATE TABLE resumen_diario_inscripciones (
+    id BIGSERIAL PRIMARY KEY,
+    fecha DATE NOT NULL,
+    curso_id INTEGER NOT NULL REFERENCES cursos(id) ON DELETE CASCADE,
+    ciclo_academico VARCHAR(20) NOT NULL,
+    inscripciones BIGINT NOT NULL,
+    notas_registradas BIGINT NOT NULL,
+    suma_notas NUMERIC NOT NULL,
+    CONSTRAINT uq_resumen_diario_inscripciones UNIQUE (fecha, curso_id, ciclo_academico)
+);
+
+-- Marca de agua (una sola fila): los días anteriores a "hasta" ya están agregados
+CREATE TABLE resumen_diario_marca (
+    id SMALLINT PRIMARY KEY CHECK (id = 1),
+    hasta DATE,
+    actualizado TIMESTAMP
+);
+INSERT INTO resumen_diario_marca (id) VALUES (1);
+
+-- Días con inscripciones insertadas, modificadas o eliminadas desde la última actualización
+-- (notas que se registran al cerrar el ciclo, fechas cargadas tarde). Sin clave única a
+-- propósito: las escrituras concurrentes nunca esperan unas a otras por un mismo día; el
+-- proceso toma y borra las filas al empezar y descarta las repeticiones.
+CREATE TABLE resumen_diario_pendientes (
+    fecha DATE NOT NULL
+);
+
+-- Por sentencia (con las filas de transición) y no por fila: una inserción por lotes registra
+-- cada día una sola vez. Se registran todos los días, sin consultar la marca: leerla sin
+-- bloqueo y descartar los días posteriores perdería la escritura que confirma mientras el
+-- proceso mueve la marca más allá de su día, y bloquearla detendría todas las escrituras
+-- durante la actualización.
+CREATE OR REPLACE FUNCTION fn_resumen_diario_pendientes() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO resumen_diario_pendientes (fecha)
+        SELECT DISTINCT fecha_inscripcion FROM nuevas;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO resumen_diario_pendientes (fecha)
+        SELECT DISTINCT fecha_inscripcion FROM anteriores;
+    ELSE
+        -- Hibernate actualiza todas las columnas: solo cuentan las filas que cambian el resumen
+        INSERT INTO resumen_diario_pendientes (fecha)
+        SELECT DISTINCT d.fecha
+        FROM anteriores a
+        JOIN nuevas n ON n.id = a.id
+        CROSS JOIN LATERAL (VALUES (a.fecha_inscripcion), (n.fecha_inscripcion)) d(fecha)
+        WHERE (a.fecha_inscripcion, a.curso_id, a.ciclo_academico, a.nota_final)
+                IS DISTINCT FROM (n.fecha_inscripcion, n.curso_id, n.ciclo_academico, n.nota_final);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Una tabla de transición solo puede declararse en un trigger de un único evento
+CREATE TRIGGER trg_resumen_diario_insercion
+    AFTER INSERT ON inscripciones REFERENCING NEW TABLE AS nuevas
+    FOR EACH STATEMENT EXECUTE FUNCTION fn_resumen_diario_pendientes();
+
+CREATE TRIGGER trg_resumen_diario_actualizacion
+    AFTER UPDATE ON inscripciones REFERENCING OLD TABLE AS anteriores NEW TABLE AS nuevas
+    FOR EACH STATEMENT EXECUTE FUNCTION fn_resumen_diario_pendientes();
+
+CREATE TRIGGER trg_resumen_diario_eliminacion
+    AFTER DELETE ON inscripciones REFERENCING OLD TABLE AS anteriores
+    FOR EACH STATEMENT EXECUTE FUNCTION fn_resumen_diario_pendientes();
+
+-- ============ NOTAS MODIFICADAS PARA LA ANALÍTICA EN MEMORIA ============
+-- Inscripciones cuya nota, curso o ciclo cambió. La analítica en memoria (/api/reportes/olap)
+-- carga las inscripciones nuevas por ID; estas filas le avisan de las ya cargadas que
+-- cambiaron. Cada instancia de la aplicación lee las posteriores a su propia marca (el ID) y
+-- aplica la nota actual; al reconstruir se borran las más antiguas que dos intervalos de
+-- reconstrucción, que ya están en cualquier tabla vigente.
+CREATE TABLE analitica_notas_modificadas (
+    id BIGSERIAL PRIMARY KEY,
+    inscripcion_id INTEGER NOT NULL,
+    registrado TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE OR REPLACE FUNCTION fn_analitica_notas_modificadas() RETURNS TRIGGER AS $$
+BEGIN
+    -- Hibernate actualiza todas las columnas: solo cuentan las filas que cambian la analítica
+    INSERT INTO analitica_notas_modificadas (inscripcion_id)
+    SELECT n.id
+    FROM anteriores a
+    JOIN nuevas n ON n.id = a.id
+    WHERE (a.curso_id, a.ciclo_academico, a.nota_final)
+            IS DISTINCT FROM (n.curso_id, n.ciclo_academico, n.nota_final);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_analitica_notas_modificadas
+    AFTER UPDATE ON inscripciones REFERENCING OLD TABLE AS anteriores NEW TABLE AS nuevas
+    FOR EACH STATEMENT EXECUTE FUNCTION fn_analitica_notas_modificadas();
+
+-- ============ CUPOS DE INSCRIPCIÓN ============
+-- Inscripciones que admite cada curso (NULL = sin límite). El cupo no se verifica aquí, con
+-- un bloqueo de la fila del curso por inscripción: la aplicación lleva los lugares ocupados
+-- en memoria (CuposCursos), los reconcilia con COUNT(*) de inscripciones al iniciar y
+-- reserva cada lugar antes de insertar.
+ALTER TABLE cursos ADD COLUMN IF NOT EXISTS cupo_maximo INTEGER CHECK (cupo_maximo > 0);
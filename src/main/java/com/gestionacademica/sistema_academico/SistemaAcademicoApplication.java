@@ -2,8 +2,10 @@ package com.gestionacademica.sistema_academico;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class SistemaAcademicoApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,174 @@
+package com.gestionacademica.sistema_academico.config;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caché de segundo nivel de Hibernate en memoria local: cada región es un mapa LRU
+ * acotado por cantidad de entradas y con un TTL.
+ *
+ * Las regiones se configuran con propiedades de Hibernate (spring.jpa.properties.*):
+ * app.cache.regiones.&lt;region&gt;.tamano-maximo y app.cache.regiones.&lt;region&gt;.ttl.
+ * La región "default" da los valores de las que no se configuran.
+ *
+ * La región de marcas de tiempo (tablas modificadas, usada por la caché de consultas)
+ * no se acota ni expira: si perdiera una marca, una consulta cacheada podría
+ * devolver resultados anteriores a la modificación.
+ */
+public class FabricaRegionesCache extends RegionFactoryTemplate {
+
+    private static final long serialVersionUID = 1L;
+
+    // Regiones de las entidades, colecciones y consultas cacheadas
+    public static final String CURSO = "curso";
+    public static final String PROFESOR = "profesor";
+    public static final String PROFESOR_CURSOS = "profesor.cursos";
+    public static final String CONSULTAS_CATALOGO = "catalogo.consultas";
+
+    static final String PREFIJO = "app.cache.regiones.";
+    static final String REGION_POR_DEFECTO = "default";
+
+    private static final int TAMAÑO_MAXIMO_POR_DEFECTO = 10_000;
+    private static final Duration TTL_POR_DEFECTO = Duration.ofMinutes(10);
+
+    private final Map<String, Integer> tamaños = new HashMap<>();
+    private final Map<String, Duration> ttls = new HashMap<>();
+    private final Map<String, AlmacenRegion> almacenes = new ConcurrentHashMap<>();
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+        configValues.forEach((clave, valor) -> {
+            if (!clave.startsWith(PREFIJO)) {
+                return;
+            }
+            String propiedad = clave.substring(PREFIJO.length());
+            if (propiedad.endsWith(".tamano-maximo")) {
+                tamaños.put(propiedad.substring(0, propiedad.length() - ".tamano-maximo".length()),
+                        Integer.parseInt(String.valueOf(valor).trim()));
+            } else if (propiedad.endsWith(".ttl")) {
+                ttls.put(propiedad.substring(0, propiedad.length() - ".ttl".length()),
+                        Duration.parse(String.valueOf(valor).trim()));
+            }
+        });
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        almacenes.values().forEach(AlmacenRegion::release);
+        almacenes.clear();
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                    DomainDataRegionBuildingContext buildingContext) {
+        return crearAlmacen(regionConfig.getRegionName());
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName,
+                                                                  SessionFactoryImplementor sessionFactory) {
+        return crearAlmacen(regionName);
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName,
+                                                                SessionFactoryImplementor sessionFactory) {
+        AlmacenRegion almacen = new AlmacenRegion(Integer.MAX_VALUE, Duration.ZERO);
+        almacenes.put(regionName, almacen);
+        return almacen;
+    }
+
+    private AlmacenRegion crearAlmacen(String region) {
+        int tamañoMaximo = tamaños.getOrDefault(region,
+                tamaños.getOrDefault(REGION_POR_DEFECTO, TAMAÑO_MAXIMO_POR_DEFECTO));
+        Duration ttl = ttls.getOrDefault(region, ttls.getOrDefault(REGION_POR_DEFECTO, TTL_POR_DEFECTO));
+
+        AlmacenRegion almacen = new AlmacenRegion(tamañoMaximo, ttl);
+        almacenes.put(region, almacen);
+        return almacen;
+    }
+
+    /**
+     * Cantidad de entradas de la región (0 si aún no se ha creado)
+     */
+    public int tamañoRegion(String region) {
+        AlmacenRegion almacen = almacenes.get(region);
+        return almacen == null ? 0 : almacen.tamaño();
+    }
+
+    /**
+     * Almacén de una región: LRU por orden de acceso con vencimiento por entrada
+     * (TTL cero = sin vencimiento)
+     */
+    static final class AlmacenRegion implements DomainDataStorageAccess {
+
+        private record Entrada(Object valor, long expira) {}
+
+        private final long ttl;
+        private final LinkedHashMap<Object, Entrada> entradas;
+
+        AlmacenRegion(int tamañoMaximo, Duration ttl) {
+            this.ttl = ttl.toNanos();
+            this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Object, Entrada> masAntigua) {
+                    return size() > tamañoMaximo;
+                }
+            };
+        }
+
+        @Override
+        public synchronized Object getFromCache(Object key, SharedSessionContractImplementor session) {
+            Entrada entrada = entradas.get(key);
+            if (entrada == null) {
+                return null;
+            }
+            if (ttl > 0 && System.nanoTime() - entrada.expira() >= 0) {
+                entradas.remove(key);
+                return null;
+            }
+            return entrada.valor();
+        }
+
+        @Override
+        public synchronized void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            entradas.put(key, new Entrada(value, ttl > 0 ? System.nanoTime() + ttl : 0));
+        }
+
+        @Override
+        public boolean contains(Object key) {
+            return getFromCache(key, null) != null;
+        }
+
+        @Override
+        public synchronized void evictData() {
+            entradas.clear();
+        }
+
+        @Override
+        public synchronized void evictData(Object key) {
+            entradas.remove(key);
+        }
+
+        @Override
+        public void release() {
+            evictData();
+        }
+
+        synchronized int tamaño() {
+            return entradas.size();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.gestionacademica.sistema_academico.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Expone en Actuator las estadísticas de la caché de segundo nivel por región:
+ * cache.hibernate.consultas{region, resultado}, cache.hibernate.escrituras{region}
+ * y cache.hibernate.entradas{region}. Requiere hibernate.generate_statistics=true.
+ */
+@Component
+public class MetricasCacheHibernate implements MeterBinder {
+
+    private static final List<String> REGIONES = List.of(
+            FabricaRegionesCache.CURSO,
+            FabricaRegionesCache.PROFESOR,
+            FabricaRegionesCache.PROFESOR_CURSOS,
+            FabricaRegionesCache.CONSULTAS_CATALOGO);
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Statistics estadisticas = sessionFactory.getStatistics();
+
+        for (String region : REGIONES) {
+            contador("cache.hibernate.consultas", region, estadisticas, CacheRegionStatistics::getHitCount)
+                    .tag("resultado", "acierto").register(registry);
+            contador("cache.hibernate.consultas", region, estadisticas, CacheRegionStatistics::getMissCount)
+                    .tag("resultado", "fallo").register(registry);
+            contador("cache.hibernate.escrituras", region, estadisticas, CacheRegionStatistics::getPutCount)
+                    .register(registry);
+
+            Gauge.builder("cache.hibernate.entradas", sessionFactory, fabrica -> entradas(fabrica, region))
+                    .tag("region", region)
+                    .register(registry);
+        }
+    }
+
+    private static FunctionCounter.Builder<Statistics> contador(String nombre, String region,
+                                                                Statistics estadisticas,
+                                                                ToLongFunction<CacheRegionStatistics> valor) {
+        // La región de consultas se crea con la primera consulta cacheada: hasta entonces vale 0
+        return FunctionCounter.builder(nombre, estadisticas, stats -> {
+            CacheRegionStatistics deRegion = stats.getCacheRegionStatistics(region);
+            return deRegion == null ? 0 : valor.applyAsLong(deRegion);
+        }).tag("region", region);
+    }
+
+    private static double entradas(SessionFactoryImplementor sessionFactory, String region) {
+        return sessionFactory.getCache().getRegionFactory() instanceof FabricaRegionesCache fabrica
+                ? fabrica.tamañoRegion(region)
+                : 0;
+    }
+}
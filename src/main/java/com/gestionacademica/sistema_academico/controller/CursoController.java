@@ -1,14 +1,18 @@
 package com.gestionacademica.sistema_academico.controller;
 
+import com.gestionacademica.sistema_academico.dto.PaginaDTO;
+import com.gestionacademica.sistema_academico.dto.SugerenciaDTO;
 import com.gestionacademica.sistema_academico.dto.CursoDTO;
 import com.gestionacademica.sistema_academico.entity.Curso;
 import com.gestionacademica.sistema_academico.service.CursoService;
+import com.gestionacademica.sistema_academico.service.SoporteTrigramas;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,6 +25,9 @@ public class CursoController {
     @Autowired
     private CursoService cursoService;
     
+    @Autowired
+    private SoporteTrigramas soporteTrigramas;
+    
     // ============ ENDPOINTS CRUD ORIGINALES (Entity) ============
     
     /**
@@ -91,33 +98,48 @@ public class CursoController {
     /**
      * GET - Obtener todos los cursos (DTO)
      * Endpoint: GET /api/cursos
-     * Parámetros opcionales: 
+     * Parámetros opcionales (se pueden combinar; deben cumplirse todos): 
      * - ?creditos=4 (filtro por número de créditos)
      * - ?nivel=basico (filtro por nivel de dificultad)
      * - ?carga=media (filtro por carga académica)
+     * - ?nombre=calculo (filtro por nombre)
+     * - ?orden=creditos,desc (orden del resultado filtrado)
+     * Sin filtros, la respuesta se pagina por cursor:
+     * - ?limite=50&cursor=...&incluirTotal=true
      */
     @GetMapping
     public ResponseEntity<?> obtenerTodos(@RequestParam(required = false) Integer creditos,
                                          @RequestParam(required = false) String nivel,
-                                         @RequestParam(required = false) String carga) {
+                                         @RequestParam(required = false) String carga,
+                                         @RequestParam(required = false) String nombre,
+                                         @RequestParam(required = false) String orden,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer limite,
+                                         @RequestParam(defaultValue = "false") boolean incluirTotal) {
         try {
-            List<CursoDTO> cursos;
-            String filtroAplicado = null;
-            
-            // Aplicar filtros si se proporcionan (prioridad: creditos > nivel > carga)
+            List<String> filtros = new ArrayList<>();
             if (creditos != null) {
-                cursos = cursoService.buscarPorCreditosDTO(creditos);
-                filtroAplicado = "créditos: " + creditos;
-            } else if (nivel != null && !nivel.trim().isEmpty()) {
-                cursos = cursoService.buscarPorNivelDificultadDTO(nivel);
-                filtroAplicado = "nivel: " + nivel;
-            } else if (carga != null && !carga.trim().isEmpty()) {
-                cursos = cursoService.buscarPorCargaAcademicaDTO(carga);
-                filtroAplicado = "carga académica: " + carga;
-            } else {
-                cursos = cursoService.obtenerTodosDTO();
+                filtros.add("créditos: " + creditos);
+            }
+            if (nivel != null && !nivel.trim().isEmpty()) {
+                filtros.add("nivel: " + nivel);
+            }
+            if (carga != null && !carga.trim().isEmpty()) {
+                filtros.add("carga académica: " + carga);
+            }
+            if (nombre != null && !nombre.trim().isEmpty()) {
+                filtros.add("nombre: " + nombre);
             }
             
+            if (filtros.isEmpty() && (orden == null || orden.trim().isEmpty())) {
+                PaginaDTO<CursoDTO> pagina = cursoService.obtenerPaginaDTO(cursor, limite, incluirTotal);
+                return respuestaPaginada(pagina, "Cursos obtenidos exitosamente");
+            }
+            
+            // Todos los filtros se combinan en una sola consulta
+            List<CursoDTO> cursos = cursoService.filtrarDTO(creditos, nivel, carga, nombre, orden);
+            String filtroAplicado = filtros.isEmpty() ? null : String.join(", ", filtros);
+            
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Cursos obtenidos exitosamente");
@@ -294,6 +316,75 @@ public class CursoController {
         }
     }
     
+    /**
+     * GET - Buscar cursos por código o nombre ordenados por similitud (pg_trgm o índice en memoria)
+     * Endpoint: GET /api/cursos/buscar/similitud
+     * Parámetros: ?termino=gonz&limite=20
+     */
+    @GetMapping("/buscar/similitud")
+    public ResponseEntity<?> buscarPorSimilitud(@RequestParam String termino,
+                                               @RequestParam(required = false) Integer limite) {
+        try {
+            List<CursoDTO> cursos = cursoService.buscarPorSimilitudDTO(termino, limite);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Búsqueda por similitud completada");
+            response.put("data", cursos);
+            response.put("total", cursos.size());
+            response.put("modo", soporteTrigramas.modoActual());
+            
+            return new ResponseEntity<>(response, HttpStatus.OK);
+            
+        } catch (Exception e) {
+            return handleException(e);
+        }
+    }
+    
+    /**
+     * GET - Autocompletar cursos por código o nombre (índice de prefijos en memoria)
+     * Endpoint: GET /api/cursos/autocompletar
+     * Parámetros: ?prefijo=MAT1&limite=10
+     */
+    @GetMapping("/autocompletar")
+    public ResponseEntity<?> autocompletar(@RequestParam String prefijo,
+                                           @RequestParam(required = false) Integer limite) {
+        try {
+            List<SugerenciaDTO> sugerencias = cursoService.autocompletar(prefijo, limite);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Sugerencias obtenidas exitosamente");
+            response.put("data", sugerencias);
+            response.put("total", sugerencias.size());
+            
+            return new ResponseEntity<>(response, HttpStatus.OK);
+            
+        } catch (Exception e) {
+            return handleException(e);
+        }
+    }
+    
+    /**
+     * Construye la respuesta estándar para una página obtenida por cursor
+     */
+    private ResponseEntity<?> respuestaPaginada(PaginaDTO<?> pagina, String mensaje) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", mensaje);
+        response.put("data", pagina.getData());
+        response.put("siguienteCursor", pagina.getSiguienteCursor());
+        response.put("hayMas", pagina.isHayMas());
+        response.put("limite", pagina.getLimite());
+        
+        // El total exacto solo se incluye si se solicitó (consulta de conteo separada)
+        if (pagina.getTotal() != null) {
+            response.put("total", pagina.getTotal());
+        }
+        
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+    
     /**
      * Maneja todas las excepciones de manera centralizada
      */
@@ -1,14 +1,31 @@
 package com.gestionacademica.sistema_academico.controller;
 
+import com.gestionacademica.sistema_academico.dto.PaginaDTO;
+import com.gestionacademica.sistema_academico.dto.SugerenciaDTO;
 import com.gestionacademica.sistema_academico.dto.EstudianteDTO;
+import com.gestionacademica.sistema_academico.dto.ImportacionResultadoDTO;
 import com.gestionacademica.sistema_academico.entity.Estudiante;
 import com.gestionacademica.sistema_academico.service.EstudianteService;
+import com.gestionacademica.sistema_academico.service.ExportacionEstudiantesService;
+import com.gestionacademica.sistema_academico.service.ImportacionEstudiantesService;
+import com.gestionacademica.sistema_academico.service.SoporteTrigramas;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,6 +38,15 @@ public class EstudianteController {
     @Autowired
     private EstudianteService estudianteService;
     
+    @Autowired
+    private SoporteTrigramas soporteTrigramas;
+    
+    @Autowired
+    private ExportacionEstudiantesService exportacionEstudiantesService;
+    
+    @Autowired
+    private ImportacionEstudiantesService importacionEstudiantesService;
+    
     // ============ ENDPOINTS CRUD ORIGINALES (Entity) ============
     
     /**
@@ -44,6 +70,36 @@ public class EstudianteController {
         }
     }
     
+    /**
+     * POST - Importación masiva de estudiantes desde un archivo CSV
+     * Endpoint: POST /api/estudiantes/importar (multipart, campo "archivo")
+     * Encabezado: carnet,nombre,apellido,email,telefono,fechaNacimiento,fechaIngreso
+     */
+    @PostMapping(value = "/importar", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> importarEstudiantes(@RequestParam("archivo") MultipartFile archivo) {
+        try {
+            if (archivo.isEmpty()) {
+                throw new IllegalArgumentException("El archivo está vacío");
+            }
+            
+            ImportacionResultadoDTO resultado;
+            try (Reader contenido = new InputStreamReader(archivo.getInputStream(), StandardCharsets.UTF_8)) {
+                resultado = importacionEstudiantesService.importarCsv(contenido);
+            }
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Importación completada: " + resultado.getImportadas() + " estudiantes importados, "
+                    + resultado.getRechazadas() + " filas rechazadas");
+            response.put("data", resultado);
+            
+            return new ResponseEntity<>(response, HttpStatus.OK);
+            
+        } catch (Exception e) {
+            return handleException(e);
+        }
+    }
+    
     /**
      * PUT - Actualizar estudiante existente
      * Endpoint: PUT /api/estudiantes/{id}
@@ -91,39 +147,63 @@ public class EstudianteController {
     /**
      * GET - Obtener todos los estudiantes (DTO)
      * Endpoint: GET /api/estudiantes
-     * Parámetros opcionales: 
-     * - ?apellido=gonzalez (filtro por apellido)
-     * - ?semestre=5 (filtro por semestre actual)
-     * - ?edadMinima=18&edadMaxima=25 (filtro por rango de edad)
+     * Parámetros opcionales (se pueden combinar; deben cumplirse todos): 
+     * - ?apellido=gonzalez (filtro por nombre o apellido)
+     * - ?semestre=5° Semestre (filtro por semestre actual)
+     * - ?edadMinima=18&edadMaxima=25 (filtro por rango de edad, cualquiera de los extremos)
+     * - ?anioIngreso=2023 (filtro por año de ingreso)
+     * - ?dominioEmail=universidad.edu (filtro por dominio del email)
+     * - ?orden=apellido,desc (orden del resultado filtrado)
+     * - ?limite=50 (máximo de filas del resultado filtrado; hayMas indica si quedaron más)
+     * Sin filtros, la respuesta se pagina por cursor:
+     * - ?limite=50&cursor=...&incluirTotal=true
      */
     @GetMapping
     public ResponseEntity<?> obtenerTodos(@RequestParam(required = false) String apellido,
                                          @RequestParam(required = false) String semestre,
                                          @RequestParam(required = false) Integer edadMinima,
-                                         @RequestParam(required = false) Integer edadMaxima) {
+                                         @RequestParam(required = false) Integer edadMaxima,
+                                         @RequestParam(name = "anioIngreso", required = false) Integer añoIngreso,
+                                         @RequestParam(required = false) String dominioEmail,
+                                         @RequestParam(required = false) String orden,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer limite,
+                                         @RequestParam(defaultValue = "false") boolean incluirTotal) {
         try {
-            List<EstudianteDTO> estudiantes;
-            String filtroAplicado = null;
-            
-            // Aplicar filtros si se proporcionan (prioridad: apellido > semestre > rango edad)
+            List<String> filtros = new ArrayList<>();
             if (apellido != null && !apellido.trim().isEmpty()) {
-                estudiantes = estudianteService.buscarPorApellidoDTO(apellido);
-                filtroAplicado = "apellido: " + apellido;
-            } else if (semestre != null && !semestre.trim().isEmpty()) {
-                estudiantes = estudianteService.buscarPorSemestreDTO(semestre);
-                filtroAplicado = "semestre: " + semestre;
-            } else if (edadMinima != null && edadMaxima != null) {
-                estudiantes = estudianteService.buscarPorRangoEdadDTO(edadMinima, edadMaxima);
-                filtroAplicado = "edad entre " + edadMinima + " y " + edadMaxima + " años";
-            } else {
-                estudiantes = estudianteService.obtenerTodosDTO();
+                filtros.add("apellido: " + apellido);
+            }
+            if (semestre != null && !semestre.trim().isEmpty()) {
+                filtros.add("semestre: " + semestre);
+            }
+            if (edadMinima != null || edadMaxima != null) {
+                filtros.add("edad entre " + (edadMinima != null ? edadMinima : 0) + " y "
+                        + (edadMaxima != null ? edadMaxima : "∞") + " años");
+            }
+            if (añoIngreso != null) {
+                filtros.add("año de ingreso: " + añoIngreso);
+            }
+            if (dominioEmail != null && !dominioEmail.trim().isEmpty()) {
+                filtros.add("dominio de email: " + dominioEmail);
             }
             
+            if (filtros.isEmpty() && (orden == null || orden.trim().isEmpty())) {
+                PaginaDTO<EstudianteDTO> pagina = estudianteService.obtenerPaginaDTO(cursor, limite, incluirTotal);
+                return respuestaPaginada(pagina, "Estudiantes obtenidos exitosamente");
+            }
+            
+            // Todos los filtros se combinan en una sola consulta, acotada al límite de la paginación
+            PaginaDTO<EstudianteDTO> estudiantes = estudianteService.filtrarDTO(
+                    apellido, semestre, edadMinima, edadMaxima, añoIngreso, dominioEmail, orden, limite);
+            String filtroAplicado = filtros.isEmpty() ? null : String.join(", ", filtros);
+            
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Estudiantes obtenidos exitosamente");
-            response.put("data", estudiantes);
-            response.put("total", estudiantes.size());
+            response.put("data", estudiantes.getData());
+            response.put("hayMas", estudiantes.isHayMas());
+            response.put("limite", estudiantes.getLimite());
             
             // Agregar información del filtro aplicado
             if (filtroAplicado != null) {
@@ -137,6 +217,44 @@ public class EstudianteController {
         }
     }
     
+    /**
+     * GET - Exportar el padrón completo de estudiantes en streaming
+     * Endpoint: GET /api/estudiantes/exportar
+     * Parámetro opcional: ?formato=ndjson (valores: ndjson, csv)
+     * El tipo de retorno declara StreamingResponseBody para que Spring MVC lo escriba en streaming;
+     * un formato no soportado lo responde formatoNoSoportado.
+     */
+    @GetMapping("/exportar")
+    public ResponseEntity<StreamingResponseBody> exportar(@RequestParam(defaultValue = "ndjson") String formato,
+                                                          HttpServletRequest request) {
+        String formatoValido = exportacionEstudiantesService.validarFormato(formato);
+        MediaType tipo = ExportacionEstudiantesService.FORMATO_CSV.equals(formatoValido)
+                ? MediaType.parseMediaType("text/csv;charset=UTF-8")
+                : MediaType.parseMediaType("application/x-ndjson;charset=UTF-8");
+        
+        // Solo esta respuesta extiende el tiempo de espera asíncrono (lo usa el StreamingResponseBody)
+        AsyncWebRequest asincrono = WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest();
+        if (asincrono != null) {
+            asincrono.setTimeout(exportacionEstudiantesService.getTiempoMaximo().toMillis());
+        }
+        
+        // Las filas se escriben a medida que se leen; nada se acumula en memoria
+        StreamingResponseBody cuerpo = salida -> exportacionEstudiantesService.exportar(salida, formatoValido);
+        
+        return ResponseEntity.ok()
+                .contentType(tipo)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"estudiantes." + formatoValido + "\"")
+                .body(cuerpo);
+    }
+    
+    /**
+     * Formato de exportación no soportado; el resto de los endpoints maneja sus propias excepciones
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<?> formatoNoSoportado(IllegalArgumentException e) {
+        return handleException(e);
+    }
+    
     /**
      * GET - Obtener estudiante por ID (DTO)
      * Endpoint: GET /api/estudiantes/{id}
@@ -307,17 +425,38 @@ public class EstudianteController {
     /**
      * GET - Obtener estudiantes ordenados por fecha de ingreso (endpoint adicional)
      * Endpoint: GET /api/estudiantes/ordenados/fecha-ingreso
+     * Parámetros opcionales: ?limite=50&cursor=...&incluirTotal=true
      */
     @GetMapping("/ordenados/fecha-ingreso")
-    public ResponseEntity<?> obtenerOrdenadosPorFechaIngreso() {
+    public ResponseEntity<?> obtenerOrdenadosPorFechaIngreso(@RequestParam(required = false) String cursor,
+                                                            @RequestParam(required = false) Integer limite,
+                                                            @RequestParam(defaultValue = "false") boolean incluirTotal) {
         try {
-            List<Estudiante> estudiantes = estudianteService.obtenerOrdenadosPorFechaIngreso();
+            PaginaDTO<Estudiante> pagina = estudianteService.obtenerPaginaOrdenadaPorFechaIngreso(cursor, limite, incluirTotal);
+            return respuestaPaginada(pagina, "Estudiantes ordenados por fecha de ingreso");
+            
+        } catch (Exception e) {
+            return handleException(e);
+        }
+    }
+    
+    /**
+     * GET - Buscar estudiantes por nombre o apellido ordenados por similitud (pg_trgm o índice en memoria)
+     * Endpoint: GET /api/estudiantes/buscar/similitud
+     * Parámetros: ?termino=gonz&limite=20
+     */
+    @GetMapping("/buscar/similitud")
+    public ResponseEntity<?> buscarPorSimilitud(@RequestParam String termino,
+                                               @RequestParam(required = false) Integer limite) {
+        try {
+            List<EstudianteDTO> estudiantes = estudianteService.buscarPorSimilitudDTO(termino, limite);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("message", "Estudiantes ordenados por fecha de ingreso");
+            response.put("message", "Búsqueda por similitud completada");
             response.put("data", estudiantes);
             response.put("total", estudiantes.size());
+            response.put("modo", soporteTrigramas.modoActual());
             
             return new ResponseEntity<>(response, HttpStatus.OK);
             
@@ -326,6 +465,50 @@ public class EstudianteController {
         }
     }
     
+    /**
+     * GET - Autocompletar estudiantes por carnet, nombre o apellido (índice de prefijos en memoria)
+     * Endpoint: GET /api/estudiantes/autocompletar
+     * Parámetros: ?prefijo=gom&limite=10
+     */
+    @GetMapping("/autocompletar")
+    public ResponseEntity<?> autocompletar(@RequestParam String prefijo,
+                                           @RequestParam(required = false) Integer limite) {
+        try {
+            List<SugerenciaDTO> sugerencias = estudianteService.autocompletar(prefijo, limite);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Sugerencias obtenidas exitosamente");
+            response.put("data", sugerencias);
+            response.put("total", sugerencias.size());
+            
+            return new ResponseEntity<>(response, HttpStatus.OK);
+            
+        } catch (Exception e) {
+            return handleException(e);
+        }
+    }
+    
+    /**
+     * Construye la respuesta estándar para una página obtenida por cursor
+     */
+    private ResponseEntity<?> respuestaPaginada(PaginaDTO<?> pagina, String mensaje) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", mensaje);
+        response.put("data", pagina.getData());
+        response.put("siguienteCursor", pagina.getSiguienteCursor());
+        response.put("hayMas", pagina.isHayMas());
+        response.put("limite", pagina.getLimite());
+        
+        // El total exacto solo se incluye si se solicitó (consulta de conteo separada)
+        if (pagina.getTotal() != null) {
+            response.put("total", pagina.getTotal());
+        }
+        
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+    
     /**
      * Maneja todas las excepciones de manera centralizada
      */
@@ -0,0 +1,177 @@
+package com.gestionacademica.sistema_academico.controller;
+
+import com.gestionacademica.sistema_academico.dto.LoteInscripcionesResultadoDTO;
+import com.gestionacademica.sistema_academico.dto.ResultadoInscripcionDTO;
+import com.gestionacademica.sistema_academico.dto.SolicitudInscripcionDTO;
+import com.gestionacademica.sistema_academico.service.InscripcionService;
+import com.gestionacademica.sistema_academico.service.ReservaCuposService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+@RestController
+@RequestMapping("/api/inscripciones")
+@CrossOrigin(origins = "*")
+public class InscripcionController {
+    
+    @Autowired
+    private InscripcionService inscripcionService;
+    
+    @Autowired
+    private ReservaCuposService reservaCuposService;
+    
+    /**
+     * POST - Inscribir un estudiante en un curso
+     * Endpoint: POST /api/inscripciones
+     * Body: {"estudianteId": 1, "cursoId": 2, "cicloAcademico": "2025-1", "fechaInscripcion": "2025-03-01", "notaFinal": null}
+     */
+    @PostMapping
+    public ResponseEntity<?> crearInscripcion(@RequestBody SolicitudInscripcionDTO solicitud) {
+        try {
+            return respuesta(inscripcionService.crearInscripcion(solicitud));
+        } catch (Exception e) {
+            return handleException(e);
+        }
+    }
+    
+    /**
+     * POST - Inscripción por lotes (semana de matrícula). Cada solicitud tiene su resultado,
+     * en el mismo orden; las rechazadas no impiden crear las demás.
+     * Endpoint: POST /api/inscripciones/lote
+     * Body: [{"estudianteId": 1, "cursoId": 2, "cicloAcademico": "2025-1"}, ...]
+     */
+    @PostMapping("/lote")
+    public ResponseEntity<?> crearLote(@RequestBody List<SolicitudInscripcionDTO> solicitudes) {
+        try {
+            LoteInscripcionesResultadoDTO resultado = inscripcionService.crearLote(solicitudes);
+        
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Lote procesado: " + resultado.getCreadas() + " inscripciones creadas, "
+                    + resultado.getRechazadas() + " rechazadas");
+            response.put("data", resultado);
+        
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        
+        } catch (Exception e) {
+            return handleException(e);
+        }
+    }
+    
+    /**
+     * POST - Reservar un lugar en un curso con cupo (apertura de matrícula). El lugar se decide
+     * en memoria, sin bloquear el curso, y la inscripción se escribe en el siguiente lote.
+     * Endpoint: POST /api/inscripciones/reservas?esperar=true
+     * Body: {"estudianteId": 1, "cursoId": 2, "cicloAcademico": "2025-1"}
+     * Con esperar=true (por defecto) responde cuando la inscripción se confirma (201) o se
+     * rechaza; con esperar=false responde 202 apenas se reserva el lugar.
+     */
+    @PostMapping("/reservas")
+    public CompletableFuture<ResponseEntity<?>> reservar(@RequestBody SolicitudInscripcionDTO solicitud,
+                                                         @RequestParam(defaultValue = "true") boolean esperar) {
+        CompletableFuture<ResultadoInscripcionDTO> resultado;
+        try {
+            resultado = reservaCuposService.reservar(solicitud);
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(handleException(e));
+        }
+        
+        if (!esperar && !resultado.isDone()) {
+            return CompletableFuture.completedFuture(respuesta(new ResultadoInscripcionDTO(0,
+                    ReservaCuposService.RESERVADA, null, "Lugar reservado, la inscripción está pendiente de confirmar")));
+        }
+        return resultado.handle((reserva, error) -> error == null ? respuesta(reserva) : handleException(causa(error)));
+    }
+    
+    /**
+     * GET - Cupo máximo, lugares ocupados y disponibles de un curso
+     * Endpoint: GET /api/inscripciones/cupos/{cursoId}
+     */
+    @GetMapping("/cupos/{cursoId}")
+    public ResponseEntity<?> obtenerCupo(@PathVariable Long cursoId) {
+        try {
+            Map<String, Object> cupo = reservaCuposService.obtenerCupo(cursoId);
+            if (cupo == null) {
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", false);
+                response.put("message", "Curso no encontrado con ID: " + cursoId);
+                response.put("error", "NOT_FOUND");
+                return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
+            }
+        
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("data", cupo);
+            response.put("reservasPendientes", reservaCuposService.pendientes());
+        
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        
+        } catch (Exception e) {
+            return handleException(e);
+        }
+    }
+    
+    private ResponseEntity<?> respuesta(ResultadoInscripcionDTO resultado) {
+        boolean aceptada = InscripcionService.CREADA.equals(resultado.getEstado())
+                || ReservaCuposService.RESERVADA.equals(resultado.getEstado());
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", aceptada);
+        response.put("message", resultado.getMensaje());
+        response.put("data", resultado);
+        if (!aceptada) {
+            response.put("error", resultado.getEstado());
+        }
+        
+        return new ResponseEntity<>(response, estadoHttp(resultado.getEstado()));
+    }
+    
+    private static HttpStatus estadoHttp(String estado) {
+        return switch (estado) {
+            case InscripcionService.CREADA -> HttpStatus.CREATED;
+            case ReservaCuposService.RESERVADA -> HttpStatus.ACCEPTED;
+            case InscripcionService.DUPLICADA, InscripcionService.REPETIDA, InscripcionService.SIN_CUPO -> HttpStatus.CONFLICT;
+            case InscripcionService.ESTUDIANTE_NO_EXISTE, InscripcionService.CURSO_NO_EXISTE -> HttpStatus.NOT_FOUND;
+            case ReservaCuposService.COLA_LLENA -> HttpStatus.SERVICE_UNAVAILABLE;
+            default -> HttpStatus.BAD_REQUEST;
+        };
+    }
+    
+    private static Exception causa(Throwable error) {
+        Throwable causa = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return causa instanceof Exception ? (Exception) causa : new RuntimeException(causa);
+    }
+    
+    /**
+     * Maneja todas las excepciones de manera centralizada
+     */
+    private ResponseEntity<?> handleException(Exception e) {
+        HttpStatus status;
+        String errorType;
+        String message = e.getMessage();
+        
+        // Determinar el tipo de error y status code apropiado
+        if (e instanceof IllegalArgumentException) {
+            status = HttpStatus.BAD_REQUEST;
+            errorType = "BAD_REQUEST";
+        } else {
+            status = HttpStatus.INTERNAL_SERVER_ERROR;
+            errorType = "INTERNAL_SERVER_ERROR";
+            message = "Error interno del servidor";
+        }
+        
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", message);
+        errorResponse.put("error", errorType);
+        
+        return new ResponseEntity<>(errorResponse, status);
+    }
+}
\ No newline at end of file
@@ -1,14 +1,17 @@
 package com.gestionacademica.sistema_academico.controller;
 
+import com.gestionacademica.sistema_academico.dto.PaginaDTO;
 import com.gestionacademica.sistema_academico.dto.ProfesorDTO;
 import com.gestionacademica.sistema_academico.entity.Profesor;
 import com.gestionacademica.sistema_academico.service.ProfesorService;
+import com.gestionacademica.sistema_academico.service.SoporteTrigramas;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,6 +24,9 @@ public class ProfesorController {
     @Autowired
     private ProfesorService profesorService;
     
+    @Autowired
+    private SoporteTrigramas soporteTrigramas;
+    
     // ============ ENDPOINTS CRUD ORIGINALES (Entity) ============
     
     /**
@@ -91,36 +97,57 @@ public class ProfesorController {
     /**
      * GET - Obtener todos los profesores (DTO)
      * Endpoint: GET /api/profesores
-     * Parámetros opcionales: 
+     * Parámetros opcionales (se pueden combinar; deben cumplirse todos): 
      * - ?especialidad=matematicas (filtro por especialidad)
      * - ?experienciaMinima=5 (filtro por años de experiencia mínimos)
+     * - ?apellido=perez (filtro por apellido)
+     * - ?dominioEmail=universidad.edu (filtro por dominio del email)
+     * - ?orden=fechaContratacion,desc (orden del resultado filtrado)
+     * Sin filtros, la respuesta se pagina por cursor:
+     * - ?limite=50&cursor=...&incluirTotal=true
      */
     @GetMapping
     public ResponseEntity<?> obtenerTodos(@RequestParam(required = false) String especialidad,
-                                         @RequestParam(required = false) Integer experienciaMinima) {
+                                         @RequestParam(required = false) Integer experienciaMinima,
+                                         @RequestParam(required = false) String apellido,
+                                         @RequestParam(required = false) String dominioEmail,
+                                         @RequestParam(required = false) String orden,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer limite,
+                                         @RequestParam(defaultValue = "false") boolean incluirTotal) {
         try {
-            List<ProfesorDTO> profesores;
-            
-            // Aplicar filtros si se proporcionan
+            List<String> filtros = new ArrayList<>();
             if (especialidad != null && !especialidad.trim().isEmpty()) {
-                profesores = profesorService.buscarPorEspecialidadDTO(especialidad);
-            } else if (experienciaMinima != null) {
-                profesores = profesorService.buscarPorAñosExperienciaMinima(experienciaMinima);
-            } else {
-                profesores = profesorService.obtenerTodosDTO();
+                filtros.add("especialidad: " + especialidad);
+            }
+            if (experienciaMinima != null) {
+                filtros.add("experiencia mínima: " + experienciaMinima + " años");
+            }
+            if (apellido != null && !apellido.trim().isEmpty()) {
+                filtros.add("apellido: " + apellido);
+            }
+            if (dominioEmail != null && !dominioEmail.trim().isEmpty()) {
+                filtros.add("dominio de email: " + dominioEmail);
+            }
+            
+            if (filtros.isEmpty() && (orden == null || orden.trim().isEmpty())) {
+                PaginaDTO<ProfesorDTO> pagina = profesorService.obtenerPaginaDTO(cursor, limite, incluirTotal);
+                return respuestaPaginada(pagina, "Profesores obtenidos exitosamente");
             }
             
+            // Todos los filtros se combinan en una sola consulta
+            List<ProfesorDTO> profesores = profesorService.filtrarDTO(
+                    especialidad, experienciaMinima, apellido, dominioEmail, orden);
+            
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Profesores obtenidos exitosamente");
             response.put("data", profesores);
             response.put("total", profesores.size());
             
-            // Agregar información del filtro aplicado
-            if (especialidad != null) {
-                response.put("filtroAplicado", "especialidad: " + especialidad);
-            } else if (experienciaMinima != null) {
-                response.put("filtroAplicado", "experiencia mínima: " + experienciaMinima + " años");
+            // Agregar información de los filtros aplicados
+            if (!filtros.isEmpty()) {
+                response.put("filtroAplicado", String.join(", ", filtros));
             }
             
             return new ResponseEntity<>(response, HttpStatus.OK);
@@ -242,6 +269,51 @@ public class ProfesorController {
         }
     }
     
+    /**
+     * GET - Buscar profesores por nombre o apellido ordenados por similitud (pg_trgm o índice en memoria)
+     * Endpoint: GET /api/profesores/buscar/similitud
+     * Parámetros: ?termino=gonz&limite=20
+     */
+    @GetMapping("/buscar/similitud")
+    public ResponseEntity<?> buscarPorSimilitud(@RequestParam String termino,
+                                               @RequestParam(required = false) Integer limite) {
+        try {
+            List<ProfesorDTO> profesores = profesorService.buscarPorSimilitudDTO(termino, limite);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Búsqueda por similitud completada");
+            response.put("data", profesores);
+            response.put("total", profesores.size());
+            response.put("modo", soporteTrigramas.modoActual());
+            
+            return new ResponseEntity<>(response, HttpStatus.OK);
+            
+        } catch (Exception e) {
+            return handleException(e);
+        }
+    }
+    
+    /**
+     * Construye la respuesta estándar para una página obtenida por cursor
+     */
+    private ResponseEntity<?> respuestaPaginada(PaginaDTO<?> pagina, String mensaje) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", mensaje);
+        response.put("data", pagina.getData());
+        response.put("siguienteCursor", pagina.getSiguienteCursor());
+        response.put("hayMas", pagina.isHayMas());
+        response.put("limite", pagina.getLimite());
+        
+        // El total exacto solo se incluye si se solicitó (consulta de conteo separada)
+        if (pagina.getTotal() != null) {
+            response.put("total", pagina.getTotal());
+        }
+        
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+    
     /**
      * Maneja todas las excepciones de manera centralizada
      */
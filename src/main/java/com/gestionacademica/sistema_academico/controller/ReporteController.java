@@ -1,14 +1,30 @@
 package com.gestionacademica.sistema_academico.controller;
 
+import com.gestionacademica.sistema_academico.dto.reporte.ConteoDistintoDTO;
+import com.gestionacademica.sistema_academico.dto.reporte.CursoRankingDTO;
 import com.gestionacademica.sistema_academico.dto.reporte.CursosPorProfesorDTO;
+import com.gestionacademica.sistema_academico.dto.reporte.DistribucionNotasDTO;
 import com.gestionacademica.sistema_academico.dto.reporte.EstudiantesPorCicloDTO;
+import com.gestionacademica.sistema_academico.dto.reporte.InscripcionesPorCursoDTO;
+import com.gestionacademica.sistema_academico.dto.reporte.InscripcionesPorFechaDTO;
 import com.gestionacademica.sistema_academico.dto.reporte.NotaPromedioPorCursoDTO;
+import com.gestionacademica.sistema_academico.dto.reporte.ResultadoOlapDTO;
+import com.gestionacademica.sistema_academico.service.AnaliticaInscripcionesService;
 import com.gestionacademica.sistema_academico.service.ReporteService;
+import com.gestionacademica.sistema_academico.service.ResumenDiarioService;
+import com.gestionacademica.sistema_academico.service.ResultadoCacheado;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/reportes")
@@ -18,6 +34,15 @@ public class ReporteController {
     @Autowired
     private ReporteService reporteService;
     
+    @Autowired
+    private AnaliticaInscripcionesService analiticaInscripcionesService;
+    
+    @Autowired
+    private ResumenDiarioService resumenDiarioService;
+    
+    // Los reportes salen de una caché con TTL: las cabeceras Age, Cache-Control,
+    // X-Reporte-Generado y X-Reporte-Obsoleto indican qué tan reciente es cada respuesta
+    
     /**
      * Endpoint para obtener el número total de cursos que imparte cada profesor
      * GET /api/reportes/cursos-por-profesor
@@ -25,8 +50,8 @@ public class ReporteController {
     @GetMapping("/cursos-por-profesor")
     public ResponseEntity<List<CursosPorProfesorDTO>> obtenerCursosPorProfesor() {
         try {
-            List<CursosPorProfesorDTO> reporte = reporteService.obtenerCursosPorProfesor();
-            return ResponseEntity.ok(reporte);
+            ResultadoCacheado<List<CursosPorProfesorDTO>> reporte = reporteService.obtenerCursosPorProfesorEnCache();
+            return conAntiguedad(reporte);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
@@ -39,22 +64,76 @@ public class ReporteController {
     @GetMapping("/nota-promedio-por-curso")
     public ResponseEntity<List<NotaPromedioPorCursoDTO>> obtenerNotaPromedioPorCurso() {
         try {
-            List<NotaPromedioPorCursoDTO> reporte = reporteService.obtenerNotaPromedioPorCurso();
-            return ResponseEntity.ok(reporte);
+            ResultadoCacheado<List<NotaPromedioPorCursoDTO>> reporte = reporteService.obtenerNotaPromedioPorCursoEnCache();
+            return conAntiguedad(reporte);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
     }
     
     /**
-     * Endpoint para contar cuántos estudiantes están inscritos por cada ciclo académico
-     * GET /api/reportes/estudiantes-por-ciclo
+     * Endpoint para obtener la distribución de notas por curso, por ciclo o del total:
+     * percentiles estimados con t-digest (por defecto p10, p50 y p90) e histograma
+     * GET /api/reportes/distribucion-notas?por=curso&ciclo=2024-1&percentil=10,50,90&ancho=2
+     */
+    @GetMapping("/distribucion-notas")
+    public ResponseEntity<?> obtenerDistribucionNotas(@RequestParam(required = false) String por,
+                                                      @RequestParam(required = false) Set<String> ciclo,
+                                                      @RequestParam(required = false) Set<String> curso,
+                                                      @RequestParam(required = false) List<Double> percentil,
+                                                      @RequestParam(required = false) Integer ancho) {
+        try {
+            List<DistribucionNotasDTO> distribuciones = analiticaInscripcionesService.obtenerDistribucionNotas(
+                    por, ciclo, curso, percentil, ancho);
+            return ResponseEntity.ok(distribuciones);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("error", "BAD_REQUEST");
+            return ResponseEntity.badRequest().body(errorResponse);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * Endpoint para contar cuántos estudiantes están inscritos por cada ciclo académico.
+     * Con aproximado=true el conteo sale de sketches HyperLogLog en memoria (error ~0.8 %).
+     * GET /api/reportes/estudiantes-por-ciclo?aproximado=true
      */
     @GetMapping("/estudiantes-por-ciclo")
-    public ResponseEntity<List<EstudiantesPorCicloDTO>> obtenerEstudiantesPorCiclo() {
+    public ResponseEntity<List<EstudiantesPorCicloDTO>> obtenerEstudiantesPorCiclo(
+            @RequestParam(defaultValue = "false") boolean aproximado) {
+        try {
+            if (aproximado) {
+                return ResponseEntity.ok(analiticaInscripcionesService.obtenerEstudiantesPorCicloAproximado());
+            }
+            ResultadoCacheado<List<EstudiantesPorCicloDTO>> reporte = reporteService.obtenerEstudiantesPorCicloEnCache();
+            return conAntiguedad(reporte);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * Endpoint para estimar los estudiantes distintos de una unión de ciclos (o de un año)
+     * y, opcionalmente, de cursos
+     * GET /api/reportes/estudiantes-distintos?anio=2025&curso=MAT101
+     */
+    @GetMapping("/estudiantes-distintos")
+    public ResponseEntity<?> contarEstudiantesDistintos(@RequestParam(required = false) Set<String> ciclo,
+                                                       @RequestParam(required = false) String anio,
+                                                       @RequestParam(required = false) Set<String> curso) {
         try {
-            List<EstudiantesPorCicloDTO> reporte = reporteService.obtenerEstudiantesPorCiclo();
-            return ResponseEntity.ok(reporte);
+            ConteoDistintoDTO conteo = analiticaInscripcionesService.contarEstudiantesDistintos(ciclo, anio, curso);
+            return ResponseEntity.ok(conteo);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("error", "BAD_REQUEST");
+            return ResponseEntity.badRequest().body(errorResponse);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
@@ -67,31 +146,237 @@ public class ReporteController {
     @GetMapping("/top-3-cursos-mejor-promedio")
     public ResponseEntity<List<NotaPromedioPorCursoDTO>> obtenerTop3CursosConMejorPromedio() {
         try {
-            List<NotaPromedioPorCursoDTO> reporte = reporteService.obtenerTop3CursosConMejorPromedio();
-            return ResponseEntity.ok(reporte);
+            ResultadoCacheado<List<NotaPromedioPorCursoDTO>> reporte = reporteService.obtenerTop3CursosConMejorPromedioEnCache();
+            return conAntiguedad(reporte);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * Endpoint para obtener el ranking de cursos por nota promedio
+     * GET /api/reportes/top-cursos?n=10&ciclo=2024-1&orden=desc&minimoInscritos=5
+     */
+    @GetMapping("/top-cursos")
+    public ResponseEntity<?> obtenerTopCursos(@RequestParam(required = false) Integer n,
+                                              @RequestParam(required = false) String ciclo,
+                                              @RequestParam(required = false) String orden,
+                                              @RequestParam(required = false) Integer minimoInscritos) {
+        try {
+            ResultadoCacheado<List<CursoRankingDTO>> reporte =
+                    reporteService.obtenerTopCursosEnCache(n, ciclo, orden, minimoInscritos);
+            return conAntiguedad(reporte);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("error", "BAD_REQUEST");
+            return ResponseEntity.badRequest().body(errorResponse);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * Endpoint para obtener las inscripciones y la nota promedio de cada curso entre dos fechas
+     * de inscripción (inclusive), leídas del resumen diario: reflejan las inscripciones hasta
+     * su última actualización
+     * GET /api/reportes/inscripciones-por-curso?desde=2025-01-01&hasta=2025-12-31&ciclo=2025-1
+     */
+    @GetMapping("/inscripciones-por-curso")
+    public ResponseEntity<?> obtenerInscripcionesPorCurso(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) String ciclo) {
+        try {
+            ResultadoCacheado<List<InscripcionesPorCursoDTO>> reporte =
+                    resumenDiarioService.obtenerInscripcionesPorCurso(desde, hasta, ciclo);
+            return conAntiguedad(reporte);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("error", "BAD_REQUEST");
+            return ResponseEntity.badRequest().body(errorResponse);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * Endpoint para obtener las inscripciones y la nota promedio de cada día entre dos fechas,
+     * opcionalmente de un curso y un ciclo (del resumen diario)
+     * GET /api/reportes/inscripciones-por-dia?desde=2025-03-01&hasta=2025-03-31&curso=MAT101
+     */
+    @GetMapping("/inscripciones-por-dia")
+    public ResponseEntity<?> obtenerInscripcionesPorDia(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) String ciclo,
+            @RequestParam(required = false) String curso) {
+        try {
+            ResultadoCacheado<List<InscripcionesPorFechaDTO>> reporte =
+                    resumenDiarioService.obtenerInscripcionesPorFecha(desde, hasta, ciclo, curso);
+            return conAntiguedad(reporte);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("error", "BAD_REQUEST");
+            return ResponseEntity.badRequest().body(errorResponse);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * Endpoint de analítica de inscripciones en memoria: agrupa por ciclo, curso, profesor,
+     * cohorte y/o rangoNota, con filtros opcionales (se pueden repetir o separar por comas)
+     * GET /api/reportes/olap?agrupar=ciclo,profesor&ciclo=2024-1&cohorte=2023&notaMinima=11&orden=promedio
+     */
+    @GetMapping("/olap")
+    public ResponseEntity<?> consultarAnalitica(@RequestParam(required = false) List<String> agrupar,
+                                                @RequestParam(required = false) Set<String> ciclo,
+                                                @RequestParam(required = false) Set<String> curso,
+                                                @RequestParam(required = false) Set<Long> profesor,
+                                                @RequestParam(required = false) Set<Integer> cohorte,
+                                                @RequestParam(required = false) Double notaMinima,
+                                                @RequestParam(required = false) Double notaMaxima,
+                                                @RequestParam(required = false) Double anchoRango,
+                                                @RequestParam(required = false) String orden,
+                                                @RequestParam(required = false) Integer limite) {
+        try {
+            ResultadoOlapDTO resultado = analiticaInscripcionesService.consultar(agrupar, ciclo, curso, profesor,
+                    cohorte, notaMinima, notaMaxima, anchoRango, orden, limite);
+            return ResponseEntity.ok(resultado);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("error", "BAD_REQUEST");
+            return ResponseEntity.badRequest().body(errorResponse);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
     }
     
     /**
-     * Endpoint adicional para obtener un resumen de todos los reportes
-     * GET /api/reportes/resumen
+     * Endpoint para recargar completa la analítica de inscripciones en memoria
+     * POST /api/reportes/olap/recargar
+     */
+    @PostMapping("/olap/recargar")
+    public ResponseEntity<?> recargarAnalitica() {
+        try {
+            Map<String, Object> estado = analiticaInscripcionesService.recargar();
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Analítica de inscripciones recargada");
+            response.put("data", estado);
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("error", "INTERNAL_SERVER_ERROR");
+            return ResponseEntity.internalServerError().body(errorResponse);
+        }
+    }
+    
+    /**
+     * Endpoint para verificar las tablas de resumen contra la agregación directa
+     * y, opcionalmente, reconstruirlas
+     * POST /api/reportes/resumenes/verificar?reconstruir=true
+     */
+    @PostMapping("/resumenes/verificar")
+    public ResponseEntity<?> verificarResumenes(@RequestParam(defaultValue = "false") boolean reconstruir) {
+        try {
+            Map<String, Object> resultado = reporteService.verificarResumenes(reconstruir);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", Boolean.TRUE.equals(resultado.get("consistente"))
+                    ? "Los resúmenes coinciden con la agregación directa"
+                    : "Los resúmenes no coinciden con la agregación directa");
+            response.put("data", resultado);
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("error", "INTERNAL_SERVER_ERROR");
+            return ResponseEntity.internalServerError().body(errorResponse);
+        }
+    }
+    
+    /**
+     * Endpoint para actualizar el resumen diario de inscripciones sin esperar al proceso
+     * programado; con reconstruir=true lo regenera completo
+     * POST /api/reportes/resumen-diario/actualizar?reconstruir=true
+     */
+    @PostMapping("/resumen-diario/actualizar")
+    public ResponseEntity<?> actualizarResumenDiario(@RequestParam(defaultValue = "false") boolean reconstruir) {
+        try {
+            Map<String, Object> resultado = resumenDiarioService.actualizar(reconstruir);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Resumen diario de inscripciones actualizado");
+            response.put("data", resultado);
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("error", "INTERNAL_SERVER_ERROR");
+            return ResponseEntity.internalServerError().body(errorResponse);
+        }
+    }
+    
+    /**
+     * Endpoint adicional para obtener un resumen de todos los reportes.
+     * Las cuatro consultas se ejecutan en paralelo; si alguna falla o excede el tiempo
+     * máximo, su sección viene en null y la causa se informa en "errores".
+     * La antigüedad informada es la de la sección más antigua.
+     * Con fuente=inscripciones el resumen se calcula de las tablas base en una sola consulta
+     * (GROUPING SETS) en lugar de leer las tablas de resumen.
+     * GET /api/reportes/resumen?fuente=resumenes|inscripciones
      */
     @GetMapping("/resumen")
-    public ResponseEntity<Object> obtenerResumenReportes() {
+    public ResponseEntity<Object> obtenerResumenReportes(@RequestParam(defaultValue = "resumenes") String fuente) {
         try {
-            // Crear un objeto con todos los reportes
-            var resumen = new Object() {
-                public final List<CursosPorProfesorDTO> cursosPorProfesor = reporteService.obtenerCursosPorProfesor();
-                public final List<NotaPromedioPorCursoDTO> notaPromedioPorCurso = reporteService.obtenerNotaPromedioPorCurso();
-                public final List<EstudiantesPorCicloDTO> estudiantesPorCiclo = reporteService.obtenerEstudiantesPorCiclo();
-                public final List<NotaPromedioPorCursoDTO> top3CursosMejorPromedio = reporteService.obtenerTop3CursosConMejorPromedio();
+            ResultadoCacheado<Map<String, Object>> resumen = switch (fuente) {
+                case "resumenes" -> reporteService.obtenerResumen();
+                case "inscripciones" -> reporteService.obtenerResumenAgrupado();
+                default -> throw new IllegalArgumentException(
+                        "Fuente no válida: " + fuente + " (use resumenes o inscripciones)");
             };
             
-            return ResponseEntity.ok(resumen);
+            return ResponseEntity.ok().headers(cabecerasCache(resumen)).body(resumen.valor());
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("error", "BAD_REQUEST");
+            return ResponseEntity.badRequest().body(errorResponse);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
     }
+    
+    private static <T> ResponseEntity<T> conAntiguedad(ResultadoCacheado<T> resultado) {
+        return ResponseEntity.ok().headers(cabecerasCache(resultado)).body(resultado.valor());
+    }
+    
+    private static HttpHeaders cabecerasCache(ResultadoCacheado<?> resultado) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.AGE, String.valueOf(resultado.edad().toSeconds()));
+        headers.setCacheControl(CacheControl.maxAge(resultado.vigencia()));
+        headers.set("X-Reporte-Generado", resultado.generado().toString());
+        headers.set("X-Reporte-Obsoleto", String.valueOf(resultado.obsoleto()));
+        return headers;
+    }
 }
\ No newline at end of file
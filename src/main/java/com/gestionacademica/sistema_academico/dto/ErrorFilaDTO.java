@@ -0,0 +1,43 @@
+package com.gestionacademica.sistema_academico.dto;
+
+public class ErrorFilaDTO {
+    
+    private int fila;          // Número de registro en el archivo (el 1 es el encabezado; no cuenta líneas vacías ni saltos dentro de comillas)
+    private String carnet;
+    private String mensaje;
+    
+    // Constructor vacío
+    public ErrorFilaDTO() {}
+    
+    // Constructor con parámetros
+    public ErrorFilaDTO(int fila, String carnet, String mensaje) {
+        this.fila = fila;
+        this.carnet = carnet;
+        this.mensaje = mensaje;
+    }
+    
+    // Getters y Setters
+    public int getFila() {
+        return fila;
+    }
+    
+    public void setFila(int fila) {
+        this.fila = fila;
+    }
+    
+    public String getCarnet() {
+        return carnet;
+    }
+    
+    public void setCarnet(String carnet) {
+        this.carnet = carnet;
+    }
+    
+    public String getMensaje() {
+        return mensaje;
+    }
+    
+    public void setMensaje(String mensaje) {
+        this.mensaje = mensaje;
+    }
+}
@@ -0,0 +1,75 @@
+package com.gestionacademica.sistema_academico.dto;
+
+import java.util.List;
+
+public class ImportacionResultadoDTO {
+    
+    private int totalFilas;
+    private int importadas;
+    private int rechazadas;
+    private long duracionMs;
+    private long filasPorSegundo;          // Rendimiento medido de la importación completa
+    private List<ErrorFilaDTO> errores;
+    
+    // Constructor vacío
+    public ImportacionResultadoDTO() {}
+    
+    // Constructor con parámetros
+    public ImportacionResultadoDTO(int totalFilas, int importadas, long duracionMs, List<ErrorFilaDTO> errores) {
+        this.totalFilas = totalFilas;
+        this.importadas = importadas;
+        this.rechazadas = errores.size();
+        this.duracionMs = duracionMs;
+        this.filasPorSegundo = duracionMs > 0 ? totalFilas * 1000L / duracionMs : totalFilas;
+        this.errores = errores;
+    }
+    
+    // Getters y Setters
+    public int getTotalFilas() {
+        return totalFilas;
+    }
+    
+    public void setTotalFilas(int totalFilas) {
+        this.totalFilas = totalFilas;
+    }
+    
+    public int getImportadas() {
+        return importadas;
+    }
+    
+    public void setImportadas(int importadas) {
+        this.importadas = importadas;
+    }
+    
+    public int getRechazadas() {
+        return rechazadas;
+    }
+    
+    public void setRechazadas(int rechazadas) {
+        this.rechazadas = rechazadas;
+    }
+    
+    public long getDuracionMs() {
+        return duracionMs;
+    }
+    
+    public void setDuracionMs(long duracionMs) {
+        this.duracionMs = duracionMs;
+    }
+    
+    public long getFilasPorSegundo() {
+        return filasPorSegundo;
+    }
+    
+    public void setFilasPorSegundo(long filasPorSegundo) {
+        this.filasPorSegundo = filasPorSegundo;
+    }
+    
+    public List<ErrorFilaDTO> getErrores() {
+        return errores;
+    }
+    
+    public void setErrores(List<ErrorFilaDTO> errores) {
+        this.errores = errores;
+    }
+}
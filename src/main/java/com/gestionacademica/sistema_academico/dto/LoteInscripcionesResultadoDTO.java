@@ -0,0 +1,75 @@
+package com.gestionacademica.sistema_academico.dto;
+
+import java.util.List;
+
+public class LoteInscripcionesResultadoDTO {
+    
+    private int total;
+    private int creadas;
+    private int rechazadas;
+    private long duracionMs;
+    private long inscripcionesPorSegundo;    // Rendimiento medido del lote completo
+    private List<ResultadoInscripcionDTO> resultados;
+    
+    // Constructor vacío
+    public LoteInscripcionesResultadoDTO() {}
+    
+    // Constructor con parámetros
+    public LoteInscripcionesResultadoDTO(int creadas, long duracionMs, List<ResultadoInscripcionDTO> resultados) {
+        this.total = resultados.size();
+        this.creadas = creadas;
+        this.rechazadas = resultados.size() - creadas;
+        this.duracionMs = duracionMs;
+        this.inscripcionesPorSegundo = duracionMs > 0 ? total * 1000L / duracionMs : total;
+        this.resultados = resultados;
+    }
+    
+    // Getters y Setters
+    public int getTotal() {
+        return total;
+    }
+    
+    public void setTotal(int total) {
+        this.total = total;
+    }
+    
+    public int getCreadas() {
+        return creadas;
+    }
+    
+    public void setCreadas(int creadas) {
+        this.creadas = creadas;
+    }
+    
+    public int getRechazadas() {
+        return rechazadas;
+    }
+    
+    public void setRechazadas(int rechazadas) {
+        this.rechazadas = rechazadas;
+    }
+    
+    public long getDuracionMs() {
+        return duracionMs;
+    }
+    
+    public void setDuracionMs(long duracionMs) {
+        this.duracionMs = duracionMs;
+    }
+    
+    public long getInscripcionesPorSegundo() {
+        return inscripcionesPorSegundo;
+    }
+    
+    public void setInscripcionesPorSegundo(long inscripcionesPorSegundo) {
+        this.inscripcionesPorSegundo = inscripcionesPorSegundo;
+    }
+    
+    public List<ResultadoInscripcionDTO> getResultados() {
+        return resultados;
+    }
+    
+    public void setResultados(List<ResultadoInscripcionDTO> resultados) {
+        this.resultados = resultados;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.gestionacademica.sistema_academico.dto;
+
+import java.util.List;
+
+public class PaginaDTO<T> {
+    
+    private List<T> data;
+    private String siguienteCursor;   // Cursor opaco para pedir la siguiente página (null si no hay más)
+    private boolean hayMas;
+    private int limite;
+    private Long total;               // Solo se calcula si se solicita explícitamente
+    
+    // Constructor vacío
+    public PaginaDTO() {}
+    
+    // Constructor con parámetros
+    public PaginaDTO(List<T> data, String siguienteCursor, boolean hayMas, int limite, Long total) {
+        this.data = data;
+        this.siguienteCursor = siguienteCursor;
+        this.hayMas = hayMas;
+        this.limite = limite;
+        this.total = total;
+    }
+    
+    // Getters y Setters
+    public List<T> getData() {
+        return data;
+    }
+    
+    public void setData(List<T> data) {
+        this.data = data;
+    }
+    
+    public String getSiguienteCursor() {
+        return siguienteCursor;
+    }
+    
+    public void setSiguienteCursor(String siguienteCursor) {
+        this.siguienteCursor = siguienteCursor;
+    }
+    
+    public boolean isHayMas() {
+        return hayMas;
+    }
+    
+    public void setHayMas(boolean hayMas) {
+        this.hayMas = hayMas;
+    }
+    
+    public int getLimite() {
+        return limite;
+    }
+    
+    public void setLimite(int limite) {
+        this.limite = limite;
+    }
+    
+    public Long getTotal() {
+        return total;
+    }
+    
+    public void setTotal(Long total) {
+        this.total = total;
+    }
+}
@@ -0,0 +1,53 @@
+package com.gestionacademica.sistema_academico.dto;
+
+public class ResultadoInscripcionDTO {
+    
+    private int indice;         // Posición de la solicitud en el lote (desde 0)
+    private String estado;      // CREADA, DUPLICADA, REPETIDA, INVALIDA, ESTUDIANTE_NO_EXISTE, CURSO_NO_EXISTE o CURSO_SIN_PROFESOR
+    private Long id;            // ID de la inscripción creada (solo si estado = CREADA)
+    private String mensaje;
+    
+    // Constructor vacío
+    public ResultadoInscripcionDTO() {}
+    
+    // Constructor con parámetros
+    public ResultadoInscripcionDTO(int indice, String estado, Long id, String mensaje) {
+        this.indice = indice;
+        this.estado = estado;
+        this.id = id;
+        this.mensaje = mensaje;
+    }
+    
+    // Getters y Setters
+    public int getIndice() {
+        return indice;
+    }
+    
+    public void setIndice(int indice) {
+        this.indice = indice;
+    }
+    
+    public String getEstado() {
+        return estado;
+    }
+    
+    public void setEstado(String estado) {
+        this.estado = estado;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getMensaje() {
+        return mensaje;
+    }
+    
+    public void setMensaje(String mensaje) {
+        this.mensaje = mensaje;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.gestionacademica.sistema_academico.dto;
+
+import java.time.LocalDate;
+
+public class SolicitudInscripcionDTO {
+    
+    private Long estudianteId;
+    private Long cursoId;
+    private String cicloAcademico;
+    private LocalDate fechaInscripcion;    // Opcional: la fecha actual si se omite
+    private Double notaFinal;              // Opcional
+    
+    // Constructor vacío
+    public SolicitudInscripcionDTO() {}
+    
+    // Constructor con parámetros
+    public SolicitudInscripcionDTO(Long estudianteId, Long cursoId, String cicloAcademico,
+                                   LocalDate fechaInscripcion, Double notaFinal) {
+        this.estudianteId = estudianteId;
+        this.cursoId = cursoId;
+        this.cicloAcademico = cicloAcademico;
+        this.fechaInscripcion = fechaInscripcion;
+        this.notaFinal = notaFinal;
+    }
+    
+    // Getters y Setters
+    public Long getEstudianteId() {
+        return estudianteId;
+    }
+    
+    public void setEstudianteId(Long estudianteId) {
+        this.estudianteId = estudianteId;
+    }
+    
+    public Long getCursoId() {
+        return cursoId;
+    }
+    
+    public void setCursoId(Long cursoId) {
+        this.cursoId = cursoId;
+    }
+    
+    public String getCicloAcademico() {
+        return cicloAcademico;
+    }
+    
+    public void setCicloAcademico(String cicloAcademico) {
+        this.cicloAcademico = cicloAcademico;
+    }
+    
+    public LocalDate getFechaInscripcion() {
+        return fechaInscripcion;
+    }
+    
+    public void setFechaInscripcion(LocalDate fechaInscripcion) {
+        this.fechaInscripcion = fechaInscripcion;
+    }
+    
+    public Double getNotaFinal() {
+        return notaFinal;
+    }
+    
+    public void setNotaFinal(Double notaFinal) {
+        this.notaFinal = notaFinal;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.gestionacademica.sistema_academico.dto;
+
+public class SugerenciaDTO {
+    
+    private Long id;
+    private String campo;      // Campo que coincide con el prefijo (carnet, nombre, apellido, codigo)
+    private String texto;      // Valor completo del campo
+    
+    // Constructor vacío
+    public SugerenciaDTO() {}
+    
+    // Constructor con parámetros
+    public SugerenciaDTO(Long id, String campo, String texto) {
+        this.id = id;
+        this.campo = campo;
+        this.texto = texto;
+    }
+    
+    // Getters y Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getCampo() {
+        return campo;
+    }
+    
+    public void setCampo(String campo) {
+        this.campo = campo;
+    }
+    
+    public String getTexto() {
+        return texto;
+    }
+    
+    public void setTexto(String texto) {
+        this.texto = texto;
+    }
+}
@@ -0,0 +1,92 @@
+package com.gestionacademica.sistema_academico.dto.reporte;
+
+import java.util.List;
+
+public class ConteoDistintoDTO {
+    private Long estimado;
+    private Boolean exacto;
+    private Double errorRelativo;
+    private Long limiteInferior;
+    private Long limiteSuperior;
+    private List<String> ciclos;
+    private List<String> cursos;
+    private Double microsegundos;
+    
+    // Constructor con parámetros
+    public ConteoDistintoDTO(Long estimado, Boolean exacto, Double errorRelativo, Long limiteInferior,
+                             Long limiteSuperior, List<String> ciclos, List<String> cursos, Double microsegundos) {
+        this.estimado = estimado;
+        this.exacto = exacto;
+        this.errorRelativo = errorRelativo;
+        this.limiteInferior = limiteInferior;
+        this.limiteSuperior = limiteSuperior;
+        this.ciclos = ciclos;
+        this.cursos = cursos;
+        this.microsegundos = microsegundos;
+    }
+    
+    // Getters y Setters
+    public Long getEstimado() {
+        return estimado;
+    }
+    
+    public void setEstimado(Long estimado) {
+        this.estimado = estimado;
+    }
+    
+    public Boolean getExacto() {
+        return exacto;
+    }
+    
+    public void setExacto(Boolean exacto) {
+        this.exacto = exacto;
+    }
+    
+    public Double getErrorRelativo() {
+        return errorRelativo;
+    }
+    
+    public void setErrorRelativo(Double errorRelativo) {
+        this.errorRelativo = errorRelativo;
+    }
+    
+    public Long getLimiteInferior() {
+        return limiteInferior;
+    }
+    
+    public void setLimiteInferior(Long limiteInferior) {
+        this.limiteInferior = limiteInferior;
+    }
+    
+    public Long getLimiteSuperior() {
+        return limiteSuperior;
+    }
+    
+    public void setLimiteSuperior(Long limiteSuperior) {
+        this.limiteSuperior = limiteSuperior;
+    }
+    
+    public List<String> getCiclos() {
+        return ciclos;
+    }
+    
+    public void setCiclos(List<String> ciclos) {
+        this.ciclos = ciclos;
+    }
+    
+    public List<String> getCursos() {
+        return cursos;
+    }
+    
+    public void setCursos(List<String> cursos) {
+        this.cursos = cursos;
+    }
+    
+    public Double getMicrosegundos() {
+        return microsegundos;
+    }
+    
+    public void setMicrosegundos(Double microsegundos) {
+        this.microsegundos = microsegundos;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.gestionacademica.sistema_academico.dto.reporte;
+
+public class CursoRankingDTO {
+    private String codigo;
+    private String nombreCurso;
+    private Double notaPromedio;
+    private Long inscritos;
+    
+    // Constructor para JPQL
+    public CursoRankingDTO(String codigo, String nombreCurso, Double notaPromedio, Long inscritos) {
+        this.codigo = codigo;
+        this.nombreCurso = nombreCurso;
+        this.notaPromedio = notaPromedio;
+        this.inscritos = inscritos;
+    }
+    
+    // Getters y Setters
+    public String getCodigo() {
+        return codigo;
+    }
+    
+    public void setCodigo(String codigo) {
+        this.codigo = codigo;
+    }
+    
+    public String getNombreCurso() {
+        return nombreCurso;
+    }
+    
+    public void setNombreCurso(String nombreCurso) {
+        this.nombreCurso = nombreCurso;
+    }
+    
+    public Double getNotaPromedio() {
+        return notaPromedio;
+    }
+    
+    public void setNotaPromedio(Double notaPromedio) {
+        this.notaPromedio = notaPromedio;
+    }
+    
+    public Long getInscritos() {
+        return inscritos;
+    }
+    
+    public void setInscritos(Long inscritos) {
+        this.inscritos = inscritos;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.gestionacademica.sistema_academico.dto.reporte;
+
+import java.util.Map;
+
+public class DistribucionNotasDTO {
+    private String grupo;
+    private Long cantidad;
+    private Double notaMinima;
+    private Double notaMaxima;
+    private Map<String, Double> percentiles;
+    private Map<String, Long> histograma;
+    
+    // Constructor con parámetros
+    public DistribucionNotasDTO(String grupo, Long cantidad, Double notaMinima, Double notaMaxima,
+                                Map<String, Double> percentiles, Map<String, Long> histograma) {
+        this.grupo = grupo;
+        this.cantidad = cantidad;
+        this.notaMinima = notaMinima;
+        this.notaMaxima = notaMaxima;
+        this.percentiles = percentiles;
+        this.histograma = histograma;
+    }
+    
+    // Getters y Setters
+    public String getGrupo() {
+        return grupo;
+    }
+    
+    public void setGrupo(String grupo) {
+        this.grupo = grupo;
+    }
+    
+    public Long getCantidad() {
+        return cantidad;
+    }
+    
+    public void setCantidad(Long cantidad) {
+        this.cantidad = cantidad;
+    }
+    
+    public Double getNotaMinima() {
+        return notaMinima;
+    }
+    
+    public void setNotaMinima(Double notaMinima) {
+        this.notaMinima = notaMinima;
+    }
+    
+    public Double getNotaMaxima() {
+        return notaMaxima;
+    }
+    
+    public void setNotaMaxima(Double notaMaxima) {
+        this.notaMaxima = notaMaxima;
+    }
+    
+    public Map<String, Double> getPercentiles() {
+        return percentiles;
+    }
+    
+    public void setPercentiles(Map<String, Double> percentiles) {
+        this.percentiles = percentiles;
+    }
+    
+    public Map<String, Long> getHistograma() {
+        return histograma;
+    }
+    
+    public void setHistograma(Map<String, Long> histograma) {
+        this.histograma = histograma;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.gestionacademica.sistema_academico.dto.reporte;
+
+import java.util.Map;
+
+public class GrupoOlapDTO {
+    private Map<String, String> grupo;
+    private Long inscripciones;
+    private Long conNota;
+    private Double notaPromedio;
+    private Double notaMinima;
+    private Double notaMaxima;
+    
+    // Constructor con parámetros
+    public GrupoOlapDTO(Map<String, String> grupo, Long inscripciones, Long conNota,
+                        Double notaPromedio, Double notaMinima, Double notaMaxima) {
+        this.grupo = grupo;
+        this.inscripciones = inscripciones;
+        this.conNota = conNota;
+        this.notaPromedio = notaPromedio;
+        this.notaMinima = notaMinima;
+        this.notaMaxima = notaMaxima;
+    }
+    
+    // Getters y Setters
+    public Map<String, String> getGrupo() {
+        return grupo;
+    }
+    
+    public void setGrupo(Map<String, String> grupo) {
+        this.grupo = grupo;
+    }
+    
+    public Long getInscripciones() {
+        return inscripciones;
+    }
+    
+    public void setInscripciones(Long inscripciones) {
+        this.inscripciones = inscripciones;
+    }
+    
+    public Long getConNota() {
+        return conNota;
+    }
+    
+    public void setConNota(Long conNota) {
+        this.conNota = conNota;
+    }
+    
+    public Double getNotaPromedio() {
+        return notaPromedio;
+    }
+    
+    public void setNotaPromedio(Double notaPromedio) {
+        this.notaPromedio = notaPromedio;
+    }
+    
+    public Double getNotaMinima() {
+        return notaMinima;
+    }
+    
+    public void setNotaMinima(Double notaMinima) {
+        this.notaMinima = notaMinima;
+    }
+    
+    public Double getNotaMaxima() {
+        return notaMaxima;
+    }
+    
+    public void setNotaMaxima(Double notaMaxima) {
+        this.notaMaxima = notaMaxima;
+    }
+}
\ No newline at end of file
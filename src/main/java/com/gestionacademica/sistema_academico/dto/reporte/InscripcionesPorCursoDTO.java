@@ -0,0 +1,60 @@
+package com.gestionacademica.sistema_academico.dto.reporte;
+
+public class InscripcionesPorCursoDTO {
+    private String codigoCurso;
+    private String nombreCurso;
+    private Long inscripciones;
+    private Long notasRegistradas;
+    private Double notaPromedio;
+    
+    // Constructor para JPQL
+    public InscripcionesPorCursoDTO(String codigoCurso, String nombreCurso, Long inscripciones,
+                                    Long notasRegistradas, Double notaPromedio) {
+        this.codigoCurso = codigoCurso;
+        this.nombreCurso = nombreCurso;
+        this.inscripciones = inscripciones;
+        this.notasRegistradas = notasRegistradas;
+        this.notaPromedio = notaPromedio;
+    }
+    
+    // Getters y Setters
+    public String getCodigoCurso() {
+        return codigoCurso;
+    }
+    
+    public void setCodigoCurso(String codigoCurso) {
+        this.codigoCurso = codigoCurso;
+    }
+    
+    public String getNombreCurso() {
+        return nombreCurso;
+    }
+    
+    public void setNombreCurso(String nombreCurso) {
+        this.nombreCurso = nombreCurso;
+    }
+    
+    public Long getInscripciones() {
+        return inscripciones;
+    }
+    
+    public void setInscripciones(Long inscripciones) {
+        this.inscripciones = inscripciones;
+    }
+    
+    public Long getNotasRegistradas() {
+        return notasRegistradas;
+    }
+    
+    public void setNotasRegistradas(Long notasRegistradas) {
+        this.notasRegistradas = notasRegistradas;
+    }
+    
+    public Double getNotaPromedio() {
+        return notaPromedio;
+    }
+    
+    public void setNotaPromedio(Double notaPromedio) {
+        this.notaPromedio = notaPromedio;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.gestionacademica.sistema_academico.dto.reporte;
+
+import java.time.LocalDate;
+
+public class InscripcionesPorFechaDTO {
+    private LocalDate fecha;
+    private Long inscripciones;
+    private Long notasRegistradas;
+    private Double notaPromedio;
+    
+    // Constructor para JPQL
+    public InscripcionesPorFechaDTO(LocalDate fecha, Long inscripciones, Long notasRegistradas, Double notaPromedio) {
+        this.fecha = fecha;
+        this.inscripciones = inscripciones;
+        this.notasRegistradas = notasRegistradas;
+        this.notaPromedio = notaPromedio;
+    }
+    
+    // Getters y Setters
+    public LocalDate getFecha() {
+        return fecha;
+    }
+    
+    public void setFecha(LocalDate fecha) {
+        this.fecha = fecha;
+    }
+    
+    public Long getInscripciones() {
+        return inscripciones;
+    }
+    
+    public void setInscripciones(Long inscripciones) {
+        this.inscripciones = inscripciones;
+    }
+    
+    public Long getNotasRegistradas() {
+        return notasRegistradas;
+    }
+    
+    public void setNotasRegistradas(Long notasRegistradas) {
+        this.notasRegistradas = notasRegistradas;
+    }
+    
+    public Double getNotaPromedio() {
+        return notaPromedio;
+    }
+    
+    public void setNotaPromedio(Double notaPromedio) {
+        this.notaPromedio = notaPromedio;
+    }
+}
\ No newline at end of file
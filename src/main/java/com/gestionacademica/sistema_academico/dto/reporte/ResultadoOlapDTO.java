@@ -0,0 +1,83 @@
+package com.gestionacademica.sistema_academico.dto.reporte;
+
+import java.time.Instant;
+import java.util.List;
+
+public class ResultadoOlapDTO {
+    private List<String> agrupar;
+    private List<GrupoOlapDTO> grupos;
+    private Long totalGrupos;
+    private Long filasEscaneadas;
+    private Integer segmentos;
+    private Double milisegundos;
+    private Instant actualizado;
+    
+    // Constructor con parámetros
+    public ResultadoOlapDTO(List<String> agrupar, List<GrupoOlapDTO> grupos, Long totalGrupos,
+                            Long filasEscaneadas, Integer segmentos, Double milisegundos, Instant actualizado) {
+        this.agrupar = agrupar;
+        this.grupos = grupos;
+        this.totalGrupos = totalGrupos;
+        this.filasEscaneadas = filasEscaneadas;
+        this.segmentos = segmentos;
+        this.milisegundos = milisegundos;
+        this.actualizado = actualizado;
+    }
+    
+    // Getters y Setters
+    public List<String> getAgrupar() {
+        return agrupar;
+    }
+    
+    public void setAgrupar(List<String> agrupar) {
+        this.agrupar = agrupar;
+    }
+    
+    public List<GrupoOlapDTO> getGrupos() {
+        return grupos;
+    }
+    
+    public void setGrupos(List<GrupoOlapDTO> grupos) {
+        this.grupos = grupos;
+    }
+    
+    public Long getTotalGrupos() {
+        return totalGrupos;
+    }
+    
+    public void setTotalGrupos(Long totalGrupos) {
+        this.totalGrupos = totalGrupos;
+    }
+    
+    public Long getFilasEscaneadas() {
+        return filasEscaneadas;
+    }
+    
+    public void setFilasEscaneadas(Long filasEscaneadas) {
+        this.filasEscaneadas = filasEscaneadas;
+    }
+    
+    public Integer getSegmentos() {
+        return segmentos;
+    }
+    
+    public void setSegmentos(Integer segmentos) {
+        this.segmentos = segmentos;
+    }
+    
+    public Double getMilisegundos() {
+        return milisegundos;
+    }
+    
+    public void setMilisegundos(Double milisegundos) {
+        this.milisegundos = milisegundos;
+    }
+    
+    public Instant getActualizado() {
+        return actualizado;
+    }
+    
+    public void setActualizado(Instant actualizado) {
+        this.actualizado = actualizado;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,97 @@
+package com.gestionacademica.sistema_academico.entity;
+
+import java.util.List;
+
+/**
+ * Reglas de clasificación de cursos (nivel de dificultad y carga académica).
+ * Son la única fuente de estas reglas: la entidad Curso las usa para mantener
+ * las columnas nivel_dificultad y carga_academica, y el DTO lee esas columnas.
+ */
+public final class ClasificacionCurso {
+
+    public static final String NIVEL_BASICO = "Básico";
+    public static final String NIVEL_INTERMEDIO = "Intermedio";
+    public static final String NIVEL_AVANZADO = "Avanzado";
+
+    public static final String CARGA_BAJA = "Baja";
+    public static final String CARGA_MEDIA = "Media";
+    public static final String CARGA_ALTA = "Alta";
+
+    public static final List<String> NIVELES = List.of(NIVEL_BASICO, NIVEL_INTERMEDIO, NIVEL_AVANZADO);
+    public static final List<String> CARGAS = List.of(CARGA_BAJA, CARGA_MEDIA, CARGA_ALTA);
+
+    private ClasificacionCurso() {}
+
+    /**
+     * Determina el nivel de dificultad basado en el código del curso
+     */
+    public static String determinarNivelDificultad(String codigo) {
+        if (codigo == null || codigo.length() < 4) {
+            return NIVEL_BASICO;
+        }
+
+        // Extraer el número del código (ej: MAT101 -> 101)
+        String numeroStr = codigo.substring(3);
+        try {
+            int numero = Integer.parseInt(numeroStr);
+            if (numero >= 100 && numero <= 199) {
+                return NIVEL_BASICO;
+            } else if (numero >= 200 && numero <= 299) {
+                return NIVEL_INTERMEDIO;
+            } else if (numero >= 300) {
+                return NIVEL_AVANZADO;
+            } else {
+                return NIVEL_BASICO;
+            }
+        } catch (NumberFormatException e) {
+            return NIVEL_BASICO;
+        }
+    }
+
+    /**
+     * Determina la carga académica basada en créditos y horas semanales
+     */
+    public static String determinarCargaAcademica(Integer creditos, Integer horasSemanales) {
+        if (creditos == null) creditos = 0;
+        if (horasSemanales == null) horasSemanales = 0;
+
+        // Calcular un puntaje combinado
+        int puntaje = creditos * 2 + horasSemanales;
+
+        if (puntaje <= 8) {
+            return CARGA_BAJA;
+        } else if (puntaje <= 16) {
+            return CARGA_MEDIA;
+        } else {
+            return CARGA_ALTA;
+        }
+    }
+
+    /**
+     * Retorna el nivel canónico que coincide (sin distinguir mayúsculas) con el valor dado, o null
+     */
+    public static String normalizarNivel(String nivel) {
+        return normalizar(nivel, NIVELES);
+    }
+
+    /**
+     * Retorna la carga canónica que coincide (sin distinguir mayúsculas) con el valor dado, o null
+     */
+    public static String normalizarCarga(String carga) {
+        return normalizar(carga, CARGAS);
+    }
+
+    private static String normalizar(String valor, List<String> permitidos) {
+        if (valor == null) {
+            return null;
+        }
+
+        String buscado = valor.trim();
+        for (String permitido : permitidos) {
+            if (permitido.equalsIgnoreCase(buscado)) {
+                return permitido;
+            }
+        }
+        return null;
+    }
+}
@@ -5,8 +5,13 @@ import jakarta.validation.constraints.*;
 import java.time.LocalDateTime;
 import jakarta.persistence.*;
 import java.util.List;
+import com.gestionacademica.sistema_academico.config.FabricaRegionesCache;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = FabricaRegionesCache.CURSO)
 @Table(name = "cursos")
 public class Curso {
     
@@ -36,6 +41,18 @@ public class Curso {
     @Max(value = 20, message = "Las horas semanales no pueden exceder 20")
     private Integer horasSemanales;
     
+    // Inscripciones que admite el curso; null = sin límite
+    @Column(name = "cupo_maximo")
+    @Min(value = 1, message = "El cupo máximo debe ser al menos 1")
+    private Integer cupoMaximo;
+    
+    // Columnas derivadas, mantenidas a partir de las reglas de ClasificacionCurso
+    @Column(name = "nivel_dificultad", length = 20)
+    private String nivelDificultad;
+    
+    @Column(name = "carga_academica", length = 20)
+    private String cargaAcademica;
+    
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
     
@@ -46,11 +63,21 @@ public class Curso {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        actualizarClasificacion();
     }
     
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        actualizarClasificacion();
+    }
+    
+    /**
+     * Recalcula nivel de dificultad y carga académica a partir de código, créditos y horas
+     */
+    public void actualizarClasificacion() {
+        nivelDificultad = ClasificacionCurso.determinarNivelDificultad(codigo);
+        cargaAcademica = ClasificacionCurso.determinarCargaAcademica(creditos, horasSemanales);
     }
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -138,6 +165,22 @@ public void setInscripciones(List<Inscripcion> inscripciones) {
         this.horasSemanales = horasSemanales;
     }
     
+    public Integer getCupoMaximo() {
+        return cupoMaximo;
+    }
+    
+    public void setCupoMaximo(Integer cupoMaximo) {
+        this.cupoMaximo = cupoMaximo;
+    }
+    
+    public String getNivelDificultad() {
+        return nivelDificultad;
+    }
+    
+    public String getCargaAcademica() {
+        return cargaAcademica;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -6,8 +6,13 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import jakarta.persistence.*;
 import java.util.List;
+import com.gestionacademica.sistema_academico.config.FabricaRegionesCache;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = FabricaRegionesCache.PROFESOR)
 @Table(name = "profesores")
 public class Profesor {
     
@@ -53,6 +58,7 @@ public class Profesor {
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
     }
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = FabricaRegionesCache.PROFESOR_CURSOS)
     @OneToMany(mappedBy = "profesor", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Curso> cursos;
 
@@ -0,0 +1,44 @@
+package com.gestionacademica.sistema_academico.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * Cantidad de cursos que imparte un profesor.
+ * Solo lectura: la mantienen los triggers de schema.sql.
+ */
+@Entity
+@Immutable
+@Table(name = "resumen_cursos_profesor")
+public class ResumenCursosProfesor {
+    
+    @Id
+    @Column(name = "profesor_id")
+    private Long profesorId;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "profesor_id", insertable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Profesor profesor;
+    
+    @Column(nullable = false)
+    private Long cursos;
+    
+    // Constructor vacío (requerido por JPA)
+    protected ResumenCursosProfesor() {}
+    
+    // Getters
+    public Long getProfesorId() {
+        return profesorId;
+    }
+    
+    public Profesor getProfesor() {
+        return profesor;
+    }
+    
+    public Long getCursos() {
+        return cursos;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.gestionacademica.sistema_academico.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Inscripciones, notas registradas y suma de notas de un curso y ciclo ('' = sin ciclo)
+ * en un día de inscripción. Solo lectura: la mantiene ResumenDiarioService.
+ */
+@Entity
+@Immutable
+@Table(name = "resumen_diario_inscripciones")
+public class ResumenDiarioInscripcion {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private LocalDate fecha;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "curso_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Curso curso;
+    
+    @Column(name = "ciclo_academico", nullable = false)
+    private String cicloAcademico;
+    
+    @Column(nullable = false)
+    private Long inscripciones;
+    
+    @Column(name = "notas_registradas", nullable = false)
+    private Long notasRegistradas;
+    
+    @Column(name = "suma_notas", nullable = false)
+    private BigDecimal sumaNotas;
+    
+    // Constructor vacío (requerido por JPA)
+    protected ResumenDiarioInscripcion() {}
+    
+    // Getters
+    public Long getId() {
+        return id;
+    }
+    
+    public LocalDate getFecha() {
+        return fecha;
+    }
+    
+    public Curso getCurso() {
+        return curso;
+    }
+    
+    public String getCicloAcademico() {
+        return cicloAcademico;
+    }
+    
+    public Long getInscripciones() {
+        return inscripciones;
+    }
+    
+    public Long getNotasRegistradas() {
+        return notasRegistradas;
+    }
+    
+    public BigDecimal getSumaNotas() {
+        return sumaNotas;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.gestionacademica.sistema_academico.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Estudiantes distintos inscritos en un ciclo ('' = sin ciclo).
+ * Solo lectura: la mantienen los triggers de schema.sql.
+ */
+@Entity
+@Immutable
+@Table(name = "resumen_estudiantes_ciclo")
+public class ResumenEstudiantesCiclo {
+    
+    @Id
+    @Column(name = "ciclo_academico")
+    private String cicloAcademico;
+    
+    @Column(nullable = false)
+    private Long estudiantes;
+    
+    // Constructor vacío (requerido por JPA)
+    protected ResumenEstudiantesCiclo() {}
+    
+    // Getters
+    public String getCicloAcademico() {
+        return cicloAcademico;
+    }
+    
+    public Long getEstudiantes() {
+        return estudiantes;
+    }
+}
\ No newline at end of file
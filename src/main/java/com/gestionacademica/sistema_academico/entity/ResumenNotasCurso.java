@@ -0,0 +1,66 @@
+package com.gestionacademica.sistema_academico.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import java.math.BigDecimal;
+
+/**
+ * Suma y cantidad de notas e inscritos de un curso en un ciclo ('' = sin ciclo).
+ * Solo lectura: la mantienen los triggers de schema.sql.
+ */
+@Entity
+@Immutable
+@Table(name = "resumen_notas_curso")
+public class ResumenNotasCurso {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "curso_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Curso curso;
+    
+    @Column(name = "ciclo_academico", nullable = false)
+    private String cicloAcademico;
+    
+    @Column(name = "suma_notas", nullable = false)
+    private BigDecimal sumaNotas;
+    
+    @Column(name = "notas_registradas", nullable = false)
+    private Long notasRegistradas;
+    
+    @Column(nullable = false)
+    private Long inscritos;
+    
+    // Constructor vacío (requerido por JPA)
+    protected ResumenNotasCurso() {}
+    
+    // Getters
+    public Long getId() {
+        return id;
+    }
+    
+    public Curso getCurso() {
+        return curso;
+    }
+    
+    public String getCicloAcademico() {
+        return cicloAcademico;
+    }
+    
+    public BigDecimal getSumaNotas() {
+        return sumaNotas;
+    }
+    
+    public Long getNotasRegistradas() {
+        return notasRegistradas;
+    }
+    
+    public Long getInscritos() {
+        return inscritos;
+    }
+}
\ No newline at end of file
@@ -1,22 +1,37 @@
 package com.gestionacademica.sistema_academico.repository;
 
+import com.gestionacademica.sistema_academico.config.FabricaRegionesCache;
 import com.gestionacademica.sistema_academico.entity.Curso;
+import com.gestionacademica.sistema_academico.repository.proyeccion.CursoFila;
+import com.gestionacademica.sistema_academico.repository.proyeccion.CursoProfesorFila;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CursoRepository extends JpaRepository<Curso, Long> {
+public interface CursoRepository extends JpaRepository<Curso, Long>, JpaSpecificationExecutor<Curso> {
     
     // Buscar curso por código
     Optional<Curso> findByCodigo(String codigo);
     
+    // Buscar curso por código junto con su profesor, si tiene (caché de búsqueda por código)
+    @Query("SELECT c FROM Curso c LEFT JOIN FETCH c.profesor WHERE c.codigo = :codigo")
+    Optional<Curso> findConProfesorByCodigo(@Param("codigo") String codigo);
+    
     // Verificar si existe un curso con el código dado
     boolean existsByCodigo(String codigo);
     
+    // Todos los códigos registrados (carga del filtro de unicidad)
+    @Query("SELECT c.codigo FROM Curso c")
+    List<String> findAllCodigos();
+    
     // Buscar cursos por nombre (búsqueda parcial e insensible a mayúsculas)
     List<Curso> findByNombreContainingIgnoreCase(String nombre);
     
@@ -29,14 +44,43 @@ public interface CursoRepository extends JpaRepository<Curso, Long> {
     // Buscar cursos con determinadas horas semanales
     List<Curso> findByHorasSemanales(Integer horasSemanales);
     
+    // Buscar cursos cuya clasificación aún no ha sido calculada
+    List<Curso> findByNivelDificultadIsNullOrCargaAcademicaIsNull();
+    
     // Buscar cursos por código o nombre
     @Query("SELECT c FROM Curso c WHERE " +
            "LOWER(c.codigo) LIKE LOWER(CONCAT('%', :termino, '%')) OR " +
            "LOWER(c.nombre) LIKE LOWER(CONCAT('%', :termino, '%'))")
     List<Curso> findByCódigoOrNombreContaining(@Param("termino") String termino);
     
-    // Obtener cursos ordenados por créditos
+    // IDs de cursos por código o nombre ordenados por similitud (índices GIN de pg_trgm)
+    @Query(value = "SELECT c.id FROM cursos c WHERE " +
+           "LOWER(c.codigo) LIKE LOWER(:patron) ESCAPE '\\' OR " +
+           "LOWER(c.nombre) LIKE LOWER(:patron) ESCAPE '\\' " +
+           "ORDER BY GREATEST(similarity(LOWER(c.codigo), LOWER(:termino)), " +
+           "similarity(LOWER(c.nombre), LOWER(:termino))) DESC, c.id " +
+           "LIMIT :limite", nativeQuery = true)
+    List<Long> buscarIdsPorSimilitud(@Param("termino") String termino, @Param("patron") String patron,
+                                     @Param("limite") int limite);
+    
+    // Obtener cursos ordenados por créditos. Única consulta cacheada: sirve el listado del
+    // catálogo ordenado por créditos, sin otra caché delante (las búsquedas por créditos y por
+    // especialidad de los endpoints leen la instantánea del catálogo). La caché guarda solo
+    // los ids; las filas salen de la región de Curso y se invalidan al modificar la tabla.
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = FabricaRegionesCache.CONSULTAS_CATALOGO)})
     List<Curso> findAllByOrderByCreditosAsc();
     
     List<Curso> findAllByOrderByCreditosDesc();
+    
+    // ============ PROYECCIONES DE SOLO LECTURA (sin entidades administradas) ============
+    
+    @Query(CursoFila.SELECT + "FROM Curso c")
+    List<CursoFila> findFilas();
+    
+    @Query(CursoFila.SELECT + "FROM Curso c WHERE c.id = :id")
+    Optional<CursoFila> findFilaById(@Param("id") Long id);
+    
+    @Query(CursoProfesorFila.SELECT + "FROM Curso c LEFT JOIN c.profesor p")
+    List<CursoProfesorFila> findCursosConProfesor();
 }
\ No newline at end of file
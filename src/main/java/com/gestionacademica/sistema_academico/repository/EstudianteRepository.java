@@ -1,16 +1,24 @@
 package com.gestionacademica.sistema_academico.repository;
 
 import com.gestionacademica.sistema_academico.entity.Estudiante;
+import com.gestionacademica.sistema_academico.repository.proyeccion.EstudianteFila;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface EstudianteRepository extends JpaRepository<Estudiante, Long> {
+public interface EstudianteRepository extends JpaRepository<Estudiante, Long>, JpaSpecificationExecutor<Estudiante> {
     
     // Buscar estudiante por carnet
     Optional<Estudiante> findByCarnet(String carnet);
@@ -24,12 +32,30 @@ public interface EstudianteRepository extends JpaRepository<Estudiante, Long> {
     // Verificar si existe un estudiante con el email dado
     boolean existsByEmail(String email);
     
+    // Todos los carnets registrados (carga del filtro de unicidad)
+    @Query("SELECT e.carnet FROM Estudiante e")
+    List<String> findAllCarnets();
+    
+    // Todos los emails registrados (carga del filtro de unicidad)
+    @Query("SELECT e.email FROM Estudiante e")
+    List<String> findAllEmails();
+    
     // Buscar estudiantes por nombre o apellido
     @Query("SELECT e FROM Estudiante e WHERE " +
            "LOWER(e.nombre) LIKE LOWER(CONCAT('%', :termino, '%')) OR " +
            "LOWER(e.apellido) LIKE LOWER(CONCAT('%', :termino, '%'))")
     List<Estudiante> findByNombreOrApellidoContaining(@Param("termino") String termino);
     
+    // IDs de estudiantes por nombre o apellido ordenados por similitud (índices GIN de pg_trgm)
+    @Query(value = "SELECT e.id FROM estudiantes e WHERE " +
+           "LOWER(e.nombre) LIKE LOWER(:patron) ESCAPE '\\' OR " +
+           "LOWER(e.apellido) LIKE LOWER(:patron) ESCAPE '\\' " +
+           "ORDER BY GREATEST(similarity(LOWER(e.nombre), LOWER(:termino)), " +
+           "similarity(LOWER(e.apellido), LOWER(:termino))) DESC, e.id " +
+           "LIMIT :limite", nativeQuery = true)
+    List<Long> buscarIdsPorSimilitud(@Param("termino") String termino, @Param("patron") String patron,
+                                     @Param("limite") int limite);
+    
     // Buscar estudiantes por rango de fechas de ingreso
     List<Estudiante> findByFechaIngresoBetween(LocalDate fechaInicio, LocalDate fechaFin);
     
@@ -45,4 +71,45 @@ public interface EstudianteRepository extends JpaRepository<Estudiante, Long> {
     List<Estudiante> findAllByOrderByFechaIngresoAsc();
     
     List<Estudiante> findAllByOrderByFechaIngresoDesc();
-}
\ No newline at end of file
+    
+    // Paginación por cursor: primera página ordenada por fecha de ingreso descendente
+    @Query("SELECT e FROM Estudiante e WHERE e.fechaIngreso IS NOT NULL " +
+           "ORDER BY e.fechaIngreso DESC, e.id DESC")
+    List<Estudiante> findPrimerosPorFechaIngresoDesc(Limit limite);
+    
+    // Paginación por cursor: página siguiente a (fecha, id) ordenada por fecha de ingreso descendente
+    @Query("SELECT e FROM Estudiante e WHERE e.fechaIngreso < :fecha OR " +
+           "(e.fechaIngreso = :fecha AND e.id < :id) " +
+           "ORDER BY e.fechaIngreso DESC, e.id DESC")
+    List<Estudiante> findSiguientesPorFechaIngresoDesc(@Param("fecha") LocalDate fecha, @Param("id") Long id, Limit limite);
+    
+    // Paginación por cursor: estudiantes sin fecha de ingreso (al final del orden por fecha)
+    List<Estudiante> findByFechaIngresoIsNullAndIdLessThanOrderByIdDesc(Long id, Limit limite);
+    
+    // ============ PROYECCIONES DE SOLO LECTURA (sin entidades administradas) ============
+    
+    @Query(EstudianteFila.SELECT + "FROM Estudiante e")
+    List<EstudianteFila> findFilas();
+    
+    @Query(EstudianteFila.SELECT + "FROM Estudiante e WHERE e.id = :id")
+    Optional<EstudianteFila> findFilaById(@Param("id") Long id);
+    
+    @Query(EstudianteFila.SELECT + "FROM Estudiante e WHERE e.id IN :ids")
+    List<EstudianteFila> findFilasByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Paginación por cursor: siguiente página ordenada por ID
+    @Query(EstudianteFila.SELECT + "FROM Estudiante e WHERE e.id > :id ORDER BY e.id")
+    List<EstudianteFila> findFilasDespuesDeId(@Param("id") Long id, Limit limite);
+    
+    @Query(EstudianteFila.SELECT + "FROM Estudiante e WHERE LOWER(e.apellido) LIKE LOWER(CONCAT('%', :apellido, '%'))")
+    List<EstudianteFila> findFilasByApellidoContaining(@Param("apellido") String apellido);
+    
+    // Fecha de nacimiento en (desde, hasta]
+    @Query(EstudianteFila.SELECT + "FROM Estudiante e WHERE e.fechaNacimiento > :desde AND e.fechaNacimiento <= :hasta")
+    List<EstudianteFila> findFilasByFechaNacimientoEntre(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+    
+    // Recorrer todos los estudiantes por ID sin cargarlos en memoria (requiere transacción abierta)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(EstudianteFila.SELECT + "FROM Estudiante e ORDER BY e.id")
+    Stream<EstudianteFila> streamFilasOrdenadasPorId();
+}
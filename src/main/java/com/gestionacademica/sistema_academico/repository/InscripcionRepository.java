@@ -4,9 +4,18 @@ import com.gestionacademica.sistema_academico.dto.reporte.CursosPorProfesorDTO;
 import com.gestionacademica.sistema_academico.dto.reporte.EstudiantesPorCicloDTO;
 import com.gestionacademica.sistema_academico.dto.reporte.NotaPromedioPorCursoDTO;
 import com.gestionacademica.sistema_academico.entity.Inscripcion;
+import com.gestionacademica.sistema_academico.repository.proyeccion.FilaResumenAgrupado;
+import com.gestionacademica.sistema_academico.repository.proyeccion.InscripcionHecho;
+import com.gestionacademica.sistema_academico.repository.proyeccion.NotaModificada;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
 import java.util.List;
 
@@ -14,7 +23,7 @@ import java.util.List;
 public interface InscripcionRepository extends JpaRepository<Inscripcion, Long> {
     
     // Reporte 1: Número total de cursos que imparte cada profesor
-    @Query("SELECT NEW com.gestionacademica.sistema_academico.dto.reportes.CursosPorProfesorDTO(" +
+    @Query("SELECT NEW com.gestionacademica.sistema_academico.dto.reporte.CursosPorProfesorDTO(" +
            "p.nombre, COUNT(c.id)) " +
            "FROM Curso c " +
            "JOIN c.profesor p " +
@@ -22,7 +31,7 @@ public interface InscripcionRepository extends JpaRepository<Inscripcion, Long>
     List<CursosPorProfesorDTO> findCursosPorProfesor();
     
     // Reporte 2: Nota promedio para cada curso
-    @Query("SELECT NEW com.gestionacademica.sistema_academico.dto.reportes.NotaPromedioPorCursoDTO(" +
+    @Query("SELECT NEW com.gestionacademica.sistema_academico.dto.reporte.NotaPromedioPorCursoDTO(" +
            "c.nombre, AVG(i.notaFinal)) " +
            "FROM Inscripcion i " +
            "JOIN i.curso c " +
@@ -31,7 +40,7 @@ public interface InscripcionRepository extends JpaRepository<Inscripcion, Long>
     List<NotaPromedioPorCursoDTO> findNotaPromedioPorCurso();
     
     // Reporte 3: Estudiantes inscritos por ciclo académico
-    @Query("SELECT NEW com.gestionacademica.sistema_academico.dto.reportes.EstudiantesPorCicloDTO(" +
+    @Query("SELECT NEW com.gestionacademica.sistema_academico.dto.reporte.EstudiantesPorCicloDTO(" +
            "i.cicloAcademico, COUNT(DISTINCT i.estudiante.id)) " +
            "FROM Inscripcion i " +
            "GROUP BY i.cicloAcademico " +
@@ -39,12 +48,69 @@ public interface InscripcionRepository extends JpaRepository<Inscripcion, Long>
     List<EstudiantesPorCicloDTO> findEstudiantesPorCiclo();
     
     // Reporte 4: Top 3 cursos con nota promedio más alta
-    @Query("SELECT NEW com.gestionacademica.sistema_academico.dto.reportes.NotaPromedioPorCursoDTO(" +
+    @Query("SELECT NEW com.gestionacademica.sistema_academico.dto.reporte.NotaPromedioPorCursoDTO(" +
            "c.nombre, AVG(i.notaFinal)) " +
            "FROM Inscripcion i " +
            "JOIN i.curso c " +
            "WHERE i.notaFinal IS NOT NULL " +
            "GROUP BY c.id, c.nombre " +
-           "ORDER BY AVG(i.notaFinal) DESC")
-    List<NotaPromedioPorCursoDTO> findTop3CursosConMejorPromedio();
+           "ORDER BY AVG(i.notaFinal) DESC, c.nombre, c.id")
+    List<NotaPromedioPorCursoDTO> findTop3CursosConMejorPromedio(Limit limite);
+    
+    // Los cuatro reportes en un solo recorrido de cursos e inscripciones (PostgreSQL).
+    // GROUPING(c.id, p.id, i.ciclo_academico) identifica el conjunto: 1 = curso (y su profesor),
+    // 5 = profesor, 6 = ciclo. (profesor, curso) y (profesor) comparten el mismo orden, así que
+    // solo hacen falta dos ordenamientos. El puesto por promedio sale de una función de ventana
+    // sobre los grupos ya agregados. HAVING descarta cursos sin notas, cursos sin profesor y el
+    // ciclo vacío que aportan los cursos sin inscripciones.
+    @Query(value = "SELECT CASE GROUPING(c.id, p.id, i.ciclo_academico) " +
+           "WHEN 1 THEN 'curso' WHEN 5 THEN 'profesor' ELSE 'ciclo' END AS seccion, " +
+           "CASE WHEN GROUPING(c.id) = 0 THEN c.nombre ELSE p.nombre END AS nombre, " +
+           "i.ciclo_academico AS ciclo, " +
+           "CAST(AVG(i.nota_final) AS double precision) AS promedio, " +
+           "CASE WHEN GROUPING(i.ciclo_academico) = 0 THEN COUNT(DISTINCT i.estudiante_id) " +
+           "ELSE COUNT(DISTINCT c.id) END AS cantidad, " +
+           "ROW_NUMBER() OVER (PARTITION BY GROUPING(c.id, p.id, i.ciclo_academico) " +
+           "ORDER BY AVG(i.nota_final) DESC NULLS LAST, c.nombre, c.id) AS posicion " +
+           "FROM cursos c " +
+           "LEFT JOIN profesores p ON p.id = c.profesor_id " +
+           "LEFT JOIN inscripciones i ON i.curso_id = c.id " +
+           "GROUP BY GROUPING SETS ((p.id, p.nombre, c.id, c.nombre), (p.id, p.nombre), (i.ciclo_academico)) " +
+           "HAVING CASE GROUPING(c.id, p.id, i.ciclo_academico) " +
+           "WHEN 1 THEN COUNT(i.nota_final) > 0 " +
+           "WHEN 5 THEN p.id IS NOT NULL " +
+           "ELSE COUNT(i.id) > 0 END " +
+           "ORDER BY 1, i.ciclo_academico NULLS LAST, posicion", nativeQuery = true)
+    List<FilaResumenAgrupado> findResumenAgrupado();
+    
+    // ============ CARGA DEL ALMACÉN ANALÍTICO (por lotes en orden de ID) ============
+    
+    @Query(InscripcionHecho.SELECT +
+           "FROM Inscripcion i JOIN i.estudiante e " +
+           "WHERE i.id > :desde " +
+           "ORDER BY i.id")
+    List<InscripcionHecho> findHechosDesde(@Param("desde") Long desde, Limit limite);
+    
+    // Inscripciones que siguen existiendo hasta el último ID cargado (detecta eliminaciones)
+    long countByIdLessThanEqual(Long id);
+    
+    // Notas, cursos y ciclos modificados (los registra un trigger en analitica_notas_modificadas)
+    @Query(value = "SELECT COALESCE(MAX(id), 0) FROM analitica_notas_modificadas", nativeQuery = true)
+    long findUltimaNotaModificada();
+    
+    @Query(value = "SELECT m.id AS modificacion, CAST(i.id AS bigint) AS id, CAST(i.curso_id AS bigint) AS cursoId, " +
+           "i.ciclo_academico AS ciclo, CAST(i.nota_final AS double precision) AS nota " +
+           "FROM analitica_notas_modificadas m " +
+           "LEFT JOIN inscripciones i ON i.id = m.inscripcion_id " +
+           "WHERE m.id > :desde " +
+           "ORDER BY m.id " +
+           "LIMIT :limite", nativeQuery = true)
+    List<NotaModificada> findNotasModificadasDesde(@Param("desde") long desde, @Param("limite") int limite);
+    
+    // Las modificaciones más antiguas que una reconstrucción ya están en toda tabla vigente
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "analitica_notas_modificadas"))
+    @Query(value = "DELETE FROM analitica_notas_modificadas " +
+           "WHERE registrado < CURRENT_TIMESTAMP - make_interval(secs => :segundos)", nativeQuery = true)
+    int deleteNotasModificadasAnteriores(@Param("segundos") long segundos);
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package com.gestionacademica.sistema_academico.repository;
 
 import com.gestionacademica.sistema_academico.entity.Profesor;
+import com.gestionacademica.sistema_academico.repository.proyeccion.ProfesorFila;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -9,7 +11,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProfesorRepository extends JpaRepository<Profesor, Long> {
+public interface ProfesorRepository extends JpaRepository<Profesor, Long>, JpaSpecificationExecutor<Profesor> {
     
     // Buscar profesor por email
     Optional<Profesor> findByEmail(String email);
@@ -17,6 +19,10 @@ public interface ProfesorRepository extends JpaRepository<Profesor, Long> {
     // Verificar si existe un profesor con el email dado
     boolean existsByEmail(String email);
     
+    // Todos los emails registrados (carga del filtro de unicidad)
+    @Query("SELECT p.email FROM Profesor p")
+    List<String> findAllEmails();
+    
     // Buscar profesores por especialidad
     List<Profesor> findByEspecialidadContainingIgnoreCase(String especialidad);
     
@@ -26,6 +32,24 @@ public interface ProfesorRepository extends JpaRepository<Profesor, Long> {
            "LOWER(p.apellido) LIKE LOWER(CONCAT('%', :termino, '%'))")
     List<Profesor> findByNombreOrApellidoContaining(@Param("termino") String termino);
     
+    // IDs de profesores por nombre o apellido ordenados por similitud (índices GIN de pg_trgm)
+    @Query(value = "SELECT p.id FROM profesores p WHERE " +
+           "LOWER(p.nombre) LIKE LOWER(:patron) ESCAPE '\\' OR " +
+           "LOWER(p.apellido) LIKE LOWER(:patron) ESCAPE '\\' " +
+           "ORDER BY GREATEST(similarity(LOWER(p.nombre), LOWER(:termino)), " +
+           "similarity(LOWER(p.apellido), LOWER(:termino))) DESC, p.id " +
+           "LIMIT :limite", nativeQuery = true)
+    List<Long> buscarIdsPorSimilitud(@Param("termino") String termino, @Param("patron") String patron,
+                                     @Param("limite") int limite);
+    
     // Contar profesores por especialidad
     long countByEspecialidad(String especialidad);
+    
+    // ============ PROYECCIONES DE SOLO LECTURA (sin entidades administradas) ============
+    
+    @Query(ProfesorFila.SELECT + "FROM Profesor p")
+    List<ProfesorFila> findFilas();
+    
+    @Query(ProfesorFila.SELECT + "FROM Profesor p WHERE p.id = :id")
+    Optional<ProfesorFila> findFilaById(@Param("id") Long id);
 }
\ No newline at end of file
@@ -0,0 +1,133 @@
+package com.gestionacademica.sistema_academico.repository;
+
+import com.gestionacademica.sistema_academico.dto.reporte.InscripcionesPorCursoDTO;
+import com.gestionacademica.sistema_academico.dto.reporte.InscripcionesPorFechaDTO;
+import com.gestionacademica.sistema_academico.entity.ResumenDiarioInscripcion;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Reportes por rango de fechas leídos del resumen diario (una fila por día, curso y ciclo)
+ * y las consultas con que ResumenDiarioService lo actualiza a partir de la marca de agua.
+ */
+@Repository
+public interface ResumenDiarioRepository extends org.springframework.data.repository.Repository<ResumenDiarioInscripcion, Long> {
+    
+    // Inscripciones y nota promedio de cada curso entre dos fechas (inclusive)
+    @Query("SELECT NEW com.gestionacademica.sistema_academico.dto.reporte.InscripcionesPorCursoDTO(" +
+           "c.codigo, c.nombre, SUM(r.inscripciones), SUM(r.notasRegistradas), " +
+           "CAST(SUM(r.sumaNotas) AS Double) / NULLIF(SUM(r.notasRegistradas), 0)) " +
+           "FROM ResumenDiarioInscripcion r " +
+           "JOIN r.curso c " +
+           "WHERE r.fecha BETWEEN :desde AND :hasta " +
+           "AND (:ciclo IS NULL OR r.cicloAcademico = :ciclo) " +
+           "GROUP BY c.id, c.codigo, c.nombre " +
+           "ORDER BY c.nombre, c.id")
+    List<InscripcionesPorCursoDTO> findInscripcionesPorCurso(@Param("desde") LocalDate desde,
+                                                             @Param("hasta") LocalDate hasta,
+                                                             @Param("ciclo") String ciclo);
+    
+    // Inscripciones y nota promedio de cada día entre dos fechas (solo los días con inscripciones)
+    @Query("SELECT NEW com.gestionacademica.sistema_academico.dto.reporte.InscripcionesPorFechaDTO(" +
+           "r.fecha, SUM(r.inscripciones), SUM(r.notasRegistradas), " +
+           "CAST(SUM(r.sumaNotas) AS Double) / NULLIF(SUM(r.notasRegistradas), 0)) " +
+           "FROM ResumenDiarioInscripcion r " +
+           "WHERE r.fecha BETWEEN :desde AND :hasta " +
+           "AND (:ciclo IS NULL OR r.cicloAcademico = :ciclo) " +
+           "AND (:curso IS NULL OR r.curso.codigo = :curso) " +
+           "GROUP BY r.fecha " +
+           "ORDER BY r.fecha")
+    List<InscripcionesPorFechaDTO> findInscripcionesPorFecha(@Param("desde") LocalDate desde,
+                                                             @Param("hasta") LocalDate hasta,
+                                                             @Param("ciclo") String ciclo,
+                                                             @Param("curso") String curso);
+    
+    // ============ ACTUALIZACIÓN (dentro de una transacción) ============
+    
+    long BLOQUEO_ACTUALIZACION = 2_023_001L;
+    
+    // Cada escritura declara la tabla que modifica: sin espacios de consulta, Hibernate vaciaría
+    // toda la caché de segundo nivel y la de consultas en cada actualización
+    String TABLA_RESUMEN = "resumen_diario_inscripciones";
+    String TABLA_MARCA = "resumen_diario_marca";
+    String TABLA_PENDIENTES = "resumen_diario_pendientes";
+    
+    // Una actualización a la vez (bloqueo consultivo hasta el fin de la transacción). Las
+    // escrituras sobre inscripciones no lo toman, así que nunca esperan al proceso.
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(" + BLOQUEO_ACTUALIZACION + ")", nativeQuery = true)
+    int bloquearActualizacion();
+    
+    @Query(value = "SELECT hasta FROM resumen_diario_marca WHERE id = 1", nativeQuery = true)
+    LocalDate leerMarca();
+    
+    // Única escritura sobre la marca, al final de la actualización
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = TABLA_MARCA))
+    @Query(value = "UPDATE resumen_diario_marca SET hasta = CURRENT_DATE, actualizado = CURRENT_TIMESTAMP " +
+           "WHERE id = 1", nativeQuery = true)
+    int moverMarca();
+    
+    // Toma y borra los días pendientes en una sentencia, antes de agregar: lo que se confirme
+    // después queda en la tabla para la próxima actualización. Retorna solo los anteriores a
+    // la marca; los demás se vuelven a agregar de todos modos.
+    @Query(value = "WITH tomados AS (DELETE FROM resumen_diario_pendientes RETURNING fecha) " +
+           "SELECT DISTINCT fecha FROM tomados WHERE fecha < :desde ORDER BY fecha", nativeQuery = true)
+    List<LocalDate> tomarPendientes(@Param("desde") LocalDate desde);
+    
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = TABLA_PENDIENTES))
+    @Query(value = "DELETE FROM resumen_diario_pendientes", nativeQuery = true)
+    int vaciarPendientes();
+    
+    String AGREGADO_DIARIO = "SELECT fecha_inscripcion, curso_id, COALESCE(ciclo_academico, '') AS ciclo_academico, " +
+           "COUNT(*) AS inscripciones, COUNT(nota_final) AS notas_registradas, " +
+           "COALESCE(SUM(nota_final::NUMERIC), 0) AS suma_notas ";
+    
+    String AGRUPAR_DIARIO = "GROUP BY fecha_inscripcion, curso_id, COALESCE(ciclo_academico, '')";
+    
+    String INSERTAR_DIARIO = "INSERT INTO resumen_diario_inscripciones " +
+           "(fecha, curso_id, ciclo_academico, inscripciones, notas_registradas, suma_notas) ";
+    
+    // Días desde la marca
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = TABLA_RESUMEN))
+    @Query(value = "DELETE FROM resumen_diario_inscripciones WHERE fecha >= :desde", nativeQuery = true)
+    int vaciarDesde(@Param("desde") LocalDate desde);
+    
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = TABLA_RESUMEN))
+    @Query(value = INSERTAR_DIARIO + AGREGADO_DIARIO + "FROM inscripciones WHERE fecha_inscripcion >= :desde " +
+           AGRUPAR_DIARIO, nativeQuery = true)
+    int agregarDesde(@Param("desde") LocalDate desde);
+    
+    // Días pendientes anteriores a la marca (no vacío)
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = TABLA_RESUMEN))
+    @Query(value = "DELETE FROM resumen_diario_inscripciones WHERE fecha IN (:dias)", nativeQuery = true)
+    int vaciarDias(@Param("dias") List<LocalDate> dias);
+    
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = TABLA_RESUMEN))
+    @Query(value = INSERTAR_DIARIO + AGREGADO_DIARIO + "FROM inscripciones WHERE fecha_inscripcion IN (:dias) " +
+           AGRUPAR_DIARIO, nativeQuery = true)
+    int agregarDias(@Param("dias") List<LocalDate> dias);
+    
+    // DELETE en lugar de TRUNCATE: los reportes siguen leyendo el resumen anterior hasta el commit
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = TABLA_RESUMEN))
+    @Query(value = "DELETE FROM resumen_diario_inscripciones", nativeQuery = true)
+    int vaciar();
+    
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = TABLA_RESUMEN))
+    @Query(value = INSERTAR_DIARIO + AGREGADO_DIARIO + "FROM inscripciones " + AGRUPAR_DIARIO, nativeQuery = true)
+    int agregarTodo();
+}
\ No newline at end of file
@@ -0,0 +1,189 @@
+package com.gestionacademica.sistema_academico.repository;
+
+import com.gestionacademica.sistema_academico.dto.reporte.CursoRankingDTO;
+import com.gestionacademica.sistema_academico.dto.reporte.CursosPorProfesorDTO;
+import com.gestionacademica.sistema_academico.dto.reporte.EstudiantesPorCicloDTO;
+import com.gestionacademica.sistema_academico.dto.reporte.NotaPromedioPorCursoDTO;
+import com.gestionacademica.sistema_academico.entity.ResumenNotasCurso;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.List;
+
+/**
+ * Reportes leídos de las tablas de resumen (una fila por curso y ciclo, por ciclo o por
+ * profesor) en lugar de agrupar todas las inscripciones. Las tablas las mantienen los
+ * triggers de schema.sql; aquí también están las consultas para verificarlas contra la
+ * agregación directa y reconstruirlas.
+ */
+@Repository
+public interface ResumenReporteRepository extends org.springframework.data.repository.Repository<ResumenNotasCurso, Long> {
+    
+    // Reporte 1: Número total de cursos que imparte cada profesor
+    @Query("SELECT NEW com.gestionacademica.sistema_academico.dto.reporte.CursosPorProfesorDTO(" +
+           "p.nombre, r.cursos) " +
+           "FROM ResumenCursosProfesor r " +
+           "JOIN r.profesor p")
+    List<CursosPorProfesorDTO> findCursosPorProfesor();
+    
+    // Reporte 2: Nota promedio para cada curso (suma de los ciclos)
+    @Query("SELECT NEW com.gestionacademica.sistema_academico.dto.reporte.NotaPromedioPorCursoDTO(" +
+           "c.nombre, CAST(SUM(r.sumaNotas) AS Double) / SUM(r.notasRegistradas)) " +
+           "FROM ResumenNotasCurso r " +
+           "JOIN r.curso c " +
+           "GROUP BY c.id, c.nombre " +
+           "HAVING SUM(r.notasRegistradas) > 0")
+    List<NotaPromedioPorCursoDTO> findNotaPromedioPorCurso();
+    
+    // Reporte 3: Estudiantes inscritos por ciclo académico ('' se informa como ciclo null)
+    @Query("SELECT NEW com.gestionacademica.sistema_academico.dto.reporte.EstudiantesPorCicloDTO(" +
+           "NULLIF(r.cicloAcademico, ''), r.estudiantes) " +
+           "FROM ResumenEstudiantesCiclo r " +
+           "ORDER BY NULLIF(r.cicloAcademico, '') NULLS LAST")
+    List<EstudiantesPorCicloDTO> findEstudiantesPorCiclo();
+    
+    // Reporte 4: Cursos con nota promedio más alta
+    @Query("SELECT NEW com.gestionacademica.sistema_academico.dto.reporte.NotaPromedioPorCursoDTO(" +
+           "c.nombre, CAST(SUM(r.sumaNotas) AS Double) / SUM(r.notasRegistradas)) " +
+           "FROM ResumenNotasCurso r " +
+           "JOIN r.curso c " +
+           "GROUP BY c.id, c.nombre " +
+           "HAVING SUM(r.notasRegistradas) > 0 " +
+           "ORDER BY CAST(SUM(r.sumaNotas) AS Double) / SUM(r.notasRegistradas) DESC, c.nombre, c.id")
+    List<NotaPromedioPorCursoDTO> findCursosConMejorPromedio(Limit limite);
+    
+    // Ranking de cursos por nota promedio. Empates: más inscritos primero, luego nombre e ID.
+    // Solo cursos con al menos una nota.
+    String RANKING_CURSOS = "SELECT NEW com.gestionacademica.sistema_academico.dto.reporte.CursoRankingDTO(" +
+           "c.codigo, c.nombre, CAST(SUM(r.sumaNotas) AS Double) / SUM(r.notasRegistradas), SUM(r.inscritos)) " +
+           "FROM ResumenNotasCurso r " +
+           "JOIN r.curso c " +
+           "WHERE (:ciclo IS NULL OR r.cicloAcademico = :ciclo) " +
+           "GROUP BY c.id, c.codigo, c.nombre " +
+           "HAVING SUM(r.notasRegistradas) > 0 AND SUM(r.inscritos) >= :minimoInscritos ";
+    
+    @Query(RANKING_CURSOS + "ORDER BY CAST(SUM(r.sumaNotas) AS Double) / SUM(r.notasRegistradas) DESC, " +
+           "SUM(r.inscritos) DESC, c.nombre, c.id")
+    List<CursoRankingDTO> findRankingCursosMejorPromedio(@Param("ciclo") String ciclo,
+                                                         @Param("minimoInscritos") long minimoInscritos,
+                                                         Limit limite);
+    
+    @Query(RANKING_CURSOS + "ORDER BY CAST(SUM(r.sumaNotas) AS Double) / SUM(r.notasRegistradas) ASC, " +
+           "SUM(r.inscritos) DESC, c.nombre, c.id")
+    List<CursoRankingDTO> findRankingCursosPeorPromedio(@Param("ciclo") String ciclo,
+                                                        @Param("minimoInscritos") long minimoInscritos,
+                                                        Limit limite);
+    
+    // ============ VERIFICACIÓN: filas que difieren entre el resumen y la agregación directa ============
+    
+    String AGREGADO_NOTAS_CURSO = "SELECT curso_id, COALESCE(ciclo_academico, '') AS ciclo_academico, " +
+           "COALESCE(SUM(nota_final::NUMERIC), 0) AS suma_notas, COUNT(nota_final) AS notas_registradas, " +
+           "COUNT(*) AS inscritos FROM inscripciones GROUP BY curso_id, COALESCE(ciclo_academico, '')";
+    
+    String AGREGADO_CICLO_ESTUDIANTE = "SELECT COALESCE(ciclo_academico, '') AS ciclo_academico, estudiante_id, " +
+           "COUNT(*) AS inscripciones FROM inscripciones GROUP BY COALESCE(ciclo_academico, ''), estudiante_id";
+    
+    String AGREGADO_ESTUDIANTES_CICLO = "SELECT COALESCE(ciclo_academico, '') AS ciclo_academico, " +
+           "COUNT(DISTINCT estudiante_id) AS estudiantes FROM inscripciones GROUP BY COALESCE(ciclo_academico, '')";
+    
+    String AGREGADO_CURSOS_PROFESOR = "SELECT profesor_id, COUNT(*) AS cursos FROM cursos " +
+           "WHERE profesor_id IS NOT NULL GROUP BY profesor_id";
+    
+    @Query(value = "SELECT COUNT(*) FROM (" +
+           "(SELECT curso_id, ciclo_academico, suma_notas, notas_registradas, inscritos FROM resumen_notas_curso " +
+           "EXCEPT " + AGREGADO_NOTAS_CURSO + ") UNION ALL (" + AGREGADO_NOTAS_CURSO + " EXCEPT " +
+           "SELECT curso_id, ciclo_academico, suma_notas, notas_registradas, inscritos FROM resumen_notas_curso)" +
+           ") diferencias", nativeQuery = true)
+    long contarDiferenciasNotasCurso();
+    
+    @Query(value = "SELECT COUNT(*) FROM (" +
+           "(SELECT ciclo_academico, estudiante_id, inscripciones FROM resumen_ciclo_estudiante " +
+           "EXCEPT " + AGREGADO_CICLO_ESTUDIANTE + ") UNION ALL (" + AGREGADO_CICLO_ESTUDIANTE + " EXCEPT " +
+           "SELECT ciclo_academico, estudiante_id, inscripciones FROM resumen_ciclo_estudiante)" +
+           ") diferencias", nativeQuery = true)
+    long contarDiferenciasCicloEstudiante();
+    
+    @Query(value = "SELECT COUNT(*) FROM (" +
+           "(SELECT ciclo_academico, estudiantes FROM resumen_estudiantes_ciclo " +
+           "EXCEPT " + AGREGADO_ESTUDIANTES_CICLO + ") UNION ALL (" + AGREGADO_ESTUDIANTES_CICLO + " EXCEPT " +
+           "SELECT ciclo_academico, estudiantes FROM resumen_estudiantes_ciclo)" +
+           ") diferencias", nativeQuery = true)
+    long contarDiferenciasEstudiantesCiclo();
+    
+    @Query(value = "SELECT COUNT(*) FROM (" +
+           "(SELECT profesor_id, cursos FROM resumen_cursos_profesor " +
+           "EXCEPT " + AGREGADO_CURSOS_PROFESOR + ") UNION ALL (" + AGREGADO_CURSOS_PROFESOR + " EXCEPT " +
+           "SELECT profesor_id, cursos FROM resumen_cursos_profesor)" +
+           ") diferencias", nativeQuery = true)
+    long contarDiferenciasCursosProfesor();
+    
+    // ============ RECONSTRUCCIÓN (dentro de una transacción) ============
+    
+    // Cada sentencia declara los resúmenes que toca: sin espacios de consulta, Hibernate vaciaría
+    // toda la caché de segundo nivel y la de consultas en cada reconstrucción
+    String NOTAS_CURSO = "resumen_notas_curso";
+    String CICLO_ESTUDIANTE = "resumen_ciclo_estudiante";
+    String ESTUDIANTES_CICLO = "resumen_estudiantes_ciclo";
+    String CURSOS_PROFESOR = "resumen_cursos_profesor";
+    
+    // Bloquea las escrituras sobre las tablas de origen hasta el fin de la transacción (las lecturas
+    // siguen). No modifica nada; los espacios son los resúmenes que la reconstrucción va a reemplazar.
+    @Modifying
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = NOTAS_CURSO),
+                 @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = CICLO_ESTUDIANTE),
+                 @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = ESTUDIANTES_CICLO),
+                 @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = CURSOS_PROFESOR)})
+    @Query(value = "LOCK TABLE inscripciones, cursos IN SHARE MODE", nativeQuery = true)
+    void bloquearEscrituras();
+    
+    // DELETE en lugar de TRUNCATE: los reportes siguen leyendo los resúmenes anteriores hasta el commit
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = NOTAS_CURSO))
+    @Query(value = "DELETE FROM resumen_notas_curso", nativeQuery = true)
+    void vaciarNotasCurso();
+    
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = CICLO_ESTUDIANTE))
+    @Query(value = "DELETE FROM resumen_ciclo_estudiante", nativeQuery = true)
+    void vaciarCicloEstudiante();
+    
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = ESTUDIANTES_CICLO))
+    @Query(value = "DELETE FROM resumen_estudiantes_ciclo", nativeQuery = true)
+    void vaciarEstudiantesCiclo();
+    
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = CURSOS_PROFESOR))
+    @Query(value = "DELETE FROM resumen_cursos_profesor", nativeQuery = true)
+    void vaciarCursosProfesor();
+    
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = NOTAS_CURSO))
+    @Query(value = "INSERT INTO resumen_notas_curso (curso_id, ciclo_academico, suma_notas, notas_registradas, inscritos) " +
+           AGREGADO_NOTAS_CURSO, nativeQuery = true)
+    int reconstruirNotasCurso();
+    
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = CICLO_ESTUDIANTE))
+    @Query(value = "INSERT INTO resumen_ciclo_estudiante (ciclo_academico, estudiante_id, inscripciones) " +
+           AGREGADO_CICLO_ESTUDIANTE, nativeQuery = true)
+    int reconstruirCicloEstudiante();
+    
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = ESTUDIANTES_CICLO))
+    @Query(value = "INSERT INTO resumen_estudiantes_ciclo (ciclo_academico, estudiantes) " +
+           AGREGADO_ESTUDIANTES_CICLO, nativeQuery = true)
+    int reconstruirEstudiantesCiclo();
+    
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = CURSOS_PROFESOR))
+    @Query(value = "INSERT INTO resumen_cursos_profesor (profesor_id, cursos) " +
+           AGREGADO_CURSOS_PROFESOR, nativeQuery = true)
+    int reconstruirCursosProfesor();
+}
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.gestionacademica.sistema_academico.repository.proyeccion;
+
+import java.util.List;
+
+/**
+ * Columnas de cursos que necesitan las lecturas de solo consulta (CursoDTO).
+ * Se selecciona directamente con una expresión constructora: no se crean entidades
+ * administradas ni instantáneas para el dirty checking.
+ */
+public record CursoFila(
+        Long id,
+        String codigo,
+        String nombre,
+        String descripcion,
+        Integer creditos,
+        Integer horasSemanales,
+        String nivelDificultad,
+        String cargaAcademica) {
+
+    // Expresión constructora para JPQL; la entidad debe tener el alias "c"
+    public static final String SELECT = "SELECT new com.gestionacademica.sistema_academico.repository.proyeccion.CursoFila(" +
+            "c.id, c.codigo, c.nombre, c.descripcion, c.creditos, c.horasSemanales, c.nivelDificultad, c.cargaAcademica) ";
+
+    // Atributos en el orden del constructor, para consultas con Criteria
+    public static final List<String> ATRIBUTOS = List.of(
+            "id", "codigo", "nombre", "descripcion", "creditos", "horasSemanales", "nivelDificultad", "cargaAcademica");
+}
@@ -0,0 +1,16 @@
+package com.gestionacademica.sistema_academico.repository.proyeccion;
+
+/**
+ * Curso con su profesor (si tiene), para las dimensiones del almacén analítico
+ */
+public record CursoProfesorFila(
+        Long id,
+        String codigo,
+        Long profesorId,
+        String profesorNombre,
+        String profesorApellido) {
+
+    // Expresión constructora para JPQL; el curso debe tener el alias "c" y su profesor "p"
+    public static final String SELECT = "SELECT new com.gestionacademica.sistema_academico.repository.proyeccion.CursoProfesorFila(" +
+            "c.id, c.codigo, p.id, p.nombre, p.apellido) ";
+}
@@ -0,0 +1,28 @@
+package com.gestionacademica.sistema_academico.repository.proyeccion;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Columnas de estudiantes que necesitan las lecturas de solo consulta (EstudianteDTO).
+ * Se selecciona directamente con una expresión constructora: no se crean entidades
+ * administradas ni instantáneas para el dirty checking.
+ */
+public record EstudianteFila(
+        Long id,
+        String carnet,
+        String nombre,
+        String apellido,
+        String email,
+        String telefono,
+        LocalDate fechaNacimiento,
+        LocalDate fechaIngreso) {
+
+    // Expresión constructora para JPQL; la entidad debe tener el alias "e"
+    public static final String SELECT = "SELECT new com.gestionacademica.sistema_academico.repository.proyeccion.EstudianteFila(" +
+            "e.id, e.carnet, e.nombre, e.apellido, e.email, e.telefono, e.fechaNacimiento, e.fechaIngreso) ";
+
+    // Atributos en el orden del constructor, para consultas con Criteria
+    public static final List<String> ATRIBUTOS = List.of(
+            "id", "carnet", "nombre", "apellido", "email", "telefono", "fechaNacimiento", "fechaIngreso");
+}
@@ -0,0 +1,28 @@
+package com.gestionacademica.sistema_academico.repository.proyeccion;
+
+/**
+ * Fila de la consulta nativa del resumen con GROUPING SETS. Cada fila pertenece a una
+ * sección y solo trae las columnas de esa sección (el resto en null):
+ * "curso" (nombre, promedio, posicion), "profesor" (nombre, cantidad de cursos) y
+ * "ciclo" (ciclo, cantidad de estudiantes distintos).
+ * Es una interfaz porque las consultas nativas se proyectan por alias de columna.
+ */
+public interface FilaResumenAgrupado {
+
+    String SECCION_CURSO = "curso";
+    String SECCION_PROFESOR = "profesor";
+    String SECCION_CICLO = "ciclo";
+
+    String getSeccion();
+
+    String getNombre();
+
+    String getCiclo();
+
+    Double getPromedio();
+
+    Long getCantidad();
+
+    // Puesto del curso por nota promedio (1 = mejor); empates por nombre e ID
+    Long getPosicion();
+}
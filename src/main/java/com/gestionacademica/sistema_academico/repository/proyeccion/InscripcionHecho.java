@@ -0,0 +1,20 @@
+package com.gestionacademica.sistema_academico.repository.proyeccion;
+
+import java.time.LocalDate;
+
+/**
+ * Fila de inscripción con las columnas que carga el almacén analítico en memoria.
+ * La fecha de ingreso del estudiante da la cohorte; su ID, los conteos de estudiantes distintos.
+ */
+public record InscripcionHecho(
+        Long id,
+        Long estudianteId,
+        Long cursoId,
+        String cicloAcademico,
+        Double notaFinal,
+        LocalDate fechaIngreso) {
+
+    // Expresión constructora para JPQL; la inscripción debe tener el alias "i" y su estudiante "e"
+    public static final String SELECT = "SELECT new com.gestionacademica.sistema_academico.repository.proyeccion.InscripcionHecho(" +
+            "i.id, e.id, i.curso.id, i.cicloAcademico, i.notaFinal, e.fechaIngreso) ";
+}
@@ -0,0 +1,20 @@
+package com.gestionacademica.sistema_academico.repository.proyeccion;
+
+/**
+ * Inscripción registrada en analitica_notas_modificadas, con su curso, ciclo y nota actuales.
+ * Si la inscripción ya no existe, solo trae la modificación (el resto en null).
+ * Es una interfaz porque las consultas nativas se proyectan por alias de columna.
+ */
+public interface NotaModificada {
+
+    // ID de la fila de analitica_notas_modificadas (marca de lectura)
+    Long getModificacion();
+
+    Long getId();
+
+    Long getCursoId();
+
+    String getCiclo();
+
+    Double getNota();
+}
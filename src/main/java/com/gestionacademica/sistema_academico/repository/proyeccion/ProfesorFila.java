@@ -0,0 +1,27 @@
+package com.gestionacademica.sistema_academico.repository.proyeccion;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Columnas de profesores que necesitan las lecturas de solo consulta (ProfesorDTO).
+ * Se selecciona directamente con una expresión constructora: no se crean entidades
+ * administradas ni instantáneas para el dirty checking.
+ */
+public record ProfesorFila(
+        Long id,
+        String nombre,
+        String apellido,
+        String email,
+        String telefono,
+        String especialidad,
+        LocalDate fechaContratacion) {
+
+    // Expresión constructora para JPQL; la entidad debe tener el alias "p"
+    public static final String SELECT = "SELECT new com.gestionacademica.sistema_academico.repository.proyeccion.ProfesorFila(" +
+            "p.id, p.nombre, p.apellido, p.email, p.telefono, p.especialidad, p.fechaContratacion) ";
+
+    // Atributos en el orden del constructor, para consultas con Criteria
+    public static final List<String> ATRIBUTOS = List.of(
+            "id", "nombre", "apellido", "email", "telefono", "especialidad", "fechaContratacion");
+}
@@ -0,0 +1,506 @@
+package com.gestionacademica.sistema_academico.service;
+
+import com.gestionacademica.sistema_academico.dto.reporte.ConteoDistintoDTO;
+import com.gestionacademica.sistema_academico.dto.reporte.DistribucionNotasDTO;
+import com.gestionacademica.sistema_academico.dto.reporte.EstudiantesPorCicloDTO;
+import com.gestionacademica.sistema_academico.dto.reporte.GrupoOlapDTO;
+import com.gestionacademica.sistema_academico.dto.reporte.ResultadoOlapDTO;
+import com.gestionacademica.sistema_academico.repository.CursoRepository;
+import com.gestionacademica.sistema_academico.repository.InscripcionRepository;
+import com.gestionacademica.sistema_academico.repository.proyeccion.InscripcionHecho;
+import com.gestionacademica.sistema_academico.repository.proyeccion.NotaModificada;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Consultas analíticas sobre inscripciones (agrupar, filtrar y agregar) resueltas en memoria
+ * con TablaHechosInscripciones, sin recorrer la tabla de inscripciones en cada reporte.
+ *
+ * La tabla se carga completa con la primera consulta. Después, cada consulta que encuentra
+ * la tabla con más de app.reportes.olap.refresco de antigüedad carga las inscripciones nuevas
+ * (por ID), aplica las notas modificadas que registró el trigger de analitica_notas_modificadas
+ * y actualiza los cursos. Si faltan o sobran inscripciones ya cargadas (eliminaciones, o
+ * inserciones confirmadas fuera de orden) o una inscripción cambió de curso o de ciclo, la
+ * tabla se reconstruye; también cada app.reportes.olap.reconstruccion, por si una
+ * modificación se confirmó después de otra posterior que ya se leyó.
+ *
+ * Las reconstrucciones corren en un hilo aparte: mientras tanto las consultas siguen usando
+ * (y refrescando) la tabla anterior, que se reemplaza al terminar. Solo la primera carga se espera.
+ *
+ * Los conteos de estudiantes distintos son aproximados (HyperLogLog) y los percentiles de
+ * nota también (t-digest). Una nota modificada se quita del t-digest descontándola del
+ * centroide más cercano, así que los percentiles se aproximan algo menos hasta la siguiente
+ * reconstrucción; el histograma y los agregados por grupo quedan exactos.
+ */
+@Service
+public class AnaliticaInscripcionesService {
+    
+    private static final int LIMITE_POR_DEFECTO = 1000;
+    private static final int LIMITE_MAXIMO = 10000;
+    private static final double ANCHO_RANGO_POR_DEFECTO = 5;
+    private static final List<Double> PERCENTILES_POR_DEFECTO = List.of(10.0, 50.0, 90.0);
+    
+    @Autowired
+    private InscripcionRepository inscripcionRepository;
+    
+    @Autowired
+    private CursoRepository cursoRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${app.reportes.olap.refresco:PT10S}")
+    private Duration intervaloRefresco;
+    
+    @Value("${app.reportes.olap.reconstruccion:PT1H}")
+    private Duration intervaloReconstruccion;
+    
+    @Value("${app.reportes.olap.lote:10000}")
+    private int tamañoLote;
+    
+    private TransactionTemplate lectura;
+    private TransactionTemplate escritura;
+    private ThreadPoolTaskExecutor ejecutorReconstruccion;
+    
+    // Un solo hilo refresca a la vez; las consultas leen la tabla vigente sin esperar
+    private final ReentrantLock cargando = new ReentrantLock();
+    // Reconstrucción en curso (a lo sumo una)
+    private final AtomicReference<CompletableFuture<TablaHechosInscripciones>> reconstruyendo = new AtomicReference<>();
+    private volatile TablaHechosInscripciones tabla;
+    private volatile long ultimoRefresco;
+    private volatile long ultimaReconstruccion;
+    private volatile Instant actualizado;
+    
+    @PostConstruct
+    void configurar() {
+        lectura = new TransactionTemplate(transactionManager);
+        lectura.setReadOnly(true);
+        escritura = new TransactionTemplate(transactionManager);
+        
+        ejecutorReconstruccion = new ThreadPoolTaskExecutor();
+        ejecutorReconstruccion.setCorePoolSize(1);
+        ejecutorReconstruccion.setMaxPoolSize(1);
+        ejecutorReconstruccion.setQueueCapacity(1);
+        ejecutorReconstruccion.setThreadNamePrefix("olap-reconstruccion-");
+        ejecutorReconstruccion.initialize();
+    }
+    
+    @PreDestroy
+    void cerrar() {
+        ejecutorReconstruccion.shutdown();
+    }
+    
+    /**
+     * Agrupa las inscripciones por las dimensiones indicadas (ciclo, curso, profesor, cohorte,
+     * rangoNota) y calcula cantidad, promedio, mínima y máxima de la nota por grupo
+     */
+    public ResultadoOlapDTO consultar(List<String> agrupar, Set<String> ciclos, Set<String> cursos,
+                                      Set<Long> profesores, Set<Integer> cohortes, Double notaMinima,
+                                      Double notaMaxima, Double anchoRango, String orden, Integer limite) {
+        List<TablaHechosInscripciones.Dimension> dimensiones = agrupar == null ? List.of()
+                : agrupar.stream()
+                        .filter(nombre -> !nombre.isBlank())
+                        .map(TablaHechosInscripciones.Dimension::de)
+                        .distinct()
+                        .collect(Collectors.toList());
+        double ancho = anchoRango == null ? ANCHO_RANGO_POR_DEFECTO : anchoRango;
+        if (!(ancho > 0)) {
+            throw new IllegalArgumentException("El ancho de rango de nota debe ser mayor que 0");
+        }
+        if (notaMinima != null && notaMaxima != null && notaMinima > notaMaxima) {
+            throw new IllegalArgumentException("La nota mínima no puede ser mayor que la nota máxima");
+        }
+        int cantidad = limite == null ? LIMITE_POR_DEFECTO : limite;
+        if (cantidad < 1 || cantidad > LIMITE_MAXIMO) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + LIMITE_MAXIMO);
+        }
+        Comparator<TablaHechosInscripciones.Grupo> comparador = comparador(orden, dimensiones);
+        
+        TablaHechosInscripciones.Consulta consulta = new TablaHechosInscripciones.Consulta(
+                dimensiones, vacioComoNulo(ciclos), vacioComoNulo(cursos), vacioComoNulo(profesores),
+                vacioComoNulo(cohortes), notaMinima, notaMaxima, ancho);
+        
+        try {
+            TablaHechosInscripciones vigente = tablaVigente();
+            long inicio = System.nanoTime();
+            TablaHechosInscripciones.Resultado resultado = vigente.consultar(consulta);
+        
+            List<GrupoOlapDTO> grupos = resultado.grupos().stream()
+                    .sorted(comparador)
+                    .limit(cantidad)
+                    .map(grupo -> convertir(dimensiones, grupo))
+                    .collect(Collectors.toList());
+            double milisegundos = (System.nanoTime() - inicio) / 1_000_000.0;
+        
+            return new ResultadoOlapDTO(
+                    dimensiones.stream().map(dimension -> dimension.nombre).collect(Collectors.toList()),
+                    grupos, (long) resultado.grupos().size(), resultado.filasEscaneadas(),
+                    resultado.segmentos(), milisegundos, actualizado);
+        } catch (Exception e) {
+            throw new RuntimeException("Error al consultar la analítica de inscripciones: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Estudiantes distintos por ciclo, estimados con los sketches en memoria en lugar de
+     * COUNT(DISTINCT) sobre todas las inscripciones; mismo orden que el reporte exacto
+     */
+    public List<EstudiantesPorCicloDTO> obtenerEstudiantesPorCicloAproximado() {
+        try {
+            TablaHechosInscripciones vigente = tablaVigente();
+            return vigente.ciclos().stream()
+                    .sorted(Comparator.nullsLast(Comparator.naturalOrder()))
+                    .map(ciclo -> new EstudiantesPorCicloDTO(ciclo, vigente.estudiantesDelCiclo(ciclo).estimar()))
+                    .collect(Collectors.toList());
+        } catch (Exception e) {
+            throw new RuntimeException("Error al estimar los estudiantes por ciclo: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Estudiantes distintos inscritos en alguno de los ciclos indicados (o de un año: los
+     * ciclos que empiezan con él) y, si se indican, en alguno de los cursos. Sin ciclos ni
+     * año cuenta todos los ciclos. Combina los sketches de cada ciclo (o ciclo y curso).
+     */
+    public ConteoDistintoDTO contarEstudiantesDistintos(Set<String> ciclos, String anio, Set<String> cursos) {
+        if (anio != null && !anio.isBlank() && !anio.trim().matches("\\d{4}")) {
+            throw new IllegalArgumentException("El año debe tener 4 dígitos: " + anio);
+        }
+        
+        try {
+            TablaHechosInscripciones vigente = tablaVigente();
+            Set<String> ciclosBuscados = vacioComoNulo(ciclos);
+            if (anio != null && !anio.isBlank()) {
+                Set<String> delAnio = vigente.ciclos().stream()
+                        .filter(ciclo -> ciclo != null && ciclo.startsWith(anio.trim()))
+                        .collect(Collectors.toCollection(HashSet::new));
+                if (ciclosBuscados == null) {
+                    ciclosBuscados = delAnio;
+                } else {
+                    ciclosBuscados.addAll(delAnio);
+                }
+            }
+            Set<String> cursosBuscados = vacioComoNulo(cursos);
+            
+            long inicio = System.nanoTime();
+            HyperLogLog union = vigente.estudiantesDistintos(ciclosBuscados, cursosBuscados);
+            long estimado = union.estimar();
+            double microsegundos = (System.nanoTime() - inicio) / 1_000.0;
+            
+            // Intervalo de ~95 % (dos errores estándar); sin error mientras el conteo es exacto
+            long margen = Math.round(2 * union.errorRelativo() * estimado);
+            return new ConteoDistintoDTO(estimado, union.esExacto(), union.errorRelativo(),
+                    Math.max(0, estimado - margen), estimado + margen,
+                    ciclosBuscados == null ? null : ciclosBuscados.stream().sorted().collect(Collectors.toList()),
+                    cursosBuscados == null ? null : cursosBuscados.stream().sorted().collect(Collectors.toList()),
+                    microsegundos);
+        } catch (Exception e) {
+            throw new RuntimeException("Error al contar los estudiantes distintos: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Distribución de notas por curso (por defecto), por ciclo o del total ("total"):
+     * percentiles estimados con t-digest e histograma exacto con intervalos del ancho indicado
+     */
+    public List<DistribucionNotasDTO> obtenerDistribucionNotas(String por, Set<String> ciclos, Set<String> cursos,
+                                                               List<Double> percentiles, Integer anchoHistograma) {
+        String agrupar = por == null || por.isBlank() ? "curso" : por.trim();
+        if (!agrupar.equals("total") && !agrupar.equals("curso") && !agrupar.equals("ciclo")) {
+            throw new IllegalArgumentException("Agrupación no soportada: " + por + " (valores: curso, ciclo, total)");
+        }
+        List<Double> buscados = percentiles == null || percentiles.isEmpty() ? PERCENTILES_POR_DEFECTO : percentiles;
+        for (Double percentil : buscados) {
+            if (percentil == null || !(percentil >= 0 && percentil <= 100)) {
+                throw new IllegalArgumentException("Los percentiles deben estar entre 0 y 100");
+            }
+        }
+        int ancho = anchoHistograma == null ? 1 : anchoHistograma;
+        if (ancho < 1 || ancho > DistribucionNotas.INTERVALOS_MAXIMOS) {
+            throw new IllegalArgumentException("El ancho del histograma debe estar entre 1 y " +
+                    DistribucionNotas.INTERVALOS_MAXIMOS);
+        }
+        
+        try {
+            TablaHechosInscripciones vigente = tablaVigente();
+            Set<String> ciclosBuscados = vacioComoNulo(ciclos);
+            Set<String> cursosBuscados = vacioComoNulo(cursos);
+            
+            if (agrupar.equals("total")) {
+                DistribucionNotas total = vigente.distribucionNotas(ciclosBuscados, cursosBuscados);
+                return List.of(convertir(null, total, buscados, ancho));
+            }
+            return vigente.distribucionNotasPor(TablaHechosInscripciones.Dimension.de(agrupar),
+                            ciclosBuscados, cursosBuscados).entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey(Comparator.nullsLast(Comparator.naturalOrder())))
+                    .map(grupo -> convertir(grupo.getKey(), grupo.getValue(), buscados, ancho))
+                    .collect(Collectors.toList());
+        } catch (Exception e) {
+            throw new RuntimeException("Error al obtener la distribución de notas: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Vuelve a cargar la tabla en memoria completa y espera a que termine; las demás
+     * consultas siguen usando la tabla anterior hasta entonces
+     */
+    public Map<String, Object> recargar() {
+        try {
+            long inicio = System.nanoTime();
+            // Una reconstrucción que ya estaba en curso pudo leer antes de este pedido
+            CompletableFuture<TablaHechosInscripciones> anterior = reconstruyendo.get();
+            if (anterior != null) {
+                anterior.handle((nueva, error) -> null).join();
+            }
+            TablaHechosInscripciones nueva = esperar(reconstruirEnSegundoPlano());
+        
+            Map<String, Object> estado = new LinkedHashMap<>();
+            estado.put("filas", nueva.filas());
+            estado.put("segmentos", nueva.segmentos());
+            estado.put("milisegundos", (System.nanoTime() - inicio) / 1_000_000);
+            estado.put("actualizado", actualizado);
+            return estado;
+        } catch (Exception e) {
+            throw new RuntimeException("Error al recargar la analítica de inscripciones: " + e.getMessage());
+        }
+    }
+    
+    // ============ CARGA DE LA TABLA EN MEMORIA ============
+    
+    private TablaHechosInscripciones tablaVigente() {
+        TablaHechosInscripciones vigente = tabla;
+        if (vigente == null) {
+            // Sin tabla no hay nada que mostrar: la primera carga se espera
+            return esperar(reconstruirEnSegundoPlano());
+        } else if (System.nanoTime() - ultimoRefresco >= intervaloRefresco.toNanos() && cargando.tryLock()) {
+            // Si otro hilo ya está cargando, esta consulta usa la tabla tal como está
+            try {
+                refrescar();
+            } finally {
+                cargando.unlock();
+            }
+        }
+        return tabla;
+    }
+    
+    private void refrescar() {
+        if (System.nanoTime() - ultimaReconstruccion >= intervaloReconstruccion.toNanos()) {
+            reconstruirEnSegundoPlano();
+        }
+        
+        // Mientras se reconstruye, la tabla anterior se sigue refrescando
+        TablaHechosInscripciones actual = tabla;
+        boolean consistente = Boolean.TRUE.equals(lectura.execute(estado -> {
+            cargarNuevas(actual);
+            boolean notasAplicadas = aplicarNotasModificadas(actual);
+            actual.actualizarCursos(cursoRepository.findCursosConProfesor());
+            return notasAplicadas && inscripcionRepository.countByIdLessThanEqual(actual.ultimoId()) == actual.filas();
+        }));
+        ultimoRefresco = System.nanoTime();
+        actualizado = Instant.now();
+        if (!consistente) {
+            reconstruirEnSegundoPlano();
+        }
+    }
+    
+    /**
+     * Inicia una reconstrucción en el hilo de reconstrucción, o retorna la que ya está en curso
+     */
+    private CompletableFuture<TablaHechosInscripciones> reconstruirEnSegundoPlano() {
+        CompletableFuture<TablaHechosInscripciones> nueva = new CompletableFuture<>();
+        CompletableFuture<TablaHechosInscripciones> enCurso = reconstruyendo.compareAndExchange(null, nueva);
+        if (enCurso != null) {
+            return enCurso;
+        }
+        ultimaReconstruccion = System.nanoTime();
+        try {
+            ejecutorReconstruccion.execute(() -> {
+                TablaHechosInscripciones resultado = null;
+                Throwable error = null;
+                try {
+                    resultado = reconstruir();
+                } catch (Throwable e) {
+                    error = e;
+                }
+                // Se libera antes de avisar: quien esperaba esta reconstrucción puede pedir otra
+                reconstruyendo.compareAndSet(nueva, null);
+                if (error == null) {
+                    nueva.complete(resultado);
+                } else {
+                    nueva.completeExceptionally(error);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            reconstruyendo.compareAndSet(nueva, null);
+            nueva.completeExceptionally(e);
+        }
+        return nueva;
+    }
+    
+    private TablaHechosInscripciones reconstruir() {
+        TablaHechosInscripciones nueva = new TablaHechosInscripciones();
+        lectura.executeWithoutResult(estado -> {
+            // La marca se lee antes que las filas: lo que se modifique después se vuelve a aplicar
+            nueva.marcarModificacion(inscripcionRepository.findUltimaNotaModificada());
+            cargarNuevas(nueva);
+            nueva.actualizarCursos(cursoRepository.findCursosConProfesor());
+        });
+        escritura.executeWithoutResult(estado -> inscripcionRepository.deleteNotasModificadasAnteriores(
+                intervaloReconstruccion.multipliedBy(2).toSeconds()));
+        
+        // Se reemplaza entre dos refrescos de la tabla anterior
+        cargando.lock();
+        try {
+            tabla = nueva;
+            ultimoRefresco = System.nanoTime();
+            actualizado = Instant.now();
+        } finally {
+            cargando.unlock();
+        }
+        return nueva;
+    }
+    
+    private static TablaHechosInscripciones esperar(CompletableFuture<TablaHechosInscripciones> reconstruccion) {
+        try {
+            return reconstruccion.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException causa ? causa : e;
+        }
+    }
+    
+    private void cargarNuevas(TablaHechosInscripciones destino) {
+        long filasAntes = destino.filas();
+        List<InscripcionHecho> lote;
+        do {
+            lote = inscripcionRepository.findHechosDesde(destino.ultimoId(), Limit.of(tamañoLote));
+            for (InscripcionHecho hecho : lote) {
+                destino.agregar(hecho.id(), hecho.estudianteId(), hecho.cursoId(), hecho.cicloAcademico(),
+                        hecho.notaFinal(), hecho.fechaIngreso());
+            }
+        } while (lote.size() == tamañoLote);
+        if (destino.filas() != filasAntes) {
+            destino.compactar();
+        }
+    }
+    
+    /**
+     * Aplica las modificaciones registradas después de la marca de la tabla; false si alguna
+     * inscripción cambió de curso o de ciclo y la tabla se debe reconstruir
+     */
+    private boolean aplicarNotasModificadas(TablaHechosInscripciones destino) {
+        boolean aplicadas = true;
+        List<NotaModificada> lote;
+        do {
+            lote = inscripcionRepository.findNotasModificadasDesde(destino.ultimaModificacion(), tamañoLote);
+            for (NotaModificada modificada : lote) {
+                // Una inscripción eliminada la detecta el conteo
+                if (modificada.getId() != null && !destino.actualizarNota(modificada.getId(),
+                        modificada.getCursoId(), modificada.getCiclo(), modificada.getNota())) {
+                    aplicadas = false;
+                }
+            }
+            if (!lote.isEmpty()) {
+                destino.marcarModificacion(lote.get(lote.size() - 1).getModificacion());
+            }
+        } while (lote.size() == tamañoLote);
+        return aplicadas;
+    }
+    
+    // ============ MÉTODOS AUXILIARES ============
+    
+    /**
+     * Orden de los grupos: "inscripciones" (por defecto) y "promedio" de mayor a menor,
+     * "grupo" por los valores de las dimensiones
+     */
+    private static Comparator<TablaHechosInscripciones.Grupo> comparador(
+            String orden, List<TablaHechosInscripciones.Dimension> dimensiones) {
+        String criterio = orden == null || orden.isBlank() ? "inscripciones" : orden.trim();
+        Comparator<TablaHechosInscripciones.Grupo> porGrupo = porValores(dimensiones);
+        return switch (criterio) {
+            case "inscripciones" -> Comparator.comparingLong(TablaHechosInscripciones.Grupo::inscripciones)
+                    .reversed().thenComparing(porGrupo);
+            case "promedio" -> Comparator.comparing(TablaHechosInscripciones.Grupo::notaPromedio,
+                    Comparator.nullsLast(Comparator.<Double>reverseOrder())).thenComparing(porGrupo);
+            case "grupo" -> porGrupo;
+            default -> throw new IllegalArgumentException("Orden no soportado: " + orden +
+                    " (valores: inscripciones, promedio, grupo)");
+        };
+    }
+    
+    private static Comparator<TablaHechosInscripciones.Grupo> porValores(
+            List<TablaHechosInscripciones.Dimension> dimensiones) {
+        Comparator<TablaHechosInscripciones.Grupo> comparador = (a, b) -> 0;
+        for (int i = 0; i < dimensiones.size(); i++) {
+            int posicion = i;
+            // Cohortes y rangos de nota ("15-20") se ordenan por su valor numérico
+            Comparator<String> valores = switch (dimensiones.get(i)) {
+                case COHORTE, RANGO_NOTA -> Comparator.comparingDouble(valor -> Double.parseDouble(valor.split("-")[0]));
+                default -> Comparator.naturalOrder();
+            };
+            comparador = comparador.thenComparing(grupo -> grupo.valores().get(posicion),
+                    Comparator.nullsLast(valores));
+        }
+        return comparador;
+    }
+    
+    private static GrupoOlapDTO convertir(List<TablaHechosInscripciones.Dimension> dimensiones,
+                                          TablaHechosInscripciones.Grupo grupo) {
+        Map<String, String> valores = new LinkedHashMap<>();
+        for (int i = 0; i < dimensiones.size(); i++) {
+            valores.put(dimensiones.get(i).nombre, grupo.valores().get(i));
+        }
+        return new GrupoOlapDTO(valores, grupo.inscripciones(), grupo.conNota(), grupo.notaPromedio(),
+                grupo.notaMinima(), grupo.notaMaxima());
+    }
+    
+    private static DistribucionNotasDTO convertir(String grupo, DistribucionNotas distribucion,
+                                                  List<Double> percentiles, int ancho) {
+        boolean vacia = distribucion.cantidad() == 0;
+        Map<String, Double> valores = new LinkedHashMap<>();
+        for (double percentil : percentiles) {
+            valores.put("p" + numero(percentil), vacia ? null : redondear(distribucion.percentil(percentil)));
+        }
+        Map<String, Long> histograma = new LinkedHashMap<>();
+        long[] cantidades = distribucion.histograma(ancho);
+        for (int i = 0; i < cantidades.length; i++) {
+            histograma.put(numero((double) i * ancho) + "-" + numero((double) (i + 1) * ancho), cantidades[i]);
+        }
+        return new DistribucionNotasDTO(grupo, distribucion.cantidad(),
+                vacia ? null : distribucion.minimo(), vacia ? null : distribucion.maximo(), valores, histograma);
+    }
+    
+    private static double redondear(double valor) {
+        return Math.round(valor * 100) / 100.0;
+    }
+    
+    private static String numero(double valor) {
+        return BigDecimal.valueOf(valor).stripTrailingZeros().toPlainString();
+    }
+    
+    private static <T> Set<T> vacioComoNulo(Set<T> valores) {
+        return valores == null || valores.isEmpty() ? null : new HashSet<>(valores);
+    }
+}
@@ -0,0 +1,243 @@
+package com.gestionacademica.sistema_academico.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Caché local acotada por tamaño y por tiempo para búsquedas por clave única.
+ *
+ * Admisión al estilo W-TinyLFU: las claves nuevas entran a una ventana LRU pequeña y,
+ * al salir de ella, solo pasan a la zona principal si su frecuencia estimada (sketch
+ * Count-Min con envejecimiento) supera la de la víctima LRU. Así una ráfaga de claves
+ * consultadas una sola vez no desaloja a las consultadas a menudo.
+ *
+ * Las búsquedas sin resultado también se guardan, con un TTL propio (caché negativa).
+ *
+ * Métricas: cache.busqueda.consultas{cache, resultado}, cache.busqueda.desalojos{cache, causa},
+ * cache.busqueda.tasa.aciertos{cache} y cache.busqueda.entradas{cache}
+ */
+final class CacheCercano<V> {
+
+    private record Entrada<V>(Optional<V> valor, long expira) {}
+
+    private final int capacidadVentana;
+    private final int capacidadPrincipal;
+    private final long ttl;
+    private final long ttlNegativo;
+    private final LongSupplier reloj;
+
+    // Orden de acceso: el primer elemento es el usado hace más tiempo
+    private final LinkedHashMap<String, Entrada<V>> ventana = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, Entrada<V>> principal = new LinkedHashMap<>(16, 0.75f, true);
+    private final SketchFrecuencias frecuencias;
+
+    // Cambia con cada invalidación: una carga que empezó antes no puede guardar su resultado
+    private long generacion = 0;
+
+    private final Counter aciertos;
+    private final Counter fallos;
+    private final Counter desalojosCapacidad;
+    private final Counter desalojosExpiracion;
+
+    CacheCercano(String nombre, int tamañoMaximo, Duration ttl, Duration ttlNegativo,
+                 MeterRegistry registry, LongSupplier reloj) {
+        if (tamañoMaximo < 2) {
+            throw new IllegalArgumentException("El tamaño máximo de la caché debe ser al menos 2");
+        }
+
+        this.capacidadVentana = Math.max(1, tamañoMaximo / 100);
+        this.capacidadPrincipal = tamañoMaximo - capacidadVentana;
+        this.ttl = ttl.toNanos();
+        this.ttlNegativo = ttlNegativo.toNanos();
+        this.reloj = reloj;
+        this.frecuencias = new SketchFrecuencias(tamañoMaximo);
+
+        aciertos = Counter.builder("cache.busqueda.consultas")
+                .tag("cache", nombre).tag("resultado", "acierto").register(registry);
+        fallos = Counter.builder("cache.busqueda.consultas")
+                .tag("cache", nombre).tag("resultado", "fallo").register(registry);
+        desalojosCapacidad = Counter.builder("cache.busqueda.desalojos")
+                .tag("cache", nombre).tag("causa", "capacidad").register(registry);
+        desalojosExpiracion = Counter.builder("cache.busqueda.desalojos")
+                .tag("cache", nombre).tag("causa", "expiracion").register(registry);
+
+        Gauge.builder("cache.busqueda.tasa.aciertos", this, CacheCercano::tasaAciertos)
+                .tag("cache", nombre)
+                .description("Aciertos sobre el total de consultas")
+                .register(registry);
+        Gauge.builder("cache.busqueda.entradas", this, CacheCercano::tamaño)
+                .tag("cache", nombre)
+                .register(registry);
+    }
+
+    /**
+     * Retorna el valor de la clave; si no está en caché lo carga y lo guarda (también si no existe)
+     */
+    Optional<V> obtener(String clave, Function<String, Optional<V>> cargar) {
+        long generacionLeida;
+        synchronized (this) {
+            frecuencias.incrementar(clave);
+            Entrada<V> entrada = buscar(clave);
+            if (entrada != null) {
+                aciertos.increment();
+                return entrada.valor();
+            }
+            generacionLeida = generacion;
+        }
+
+        fallos.increment();
+        Optional<V> valor = cargar.apply(clave);
+
+        synchronized (this) {
+            if (generacion == generacionLeida) {
+                guardar(clave, valor);
+            }
+        }
+        return valor;
+    }
+
+    synchronized void invalidar(String clave) {
+        generacion++;
+        ventana.remove(clave);
+        principal.remove(clave);
+    }
+
+    synchronized void invalidarTodo() {
+        generacion++;
+        ventana.clear();
+        principal.clear();
+    }
+
+    synchronized int tamaño() {
+        return ventana.size() + principal.size();
+    }
+
+    double tasaAciertos() {
+        double total = aciertos.count() + fallos.count();
+        return total == 0 ? 0 : aciertos.count() / total;
+    }
+
+    private Entrada<V> buscar(String clave) {
+        Map<String, Entrada<V>> zona = ventana.containsKey(clave) ? ventana : principal;
+        Entrada<V> entrada = zona.get(clave);
+        if (entrada != null && expirada(entrada)) {
+            zona.remove(clave);
+            desalojosExpiracion.increment();
+            return null;
+        }
+        return entrada;
+    }
+
+    private void guardar(String clave, Optional<V> valor) {
+        principal.remove(clave);
+        long vence = reloj.getAsLong() + (valor.isPresent() ? ttl : ttlNegativo);
+        ventana.put(clave, new Entrada<>(valor, vence));
+
+        if (ventana.size() > capacidadVentana) {
+            Iterator<Map.Entry<String, Entrada<V>>> antiguas = ventana.entrySet().iterator();
+            Map.Entry<String, Entrada<V>> candidata = antiguas.next();
+            antiguas.remove();
+            admitir(candidata.getKey(), candidata.getValue());
+        }
+    }
+
+    /**
+     * Decide si la clave que sale de la ventana entra a la zona principal
+     */
+    private void admitir(String clave, Entrada<V> entrada) {
+        if (expirada(entrada)) {
+            desalojosExpiracion.increment();
+            return;
+        }
+
+        if (principal.size() < capacidadPrincipal) {
+            principal.put(clave, entrada);
+            return;
+        }
+
+        Iterator<Map.Entry<String, Entrada<V>>> antiguas = principal.entrySet().iterator();
+        Map.Entry<String, Entrada<V>> victima = antiguas.next();
+        if (expirada(victima.getValue())) {
+            antiguas.remove();
+            desalojosExpiracion.increment();
+            principal.put(clave, entrada);
+            return;
+        }
+
+        desalojosCapacidad.increment();
+        if (frecuencias.estimar(clave) > frecuencias.estimar(victima.getKey())) {
+            antiguas.remove();
+            principal.put(clave, entrada);
+        }
+    }
+
+    private boolean expirada(Entrada<V> entrada) {
+        return reloj.getAsLong() - entrada.expira() >= 0;
+    }
+
+    /**
+     * Sketch Count-Min de 4 filas con contadores de hasta 15. Cada 10 veces el tamaño
+     * de la caché en incrementos, todos los contadores se reducen a la mitad para que
+     * las frecuencias antiguas pierdan peso.
+     */
+    private static final class SketchFrecuencias {
+
+        private static final int FILAS = 4;
+        private static final int MAXIMO = 15;
+        private static final int[] SEMILLAS = {0x97CB3127, 0xB5FC2A8F, 0x3C6EF372, 0xA54FF53A};
+
+        private final byte[] contadores;
+        private final int ancho;
+        private final int muestra;
+        private int incrementos = 0;
+
+        SketchFrecuencias(int tamañoMaximo) {
+            // Unas 8 columnas por entrada: con menos, las colisiones de un recorrido
+            // de claves nuevas las hacen parecer frecuentes
+            this.ancho = Integer.highestOneBit(Math.max(16, tamañoMaximo * 8 - 1) << 1);
+            this.contadores = new byte[FILAS * ancho];
+            this.muestra = 10 * tamañoMaximo;
+        }
+
+        void incrementar(String clave) {
+            int hash = clave.hashCode();
+            for (int fila = 0; fila < FILAS; fila++) {
+                int indice = indice(hash, fila);
+                if (contadores[indice] < MAXIMO) {
+                    contadores[indice]++;
+                }
+            }
+
+            if (++incrementos >= muestra) {
+                for (int i = 0; i < contadores.length; i++) {
+                    contadores[i] >>= 1;
+                }
+                incrementos /= 2;
+            }
+        }
+
+        int estimar(String clave) {
+            int hash = clave.hashCode();
+            int minimo = MAXIMO;
+            for (int fila = 0; fila < FILAS; fila++) {
+                minimo = Math.min(minimo, contadores[indice(hash, fila)]);
+            }
+            return minimo;
+        }
+
+        private int indice(int hash, int fila) {
+            int mezcla = (hash ^ (hash >>> 16)) * SEMILLAS[fila];
+            mezcla ^= mezcla >>> 15;
+            return fila * ancho + (mezcla & (ancho - 1));
+        }
+    }
+}
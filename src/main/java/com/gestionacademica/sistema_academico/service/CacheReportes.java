@@ -0,0 +1,71 @@
+package com.gestionacademica.sistema_academico.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Caché de los resultados de /api/reportes, por reporte y parámetros. Los servicios la
+ * invalidan en cada escritura que cambia inscripciones, cursos o nombres de profesores:
+ * al ejecutarla y otra vez cuando la transacción confirma.
+ */
+@Component
+class CacheReportes {
+
+    @Value("${app.reportes.cache.ttl:PT30S}")
+    private Duration ttl;
+
+    @Value("${app.reportes.cache.obsoleto-maximo:PT5M}")
+    private Duration obsoletoMaximo;
+
+    @Value("${app.reportes.cache.tamano-maximo:500}")
+    private int tamañoMaximo;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ThreadPoolTaskExecutor refresco;
+    private CacheResultados<Object> resultados;
+
+    @PostConstruct
+    void crearCache() {
+        refresco = new ThreadPoolTaskExecutor();
+        refresco.setCorePoolSize(2);
+        refresco.setMaxPoolSize(2);
+        refresco.setQueueCapacity(100);
+        refresco.setThreadNamePrefix("reporte-refresco-");
+        refresco.initialize();
+
+        resultados = new CacheResultados<>("reportes", ttl, obsoletoMaximo, tamañoMaximo,
+                refresco, meterRegistry, System::currentTimeMillis);
+    }
+
+    @PreDestroy
+    void cerrar() {
+        refresco.shutdown();
+    }
+
+    /**
+     * Resultado del reporte con esa clave (nombre del reporte y parámetros)
+     */
+    @SuppressWarnings("unchecked")
+    <T> ResultadoCacheado<T> obtener(String clave, Supplier<T> calcular) {
+        return (ResultadoCacheado<T>) resultados.obtener(clave, calcular::get);
+    }
+
+    /**
+     * Invalida todos los reportes ahora y otra vez al confirmar la transacción, para descartar
+     * también lo que otra consulta haya calculado mientras la escritura estaba en curso
+     */
+    void invalidar() {
+        resultados.invalidarTodo();
+        DespuesDelCommit.ejecutar(resultados::invalidarTodo);
+    }
+}
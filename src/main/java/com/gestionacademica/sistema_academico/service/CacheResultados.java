@@ -0,0 +1,185 @@
+package com.gestionacademica.sistema_academico.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Caché de resultados por clave con TTL y stale-while-revalidate.
+ *
+ * Un resultado más joven que el TTL se sirve tal cual. Uno vencido, pero dentro del margen
+ * de obsolescencia, se sirve marcado como obsoleto y se recalcula en segundo plano. Pasado
+ * el margen, o tras una invalidación, se recalcula antes de responder. Cada clave tiene a
+ * lo sumo un cálculo en curso: las consultas simultáneas esperan ese mismo resultado.
+ *
+ * Métricas: cache.resultados.consultas{cache, resultado=fresco|obsoleto|fallo}
+ */
+final class CacheResultados<V> {
+
+    private record Entrada<V>(V valor, long generado, long generacion) {}
+
+    private final long ttl;
+    private final long obsoletoMaximo;
+    private final int tamañoMaximo;
+    private final Executor refresco;
+    private final LongSupplier reloj;
+
+    private final Map<String, Entrada<V>> entradas = new ConcurrentHashMap<>();
+    // Cálculos en curso por clave y generación: tras una invalidación no se reutiliza uno anterior
+    private final Map<String, CompletableFuture<Entrada<V>>> enCurso = new ConcurrentHashMap<>();
+    // Refrescos en segundo plano ya encolados, para no encolar otro por cada consulta obsoleta
+    private final Set<String> refrescosProgramados = ConcurrentHashMap.newKeySet();
+    private final AtomicLong generacion = new AtomicLong();
+
+    private final Counter frescos;
+    private final Counter obsoletos;
+    private final Counter fallos;
+
+    /**
+     * @param reloj milisegundos desde la época
+     */
+    CacheResultados(String nombre, Duration ttl, Duration obsoletoMaximo, int tamañoMaximo,
+                    Executor refresco, MeterRegistry registry, LongSupplier reloj) {
+        if (tamañoMaximo < 1) {
+            throw new IllegalArgumentException("El tamaño máximo de la caché debe ser al menos 1");
+        }
+
+        this.ttl = ttl.toMillis();
+        this.obsoletoMaximo = obsoletoMaximo.toMillis();
+        this.tamañoMaximo = tamañoMaximo;
+        this.refresco = refresco;
+        this.reloj = reloj;
+
+        frescos = Counter.builder("cache.resultados.consultas")
+                .tag("cache", nombre).tag("resultado", "fresco").register(registry);
+        obsoletos = Counter.builder("cache.resultados.consultas")
+                .tag("cache", nombre).tag("resultado", "obsoleto").register(registry);
+        fallos = Counter.builder("cache.resultados.consultas")
+                .tag("cache", nombre).tag("resultado", "fallo").register(registry);
+    }
+
+    /**
+     * Retorna el resultado de la clave, calculándolo con "calcular" si hace falta
+     */
+    ResultadoCacheado<V> obtener(String clave, Supplier<V> calcular) {
+        long generacionActual = generacion.get();
+        Entrada<V> entrada = entradas.get(clave);
+        long ahora = reloj.getAsLong();
+
+        if (entrada != null && entrada.generacion() == generacionActual) {
+            long edad = ahora - entrada.generado();
+            if (edad < ttl) {
+                frescos.increment();
+                return resultado(entrada, ahora, false);
+            }
+            if (edad < ttl + obsoletoMaximo) {
+                obsoletos.increment();
+                refrescarEnSegundoPlano(clave, calcular, generacionActual);
+                return resultado(entrada, ahora, true);
+            }
+        }
+
+        fallos.increment();
+        try {
+            Entrada<V> calculada = calcularUnaVez(clave, calcular, generacionActual).join();
+            return resultado(calculada, reloj.getAsLong(), false);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Descarta todos los resultados; los cálculos en curso ya no se guardan
+     */
+    void invalidarTodo() {
+        generacion.incrementAndGet();
+        entradas.clear();
+    }
+
+    int tamaño() {
+        return entradas.size();
+    }
+
+    private void refrescarEnSegundoPlano(String clave, Supplier<V> calcular, long generacionLeida) {
+        String claveCalculo = clave + "#" + generacionLeida;
+        if (enCurso.containsKey(claveCalculo) || !refrescosProgramados.add(claveCalculo)) {
+            return;
+        }
+        try {
+            refresco.execute(() -> {
+                try {
+                    calcularUnaVez(clave, calcular, generacionLeida);
+                } finally {
+                    refrescosProgramados.remove(claveCalculo);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Sin capacidad para refrescar: se reintentará en la próxima consulta
+            refrescosProgramados.remove(claveCalculo);
+        }
+    }
+
+    private CompletableFuture<Entrada<V>> calcularUnaVez(String clave, Supplier<V> calcular, long generacionLeida) {
+        String claveCalculo = clave + "#" + generacionLeida;
+        CompletableFuture<Entrada<V>> propio = new CompletableFuture<>();
+        CompletableFuture<Entrada<V>> existente = enCurso.putIfAbsent(claveCalculo, propio);
+        if (existente != null) {
+            return existente;
+        }
+
+        Entrada<V> entrada = null;
+        Throwable fallo = null;
+        try {
+            entrada = new Entrada<>(calcular.get(), reloj.getAsLong(), generacionLeida);
+            if (generacion.get() == generacionLeida) {
+                guardar(clave, entrada);
+            }
+        } catch (Throwable e) {
+            fallo = e;
+        } finally {
+            // Se completa siempre, también ante un Error: las consultas que esperan este cálculo no quedan colgadas
+            if (fallo == null) {
+                propio.complete(entrada);
+            } else {
+                propio.completeExceptionally(fallo);
+            }
+            enCurso.remove(claveCalculo, propio);
+        }
+        return propio;
+    }
+
+    private void guardar(String clave, Entrada<V> entrada) {
+        entradas.put(clave, entrada);
+        // Al superar el tamaño se descarta el resultado más antiguo
+        while (entradas.size() > tamañoMaximo) {
+            entradas.entrySet().stream()
+                    .min(Comparator.comparingLong(e -> e.getValue().generado()))
+                    .ifPresent(antigua -> entradas.remove(antigua.getKey(), antigua.getValue()));
+        }
+    }
+
+    private ResultadoCacheado<V> resultado(Entrada<V> entrada, long ahora, boolean obsoleto) {
+        long edad = Math.max(0, ahora - entrada.generado());
+        return new ResultadoCacheado<>(entrada.valor(), Instant.ofEpochMilli(entrada.generado()),
+                Duration.ofMillis(edad), Duration.ofMillis(Math.max(0, ttl - edad)), obsoleto);
+    }
+}
@@ -0,0 +1,82 @@
+package com.gestionacademica.sistema_academico.service;
+
+import com.gestionacademica.sistema_academico.entity.Curso;
+import com.gestionacademica.sistema_academico.entity.Estudiante;
+import com.gestionacademica.sistema_academico.entity.Profesor;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Cachés cercanas de las búsquedas por carnet, email y código. Los servicios las
+ * invalidan en cada escritura: al ejecutarla y otra vez cuando la transacción confirma.
+ */
+@Component
+class CachesBusqueda {
+
+    @Value("${app.cache.busqueda.tamano-maximo:10000}")
+    private int tamañoMaximo;
+
+    @Value("${app.cache.busqueda.ttl:PT5M}")
+    private Duration ttl;
+
+    @Value("${app.cache.busqueda.ttl-negativo:PT30S}")
+    private Duration ttlNegativo;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private CacheCercano<Estudiante> estudiantePorCarnet;
+    private CacheCercano<Estudiante> estudiantePorEmail;
+    private CacheCercano<Profesor> profesorPorEmail;
+    private CacheCercano<Curso> cursoPorCodigo;
+
+    @PostConstruct
+    void crearCaches() {
+        estudiantePorCarnet = crear("estudiante.carnet");
+        estudiantePorEmail = crear("estudiante.email");
+        profesorPorEmail = crear("profesor.email");
+        cursoPorCodigo = crear("curso.codigo");
+    }
+
+    private <V> CacheCercano<V> crear(String nombre) {
+        return new CacheCercano<>(nombre, tamañoMaximo, ttl, ttlNegativo, meterRegistry, System::nanoTime);
+    }
+
+    CacheCercano<Estudiante> estudiantePorCarnet() {
+        return estudiantePorCarnet;
+    }
+
+    CacheCercano<Estudiante> estudiantePorEmail() {
+        return estudiantePorEmail;
+    }
+
+    CacheCercano<Profesor> profesorPorEmail() {
+        return profesorPorEmail;
+    }
+
+    CacheCercano<Curso> cursoPorCodigo() {
+        return cursoPorCodigo;
+    }
+
+    /**
+     * Invalida la clave ahora y otra vez al confirmar la transacción, para descartar
+     * también lo que otra consulta haya cargado mientras la escritura estaba en curso
+     */
+    static void invalidar(CacheCercano<?> cache, String clave) {
+        if (clave == null) {
+            return;
+        }
+        cache.invalidar(clave);
+        DespuesDelCommit.ejecutar(() -> cache.invalidar(clave));
+    }
+
+    static void invalidarTodo(CacheCercano<?> cache) {
+        cache.invalidarTodo();
+        DespuesDelCommit.ejecutar(cache::invalidarTodo);
+    }
+}
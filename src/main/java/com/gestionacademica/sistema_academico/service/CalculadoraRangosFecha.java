@@ -0,0 +1,62 @@
+package com.gestionacademica.sistema_academico.service;
+
+import java.time.LocalDate;
+
+/**
+ * Traduce los campos derivados de fechas (edad, semestre, años de experiencia)
+ * a límites sobre la columna de fecha, para poder filtrar en SQL con los índices
+ * de fecha_nacimiento, fecha_ingreso y fecha_contratacion.
+ *
+ * Los límites reproducen exactamente las reglas de Period.between(...).getYears()
+ * y ChronoUnit.MONTHS.between(...) usadas al construir los DTOs.
+ */
+final class CalculadoraRangosFecha {
+
+    static final int MESES_POR_SEMESTRE = 6;
+    static final int SEMESTRE_MINIMO = 1;
+    static final int SEMESTRE_MAXIMO = 12;
+
+    private CalculadoraRangosFecha() {}
+
+    /**
+     * Última fecha d tal que Period.between(d, hoy).getYears() >= años
+     */
+    static LocalDate fechaLimiteParaAñosCumplidos(LocalDate hoy, int años) {
+        if (años > 0) {
+            return hoy.minusYears(años);
+        }
+
+        // Años cero o negativos: la fecha puede estar en el futuro (ej: 29 de febrero)
+        int añosFuturos = 1 - años;
+        LocalDate limite = hoy.plusYears(añosFuturos);
+        return limite.minusYears(añosFuturos).isBefore(hoy) ? limite : limite.minusDays(1);
+    }
+
+    /**
+     * Última fecha d tal que ChronoUnit.MONTHS.between(d, hoy) >= meses (meses > 0)
+     */
+    static LocalDate fechaLimiteParaMesesCumplidos(LocalDate hoy, long meses) {
+        if (meses <= 0) {
+            throw new IllegalArgumentException("Los meses deben ser un número positivo");
+        }
+        return hoy.minusMonths(meses);
+    }
+
+    /**
+     * Interpreta el texto del semestre ("5° Semestre") con la misma comparación
+     * que el filtro original. Retorna null si no corresponde a ningún semestre válido.
+     */
+    static Integer interpretarSemestre(String semestre) {
+        if (semestre == null) {
+            return null;
+        }
+
+        String valor = semestre.trim();
+        for (int numero = SEMESTRE_MINIMO; numero <= SEMESTRE_MAXIMO; numero++) {
+            if ((numero + "° Semestre").equalsIgnoreCase(valor)) {
+                return numero;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,175 @@
+package com.gestionacademica.sistema_academico.service;
+
+import com.gestionacademica.sistema_academico.entity.ClasificacionCurso;
+import com.gestionacademica.sistema_academico.entity.Curso;
+import com.gestionacademica.sistema_academico.entity.Profesor;
+import com.gestionacademica.sistema_academico.repository.CursoRepository;
+import com.gestionacademica.sistema_academico.repository.ProfesorRepository;
+import com.gestionacademica.sistema_academico.repository.proyeccion.CursoFila;
+import com.gestionacademica.sistema_academico.repository.proyeccion.ProfesorFila;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Catálogo de cursos y profesores en memoria. Cursos y profesores cambian pocas veces
+ * por ciclo, así que las lecturas del catálogo se resuelven con una instantánea inmutable
+ * en lugar de consultar la base de datos.
+ *
+ * La instantánea se construye con la primera lectura. Cada escritura confirmada la
+ * reemplaza por una copia con la fila cambiada; los cambios que afectan a muchas filas
+ * (eliminación en cascada, reclasificación) la descartan para reconstruirla.
+ */
+@Component
+class CatalogoEnMemoria {
+
+    static final String CURSOS_POR_CREDITOS = "creditos";
+    static final String CURSOS_POR_NIVEL = "nivel";
+    static final String CURSOS_POR_CARGA = "carga";
+    static final String PROFESORES_POR_ESPECIALIDAD = "especialidad";
+
+    private static final Map<String, Function<CursoFila, ?>> INDICES_CURSOS = Map.of(
+            CURSOS_POR_CREDITOS, CursoFila::creditos,
+            CURSOS_POR_NIVEL, CursoFila::nivelDificultad,
+            CURSOS_POR_CARGA, CursoFila::cargaAcademica);
+
+    // La especialidad se indexa en minúsculas: las búsquedas no distinguen mayúsculas
+    private static final Map<String, Function<ProfesorFila, ?>> INDICES_PROFESORES = Map.of(
+            PROFESORES_POR_ESPECIALIDAD, profesor -> claveEspecialidad(profesor.especialidad()));
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private ProfesorRepository profesorRepository;
+
+    private final Vigente<CursoFila> cursos = new Vigente<>(() -> InstantaneaCatalogo.de(
+            cursoRepository.findFilas().stream()
+                    .map(CatalogoEnMemoria::conClasificacion)
+                    .collect(Collectors.toList()),
+            CursoFila::id, INDICES_CURSOS));
+
+    private final Vigente<ProfesorFila> profesores = new Vigente<>(() -> InstantaneaCatalogo.de(
+            profesorRepository.findFilas(), ProfesorFila::id, INDICES_PROFESORES));
+
+    InstantaneaCatalogo<CursoFila> cursos() {
+        return cursos.obtener();
+    }
+
+    InstantaneaCatalogo<ProfesorFila> profesores() {
+        return profesores.obtener();
+    }
+
+    // ============ CAMBIOS (se aplican cuando la transacción confirma) ============
+
+    void publicarCurso(Curso curso) {
+        CursoFila fila = new CursoFila(curso.getId(), curso.getCodigo(), curso.getNombre(), curso.getDescripcion(),
+                curso.getCreditos(), curso.getHorasSemanales(),
+                ClasificacionCurso.determinarNivelDificultad(curso.getCodigo()),
+                ClasificacionCurso.determinarCargaAcademica(curso.getCreditos(), curso.getHorasSemanales()));
+        DespuesDelCommit.ejecutar(() -> cursos.aplicar(actual -> actual.conFila(fila)));
+    }
+
+    void retirarCurso(Long id) {
+        DespuesDelCommit.ejecutar(() -> cursos.aplicar(actual -> actual.sinFila(id)));
+    }
+
+    void recargarCursos() {
+        DespuesDelCommit.ejecutar(cursos::descartar);
+    }
+
+    void publicarProfesor(Profesor profesor) {
+        ProfesorFila fila = new ProfesorFila(profesor.getId(), profesor.getNombre(), profesor.getApellido(),
+                profesor.getEmail(), profesor.getTelefono(), profesor.getEspecialidad(), profesor.getFechaContratacion());
+        DespuesDelCommit.ejecutar(() -> profesores.aplicar(actual -> actual.conFila(fila)));
+    }
+
+    void retirarProfesor(Long id) {
+        DespuesDelCommit.ejecutar(() -> profesores.aplicar(actual -> actual.sinFila(id)));
+    }
+
+    // ============ CONSULTAS SOBRE LOS ÍNDICES ============
+
+    /**
+     * Profesores cuya especialidad contiene el texto (sin distinguir mayúsculas), en orden de ID.
+     * Recorre solo las especialidades distintas del índice, no todos los profesores.
+     */
+    static List<ProfesorFila> profesoresConEspecialidad(InstantaneaCatalogo<ProfesorFila> catalogo, String texto) {
+        String buscado = claveEspecialidad(texto.trim());
+        return catalogo.valoresIndice(PROFESORES_POR_ESPECIALIDAD).stream()
+                .filter(especialidad -> ((String) especialidad).contains(buscado))
+                .flatMap(especialidad -> catalogo.porIndice(PROFESORES_POR_ESPECIALIDAD, especialidad).stream())
+                .sorted((a, b) -> Long.compare(a.id(), b.id()))
+                .collect(Collectors.toList());
+    }
+
+    private static String claveEspecialidad(String especialidad) {
+        return especialidad == null ? null : especialidad.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Completa nivel y carga de las filas que aún no tienen las columnas calculadas
+     */
+    private static CursoFila conClasificacion(CursoFila curso) {
+        if (curso.nivelDificultad() != null && curso.cargaAcademica() != null) {
+            return curso;
+        }
+        return new CursoFila(curso.id(), curso.codigo(), curso.nombre(), curso.descripcion(),
+                curso.creditos(), curso.horasSemanales(),
+                ClasificacionCurso.determinarNivelDificultad(curso.codigo()),
+                ClasificacionCurso.determinarCargaAcademica(curso.creditos(), curso.horasSemanales()));
+    }
+
+    /**
+     * Instantánea vigente de un catálogo. Una construcción que empezó antes de un cambio
+     * no se publica (podría no incluirlo); la siguiente lectura vuelve a construirla.
+     */
+    private static final class Vigente<F> {
+
+        private final Supplier<InstantaneaCatalogo<F>> construir;
+        private volatile InstantaneaCatalogo<F> actual;
+        private long version = 0;
+
+        Vigente(Supplier<InstantaneaCatalogo<F>> construir) {
+            this.construir = construir;
+        }
+
+        InstantaneaCatalogo<F> obtener() {
+            InstantaneaCatalogo<F> instantanea = actual;
+            if (instantanea != null) {
+                return instantanea;
+            }
+
+            long versionLeida;
+            synchronized (this) {
+                versionLeida = version;
+            }
+            instantanea = construir.get();
+            synchronized (this) {
+                if (version == versionLeida && actual == null) {
+                    actual = instantanea;
+                }
+            }
+            return instantanea;
+        }
+
+        synchronized void aplicar(UnaryOperator<InstantaneaCatalogo<F>> cambio) {
+            version++;
+            if (actual != null) {
+                actual = cambio.apply(actual);
+            }
+        }
+
+        synchronized void descartar() {
+            version++;
+            actual = null;
+        }
+    }
+}
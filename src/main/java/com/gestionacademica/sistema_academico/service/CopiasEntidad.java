@@ -0,0 +1,50 @@
+package com.gestionacademica.sistema_academico.service;
+
+import com.gestionacademica.sistema_academico.entity.Curso;
+import com.gestionacademica.sistema_academico.entity.Estudiante;
+import com.gestionacademica.sistema_academico.entity.Profesor;
+
+/**
+ * Copias de entidades para las cachés: solo los campos propios, sin colecciones perezosas
+ * que fallarían fuera de la sesión. Cada respuesta recibe su propia copia, así nadie
+ * modifica el objeto guardado en la caché.
+ */
+final class CopiasEntidad {
+
+    private CopiasEntidad() {}
+
+    static Estudiante estudiante(Estudiante original) {
+        Estudiante copia = new Estudiante(original.getCarnet(), original.getNombre(), original.getApellido(),
+                original.getEmail(), original.getTelefono(), original.getFechaNacimiento(), original.getFechaIngreso());
+        copia.setId(original.getId());
+        copia.setCreatedAt(original.getCreatedAt());
+        copia.setUpdatedAt(original.getUpdatedAt());
+        return copia;
+    }
+
+    static Profesor profesor(Profesor original) {
+        Profesor copia = new Profesor(original.getNombre(), original.getApellido(), original.getEmail(),
+                original.getTelefono(), original.getEspecialidad(), original.getFechaContratacion());
+        copia.setId(original.getId());
+        copia.setCreatedAt(original.getCreatedAt());
+        copia.setUpdatedAt(original.getUpdatedAt());
+        return copia;
+    }
+
+    /**
+     * El curso debe venir con el profesor ya cargado
+     */
+    static Curso curso(Curso original) {
+        Curso copia = new Curso(original.getCodigo(), original.getNombre(), original.getDescripcion(),
+                original.getCreditos(), original.getHorasSemanales());
+        copia.setId(original.getId());
+        copia.setCupoMaximo(original.getCupoMaximo());
+        copia.setCreatedAt(original.getCreatedAt());
+        copia.setUpdatedAt(original.getUpdatedAt());
+        copia.actualizarClasificacion();
+        if (original.getProfesor() != null) {
+            copia.setProfesor(profesor(original.getProfesor()));
+        }
+        return copia;
+    }
+}
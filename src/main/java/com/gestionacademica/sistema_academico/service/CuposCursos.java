@@ -0,0 +1,189 @@
+package com.gestionacademica.sistema_academico.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cupos ocupados de cada curso en memoria, para decidir las inscripciones sin bloquear la
+ * fila del curso. Cada curso tiene su contador y una reserva es un compareAndSet que solo
+ * avanza si queda cupo, así que ningún curso supera su cupo_maximo aunque miles de
+ * solicitudes lleguen a la vez; los cursos sin cupo_maximo solo llevan la cuenta.
+ *
+ * Al iniciar, los contadores se reconcilian con las inscripciones existentes. Después los
+ * mantienen quienes escriben: InscripcionService reserva antes de insertar y libera lo que
+ * no llegó a insertarse, y los servicios de cursos, profesores y estudiantes avisan los
+ * cambios de cupo y las eliminaciones en cascada. Los cursos creados después se leen la primera vez que se
+ * reservan. Supone una sola instancia de la aplicación escribiendo inscripciones.
+ */
+@Component
+class CuposCursos {
+
+    enum Reserva { RESERVADA, SIN_CUPO, CURSO_NO_EXISTE }
+
+    /**
+     * Cupo máximo (null = sin límite) e inscripciones que lo ocupan
+     */
+    record Ocupacion(Integer capacidad, int ocupados) {
+
+        Integer disponibles() {
+            return capacidad == null ? null : Math.max(0, capacidad - ocupados);
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ConcurrentHashMap<Long, Cupo> cupos = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void reconciliar() {
+        jdbcTemplate.query("SELECT c.id, c.cupo_maximo, COUNT(i.id) AS ocupados FROM cursos c " +
+                "LEFT JOIN inscripciones i ON i.curso_id = c.id GROUP BY c.id, c.cupo_maximo", rs -> {
+            int capacidad = rs.getInt("cupo_maximo");
+            cargar(rs.getLong("id"), rs.wasNull() ? null : capacidad, rs.getInt("ocupados"));
+        });
+    }
+
+    /**
+     * Registra el cupo de un curso con sus inscripciones actuales, reemplazando el anterior
+     */
+    void cargar(Long cursoId, Integer capacidad, int ocupados) {
+        cupos.put(cursoId, new Cupo(capacidad, ocupados));
+    }
+
+    /**
+     * Toma un lugar del curso si queda cupo
+     */
+    Reserva reservar(Long cursoId) {
+        Cupo cupo = buscar(cursoId);
+        if (cupo == null) {
+            return Reserva.CURSO_NO_EXISTE;
+        }
+        return cupo.reservar() ? Reserva.RESERVADA : Reserva.SIN_CUPO;
+    }
+
+    /**
+     * Devuelve un lugar reservado que no terminó en inscripción, o de una inscripción eliminada
+     */
+    void liberar(Long cursoId) {
+        Cupo cupo = cupos.get(cursoId);
+        if (cupo != null) {
+            cupo.liberar();
+        }
+    }
+
+    /**
+     * Cambia el cupo máximo de un curso ya cargado (null = sin límite). Si queda por debajo
+     * de los ocupados, las inscripciones existentes se mantienen y no se aceptan nuevas.
+     */
+    void cambiarCapacidad(Long cursoId, Integer capacidad) {
+        Cupo cupo = cupos.get(cursoId);
+        if (cupo != null) {
+            cupo.capacidad = capacidad == null ? Integer.MAX_VALUE : capacidad;
+        }
+    }
+
+    void quitar(Long cursoId) {
+        cupos.remove(cursoId);
+    }
+
+    /**
+     * Libera, cuando la transacción confirme, los lugares de las inscripciones del estudiante
+     * que se eliminan en cascada con él. Debe llamarse antes de eliminarlo.
+     */
+    void liberarInscripcionesDe(Long estudianteId) {
+        List<Long> cursos = jdbcTemplate.queryForList("SELECT curso_id FROM inscripciones WHERE estudiante_id = ?",
+                Long.class, estudianteId);
+        DespuesDelCommit.ejecutar(() -> cursos.forEach(this::liberar));
+    }
+
+    /**
+     * Quita, cuando la transacción confirme, los cursos del profesor que se eliminan en
+     * cascada con él. Debe llamarse antes de eliminarlo.
+     */
+    void quitarCursosDe(Long profesorId) {
+        List<Long> cursos = jdbcTemplate.queryForList("SELECT id FROM cursos WHERE profesor_id = ?",
+                Long.class, profesorId);
+        DespuesDelCommit.ejecutar(() -> cursos.forEach(this::quitar));
+    }
+
+    /**
+     * Cupo y lugares ocupados del curso, o null si no existe
+     */
+    Ocupacion ocupacion(Long cursoId) {
+        Cupo cupo = buscar(cursoId);
+        return cupo == null ? null : cupo.ocupacion();
+    }
+
+    private Cupo buscar(Long cursoId) {
+        Cupo cupo = cupos.get(cursoId);
+        if (cupo != null) {
+            return cupo;
+        }
+        // Curso creado después de la reconciliación: si no existe, no queda registrado. Se lee
+        // fuera del mapa para no bloquear con la consulta a los demás cursos de su segmento;
+        // si dos hilos lo leen a la vez, ambos usan el contador que quedó registrado primero.
+        Ocupacion leida = leer(cursoId);
+        if (leida == null) {
+            return null;
+        }
+        Cupo leido = new Cupo(leida.capacidad(), leida.ocupados());
+        Cupo registrado = cupos.putIfAbsent(cursoId, leido);
+        return registrado == null ? leido : registrado;
+    }
+
+    /**
+     * Cupo e inscripciones de un curso según la base de datos, o null si no existe
+     */
+    Ocupacion leer(Long cursoId) {
+        List<Ocupacion> filas = jdbcTemplate.query("SELECT c.cupo_maximo, " +
+                "(SELECT COUNT(*) FROM inscripciones i WHERE i.curso_id = c.id) AS ocupados FROM cursos c WHERE c.id = ?",
+                (rs, fila) -> {
+                    int capacidad = rs.getInt("cupo_maximo");
+                    return new Ocupacion(rs.wasNull() ? null : capacidad, rs.getInt("ocupados"));
+                }, cursoId);
+        return filas.isEmpty() ? null : filas.get(0);
+    }
+
+    /**
+     * Contador de un curso. Sin límite se representa con Integer.MAX_VALUE para que reservar
+     * sea la misma comparación en todos los cursos.
+     */
+    static final class Cupo {
+
+        private final AtomicInteger ocupados;
+        private volatile int capacidad;
+
+        Cupo(Integer capacidad, int ocupados) {
+            this.capacidad = capacidad == null ? Integer.MAX_VALUE : capacidad;
+            this.ocupados = new AtomicInteger(ocupados);
+        }
+
+        boolean reservar() {
+            while (true) {
+                int actual = ocupados.get();
+                if (actual >= capacidad) {
+                    return false;
+                }
+                if (ocupados.compareAndSet(actual, actual + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void liberar() {
+            ocupados.getAndUpdate(actual -> actual > 0 ? actual - 1 : 0);
+        }
+
+        Ocupacion ocupacion() {
+            int limite = capacidad;
+            return new Ocupacion(limite == Integer.MAX_VALUE ? null : limite, ocupados.get());
+        }
+    }
+}
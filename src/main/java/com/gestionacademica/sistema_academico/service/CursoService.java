@@ -1,14 +1,24 @@
 package com.gestionacademica.sistema_academico.service;
 
 import com.gestionacademica.sistema_academico.dto.CursoDTO;
+import com.gestionacademica.sistema_academico.dto.PaginaDTO;
+import com.gestionacademica.sistema_academico.dto.SugerenciaDTO;
+import com.gestionacademica.sistema_academico.entity.ClasificacionCurso;
 import com.gestionacademica.sistema_academico.entity.Curso;
 import com.gestionacademica.sistema_academico.repository.CursoRepository;
+import com.gestionacademica.sistema_academico.repository.proyeccion.CursoFila;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,20 +28,63 @@ public class CursoService {
     @Autowired
     private CursoRepository cursoRepository;
     
+    @Autowired
+    private Paginacion paginacion;
+    
+    @Autowired
+    private SoporteTrigramas soporteTrigramas;
+    
+    @Autowired
+    private FiltrosUnicidad filtrosUnicidad;
+    
+    @Autowired
+    private CachesBusqueda cachesBusqueda;
+    
+    @Autowired
+    private CatalogoEnMemoria catalogo;
+    
+    @Autowired
+    private CacheReportes cacheReportes;
+    
+    @Autowired
+    private CuposCursos cuposCursos;
+    
+    // Índice de código y nombre en memoria, solo se construye si la base de datos no tiene pg_trgm
+    private final IndiceTrigramas indiceCodigoNombre = new IndiceTrigramas();
+    
+    // Índice de prefijos de código y nombre para autocompletar
+    private final IndicePrefijos indicePrefijos = new IndicePrefijos();
+    
+    // Campos por los que se puede ordenar el resultado de filtrarDTO
+    private static final Map<String, Function<CursoFila, ?>> CAMPOS_ORDEN = Map.of(
+            "id", CursoFila::id,
+            "codigo", CursoFila::codigo,
+            "nombre", CursoFila::nombre,
+            "creditos", CursoFila::creditos,
+            "horasSemanales", CursoFila::horasSemanales,
+            "nivelDificultad", CursoFila::nivelDificultad,
+            "cargaAcademica", CursoFila::cargaAcademica);
+    
     // ============ MÉTODOS CRUD ORIGINALES (mantener para POST, PUT, DELETE) ============
     
     /**
      * Crear un nuevo curso
      */
     public Curso crearCurso(Curso curso) {
-        if (cursoRepository.existsByCodigo(curso.getCodigo())) {
+        if (filtrosUnicidad.codigoCurso().existe(curso.getCodigo(), cursoRepository::existsByCodigo)) {
             throw new RuntimeException("Ya existe un curso con el código: " + curso.getCodigo());
         }
         
         validarCurso(curso);
         
         try {
-            return cursoRepository.save(curso);
+            Curso guardado = cursoRepository.save(curso);
+            filtrosUnicidad.codigoCurso().registrar(guardado.getCodigo());
+            CachesBusqueda.invalidar(cachesBusqueda.cursoPorCodigo(), claveCodigo(guardado.getCodigo()));
+            catalogo.publicarCurso(guardado);
+            cacheReportes.invalidar();
+            actualizarIndiceCodigoNombre(guardado);
+            return guardado;
         } catch (Exception e) {
             throw new RuntimeException("Error al crear el curso: " + e.getMessage());
         }
@@ -50,18 +103,29 @@ public class CursoService {
         return cursoRepository.findById(id)
             .map(cursoExistente -> {
                 if (!cursoExistente.getCodigo().equals(cursoActualizado.getCodigo()) &&
-                    cursoRepository.existsByCodigo(cursoActualizado.getCodigo())) {
+                    filtrosUnicidad.codigoCurso().existe(cursoActualizado.getCodigo(), cursoRepository::existsByCodigo)) {
                     throw new RuntimeException("Ya existe un curso con el código: " + cursoActualizado.getCodigo());
                 }
                 
+                CachesBusqueda.invalidar(cachesBusqueda.cursoPorCodigo(), claveCodigo(cursoExistente.getCodigo()));
+                
                 cursoExistente.setCodigo(cursoActualizado.getCodigo());
                 cursoExistente.setNombre(cursoActualizado.getNombre());
                 cursoExistente.setDescripcion(cursoActualizado.getDescripcion());
                 cursoExistente.setCreditos(cursoActualizado.getCreditos());
                 cursoExistente.setHorasSemanales(cursoActualizado.getHorasSemanales());
+                cursoExistente.setCupoMaximo(cursoActualizado.getCupoMaximo());
                 
                 try {
-                    return cursoRepository.save(cursoExistente);
+                    Curso guardado = cursoRepository.save(cursoExistente);
+                    filtrosUnicidad.codigoCurso().registrar(guardado.getCodigo());
+                    CachesBusqueda.invalidar(cachesBusqueda.cursoPorCodigo(), claveCodigo(guardado.getCodigo()));
+                    catalogo.publicarCurso(guardado);
+                    cacheReportes.invalidar();
+                    actualizarIndiceCodigoNombre(guardado);
+                    Integer cupoMaximo = guardado.getCupoMaximo();
+                    DespuesDelCommit.ejecutar(() -> cuposCursos.cambiarCapacidad(id, cupoMaximo));
+                    return guardado;
                 } catch (Exception e) {
                     throw new RuntimeException("Error al actualizar el curso: " + e.getMessage());
                 }
@@ -77,12 +141,19 @@ public class CursoService {
             throw new IllegalArgumentException("El ID debe ser un número positivo");
         }
         
-        if (!cursoRepository.existsById(id)) {
-            throw new RuntimeException("Curso no encontrado con ID: " + id);
-        }
+        CursoFila existente = cursoRepository.findFilaById(id)
+                .orElseThrow(() -> new RuntimeException("Curso no encontrado con ID: " + id));
         
         try {
             cursoRepository.deleteById(id);
+            CachesBusqueda.invalidar(cachesBusqueda.cursoPorCodigo(), claveCodigo(existente.codigo()));
+            catalogo.retirarCurso(id);
+            cacheReportes.invalidar();
+            DespuesDelCommit.ejecutar(() -> {
+                indiceCodigoNombre.eliminar(id);
+                indicePrefijos.eliminar(id);
+                cuposCursos.quitar(id);
+            });
         } catch (Exception e) {
             throw new RuntimeException("Error al eliminar el curso: " + e.getMessage());
         }
@@ -96,10 +167,25 @@ public class CursoService {
     @Transactional(readOnly = true)
     public List<CursoDTO> obtenerTodosDTO() {
         try {
-            List<Curso> cursos = cursoRepository.findAll();
-            return cursos.stream()
-                    .map(this::convertirACursoDTO)
-                    .collect(Collectors.toList());
+            return convertir(catalogo.cursos().todas());
+        } catch (Exception e) {
+            throw new RuntimeException("Error al obtener los cursos: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Obtener una página de cursos como DTOs, ordenada por ID (paginación por cursor)
+     */
+    @Transactional(readOnly = true)
+    public PaginaDTO<CursoDTO> obtenerPaginaDTO(String cursor, Integer limite, boolean incluirTotal) {
+        int limiteValido = paginacion.normalizarLimite(limite);
+        long despuesDeId = Paginacion.decodificarId(cursor);
+        
+        try {
+            InstantaneaCatalogo<CursoFila> cursos = catalogo.cursos();
+            Long total = incluirTotal ? (long) cursos.tamaño() : null;
+            return Paginacion.armarPagina(cursos.despuesDeId(despuesDeId, limiteValido + 1), limiteValido,
+                    this::convertirACursoDTO, curso -> String.valueOf(curso.id()), total);
         } catch (Exception e) {
             throw new RuntimeException("Error al obtener los cursos: " + e.getMessage());
         }
@@ -115,7 +201,7 @@ public class CursoService {
         }
         
         try {
-            return cursoRepository.findById(id)
+            return catalogo.cursos().buscar(id)
                     .map(this::convertirACursoDTO);
         } catch (Exception e) {
             throw new RuntimeException("Error al buscar el curso: " + e.getMessage());
@@ -132,10 +218,7 @@ public class CursoService {
         }
         
         try {
-            List<Curso> cursos = cursoRepository.findByCreditos(creditos);
-            return cursos.stream()
-                    .map(this::convertirACursoDTO)
-                    .collect(Collectors.toList());
+            return convertir(catalogo.cursos().porIndice(CatalogoEnMemoria.CURSOS_POR_CREDITOS, creditos));
         } catch (Exception e) {
             throw new RuntimeException("Error al buscar cursos por créditos: " + e.getMessage());
         }
@@ -150,12 +233,13 @@ public class CursoService {
             throw new IllegalArgumentException("El nivel no puede estar vacío");
         }
         
+        String nivelNormalizado = ClasificacionCurso.normalizarNivel(nivel);
+        if (nivelNormalizado == null) {
+            return List.of();
+        }
+        
         try {
-            List<Curso> cursos = cursoRepository.findAll();
-            return cursos.stream()
-                    .map(this::convertirACursoDTO)
-                    .filter(cursoDTO -> cursoDTO.getNivelDificultad().equalsIgnoreCase(nivel.trim()))
-                    .collect(Collectors.toList());
+            return convertir(catalogo.cursos().porIndice(CatalogoEnMemoria.CURSOS_POR_NIVEL, nivelNormalizado));
         } catch (Exception e) {
             throw new RuntimeException("Error al buscar cursos por nivel: " + e.getMessage());
         }
@@ -170,88 +254,193 @@ public class CursoService {
             throw new IllegalArgumentException("La carga académica no puede estar vacía");
         }
         
+        String cargaNormalizada = ClasificacionCurso.normalizarCarga(carga);
+        if (cargaNormalizada == null) {
+            return List.of();
+        }
+        
         try {
-            List<Curso> cursos = cursoRepository.findAll();
-            return cursos.stream()
-                    .map(this::convertirACursoDTO)
-                    .filter(cursoDTO -> cursoDTO.getCargaAcademica().equalsIgnoreCase(carga.trim()))
-                    .collect(Collectors.toList());
+            return convertir(catalogo.cursos().porIndice(CatalogoEnMemoria.CURSOS_POR_CARGA, cargaNormalizada));
         } catch (Exception e) {
             throw new RuntimeException("Error al buscar cursos por carga académica: " + e.getMessage());
         }
     }
     
-    // ============ MÉTODOS DE CONVERSIÓN PRIVADOS ============
-    
     /**
-     * Convierte una entidad Curso a CursoDTO
+     * Buscar cursos combinando los filtros recibidos (deben cumplirse todos).
+     * Los filtros null o vacíos se ignoran; el orden es "campo" o "campo,desc".
      */
-    private CursoDTO convertirACursoDTO(Curso curso) {
-        if (curso == null) {
-            return null;
+    @Transactional(readOnly = true)
+    public List<CursoDTO> filtrarDTO(Integer creditos, String nivel, String carga, String nombre, String orden) {
+        if (creditos != null && creditos <= 0) {
+            throw new IllegalArgumentException("Los créditos deben ser un número positivo");
         }
         
-        // Determinar nivel de dificultad basado en el código del curso
-        String nivelDificultad = determinarNivelDificultad(curso.getCodigo());
+        Sort sort = FiltroCompuesto.ordenar(orden, CAMPOS_ORDEN.keySet());
         
-        // Determinar carga académica basada en créditos y horas
-        String cargaAcademica = determinarCargaAcademica(curso.getCreditos(), curso.getHorasSemanales());
+        // Un valor de clasificación desconocido no coincide con ningún curso
+        String nivelNormalizado = FiltroCompuesto.vacio(nivel) ? null : ClasificacionCurso.normalizarNivel(nivel);
+        String cargaNormalizada = FiltroCompuesto.vacio(carga) ? null : ClasificacionCurso.normalizarCarga(carga);
+        if ((!FiltroCompuesto.vacio(nivel) && nivelNormalizado == null)
+                || (!FiltroCompuesto.vacio(carga) && cargaNormalizada == null)) {
+            return List.of();
+        }
         
-        return new CursoDTO(
-            curso.getId(),
-            curso.getCodigo(),
-            curso.getNombre(),
-            curso.getDescripcion(),
-            curso.getCreditos(),
-            curso.getHorasSemanales(),
-            nivelDificultad,
-            cargaAcademica
-        );
+        try {
+            InstantaneaCatalogo<CursoFila> cursos = catalogo.cursos();
+            
+            // Se parte del índice más selectivo disponible y se filtra el resto en memoria
+            List<CursoFila> candidatos = creditos != null
+                    ? cursos.porIndice(CatalogoEnMemoria.CURSOS_POR_CREDITOS, creditos)
+                    : nivelNormalizado != null
+                    ? cursos.porIndice(CatalogoEnMemoria.CURSOS_POR_NIVEL, nivelNormalizado)
+                    : cargaNormalizada != null
+                    ? cursos.porIndice(CatalogoEnMemoria.CURSOS_POR_CARGA, cargaNormalizada)
+                    : cursos.todas();
+            String nombreBuscado = FiltroCompuesto.vacio(nombre) ? null : nombre.trim().toLowerCase();
+            
+            return candidatos.stream()
+                    .filter(curso -> nivelNormalizado == null || nivelNormalizado.equals(curso.nivelDificultad()))
+                    .filter(curso -> cargaNormalizada == null || cargaNormalizada.equals(curso.cargaAcademica()))
+                    .filter(curso -> nombreBuscado == null
+                            || (curso.nombre() != null && curso.nombre().toLowerCase().contains(nombreBuscado)))
+                    .sorted(FiltroCompuesto.comparador(sort, CAMPOS_ORDEN))
+                    .map(this::convertirACursoDTO)
+                    .collect(Collectors.toList());
+        } catch (Exception e) {
+            throw new RuntimeException("Error al filtrar cursos: " + e.getMessage());
+        }
     }
     
     /**
-     * Determina el nivel de dificultad basado en el código del curso
+     * Buscar cursos por código o nombre, ordenados por similitud con el término
      */
-    private String determinarNivelDificultad(String codigo) {
-        if (codigo == null || codigo.length() < 4) {
-            return "Básico";
+    @Transactional(readOnly = true)
+    public List<CursoDTO> buscarPorSimilitudDTO(String termino, Integer limite) {
+        int limiteValido = SoporteTrigramas.validarBusqueda(termino, limite);
+        
+        try {
+            List<Long> ids = soporteTrigramas.pgTrgmDisponible()
+                    ? cursoRepository.buscarIdsPorSimilitud(termino.trim(),
+                            SoporteTrigramas.patronSubcadena(termino.trim()), limiteValido)
+                    : buscarEnIndiceCodigoNombre(termino.trim(), limiteValido);
+            
+            // Las filas se devuelven en el orden de similitud de los IDs
+            InstantaneaCatalogo<CursoFila> cursos = catalogo.cursos();
+            return ids.stream()
+                    .map(cursos::buscar)
+                    .flatMap(Optional::stream)
+                    .map(this::convertirACursoDTO)
+                    .collect(Collectors.toList());
+        } catch (Exception e) {
+            throw new RuntimeException("Error al buscar cursos por similitud: " + e.getMessage());
         }
+    }
+    
+    /**
+     * Autocompletar: cursos cuyo código o nombre empieza con el prefijo, en orden alfabético
+     */
+    @Transactional(readOnly = true)
+    public List<SugerenciaDTO> autocompletar(String prefijo, Integer limite) {
+        int limiteValido = SoporteTrigramas.validarBusqueda(prefijo, limite);
         
-        // Extraer el número del código (ej: MAT101 -> 101)
-        String numeroStr = codigo.substring(3);
         try {
-            int numero = Integer.parseInt(numeroStr);
-            if (numero >= 100 && numero <= 199) {
-                return "Básico";
-            } else if (numero >= 200 && numero <= 299) {
-                return "Intermedio";
-            } else if (numero >= 300) {
-                return "Avanzado";
-            } else {
-                return "Básico";
-            }
-        } catch (NumberFormatException e) {
-            return "Básico";
+            InstantaneaCatalogo<CursoFila> cursos = catalogo.cursos();
+            indicePrefijos.construirSiHaceFalta(() -> cursos.todas().stream()
+                    .collect(Collectors.toMap(CursoFila::id, fila -> terminosAutocompletar(fila.codigo(), fila.nombre()))));
+            
+            // El catálogo es la referencia: descarta cursos eliminados en cascada con su profesor
+            return indicePrefijos.buscar(prefijo, limiteValido, id -> cursos.buscar(id).isPresent()).stream()
+                    .map(coincidencia -> new SugerenciaDTO(coincidencia.id(), coincidencia.campo(), coincidencia.texto()))
+                    .collect(Collectors.toList());
+        } catch (Exception e) {
+            throw new RuntimeException("Error al autocompletar cursos: " + e.getMessage());
         }
     }
     
     /**
-     * Determina la carga académica basada en créditos y horas semanales
+     * Resuelve la búsqueda por similitud con el índice en memoria; retorna los IDs ordenados
      */
-    private String determinarCargaAcademica(Integer creditos, Integer horasSemanales) {
-        if (creditos == null) creditos = 0;
-        if (horasSemanales == null) horasSemanales = 0;
+    private List<Long> buscarEnIndiceCodigoNombre(String termino, int limite) {
+        indiceCodigoNombre.construirSiHaceFalta(() -> cursoRepository.findFilas().stream()
+                .collect(Collectors.toMap(CursoFila::id, fila -> Arrays.asList(fila.codigo(), fila.nombre()))));
         
-        // Calcular un puntaje combinado
-        int puntaje = creditos * 2 + horasSemanales;
+        return indiceCodigoNombre.buscar(termino, limite);
+    }
+    
+    private List<String> textosIndexables(Curso curso) {
+        return Arrays.asList(curso.getCodigo(), curso.getNombre());
+    }
+    
+    private static String claveCodigo(String codigo) {
+        return codigo == null ? null : codigo.trim().toUpperCase();
+    }
+    
+    private static List<IndicePrefijos.Termino> terminosAutocompletar(String codigo, String nombre) {
+        return List.of(
+                new IndicePrefijos.Termino("codigo", codigo),
+                new IndicePrefijos.Termino("nombre", nombre));
+    }
+    
+    private void actualizarIndiceCodigoNombre(Curso curso) {
+        Long id = curso.getId();
+        List<String> textos = textosIndexables(curso);
+        List<IndicePrefijos.Termino> terminos = terminosAutocompletar(curso.getCodigo(), curso.getNombre());
+        DespuesDelCommit.ejecutar(() -> {
+            indiceCodigoNombre.actualizar(id, textos);
+            indicePrefijos.actualizar(id, terminos);
+        });
+    }
+    
+    /**
+     * Calcula las columnas de clasificación para los cursos existentes que aún no las tienen
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void completarClasificacionesPendientes() {
+        List<Curso> pendientes = cursoRepository.findByNivelDificultadIsNullOrCargaAcademicaIsNull();
+        if (pendientes.isEmpty()) {
+            return;
+        }
         
-        if (puntaje <= 8) {
-            return "Baja";
-        } else if (puntaje <= 16) {
-            return "Media";
-        } else {
-            return "Alta";
+        pendientes.forEach(Curso::actualizarClasificacion);
+        cursoRepository.saveAll(pendientes);
+        catalogo.recargarCursos();
+    }
+    
+    // ============ MÉTODOS DE CONVERSIÓN PRIVADOS ============
+    
+    private List<CursoDTO> convertir(List<CursoFila> cursos) {
+        return cursos.stream()
+                .map(this::convertirACursoDTO)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Convierte una proyección de curso a CursoDTO
+     */
+    private CursoDTO convertirACursoDTO(CursoFila curso) {
+        if (curso == null) {
+            return null;
         }
+        
+        // Nivel y carga se leen de las columnas derivadas; se calculan si aún no existen
+        String nivelDificultad = curso.nivelDificultad() != null
+                ? curso.nivelDificultad()
+                : ClasificacionCurso.determinarNivelDificultad(curso.codigo());
+        String cargaAcademica = curso.cargaAcademica() != null
+                ? curso.cargaAcademica()
+                : ClasificacionCurso.determinarCargaAcademica(curso.creditos(), curso.horasSemanales());
+        
+        return new CursoDTO(
+            curso.id(),
+            curso.codigo(),
+            curso.nombre(),
+            curso.descripcion(),
+            curso.creditos(),
+            curso.horasSemanales(),
+            nivelDificultad,
+            cargaAcademica
+        );
     }
     
     // ============ MÉTODOS ORIGINALES PARA COMPATIBILIDAD ============
@@ -285,7 +474,9 @@ public class CursoService {
         }
         
         try {
-            return cursoRepository.findByCodigo(codigo.trim().toUpperCase());
+            return cachesBusqueda.cursoPorCodigo()
+                    .obtener(claveCodigo(codigo), clave -> cursoRepository.findConProfesorByCodigo(clave).map(CopiasEntidad::curso))
+                    .map(CopiasEntidad::curso);
         } catch (Exception e) {
             throw new RuntimeException("Error al buscar el curso por código: " + e.getMessage());
         }
@@ -320,7 +511,7 @@ public class CursoService {
         }
         
         try {
-            return cursoRepository.existsByCodigo(codigo.trim().toUpperCase());
+            return filtrosUnicidad.codigoCurso().existe(codigo.trim().toUpperCase(), cursoRepository::existsByCodigo);
         } catch (Exception e) {
             throw new RuntimeException("Error al verificar el código: " + e.getMessage());
         }
@@ -350,6 +541,10 @@ public class CursoService {
             throw new IllegalArgumentException("Las horas semanales deben estar entre 1 y 20");
         }
         
+        if (curso.getCupoMaximo() != null && curso.getCupoMaximo() <= 0) {
+            throw new IllegalArgumentException("El cupo máximo debe ser al menos 1");
+        }
+        
         // Normalizar código a mayúsculas
         curso.setCodigo(curso.getCodigo().trim().toUpperCase());
     }
@@ -0,0 +1,27 @@
+package com.gestionacademica.sistema_academico.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Ejecuta acciones sobre estructuras en memoria solo cuando la transacción actual
+ * confirma, para que un rollback no deje índices o cachés con datos inexistentes.
+ */
+final class DespuesDelCommit {
+    
+    private DespuesDelCommit() {}
+    
+    static void ejecutar(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accion.run();
+            return;
+        }
+        
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accion.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,67 @@
+package com.gestionacademica.sistema_academico.service;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Codificación de valores en enteros consecutivos (0, 1, 2...) para guardarlos en
+ * columnas de tipos primitivos. Los códigos no cambian ni se reutilizan.
+ *
+ * Un solo hilo codifica valores nuevos a la vez; las lecturas no se bloquean.
+ */
+final class Diccionario<T> {
+
+    private final Map<T, Integer> codigos = new ConcurrentHashMap<>();
+    private final int maximo;
+    private volatile Object[] valores = new Object[16];
+    private volatile int tamaño;
+
+    /**
+     * @param maximo cantidad máxima de valores distintos (según el tipo de la columna)
+     */
+    Diccionario(int maximo) {
+        this.maximo = maximo;
+    }
+
+    /**
+     * Código del valor, asignándole uno nuevo si aún no lo tiene
+     */
+    synchronized int codificar(T valor) {
+        Integer codigo = codigos.get(valor);
+        if (codigo != null) {
+            return codigo;
+        }
+        if (tamaño == maximo) {
+            throw new IllegalStateException("El diccionario superó el máximo de " + maximo + " valores");
+        }
+
+        Object[] actuales = valores;
+        if (tamaño == actuales.length) {
+            actuales = Arrays.copyOf(actuales, actuales.length * 2);
+        }
+        actuales[tamaño] = valor;
+        valores = actuales;
+        codigos.put(valor, tamaño);
+        // Se publica al final: quien lea el tamaño ya ve el valor en el arreglo
+        tamaño = tamaño + 1;
+        return tamaño - 1;
+    }
+
+    /**
+     * Código del valor, o -1 si no está en el diccionario
+     */
+    int codigo(T valor) {
+        Integer codigo = codigos.get(valor);
+        return codigo == null ? -1 : codigo;
+    }
+
+    @SuppressWarnings("unchecked")
+    T valor(int codigo) {
+        return (T) valores[codigo];
+    }
+
+    int tamaño() {
+        return tamaño;
+    }
+}
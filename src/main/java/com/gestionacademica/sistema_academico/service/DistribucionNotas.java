@@ -0,0 +1,98 @@
+package com.gestionacademica.sistema_academico.service;
+
+import java.util.Arrays;
+
+/**
+ * Distribución de notas que se puede combinar: un t-digest para los percentiles y un
+ * histograma exacto de intervalos de ancho 1 ([0, 1), [1, 2), ...) que se agrupa en
+ * intervalos más anchos al consultar. Las notas negativas cuentan en el primer intervalo y
+ * las mayores que INTERVALOS_MAXIMOS en el último.
+ */
+final class DistribucionNotas {
+
+    static final int INTERVALOS_MAXIMOS = 1000;
+
+    private final TDigest digest = new TDigest();
+    private long[] histograma = new long[0];
+
+    synchronized void agregar(double nota) {
+        digest.agregar(nota);
+        int intervalo = intervalo(nota);
+        if (intervalo >= histograma.length) {
+            histograma = Arrays.copyOf(histograma, intervalo + 1);
+        }
+        histograma[intervalo]++;
+    }
+
+    /**
+     * Quita una nota agregada antes: exacto en el histograma, aproximado en el t-digest
+     */
+    synchronized void quitar(double nota) {
+        digest.quitar(nota);
+        int intervalo = intervalo(nota);
+        if (intervalo < histograma.length && histograma[intervalo] > 0) {
+            histograma[intervalo]--;
+        }
+    }
+
+    void combinar(DistribucionNotas otra) {
+        DistribucionNotas origen = otra.copia();
+        synchronized (this) {
+            digest.combinar(origen.digest);
+            if (origen.histograma.length > histograma.length) {
+                histograma = Arrays.copyOf(histograma, origen.histograma.length);
+            }
+            for (int i = 0; i < origen.histograma.length; i++) {
+                histograma[i] += origen.histograma[i];
+            }
+        }
+    }
+
+    synchronized DistribucionNotas copia() {
+        DistribucionNotas copia = new DistribucionNotas();
+        copia.digest.combinar(digest);
+        copia.histograma = histograma.clone();
+        return copia;
+    }
+
+    synchronized void compactar() {
+        digest.compactar();
+    }
+
+    synchronized long cantidad() {
+        return digest.cantidad();
+    }
+
+    synchronized double minimo() {
+        return digest.minimo();
+    }
+
+    synchronized double maximo() {
+        return digest.maximo();
+    }
+
+    /**
+     * Nota estimada del percentil indicado (0 a 100)
+     */
+    synchronized double percentil(double percentil) {
+        return digest.cuantil(percentil / 100);
+    }
+
+    /**
+     * Cantidad de notas por intervalo de ancho dado: la posición i cuenta [i·ancho, (i+1)·ancho)
+     */
+    synchronized long[] histograma(int ancho) {
+        if (ancho < 1) {
+            throw new IllegalArgumentException("El ancho del histograma debe ser al menos 1");
+        }
+        long[] agrupado = new long[(histograma.length + ancho - 1) / ancho];
+        for (int i = 0; i < histograma.length; i++) {
+            agrupado[i / ancho] += histograma[i];
+        }
+        return agrupado;
+    }
+
+    private static int intervalo(double nota) {
+        return nota <= 0 ? 0 : (int) Math.min(Math.floor(nota), INTERVALOS_MAXIMOS - 1);
+    }
+}
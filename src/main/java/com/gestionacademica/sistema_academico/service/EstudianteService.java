@@ -1,18 +1,33 @@
 package com.gestionacademica.sistema_academico.service;
 
 import com.gestionacademica.sistema_academico.dto.EstudianteDTO;
+import com.gestionacademica.sistema_academico.dto.PaginaDTO;
+import com.gestionacademica.sistema_academico.dto.SugerenciaDTO;
 import com.gestionacademica.sistema_academico.entity.Estudiante;
 import com.gestionacademica.sistema_academico.repository.EstudianteRepository;
+import com.gestionacademica.sistema_academico.repository.proyeccion.EstudianteFila;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.time.Period;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -21,6 +36,37 @@ public class EstudianteService {
     @Autowired
     private EstudianteRepository estudianteRepository;
     
+    @Autowired
+    private Paginacion paginacion;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private SoporteTrigramas soporteTrigramas;
+    
+    @Autowired
+    private FiltrosUnicidad filtrosUnicidad;
+    
+    @Autowired
+    private CachesBusqueda cachesBusqueda;
+    
+    @Autowired
+    private CacheReportes cacheReportes;
+    
+    @Autowired
+    private CuposCursos cuposCursos;
+    
+    // Índice de nombres en memoria, solo se construye si la base de datos no tiene pg_trgm
+    private final IndiceTrigramas indiceNombres = new IndiceTrigramas();
+    
+    // Índice de prefijos de carnet, nombre y apellido para autocompletar
+    private final IndicePrefijos indicePrefijos = new IndicePrefijos();
+    
+    // Campos por los que se puede ordenar el resultado de filtrarDTO
+    private static final Set<String> CAMPOS_ORDEN = Set.of(
+            "id", "carnet", "nombre", "apellido", "email", "fechaNacimiento", "fechaIngreso");
+    
     // ============ MÉTODOS CRUD ORIGINALES (mantener para POST, PUT, DELETE) ============
     
     /**
@@ -29,16 +75,20 @@ public class EstudianteService {
     public Estudiante crearEstudiante(Estudiante estudiante) {
         validarEstudiante(estudiante);
         
-        if (estudianteRepository.existsByCarnet(estudiante.getCarnet())) {
+        if (filtrosUnicidad.carnetEstudiante().existe(estudiante.getCarnet(), estudianteRepository::existsByCarnet)) {
             throw new RuntimeException("Ya existe un estudiante con el carnet: " + estudiante.getCarnet());
         }
         
-        if (estudianteRepository.existsByEmail(estudiante.getEmail())) {
+        if (filtrosUnicidad.emailEstudiante().existe(estudiante.getEmail(), estudianteRepository::existsByEmail)) {
             throw new RuntimeException("Ya existe un estudiante con el email: " + estudiante.getEmail());
         }
         
         try {
-            return estudianteRepository.save(estudiante);
+            Estudiante guardado = estudianteRepository.save(estudiante);
+            registrarClavesUnicas(guardado);
+            invalidarBusquedas(guardado.getCarnet(), guardado.getEmail());
+            actualizarIndiceNombres(guardado);
+            return guardado;
         } catch (Exception e) {
             throw new RuntimeException("Error al crear el estudiante: " + e.getMessage());
         }
@@ -57,15 +107,17 @@ public class EstudianteService {
         return estudianteRepository.findById(id)
             .map(estudianteExistente -> {
                 if (!estudianteExistente.getCarnet().equals(estudianteActualizado.getCarnet()) &&
-                    estudianteRepository.existsByCarnet(estudianteActualizado.getCarnet())) {
+                    filtrosUnicidad.carnetEstudiante().existe(estudianteActualizado.getCarnet(), estudianteRepository::existsByCarnet)) {
                     throw new RuntimeException("Ya existe un estudiante con el carnet: " + estudianteActualizado.getCarnet());
                 }
                 
                 if (!estudianteExistente.getEmail().equals(estudianteActualizado.getEmail()) &&
-                    estudianteRepository.existsByEmail(estudianteActualizado.getEmail())) {
+                    filtrosUnicidad.emailEstudiante().existe(estudianteActualizado.getEmail(), estudianteRepository::existsByEmail)) {
                     throw new RuntimeException("Ya existe un estudiante con el email: " + estudianteActualizado.getEmail());
                 }
                 
+                invalidarBusquedas(estudianteExistente.getCarnet(), estudianteExistente.getEmail());
+                
                 estudianteExistente.setCarnet(estudianteActualizado.getCarnet());
                 estudianteExistente.setNombre(estudianteActualizado.getNombre());
                 estudianteExistente.setApellido(estudianteActualizado.getApellido());
@@ -75,7 +127,11 @@ public class EstudianteService {
                 estudianteExistente.setFechaIngreso(estudianteActualizado.getFechaIngreso());
                 
                 try {
-                    return estudianteRepository.save(estudianteExistente);
+                    Estudiante guardado = estudianteRepository.save(estudianteExistente);
+                    registrarClavesUnicas(guardado);
+                    invalidarBusquedas(guardado.getCarnet(), guardado.getEmail());
+                    actualizarIndiceNombres(guardado);
+                    return guardado;
                 } catch (Exception e) {
                     throw new RuntimeException("Error al actualizar el estudiante: " + e.getMessage());
                 }
@@ -91,12 +147,19 @@ public class EstudianteService {
             throw new IllegalArgumentException("El ID debe ser un número positivo");
         }
         
-        if (!estudianteRepository.existsById(id)) {
-            throw new RuntimeException("Estudiante no encontrado con ID: " + id);
-        }
+        EstudianteFila existente = estudianteRepository.findFilaById(id)
+                .orElseThrow(() -> new RuntimeException("Estudiante no encontrado con ID: " + id));
         
         try {
+            // Sus inscripciones se eliminan en cascada y sus lugares vuelven a los cursos
+            cuposCursos.liberarInscripcionesDe(id);
             estudianteRepository.deleteById(id);
+            invalidarBusquedas(existente.carnet(), existente.email());
+            cacheReportes.invalidar();
+            DespuesDelCommit.ejecutar(() -> {
+                indiceNombres.eliminar(id);
+                indicePrefijos.eliminar(id);
+            });
         } catch (Exception e) {
             throw new RuntimeException("Error al eliminar el estudiante: " + e.getMessage());
         }
@@ -110,15 +173,52 @@ public class EstudianteService {
     @Transactional(readOnly = true)
     public List<EstudianteDTO> obtenerTodosDTO() {
         try {
-            List<Estudiante> estudiantes = estudianteRepository.findAll();
+            List<EstudianteFila> estudiantes = estudianteRepository.findFilas();
             return estudiantes.stream()
-                    .map(this::convertirAEstudianteDTO)
+                    .map(conversorDTO(FechasDerivadas.deHoy()))
                     .collect(Collectors.toList());
         } catch (Exception e) {
             throw new RuntimeException("Error al obtener los estudiantes: " + e.getMessage());
         }
     }
     
+    /**
+     * Obtener una página de estudiantes como DTOs, ordenada por ID (paginación por cursor)
+     */
+    @Transactional(readOnly = true)
+    public PaginaDTO<EstudianteDTO> obtenerPaginaDTO(String cursor, Integer limite, boolean incluirTotal) {
+        int limiteValido = paginacion.normalizarLimite(limite);
+        long despuesDeId = Paginacion.decodificarId(cursor);
+        
+        try {
+            List<EstudianteFila> estudiantes = estudianteRepository.findFilasDespuesDeId(despuesDeId, Limit.of(limiteValido + 1));
+            Long total = incluirTotal ? estudianteRepository.count() : null;
+            return Paginacion.armarPagina(estudiantes, limiteValido, conversorDTO(FechasDerivadas.deHoy()),
+                    estudiante -> String.valueOf(estudiante.id()), total);
+        } catch (Exception e) {
+            throw new RuntimeException("Error al obtener los estudiantes: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Recorre todos los estudiantes como DTOs en orden de ID, con memoria constante:
+     * las filas se leen por lotes (fetch size) como proyecciones, sin entidades administradas.
+     * Una excepción del consumidor (ej: cliente desconectado) detiene el recorrido.
+     */
+    @Transactional(readOnly = true)
+    public long recorrerTodosDTO(Consumer<EstudianteDTO> consumidor) {
+        long procesados = 0;
+        Function<EstudianteFila, EstudianteDTO> conversor = conversorDTO(FechasDerivadas.deHoy());
+        try (Stream<EstudianteFila> estudiantes = estudianteRepository.streamFilasOrdenadasPorId()) {
+            Iterator<EstudianteFila> iterador = estudiantes.iterator();
+            while (iterador.hasNext()) {
+                consumidor.accept(conversor.apply(iterador.next()));
+                procesados++;
+            }
+        }
+        return procesados;
+    }
+    
     /**
      * Obtener un estudiante por ID como DTO
      */
@@ -129,8 +229,8 @@ public class EstudianteService {
         }
         
         try {
-            return estudianteRepository.findById(id)
-                    .map(this::convertirAEstudianteDTO);
+            return estudianteRepository.findFilaById(id)
+                    .map(conversorDTO(FechasDerivadas.deHoy()));
         } catch (Exception e) {
             throw new RuntimeException("Error al buscar el estudiante: " + e.getMessage());
         }
@@ -146,10 +246,9 @@ public class EstudianteService {
         }
         
         try {
-            List<Estudiante> estudiantes = estudianteRepository.findByNombreOrApellidoContaining(apellido.trim());
+            List<EstudianteFila> estudiantes = estudianteRepository.findFilasByApellidoContaining(apellido.trim());
             return estudiantes.stream()
-                    .filter(est -> est.getApellido().toLowerCase().contains(apellido.toLowerCase()))
-                    .map(this::convertirAEstudianteDTO)
+                    .map(conversorDTO(FechasDerivadas.deHoy()))
                     .collect(Collectors.toList());
         } catch (Exception e) {
             throw new RuntimeException("Error al buscar estudiantes por apellido: " + e.getMessage());
@@ -166,10 +265,12 @@ public class EstudianteService {
         }
         
         try {
-            List<Estudiante> estudiantes = estudianteRepository.findAll();
+            FechasDerivadas fechas = FechasDerivadas.deHoy();
+            List<EstudianteFila> estudiantes = new FiltroCompuesto<Estudiante>()
+                    .y(especificacionSemestre(semestre.trim(), fechas.getHoy()))
+                    .proyectar(entityManager, Estudiante.class, Sort.by("id"), EstudianteFila.class, EstudianteFila.ATRIBUTOS);
             return estudiantes.stream()
-                    .map(this::convertirAEstudianteDTO)
-                    .filter(estDTO -> estDTO.getSemestreActual().equalsIgnoreCase(semestre.trim()))
+                    .map(conversorDTO(fechas))
                     .collect(Collectors.toList());
         } catch (Exception e) {
             throw new RuntimeException("Error al buscar estudiantes por semestre: " + e.getMessage());
@@ -186,81 +287,284 @@ public class EstudianteService {
         }
         
         try {
-            List<Estudiante> estudiantes = estudianteRepository.findAll();
+            // Edad en [minima, maxima] equivale a fechaNacimiento en (limite(maxima + 1), limite(minima)]
+            FechasDerivadas fechas = FechasDerivadas.deHoy();
+            LocalDate hoy = fechas.getHoy();
+            LocalDate desde = CalculadoraRangosFecha.fechaLimiteParaAñosCumplidos(hoy, edadMaxima + 1);
+            LocalDate hasta = CalculadoraRangosFecha.fechaLimiteParaAñosCumplidos(hoy, edadMinima);
+            
+            List<EstudianteFila> estudiantes = estudianteRepository.findFilasByFechaNacimientoEntre(desde, hasta);
             return estudiantes.stream()
-                    .map(this::convertirAEstudianteDTO)
-                    .filter(estDTO -> {
-                        Integer edad = estDTO.getEdad();
-                        return edad != null && edad >= edadMinima && edad <= edadMaxima;
-                    })
+                    .map(conversorDTO(fechas))
                     .collect(Collectors.toList());
         } catch (Exception e) {
             throw new RuntimeException("Error al buscar estudiantes por rango de edad: " + e.getMessage());
         }
     }
     
+    /**
+     * Buscar estudiantes combinando los filtros recibidos (deben cumplirse todos) en una sola consulta.
+     * Los filtros null o vacíos se ignoran; el orden es "campo" o "campo,desc".
+     * El apellido se busca en el nombre o en el apellido, como la búsqueda original por apellido.
+     * Se retornan como máximo "limite" filas (el mismo límite que la paginación), sin cursor:
+     * hayMas indica que el filtro tiene más resultados.
+     */
+    @Transactional(readOnly = true)
+    public PaginaDTO<EstudianteDTO> filtrarDTO(String apellido, String semestre, Integer edadMinima, Integer edadMaxima,
+                                               Integer añoIngreso, String dominioEmail, String orden, Integer limite) {
+        if ((edadMinima != null && edadMinima < 0) || (edadMaxima != null && edadMaxima < 0) ||
+            (edadMinima != null && edadMaxima != null && edadMinima > edadMaxima)) {
+            throw new IllegalArgumentException("El rango de edad debe ser válido");
+        }
+        
+        Sort sort = FiltroCompuesto.ordenar(orden, CAMPOS_ORDEN);
+        int limiteValido = paginacion.normalizarLimite(limite);
+        
+        try {
+            FechasDerivadas fechas = FechasDerivadas.deHoy();
+            LocalDate hoy = fechas.getHoy();
+            FiltroCompuesto<Estudiante> filtro = new FiltroCompuesto<Estudiante>()
+                    .y(FiltroCompuesto.contieneEnAlguno(apellido, "nombre", "apellido"))
+                    .y(FiltroCompuesto.vacio(semestre) ? null : especificacionSemestre(semestre.trim(), hoy))
+                    .y(especificacionRangoEdad(edadMinima, edadMaxima, hoy))
+                    .y(especificacionAñoIngreso(añoIngreso))
+                    .y(FiltroCompuesto.vacio(dominioEmail) ? null
+                            : FiltroCompuesto.terminaCon("email", "@" + dominioEmail.trim().replaceFirst("^@", "")));
+            
+            // Una fila de más para saber si el filtro tiene más resultados que el límite
+            List<EstudianteFila> filas = filtro.proyectar(entityManager, Estudiante.class, sort,
+                    EstudianteFila.class, EstudianteFila.ATRIBUTOS, limiteValido + 1);
+            boolean hayMas = filas.size() > limiteValido;
+            List<EstudianteDTO> estudiantes = filas.stream()
+                    .limit(limiteValido)
+                    .map(conversorDTO(fechas))
+                    .collect(Collectors.toList());
+            return new PaginaDTO<>(estudiantes, null, hayMas, limiteValido, null);
+        } catch (Exception e) {
+            throw new RuntimeException("Error al filtrar estudiantes: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Buscar estudiantes por nombre o apellido, ordenados por similitud con el término
+     */
+    @Transactional(readOnly = true)
+    public List<EstudianteDTO> buscarPorSimilitudDTO(String termino, Integer limite) {
+        int limiteValido = SoporteTrigramas.validarBusqueda(termino, limite);
+        
+        try {
+            List<Long> ids = soporteTrigramas.pgTrgmDisponible()
+                    ? estudianteRepository.buscarIdsPorSimilitud(termino.trim(),
+                            SoporteTrigramas.patronSubcadena(termino.trim()), limiteValido)
+                    : buscarEnIndiceNombres(termino.trim(), limiteValido);
+            
+            // Las filas se devuelven en el orden de similitud de los IDs
+            Map<Long, EstudianteFila> porId = estudianteRepository.findFilasByIdIn(ids).stream()
+                    .collect(Collectors.toMap(EstudianteFila::id, Function.identity()));
+            return ids.stream()
+                    .map(porId::get)
+                    .filter(Objects::nonNull)
+                    .map(conversorDTO(FechasDerivadas.deHoy()))
+                    .collect(Collectors.toList());
+        } catch (Exception e) {
+            throw new RuntimeException("Error al buscar estudiantes por similitud: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Autocompletar: estudiantes cuyo carnet, nombre o apellido empieza con el prefijo,
+     * en orden alfabético (un resultado por estudiante)
+     */
+    @Transactional(readOnly = true)
+    public List<SugerenciaDTO> autocompletar(String prefijo, Integer limite) {
+        int limiteValido = SoporteTrigramas.validarBusqueda(prefijo, limite);
+        
+        try {
+            indicePrefijos.construirSiHaceFalta(() -> estudianteRepository.findFilas().stream()
+                    .collect(Collectors.toMap(EstudianteFila::id,
+                            fila -> terminosAutocompletar(fila.carnet(), fila.nombre(), fila.apellido()))));
+            
+            return indicePrefijos.buscar(prefijo, limiteValido).stream()
+                    .map(coincidencia -> new SugerenciaDTO(coincidencia.id(), coincidencia.campo(), coincidencia.texto()))
+                    .collect(Collectors.toList());
+        } catch (Exception e) {
+            throw new RuntimeException("Error al autocompletar estudiantes: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Actualiza las estructuras en memoria con estudiantes insertados fuera de JPA
+     * (importación masiva). Se aplica cuando la transacción confirma.
+     */
+    public void registrarImportados(List<Estudiante> importados) {
+        importados.forEach(estudiante -> {
+            registrarClavesUnicas(estudiante);
+            invalidarBusquedas(estudiante.getCarnet(), estudiante.getEmail());
+            actualizarIndiceNombres(estudiante);
+        });
+    }
+    
+    /**
+     * Registra carnet y email en los filtros de unicidad. Se hace antes del commit:
+     * si la transacción se revierte solo queda un falso positivo, nunca un falso negativo.
+     */
+    private void registrarClavesUnicas(Estudiante estudiante) {
+        filtrosUnicidad.carnetEstudiante().registrar(estudiante.getCarnet());
+        filtrosUnicidad.emailEstudiante().registrar(estudiante.getEmail());
+    }
+    
+    /**
+     * Descarta de las cachés de búsqueda el carnet y el email (también los "no existe")
+     */
+    private void invalidarBusquedas(String carnet, String email) {
+        CachesBusqueda.invalidar(cachesBusqueda.estudiantePorCarnet(), claveCarnet(carnet));
+        CachesBusqueda.invalidar(cachesBusqueda.estudiantePorEmail(), claveEmail(email));
+    }
+    
+    private static String claveCarnet(String carnet) {
+        return carnet == null ? null : carnet.trim().toUpperCase();
+    }
+    
+    private static String claveEmail(String email) {
+        return email == null ? null : email.trim();
+    }
+    
+    /**
+     * Resuelve la búsqueda por similitud con el índice en memoria; retorna los IDs ordenados
+     */
+    private List<Long> buscarEnIndiceNombres(String termino, int limite) {
+        indiceNombres.construirSiHaceFalta(() -> estudianteRepository.findFilas().stream()
+                .collect(Collectors.toMap(EstudianteFila::id, fila -> Arrays.asList(fila.nombre(), fila.apellido()))));
+        
+        return indiceNombres.buscar(termino, limite);
+    }
+    
+    private List<String> textosIndexables(Estudiante estudiante) {
+        return Arrays.asList(estudiante.getNombre(), estudiante.getApellido());
+    }
+    
+    private static List<IndicePrefijos.Termino> terminosAutocompletar(String carnet, String nombre, String apellido) {
+        return List.of(
+                new IndicePrefijos.Termino("carnet", carnet),
+                new IndicePrefijos.Termino("nombre", nombre),
+                new IndicePrefijos.Termino("apellido", apellido));
+    }
+    
+    private void actualizarIndiceNombres(Estudiante estudiante) {
+        Long id = estudiante.getId();
+        List<String> textos = textosIndexables(estudiante);
+        List<IndicePrefijos.Termino> terminos = terminosAutocompletar(
+                estudiante.getCarnet(), estudiante.getNombre(), estudiante.getApellido());
+        DespuesDelCommit.ejecutar(() -> {
+            indiceNombres.actualizar(id, textos);
+            indicePrefijos.actualizar(id, terminos);
+        });
+    }
+    
+    /**
+     * Traduce el semestre a un rango sobre fecha_ingreso, equivalente a calcularSemestreActual
+     */
+    private Specification<Estudiante> especificacionSemestre(String semestre, LocalDate hoy) {
+        if (FechasDerivadas.SEMESTRE_SIN_DETERMINAR.equalsIgnoreCase(semestre)) {
+            return FiltroCompuesto.esNulo("fechaIngreso");
+        }
+        
+        Integer numero = CalculadoraRangosFecha.interpretarSemestre(semestre);
+        if (numero == null) {
+            return FiltroCompuesto.ninguno();
+        }
+        
+        int meses = CalculadoraRangosFecha.MESES_POR_SEMESTRE;
+        
+        // El primer semestre incluye fechas de ingreso futuras (meses negativos)
+        if (numero == CalculadoraRangosFecha.SEMESTRE_MINIMO) {
+            return FiltroCompuesto.fechaEntre("fechaIngreso",
+                    CalculadoraRangosFecha.fechaLimiteParaMesesCumplidos(hoy, meses), null);
+        }
+        
+        LocalDate hasta = CalculadoraRangosFecha.fechaLimiteParaMesesCumplidos(hoy, (long) (numero - 1) * meses);
+        
+        // El último semestre acumula a todos los que lo superan
+        if (numero == CalculadoraRangosFecha.SEMESTRE_MAXIMO) {
+            return FiltroCompuesto.fechaEntre("fechaIngreso", null, hasta);
+        }
+        
+        LocalDate desde = CalculadoraRangosFecha.fechaLimiteParaMesesCumplidos(hoy, (long) numero * meses);
+        return FiltroCompuesto.fechaEntre("fechaIngreso", desde, hasta);
+    }
+    
+    /**
+     * Edad en [minima, maxima] equivale a fechaNacimiento en (limite(maxima + 1), limite(minima)];
+     * cualquiera de los extremos puede omitirse
+     */
+    private Specification<Estudiante> especificacionRangoEdad(Integer edadMinima, Integer edadMaxima, LocalDate hoy) {
+        if (edadMinima == null && edadMaxima == null) {
+            return null;
+        }
+        
+        LocalDate desde = edadMaxima == null ? null
+                : CalculadoraRangosFecha.fechaLimiteParaAñosCumplidos(hoy, edadMaxima + 1);
+        LocalDate hasta = edadMinima == null ? null
+                : CalculadoraRangosFecha.fechaLimiteParaAñosCumplidos(hoy, edadMinima);
+        return FiltroCompuesto.fechaEntre("fechaNacimiento", desde, hasta);
+    }
+    
+    /**
+     * Año de ingreso como rango de fechas, para usar el índice de fecha_ingreso
+     */
+    private Specification<Estudiante> especificacionAñoIngreso(Integer año) {
+        if (año == null) {
+            return null;
+        }
+        return FiltroCompuesto.fechaEntre("fechaIngreso", LocalDate.of(año - 1, 12, 31), LocalDate.of(año, 12, 31));
+    }
+    
     // ============ MÉTODOS DE CONVERSIÓN PRIVADOS ============
     
     /**
-     * Convierte una entidad Estudiante a EstudianteDTO
+     * Conversor de proyecciones a EstudianteDTO con la fecha de la consulta:
+     * el reloj se lee una vez por consulta, no una vez por fila
      */
-    private EstudianteDTO convertirAEstudianteDTO(Estudiante estudiante) {
+    private Function<EstudianteFila, EstudianteDTO> conversorDTO(FechasDerivadas fechas) {
+        return estudiante -> convertirAEstudianteDTO(estudiante, fechas);
+    }
+    
+    /**
+     * Convierte una proyección de estudiante a EstudianteDTO
+     */
+    private EstudianteDTO convertirAEstudianteDTO(EstudianteFila estudiante, FechasDerivadas fechas) {
         if (estudiante == null) {
             return null;
         }
         
         // Combinar nombre y apellido
-        String nombreCompleto = estudiante.getNombre() + " " + estudiante.getApellido();
+        String nombreCompleto = estudiante.nombre() + " " + estudiante.apellido();
         
         // Calcular edad
         Integer edad = null;
-        if (estudiante.getFechaNacimiento() != null) {
-            edad = Period.between(estudiante.getFechaNacimiento(), LocalDate.now()).getYears();
+        if (estudiante.fechaNacimiento() != null) {
+            edad = fechas.añosCumplidos(estudiante.fechaNacimiento());
         }
         
-        // Calcular semestre actual
-        String semestreActual = calcularSemestreActual(estudiante.getFechaIngreso());
+        // Calcular semestre actual (un semestre cada 6 meses desde el ingreso, entre 1 y 12)
+        String semestreActual = fechas.semestreActual(estudiante.fechaIngreso());
         
         // Estado académico (por ahora siempre activo, se puede expandir)
         String estadoAcademico = "Activo";
         
         return new EstudianteDTO(
-            estudiante.getId(),
-            estudiante.getCarnet(),
+            estudiante.id(),
+            estudiante.carnet(),
             nombreCompleto,
-            estudiante.getEmail(),
-            estudiante.getTelefono(),
+            estudiante.email(),
+            estudiante.telefono(),
             edad,
-            estudiante.getFechaIngreso(),
+            estudiante.fechaIngreso(),
             semestreActual,
             estadoAcademico
         );
     }
     
-    /**
-     * Calcula el semestre actual basado en la fecha de ingreso
-     */
-    private String calcularSemestreActual(LocalDate fechaIngreso) {
-        if (fechaIngreso == null) {
-            return "Sin determinar";
-        }
-        
-        LocalDate ahora = LocalDate.now();
-        long mesesTranscurridos = ChronoUnit.MONTHS.between(fechaIngreso, ahora);
-        
-        // Cada semestre son aproximadamente 6 meses
-        int semestre = (int) (mesesTranscurridos / 6) + 1;
-        
-        // Limitar a un máximo razonable
-        if (semestre > 12) {
-            semestre = 12;
-        } else if (semestre < 1) {
-            semestre = 1;
-        }
-        
-        return semestre + "° Semestre";
-    }
-    
     // ============ MÉTODOS ORIGINALES PARA COMPATIBILIDAD ============
     
     @Transactional(readOnly = true)
@@ -292,7 +596,9 @@ public class EstudianteService {
         }
         
         try {
-            return estudianteRepository.findByCarnet(carnet.trim().toUpperCase());
+            return cachesBusqueda.estudiantePorCarnet()
+                    .obtener(claveCarnet(carnet), clave -> estudianteRepository.findByCarnet(clave).map(CopiasEntidad::estudiante))
+                    .map(CopiasEntidad::estudiante);
         } catch (Exception e) {
             throw new RuntimeException("Error al buscar el estudiante por carnet: " + e.getMessage());
         }
@@ -305,7 +611,9 @@ public class EstudianteService {
         }
         
         try {
-            return estudianteRepository.findByEmail(email.trim());
+            return cachesBusqueda.estudiantePorEmail()
+                    .obtener(claveEmail(email), clave -> estudianteRepository.findByEmail(clave).map(CopiasEntidad::estudiante))
+                    .map(CopiasEntidad::estudiante);
         } catch (Exception e) {
             throw new RuntimeException("Error al buscar el estudiante por email: " + e.getMessage());
         }
@@ -346,6 +654,66 @@ public class EstudianteService {
         }
     }
     
+    /**
+     * Obtener una página de estudiantes ordenada por fecha de ingreso descendente.
+     * Orden: (fechaIngreso DESC, id DESC) y al final los estudiantes sin fecha (id DESC)
+     */
+    @Transactional(readOnly = true)
+    public PaginaDTO<Estudiante> obtenerPaginaOrdenadaPorFechaIngreso(String cursor, Integer limite, boolean incluirTotal) {
+        int limiteValido = paginacion.normalizarLimite(limite);
+        PosicionFechaIngreso posicion = PosicionFechaIngreso.desdeCursor(cursor);
+        
+        try {
+            List<Estudiante> estudiantes = new ArrayList<>();
+            
+            if (posicion == null) {
+                estudiantes.addAll(estudianteRepository.findPrimerosPorFechaIngresoDesc(Limit.of(limiteValido + 1)));
+            } else if (posicion.fechaIngreso() != null) {
+                estudiantes.addAll(estudianteRepository.findSiguientesPorFechaIngresoDesc(
+                        posicion.fechaIngreso(), posicion.id(), Limit.of(limiteValido + 1)));
+            }
+            
+            // Completar la página con los estudiantes sin fecha de ingreso
+            if (estudiantes.size() <= limiteValido) {
+                long antesDeId = posicion != null && posicion.fechaIngreso() == null ? posicion.id() : Long.MAX_VALUE;
+                estudiantes.addAll(estudianteRepository.findByFechaIngresoIsNullAndIdLessThanOrderByIdDesc(
+                        antesDeId, Limit.of(limiteValido + 1 - estudiantes.size())));
+            }
+            
+            Long total = incluirTotal ? estudianteRepository.count() : null;
+            return Paginacion.armarPagina(estudiantes, limiteValido, Function.identity(),
+                    PosicionFechaIngreso::claveDe, total);
+        } catch (Exception e) {
+            throw new RuntimeException("Error al obtener estudiantes ordenados: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Clave del cursor para el orden por fecha de ingreso: "fecha|id" o "|id" si no tiene fecha
+     */
+    record PosicionFechaIngreso(LocalDate fechaIngreso, long id) {
+        
+        static String claveDe(Estudiante estudiante) {
+            String fecha = estudiante.getFechaIngreso() != null ? estudiante.getFechaIngreso().toString() : "";
+            return fecha + "|" + estudiante.getId();
+        }
+        
+        static PosicionFechaIngreso desdeCursor(String cursor) {
+            String clave = Paginacion.decodificar(cursor);
+            if (clave == null) {
+                return null;
+            }
+            
+            int separador = clave.indexOf('|');
+            try {
+                LocalDate fecha = separador > 0 ? LocalDate.parse(clave.substring(0, separador)) : null;
+                return new PosicionFechaIngreso(fecha, Long.parseLong(clave.substring(separador + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("El cursor de paginación no es válido");
+            }
+        }
+    }
+    
     @Transactional(readOnly = true)
     public boolean existePorCarnet(String carnet) {
         if (carnet == null || carnet.trim().isEmpty()) {
@@ -353,7 +721,7 @@ public class EstudianteService {
         }
         
         try {
-            return estudianteRepository.existsByCarnet(carnet.trim().toUpperCase());
+            return filtrosUnicidad.carnetEstudiante().existe(carnet.trim().toUpperCase(), estudianteRepository::existsByCarnet);
         } catch (Exception e) {
             throw new RuntimeException("Error al verificar el carnet: " + e.getMessage());
         }
@@ -366,16 +734,16 @@ public class EstudianteService {
         }
         
         try {
-            return estudianteRepository.existsByEmail(email.trim());
+            return filtrosUnicidad.emailEstudiante().existe(email.trim(), estudianteRepository::existsByEmail);
         } catch (Exception e) {
             throw new RuntimeException("Error al verificar el email: " + e.getMessage());
         }
     }
     
     /**
-     * Validar los datos de un estudiante
+     * Validar los datos de un estudiante (también usado por la importación masiva)
      */
-    private void validarEstudiante(Estudiante estudiante) {
+    static void validarEstudiante(Estudiante estudiante) {
         if (estudiante == null) {
             throw new IllegalArgumentException("El estudiante no puede ser nulo");
         }
@@ -0,0 +1,121 @@
+package com.gestionacademica.sistema_academico.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gestionacademica.sistema_academico.dto.EstudianteDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Exporta el padrón completo de estudiantes en NDJSON o CSV, escribiendo fila por fila
+ * a medida que se leen de la base de datos (memoria constante).
+ */
+@Service
+public class ExportacionEstudiantesService {
+
+    public static final String FORMATO_NDJSON = "ndjson";
+    public static final String FORMATO_CSV = "csv";
+
+    private static final String ENCABEZADO_CSV =
+            "id,carnet,nombreCompleto,email,telefono,edad,fechaIngreso,semestreActual,estadoAcademico";
+
+    // Cada cuántas filas se envía lo escrito al cliente
+    private static final int FILAS_POR_FLUSH = 1000;
+
+    @Autowired
+    private EstudianteService estudianteService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Tiempo máximo de una exportación; el resto de las respuestas asíncronas usa el de Spring MVC
+    @Value("${app.exportacion.timeout:PT10M}")
+    private Duration tiempoMaximo;
+
+    public Duration getTiempoMaximo() {
+        return tiempoMaximo;
+    }
+
+    /**
+     * Valida el formato solicitado y lo retorna normalizado
+     */
+    public String validarFormato(String formato) {
+        String valor = formato == null ? FORMATO_NDJSON : formato.trim().toLowerCase();
+        if (!FORMATO_NDJSON.equals(valor) && !FORMATO_CSV.equals(valor)) {
+            throw new IllegalArgumentException("Formato no soportado: " + formato + " (valores: ndjson, csv)");
+        }
+        return valor;
+    }
+
+    /**
+     * Escribe todos los estudiantes en la salida. Si el cliente se desconecta,
+     * la escritura falla y se detiene la lectura de la base de datos.
+     * @return cantidad de estudiantes exportados, o -1 si el cliente se desconectó
+     */
+    public long exportar(OutputStream salida, String formato) {
+        boolean csv = FORMATO_CSV.equals(validarFormato(formato));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+
+        try {
+            if (csv) {
+                writer.write(ENCABEZADO_CSV);
+                writer.write('\n');
+            }
+
+            long[] escritos = {0};
+            long total = estudianteService.recorrerTodosDTO(estudiante -> {
+                try {
+                    writer.write(csv ? filaCsv(estudiante) : objectMapper.writeValueAsString(estudiante));
+                    writer.write('\n');
+                    if (++escritos[0] % FILAS_POR_FLUSH == 0) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            writer.flush();
+            return total;
+        } catch (IOException | UncheckedIOException e) {
+            // El cliente cerró la conexión: se abandona la exportación
+            return -1;
+        }
+    }
+
+    private String filaCsv(EstudianteDTO estudiante) {
+        return String.join(",",
+                valorCsv(estudiante.getId()),
+                valorCsv(estudiante.getCarnet()),
+                valorCsv(estudiante.getNombreCompleto()),
+                valorCsv(estudiante.getEmail()),
+                valorCsv(estudiante.getTelefono()),
+                valorCsv(estudiante.getEdad()),
+                valorCsv(estudiante.getFechaIngreso()),
+                valorCsv(estudiante.getSemestreActual()),
+                valorCsv(estudiante.getEstadoAcademico()));
+    }
+
+    /**
+     * Escapa un valor según RFC 4180 (comillas dobles si contiene separadores)
+     */
+    static String valorCsv(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        String texto = valor.toString();
+        if (texto.contains(",") || texto.contains("\"") || texto.contains("\n") || texto.contains("\r")) {
+            return "\"" + texto.replace("\"", "\"\"") + "\"";
+        }
+        return texto;
+    }
+}
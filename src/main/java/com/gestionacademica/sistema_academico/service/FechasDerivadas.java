@@ -0,0 +1,112 @@
+package com.gestionacademica.sistema_academico.service;
+
+import java.time.LocalDate;
+import java.time.Period;
+
+/**
+ * Fecha actual tomada una sola vez por consulta, con los límites de edad y de semestre
+ * precalculados como días desde la época. Así los campos derivados de cada fila
+ * (edad, semestre actual, años de experiencia) se obtienen comparando números,
+ * sin leer el reloj ni crear objetos Period por fila.
+ *
+ * Los límites salen de CalculadoraRangosFecha, que reproduce Period.between(...).getYears()
+ * y ChronoUnit.MONTHS.between(...): el resultado es idéntico al cálculo original.
+ */
+final class FechasDerivadas {
+
+    static final String SEMESTRE_SIN_DETERMINAR = "Sin determinar";
+
+    // Años cubiertos por la tabla; fuera de ese rango se usa Period.between
+    private static final int AÑOS_EN_TABLA = 130;
+
+    private static final String[] TEXTO_SEMESTRE = new String[CalculadoraRangosFecha.SEMESTRE_MAXIMO + 1];
+
+    static {
+        for (int semestre = CalculadoraRangosFecha.SEMESTRE_MINIMO; semestre <= CalculadoraRangosFecha.SEMESTRE_MAXIMO; semestre++) {
+            TEXTO_SEMESTRE[semestre] = semestre + "° Semestre";
+        }
+    }
+
+    // Las tablas dependen solo de la fecha: se reutilizan mientras no cambie el día
+    private static volatile FechasDerivadas ultima;
+
+    private final LocalDate hoy;
+
+    // limiteAños[a]: último día con al menos a años cumplidos (decreciente)
+    private final long[] limiteAños = new long[AÑOS_EN_TABLA + 1];
+
+    // limiteSemestres[k]: último día de ingreso con al menos k semestres completos (decreciente)
+    private final long[] limiteSemestres = new long[CalculadoraRangosFecha.SEMESTRE_MAXIMO];
+
+    private FechasDerivadas(LocalDate hoy) {
+        this.hoy = hoy;
+        for (int años = 0; años <= AÑOS_EN_TABLA; años++) {
+            limiteAños[años] = CalculadoraRangosFecha.fechaLimiteParaAñosCumplidos(hoy, años).toEpochDay();
+        }
+        for (int k = 1; k < limiteSemestres.length; k++) {
+            limiteSemestres[k] = CalculadoraRangosFecha.fechaLimiteParaMesesCumplidos(
+                    hoy, (long) k * CalculadoraRangosFecha.MESES_POR_SEMESTRE).toEpochDay();
+        }
+    }
+
+    /**
+     * Lee el reloj una vez y retorna las tablas del día
+     */
+    static FechasDerivadas deHoy() {
+        return para(LocalDate.now());
+    }
+
+    static FechasDerivadas para(LocalDate hoy) {
+        FechasDerivadas actual = ultima;
+        if (actual == null || !actual.hoy.equals(hoy)) {
+            actual = new FechasDerivadas(hoy);
+            ultima = actual;
+        }
+        return actual;
+    }
+
+    LocalDate getHoy() {
+        return hoy;
+    }
+
+    /**
+     * Años cumplidos desde la fecha; igual a Period.between(fecha, hoy).getYears()
+     */
+    int añosCumplidos(LocalDate fecha) {
+        long dia = fecha.toEpochDay();
+
+        // Fechas futuras (años negativos) o fuera de la tabla
+        if (dia > limiteAños[0] || dia <= limiteAños[AÑOS_EN_TABLA]) {
+            return Period.between(fecha, hoy).getYears();
+        }
+
+        // Mayor a tal que dia <= limiteAños[a]
+        int desde = 0;
+        int hasta = AÑOS_EN_TABLA;
+        while (hasta - desde > 1) {
+            int medio = (desde + hasta) >>> 1;
+            if (dia <= limiteAños[medio]) {
+                desde = medio;
+            } else {
+                hasta = medio;
+            }
+        }
+        return desde;
+    }
+
+    /**
+     * Semestre actual según la fecha de ingreso (un semestre cada 6 meses, entre 1 y 12)
+     */
+    String semestreActual(LocalDate fechaIngreso) {
+        if (fechaIngreso == null) {
+            return SEMESTRE_SIN_DETERMINAR;
+        }
+
+        long dia = fechaIngreso.toEpochDay();
+        int semestre = CalculadoraRangosFecha.SEMESTRE_MINIMO;
+        while (semestre < CalculadoraRangosFecha.SEMESTRE_MAXIMO && dia <= limiteSemestres[semestre]) {
+            semestre++;
+        }
+        return TEXTO_SEMESTRE[semestre];
+    }
+}
@@ -0,0 +1,88 @@
+package com.gestionacademica.sistema_academico.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom concurrente para cadenas. Si responde que un valor no está,
+ * es seguro que nunca se agregó; si responde que puede estar, hay que confirmarlo.
+ */
+class FiltroBloom {
+
+    private final AtomicLongArray bits;
+    private final long cantidadBits;
+    private final int cantidadHashes;
+
+    FiltroBloom(long capacidadEsperada, double probabilidadFalsoPositivo) {
+        if (capacidadEsperada <= 0 || probabilidadFalsoPositivo <= 0 || probabilidadFalsoPositivo >= 1) {
+            throw new IllegalArgumentException("Parámetros inválidos para el filtro de Bloom");
+        }
+
+        // m = -n ln(p) / (ln 2)^2 ; k = (m / n) ln 2
+        long m = (long) Math.ceil(-capacidadEsperada * Math.log(probabilidadFalsoPositivo) / (Math.log(2) * Math.log(2)));
+        this.cantidadBits = Math.max(64, (m + 63) / 64 * 64);
+        this.cantidadHashes = Math.max(1, (int) Math.round((double) cantidadBits / capacidadEsperada * Math.log(2)));
+        this.bits = new AtomicLongArray((int) (cantidadBits / 64));
+    }
+
+    void agregar(String valor) {
+        long hash = hash64(valor);
+        long h1 = mezclar(hash);
+        long h2 = mezclar(hash ^ 0x9E3779B97F4A7C15L) | 1L;
+
+        for (int i = 0; i < cantidadHashes; i++) {
+            long posicion = Math.floorMod(h1 + i * h2, cantidadBits);
+            int palabra = (int) (posicion >>> 6);
+            long mascara = 1L << (posicion & 63);
+
+            long actual;
+            do {
+                actual = bits.get(palabra);
+                if ((actual & mascara) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(palabra, actual, actual | mascara));
+        }
+    }
+
+    boolean puedeContener(String valor) {
+        long hash = hash64(valor);
+        long h1 = mezclar(hash);
+        long h2 = mezclar(hash ^ 0x9E3779B97F4A7C15L) | 1L;
+
+        for (int i = 0; i < cantidadHashes; i++) {
+            long posicion = Math.floorMod(h1 + i * h2, cantidadBits);
+            if ((bits.get((int) (posicion >>> 6)) & (1L << (posicion & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long getCantidadBits() {
+        return cantidadBits;
+    }
+
+    int getCantidadHashes() {
+        return cantidadHashes;
+    }
+
+    // FNV-1a de 64 bits sobre los caracteres
+    private static long hash64(String valor) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < valor.length(); i++) {
+            hash ^= valor.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // Mezcla final de MurmurHash3 (fmix64) para dispersar los bits
+    private static long mezclar(long valor) {
+        valor ^= valor >>> 33;
+        valor *= 0xff51afd7ed558ccdL;
+        valor ^= valor >>> 33;
+        valor *= 0xc4ceb9fe1a85ec53L;
+        valor ^= valor >>> 33;
+        return valor;
+    }
+}
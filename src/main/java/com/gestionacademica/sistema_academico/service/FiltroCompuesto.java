@@ -0,0 +1,214 @@
+package com.gestionacademica.sistema_academico.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.text.Collator;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Combina con AND cualquier cantidad de condiciones opcionales sobre una entidad.
+ * Las condiciones sin valor se ignoran, así el resultado es una única consulta SQL
+ * con solo los filtros que el cliente envió.
+ */
+final class FiltroCompuesto<T> {
+
+    private static final Collator COLACION = Collator.getInstance(Locale.forLanguageTag("es"));
+
+    private final List<Specification<T>> condiciones = new ArrayList<>();
+
+    /**
+     * Agrega la condición si no es null
+     */
+    FiltroCompuesto<T> y(Specification<T> condicion) {
+        if (condicion != null) {
+            condiciones.add(condicion);
+        }
+        return this;
+    }
+
+    boolean estaVacio() {
+        return condiciones.isEmpty();
+    }
+
+    Specification<T> especificacion() {
+        return Specification.allOf(condiciones);
+    }
+
+    /**
+     * Ejecuta el filtro seleccionando solo los atributos de la proyección, en el orden
+     * de su constructor. El resultado no son entidades: nada queda en el contexto de persistencia.
+     */
+    <R> List<R> proyectar(EntityManager entityManager, Class<T> entidad, Sort sort,
+                          Class<R> proyeccion, List<String> atributos) {
+        return proyectar(entityManager, entidad, sort, proyeccion, atributos, null);
+    }
+
+    /**
+     * Igual que proyectar, pero trae como máximo la cantidad de filas indicada (null: sin límite)
+     */
+    <R> List<R> proyectar(EntityManager entityManager, Class<T> entidad, Sort sort,
+                          Class<R> proyeccion, List<String> atributos, Integer maximo) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<R> query = cb.createQuery(proyeccion);
+        Root<T> root = query.from(entidad);
+        query.select(cb.construct(proyeccion, atributos.stream()
+                .map(root::get)
+                .toArray(Selection<?>[]::new)));
+
+        Predicate predicado = especificacion().toPredicate(root, query, cb);
+        if (predicado != null) {
+            query.where(predicado);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        TypedQuery<R> consulta = entityManager.createQuery(query);
+        if (maximo != null) {
+            consulta.setMaxResults(maximo);
+        }
+        return consulta.getResultList();
+    }
+
+    // ============ CONDICIONES REUTILIZABLES ============
+
+    static boolean vacio(String valor) {
+        return valor == null || valor.trim().isEmpty();
+    }
+
+    /**
+     * El atributo contiene el texto, sin distinguir mayúsculas
+     */
+    static <T> Specification<T> contiene(String atributo, String texto) {
+        return contieneEnAlguno(texto, atributo);
+    }
+
+    /**
+     * Alguno de los atributos contiene el texto, sin distinguir mayúsculas
+     */
+    static <T> Specification<T> contieneEnAlguno(String texto, String... atributos) {
+        if (vacio(texto)) {
+            return null;
+        }
+        String patron = "%" + escaparLike(texto.trim().toLowerCase()) + "%";
+        return (root, query, cb) -> cb.or(Arrays.stream(atributos)
+                .map(atributo -> cb.like(cb.lower(root.get(atributo)), patron, '\\'))
+                .toArray(Predicate[]::new));
+    }
+
+    /**
+     * El atributo termina con el texto, sin distinguir mayúsculas
+     */
+    static <T> Specification<T> terminaCon(String atributo, String texto) {
+        if (vacio(texto)) {
+            return null;
+        }
+        String patron = "%" + escaparLike(texto.trim().toLowerCase());
+        return (root, query, cb) -> cb.like(cb.lower(root.get(atributo)), patron, '\\');
+    }
+
+    static <T> Specification<T> igual(String atributo, Object valor) {
+        if (valor == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get(atributo), valor);
+    }
+
+    static <T> Specification<T> esNulo(String atributo) {
+        return (root, query, cb) -> cb.isNull(root.get(atributo));
+    }
+
+    /**
+     * Fecha en el rango (desde, hasta]; cualquiera de los extremos puede ser null
+     */
+    static <T> Specification<T> fechaEntre(String atributo, LocalDate desdeExcluido, LocalDate hastaIncluido) {
+        return (root, query, cb) -> {
+            if (desdeExcluido == null) {
+                return cb.lessThanOrEqualTo(root.<LocalDate>get(atributo), hastaIncluido);
+            }
+            if (hastaIncluido == null) {
+                return cb.greaterThan(root.<LocalDate>get(atributo), desdeExcluido);
+            }
+            return cb.and(
+                    cb.greaterThan(root.<LocalDate>get(atributo), desdeExcluido),
+                    cb.lessThanOrEqualTo(root.<LocalDate>get(atributo), hastaIncluido));
+        };
+    }
+
+    /**
+     * Condición que no coincide con ninguna fila (valor de filtro que no existe)
+     */
+    static <T> Specification<T> ninguno() {
+        return (root, query, cb) -> cb.disjunction();
+    }
+
+    private static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    // ============ ORDENAMIENTO ============
+
+    /**
+     * Interpreta "campo" o "campo,desc" contra los campos permitidos (por defecto, id).
+     * El id se agrega como desempate para que el orden sea estable.
+     */
+    static Sort ordenar(String orden, Set<String> camposPermitidos) {
+        if (vacio(orden)) {
+            return Sort.by("id");
+        }
+
+        String[] partes = orden.trim().split(",");
+        String campo = partes[0].trim();
+        if (!camposPermitidos.contains(campo)) {
+            throw new IllegalArgumentException("No se puede ordenar por: " + campo
+                    + " (valores: " + String.join(", ", camposPermitidos) + ")");
+        }
+
+        Sort.Direction direccion = Sort.Direction.ASC;
+        if (partes.length > 1) {
+            direccion = Sort.Direction.fromOptionalString(partes[1].trim())
+                    .orElseThrow(() -> new IllegalArgumentException("La dirección del orden debe ser asc o desc"));
+        }
+
+        Sort sort = Sort.by(direccion, campo);
+        return "id".equals(campo) ? sort : sort.and(Sort.by("id"));
+    }
+
+    /**
+     * Comparador equivalente al Sort, para ordenar en memoria. Igual que PostgreSQL, los null
+     * van al final en orden ascendente y al principio en descendente; los textos se comparan
+     * con las reglas del español.
+     */
+    static <F> Comparator<F> comparador(Sort sort, Map<String, Function<F, ?>> campos) {
+        Comparator<F> resultado = (a, b) -> 0;
+        for (Sort.Order orden : sort) {
+            Comparator<F> porCampo = Comparator.comparing(
+                    campos.get(orden.getProperty()), Comparator.nullsLast(FiltroCompuesto::compararValores));
+            resultado = resultado.thenComparing(orden.isDescending() ? porCampo.reversed() : porCampo);
+        }
+        return resultado;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compararValores(Object a, Object b) {
+        if (a instanceof String texto) {
+            return COLACION.compare(texto, (String) b);
+        }
+        return ((Comparable) a).compareTo(b);
+    }
+}
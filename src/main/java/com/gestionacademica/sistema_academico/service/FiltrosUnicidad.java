@@ -0,0 +1,176 @@
+package com.gestionacademica.sistema_academico.service;
+
+import com.gestionacademica.sistema_academico.repository.CursoRepository;
+import com.gestionacademica.sistema_academico.repository.EstudianteRepository;
+import com.gestionacademica.sistema_academico.repository.ProfesorRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Filtros de Bloom para las claves únicas (carnet y email de estudiantes, email de
+ * profesores, código de cursos). Casi todas las verificaciones de unicidad al crear
+ * o actualizar dan "no existe": con el filtro esas respuestas se obtienen sin consultar
+ * la base de datos. La restricción UNIQUE de la tabla sigue siendo la autoridad final.
+ *
+ * Métricas: unicidad.bloom.consultas{clave, resultado} y unicidad.bloom.tasa.falsos.positivos{clave}
+ */
+@Component
+public class FiltrosUnicidad {
+
+    @Value("${app.unicidad.bloom.capacidad-minima:100000}")
+    private long capacidadMinima;
+
+    @Value("${app.unicidad.bloom.probabilidad-falso-positivo:0.01}")
+    private double probabilidadFalsoPositivo;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EstudianteRepository estudianteRepository;
+
+    @Autowired
+    private ProfesorRepository profesorRepository;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    private ClaveUnica carnetEstudiante;
+    private ClaveUnica emailEstudiante;
+    private ClaveUnica emailProfesor;
+    private ClaveUnica codigoCurso;
+
+    @PostConstruct
+    void registrarClaves() {
+        carnetEstudiante = new ClaveUnica("estudiante.carnet", meterRegistry);
+        emailEstudiante = new ClaveUnica("estudiante.email", meterRegistry);
+        emailProfesor = new ClaveUnica("profesor.email", meterRegistry);
+        codigoCurso = new ClaveUnica("curso.codigo", meterRegistry);
+    }
+
+    /**
+     * Construye los filtros con los valores existentes al iniciar la aplicación
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void construir() {
+        long estudiantes = estudianteRepository.count();
+        carnetEstudiante.construir(crearFiltro(estudiantes), estudianteRepository::findAllCarnets);
+        emailEstudiante.construir(crearFiltro(estudiantes), estudianteRepository::findAllEmails);
+        emailProfesor.construir(crearFiltro(profesorRepository.count()), profesorRepository::findAllEmails);
+        codigoCurso.construir(crearFiltro(cursoRepository.count()), cursoRepository::findAllCodigos);
+    }
+
+    private FiltroBloom crearFiltro(long existentes) {
+        // Margen para el crecimiento: el doble de lo existente, nunca menos que el mínimo configurado
+        return new FiltroBloom(Math.max(capacidadMinima, existentes * 2), probabilidadFalsoPositivo);
+    }
+
+    public ClaveUnica carnetEstudiante() {
+        return carnetEstudiante;
+    }
+
+    public ClaveUnica emailEstudiante() {
+        return emailEstudiante;
+    }
+
+    public ClaveUnica emailProfesor() {
+        return emailProfesor;
+    }
+
+    public ClaveUnica codigoCurso() {
+        return codigoCurso;
+    }
+
+    /**
+     * Filtro y métricas de una clave única
+     */
+    public static class ClaveUnica {
+
+        private volatile FiltroBloom filtro;
+        private volatile boolean activo = false;
+
+        private final Counter descartadas;
+        private final Counter falsosPositivos;
+        private final Counter existentes;
+        private final Counter sinFiltro;
+
+        ClaveUnica(String nombre, MeterRegistry registry) {
+            descartadas = contador(registry, nombre, "descartada");
+            falsosPositivos = contador(registry, nombre, "falso_positivo");
+            existentes = contador(registry, nombre, "existente");
+            sinFiltro = contador(registry, nombre, "sin_filtro");
+
+            Gauge.builder("unicidad.bloom.tasa.falsos.positivos", this, ClaveUnica::tasaFalsosPositivos)
+                    .tag("clave", nombre)
+                    .description("Falsos positivos sobre el total de valores que no existían")
+                    .register(registry);
+        }
+
+        private static Counter contador(MeterRegistry registry, String nombre, String resultado) {
+            return Counter.builder("unicidad.bloom.consultas")
+                    .tag("clave", nombre)
+                    .tag("resultado", resultado)
+                    .register(registry);
+        }
+
+        /**
+         * Verifica si el valor existe: consulta la base de datos solo si el filtro no lo descarta
+         */
+        public boolean existe(String valor, Predicate<String> consultaBaseDatos) {
+            if (valor == null) {
+                return false;
+            }
+
+            if (!activo) {
+                sinFiltro.increment();
+                return consultaBaseDatos.test(valor);
+            }
+
+            if (!filtro.puedeContener(valor)) {
+                descartadas.increment();
+                return false;
+            }
+
+            boolean existe = consultaBaseDatos.test(valor);
+            (existe ? existentes : falsosPositivos).increment();
+            return existe;
+        }
+
+        /**
+         * Registra un valor escrito en la base de datos
+         */
+        public void registrar(String valor) {
+            FiltroBloom actual = filtro;
+            if (valor != null && actual != null) {
+                actual.agregar(valor);
+            }
+        }
+
+        /**
+         * Publica el filtro antes de cargar los valores, para que las escrituras
+         * concurrentes queden registradas en él; se activa al terminar la carga
+         */
+        void construir(FiltroBloom nuevo, Supplier<List<String>> valores) {
+            activo = false;
+            filtro = nuevo;
+            valores.get().forEach(nuevo::agregar);
+            activo = true;
+        }
+
+        double tasaFalsosPositivos() {
+            double negativos = falsosPositivos.count() + descartadas.count();
+            return negativos == 0 ? 0 : falsosPositivos.count() / negativos;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.gestionacademica.sistema_academico.service;
+
+/**
+ * Estimador de cantidad de elementos distintos (HyperLogLog) que se puede combinar:
+ * el sketch de una unión es la combinación de los sketches de las partes.
+ *
+ * Mientras hay pocos elementos guarda sus hashes y el conteo es exacto (salvo colisiones
+ * de 64 bits); al superar m / 16 pasa a m = 2^precision registros de un byte. La estimación
+ * usa el estimador mejorado de Ertl (2017), sin tablas de corrección de sesgo; su error
+ * estándar relativo es 1.04 / sqrt(m), 0.81 % con la precisión por defecto.
+ *
+ * Los métodos son sincronizados: un hilo agrega mientras otros combinan copias.
+ */
+final class HyperLogLog {
+
+    static final int PRECISION_POR_DEFECTO = 14;
+
+    private final int precision;
+    private final int cantidadRegistros;
+    private final int maximoExactos;
+
+    // Conjunto de hashes con direccionamiento abierto (0 = libre); null al pasar a registros
+    private long[] exactos = new long[16];
+    private int cantidadExactos;
+    private byte[] registros;
+
+    HyperLogLog() {
+        this(PRECISION_POR_DEFECTO);
+    }
+
+    HyperLogLog(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("La precisión debe estar entre 4 y 18");
+        }
+        this.precision = precision;
+        this.cantidadRegistros = 1 << precision;
+        this.maximoExactos = cantidadRegistros / 16;
+    }
+
+    private HyperLogLog(HyperLogLog original) {
+        this.precision = original.precision;
+        this.cantidadRegistros = original.cantidadRegistros;
+        this.maximoExactos = original.maximoExactos;
+        this.exactos = original.exactos == null ? null : original.exactos.clone();
+        this.cantidadExactos = original.cantidadExactos;
+        this.registros = original.registros == null ? null : original.registros.clone();
+    }
+
+    synchronized void agregar(long valor) {
+        agregarHash(hash(valor));
+    }
+
+    /**
+     * Agrega los elementos de otro sketch de la misma precisión
+     */
+    void combinar(HyperLogLog otro) {
+        if (otro.precision != precision) {
+            throw new IllegalArgumentException("Solo se combinan sketches de la misma precisión");
+        }
+        HyperLogLog origen = otro.copia();
+        synchronized (this) {
+            if (origen.registros == null) {
+                for (long hash : origen.exactos) {
+                    if (hash != 0) {
+                        agregarHash(hash);
+                    }
+                }
+                return;
+            }
+            pasarARegistros();
+            for (int i = 0; i < cantidadRegistros; i++) {
+                if (origen.registros[i] > registros[i]) {
+                    registros[i] = origen.registros[i];
+                }
+            }
+        }
+    }
+
+    synchronized HyperLogLog copia() {
+        return new HyperLogLog(this);
+    }
+
+    synchronized boolean esExacto() {
+        return registros == null;
+    }
+
+    /**
+     * Error estándar relativo de la estimación (0 mientras el conteo es exacto)
+     */
+    synchronized double errorRelativo() {
+        return registros == null ? 0 : 1.04 / Math.sqrt(cantidadRegistros);
+    }
+
+    synchronized long estimar() {
+        if (registros == null) {
+            return cantidadExactos;
+        }
+
+        // Histograma de valores de registro: C[k] = registros con valor k
+        int q = 64 - precision;
+        int[] histograma = new int[q + 2];
+        for (byte registro : registros) {
+            histograma[registro]++;
+        }
+
+        double m = cantidadRegistros;
+        double z = m * tau(1 - histograma[q + 1] / m);
+        for (int k = q; k >= 1; k--) {
+            z = 0.5 * (z + histograma[k]);
+        }
+        z += m * sigma(histograma[0] / m);
+        return Math.round(m * m / (2 * Math.log(2)) / z);
+    }
+
+    // ============ MÉTODOS AUXILIARES ============
+
+    private void agregarHash(long hash) {
+        if (registros != null) {
+            actualizarRegistro(hash);
+            return;
+        }
+        // El 0 marca posiciones libres: ese único hash se guarda como 1
+        long valor = hash == 0 ? 1 : hash;
+        int mascara = exactos.length - 1;
+        int i = (int) (valor >>> 40) & mascara;
+        while (exactos[i] != 0) {
+            if (exactos[i] == valor) {
+                return;
+            }
+            i = (i + 1) & mascara;
+        }
+        exactos[i] = valor;
+        cantidadExactos++;
+
+        if (cantidadExactos > maximoExactos) {
+            pasarARegistros();
+        } else if (cantidadExactos * 2 > exactos.length) {
+            long[] anteriores = exactos;
+            exactos = new long[anteriores.length * 2];
+            cantidadExactos = 0;
+            for (long anterior : anteriores) {
+                if (anterior != 0) {
+                    agregarHash(anterior);
+                }
+            }
+        }
+    }
+
+    private void pasarARegistros() {
+        if (registros != null) {
+            return;
+        }
+        registros = new byte[cantidadRegistros];
+        for (long hash : exactos) {
+            if (hash != 0) {
+                actualizarRegistro(hash);
+            }
+        }
+        exactos = null;
+        cantidadExactos = 0;
+    }
+
+    private void actualizarRegistro(long hash) {
+        int indice = (int) (hash >>> (64 - precision));
+        // Posición del primer 1 en los bits restantes; el bit centinela la limita a 64 - precision + 1
+        byte rango = (byte) (Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1);
+        if (rango > registros[indice]) {
+            registros[indice] = rango;
+        }
+    }
+
+    private static double sigma(double x) {
+        if (x == 1) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double y = 1;
+        double z = x;
+        double anterior;
+        do {
+            x *= x;
+            anterior = z;
+            z += x * y;
+            y += y;
+        } while (z != anterior);
+        return z;
+    }
+
+    private static double tau(double x) {
+        if (x == 0 || x == 1) {
+            return 0;
+        }
+        double y = 1;
+        double z = 1 - x;
+        double anterior;
+        do {
+            x = Math.sqrt(x);
+            anterior = z;
+            y *= 0.5;
+            z -= (1 - x) * (1 - x) * y;
+        } while (z != anterior);
+        return z / 3;
+    }
+
+    /**
+     * Mezcla de 64 bits (finalizador de SplitMix64): IDs consecutivos quedan bien repartidos
+     */
+    static long hash(long valor) {
+        long z = valor + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,296 @@
+package com.gestionacademica.sistema_academico.service;
+
+import com.gestionacademica.sistema_academico.dto.ErrorFilaDTO;
+import com.gestionacademica.sistema_academico.dto.ImportacionResultadoDTO;
+import com.gestionacademica.sistema_academico.entity.Estudiante;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.core.BaseConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Importación masiva de estudiantes desde CSV.
+ *
+ * 1. Las filas se validan en paralelo con las mismas reglas que crearEstudiante.
+ * 2. Las filas válidas se cargan con COPY a una tabla temporal.
+ * 3. Los carnets y emails ya registrados se detectan con una sola consulta; los repetidos
+ *    dentro del archivo, entre las filas que quedan (gana la primera).
+ * 4. El resto se inserta en estudiantes con un único INSERT ... SELECT.
+ */
+@Service
+public class ImportacionEstudiantesService {
+
+    static final List<String> COLUMNAS = List.of(
+            "carnet", "nombre", "apellido", "email", "telefono", "fechaNacimiento", "fechaIngreso");
+
+    private static final String CREAR_TABLA_TEMPORAL =
+            "CREATE TEMP TABLE estudiantes_importacion (" +
+            "fila INTEGER PRIMARY KEY, carnet VARCHAR(20), nombre VARCHAR(100), apellido VARCHAR(100), " +
+            "email VARCHAR(150), telefono VARCHAR(15), fecha_nacimiento DATE, fecha_ingreso DATE" +
+            ") ON COMMIT DROP";
+
+    private static final String COPY_TABLA_TEMPORAL =
+            "COPY estudiantes_importacion (fila, carnet, nombre, apellido, email, telefono, fecha_nacimiento, fecha_ingreso) " +
+            "FROM STDIN WITH (FORMAT csv)";
+
+    // Filas cuyo carnet o email ya está registrado
+    private static final String DETECTAR_EXISTENTES =
+            "SELECT fila, carnet, motivo FROM (" +
+            "  SELECT s.fila, s.carnet, CASE" +
+            "    WHEN EXISTS (SELECT 1 FROM estudiantes e WHERE e.carnet = s.carnet)" +
+            "      THEN 'Ya existe un estudiante con el carnet: ' || s.carnet" +
+            "    WHEN EXISTS (SELECT 1 FROM estudiantes e WHERE e.email = s.email)" +
+            "      THEN 'Ya existe un estudiante con el email: ' || s.email" +
+            "  END AS motivo" +
+            "  FROM estudiantes_importacion s" +
+            ") d WHERE motivo IS NOT NULL";
+
+    private static final String INSERTAR_ESTUDIANTES =
+            "INSERT INTO estudiantes (carnet, nombre, apellido, email, telefono, fecha_nacimiento, fecha_ingreso, created_at, updated_at) " +
+            "SELECT carnet, nombre, apellido, email, telefono, fecha_nacimiento, fecha_ingreso, now(), now() " +
+            "FROM estudiantes_importacion s " +
+            "WHERE NOT (s.fila = ANY (?)) " +
+            "ORDER BY s.fila " +
+            "ON CONFLICT DO NOTHING " +
+            "RETURNING id, carnet, nombre, apellido, email";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private EstudianteService estudianteService;
+
+    /**
+     * Importa estudiantes desde un CSV con encabezado:
+     * carnet,nombre,apellido,email,telefono,fechaNacimiento,fechaIngreso
+     */
+    @Transactional
+    public ImportacionResultadoDTO importarCsv(Reader contenido) {
+        long inicio = System.nanoTime();
+
+        List<List<String>> registros = LectorCsv.leer(contenido);
+        if (registros.isEmpty()) {
+            throw new IllegalArgumentException("El archivo está vacío");
+        }
+        validarEncabezado(registros.get(0));
+
+        // Validación en paralelo; la fila 1 del archivo es el encabezado
+        List<FilaImportacion> filas = IntStream.range(1, registros.size())
+                .parallel()
+                .mapToObj(i -> validarFila(i + 1, registros.get(i)))
+                .collect(Collectors.toList());
+
+        List<ErrorFilaDTO> errores = new ArrayList<>();
+        List<FilaImportacion> validas = new ArrayList<>();
+        for (FilaImportacion fila : filas) {
+            if (fila.error() != null) {
+                errores.add(new ErrorFilaDTO(fila.numero(), fila.carnet(), fila.error()));
+            } else {
+                validas.add(fila);
+            }
+        }
+
+        int importadas = 0;
+        if (!validas.isEmpty()) {
+            try {
+                importadas = cargarValidas(validas, errores);
+            } catch (SQLException | IOException e) {
+                throw new RuntimeException("Error al importar los estudiantes: " + e.getMessage());
+            }
+        }
+
+        errores.sort(Comparator.comparingInt(ErrorFilaDTO::getFila));
+        long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+        return new ImportacionResultadoDTO(filas.size(), importadas, duracionMs, errores);
+    }
+
+    /**
+     * Carga las filas válidas con COPY y las inserta descartando duplicados
+     */
+    private int cargarValidas(List<FilaImportacion> validas, List<ErrorFilaDTO> errores) throws SQLException, IOException {
+        jdbcTemplate.execute(CREAR_TABLA_TEMPORAL);
+
+        // Conexión de la transacción actual, para que COPY vea la tabla temporal
+        Connection conexion = DataSourceUtils.getConnection(dataSource);
+        try {
+            CopyManager copyManager = new CopyManager(conexion.unwrap(BaseConnection.class));
+            copyManager.copyIn(COPY_TABLA_TEMPORAL, new StringReader(aCsv(validas)));
+        } finally {
+            DataSourceUtils.releaseConnection(conexion, dataSource);
+        }
+
+        Set<Integer> rechazadas = new HashSet<>();
+        jdbcTemplate.query(DETECTAR_EXISTENTES, rs -> {
+            rechazadas.add(rs.getInt("fila"));
+            errores.add(new ErrorFilaDTO(rs.getInt("fila"), rs.getString("carnet"), rs.getString("motivo")));
+        });
+        rechazarRepetidas(validas, rechazadas, errores);
+
+        List<Estudiante> insertados = jdbcTemplate.query(con -> {
+            var sentencia = con.prepareStatement(INSERTAR_ESTUDIANTES);
+            sentencia.setArray(1, con.createArrayOf("integer", rechazadas.toArray()));
+            return sentencia;
+        }, (rs, numeroFila) -> {
+            Estudiante estudiante = new Estudiante();
+            estudiante.setId(rs.getLong("id"));
+            estudiante.setCarnet(rs.getString("carnet"));
+            estudiante.setNombre(rs.getString("nombre"));
+            estudiante.setApellido(rs.getString("apellido"));
+            estudiante.setEmail(rs.getString("email"));
+            return estudiante;
+        });
+
+        // Filas que chocaron con una inserción concurrente entre la detección y el INSERT
+        if (insertados.size() + rechazadas.size() < validas.size()) {
+            Set<String> carnetsInsertados = insertados.stream()
+                    .map(Estudiante::getCarnet)
+                    .collect(Collectors.toSet());
+            for (FilaImportacion fila : validas) {
+                if (!rechazadas.contains(fila.numero()) && !carnetsInsertados.contains(fila.carnet())) {
+                    errores.add(new ErrorFilaDTO(fila.numero(), fila.carnet(),
+                            "El carnet o email fue registrado durante la importación"));
+                }
+            }
+        }
+
+        estudianteService.registrarImportados(insertados);
+        return insertados.size();
+    }
+
+    /**
+     * Rechaza las filas cuyo carnet o email repite el de una fila anterior que se va a insertar.
+     * Una fila ya rechazada no reserva su carnet ni su email para las siguientes.
+     */
+    static void rechazarRepetidas(List<FilaImportacion> validas, Set<Integer> rechazadas, List<ErrorFilaDTO> errores) {
+        Set<String> carnets = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (FilaImportacion fila : validas) {
+            if (rechazadas.contains(fila.numero())) {
+                continue;
+            }
+            String carnet = fila.estudiante().getCarnet();
+            String email = fila.estudiante().getEmail();
+            String motivo = null;
+            if (carnets.contains(carnet)) {
+                motivo = "El carnet está repetido en el archivo: " + carnet;
+            } else if (emails.contains(email)) {
+                motivo = "El email está repetido en el archivo: " + email;
+            }
+
+            if (motivo == null) {
+                carnets.add(carnet);
+                emails.add(email);
+            } else {
+                rechazadas.add(fila.numero());
+                errores.add(new ErrorFilaDTO(fila.numero(), carnet, motivo));
+            }
+        }
+    }
+
+    private void validarEncabezado(List<String> encabezado) {
+        List<String> columnas = encabezado.stream()
+                .map(String::trim)
+                .collect(Collectors.toList());
+        if (columnas.size() != COLUMNAS.size() || !IntStream.range(0, COLUMNAS.size())
+                .allMatch(i -> COLUMNAS.get(i).equalsIgnoreCase(columnas.get(i)))) {
+            throw new IllegalArgumentException("El encabezado debe ser: " + String.join(",", COLUMNAS));
+        }
+    }
+
+    /**
+     * Convierte y valida una fila con las reglas de crearEstudiante y de la entidad
+     */
+    private FilaImportacion validarFila(int numero, List<String> valores) {
+        String carnetOriginal = valores.isEmpty() ? null : valores.get(0);
+        if (valores.size() != COLUMNAS.size()) {
+            return FilaImportacion.conError(numero, carnetOriginal,
+                    "La fila debe tener " + COLUMNAS.size() + " columnas");
+        }
+
+        try {
+            Estudiante estudiante = new Estudiante(
+                    valores.get(0).trim(),
+                    valores.get(1).trim(),
+                    valores.get(2).trim(),
+                    valores.get(3).trim(),
+                    vacioANulo(valores.get(4)),
+                    aFecha(valores.get(5)),
+                    aFecha(valores.get(6)));
+
+            EstudianteService.validarEstudiante(estudiante);
+
+            Set<ConstraintViolation<Estudiante>> violaciones = validator.validate(estudiante);
+            if (!violaciones.isEmpty()) {
+                return FilaImportacion.conError(numero, estudiante.getCarnet(), violaciones.iterator().next().getMessage());
+            }
+
+            return new FilaImportacion(numero, estudiante.getCarnet(), estudiante, null);
+        } catch (DateTimeParseException e) {
+            return FilaImportacion.conError(numero, carnetOriginal, "Fecha inválida (formato esperado: AAAA-MM-DD)");
+        } catch (IllegalArgumentException e) {
+            return FilaImportacion.conError(numero, carnetOriginal, e.getMessage());
+        }
+    }
+
+    private static String vacioANulo(String valor) {
+        return valor == null || valor.trim().isEmpty() ? null : valor.trim();
+    }
+
+    private static LocalDate aFecha(String valor) {
+        String texto = vacioANulo(valor);
+        return texto == null ? null : LocalDate.parse(texto);
+    }
+
+    /**
+     * Serializa las filas válidas en el formato CSV que espera COPY
+     */
+    private static String aCsv(List<FilaImportacion> filas) {
+        StringBuilder csv = new StringBuilder(filas.size() * 128);
+        for (FilaImportacion fila : filas) {
+            Estudiante e = fila.estudiante();
+            csv.append(fila.numero()).append(',')
+               .append(ExportacionEstudiantesService.valorCsv(e.getCarnet())).append(',')
+               .append(ExportacionEstudiantesService.valorCsv(e.getNombre())).append(',')
+               .append(ExportacionEstudiantesService.valorCsv(e.getApellido())).append(',')
+               .append(ExportacionEstudiantesService.valorCsv(e.getEmail())).append(',')
+               .append(ExportacionEstudiantesService.valorCsv(e.getTelefono())).append(',')
+               .append(ExportacionEstudiantesService.valorCsv(e.getFechaNacimiento())).append(',')
+               .append(ExportacionEstudiantesService.valorCsv(e.getFechaIngreso())).append('\n');
+        }
+        return csv.toString();
+    }
+
+    record FilaImportacion(int numero, String carnet, Estudiante estudiante, String error) {
+
+        static FilaImportacion conError(int numero, String carnet, String error) {
+            return new FilaImportacion(numero, carnet, null, error);
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package com.gestionacademica.sistema_academico.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Trie en memoria para autocompletar por prefijo (códigos, carnets, nombres).
+ * Las claves se normalizan sin mayúsculas ni tildes. Los textos de varias palabras
+ * también se indexan desde cada palabra, así "cruz" encuentra "De la Cruz".
+ *
+ * Cada nodo guarda sus hijos en arreglos ordenados (sin mapas por nodo) y la búsqueda
+ * recorre el subárbol en orden alfabético hasta juntar el límite pedido: el costo
+ * depende del largo del prefijo y del límite, no del tamaño del índice.
+ */
+class IndicePrefijos {
+
+    record Termino(String campo, String texto) {}
+
+    record Coincidencia(Long id, String campo, String texto) {}
+
+    private static final char[] SIN_LETRAS = new char[0];
+    private static final Nodo[] SIN_HIJOS = new Nodo[0];
+    private static final Coincidencia[] SIN_ENTRADAS = new Coincidencia[0];
+
+    private static final class Nodo {
+        char[] letras = SIN_LETRAS;
+        Nodo[] hijos = SIN_HIJOS;
+        // Términos cuya clave termina en este nodo, ordenados por ID
+        Coincidencia[] entradas = SIN_ENTRADAS;
+
+        boolean estaVacio() {
+            return letras.length == 0 && entradas.length == 0;
+        }
+    }
+
+    private Nodo raiz = new Nodo();
+    private final Map<Long, List<Termino>> terminosPorId = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean construido = false;
+
+    // Escrituras recibidas mientras se lee la fuente de la construcción (id -> términos, null si
+    // se eliminó): la fuente puede no incluirlas, así que se aplican sobre su resultado.
+    // null cuando no hay una construcción en curso. Protegido por el bloqueo de escritura.
+    private Map<Long, List<Termino>> escriturasDuranteConstruccion;
+
+    boolean estaConstruido() {
+        return construido;
+    }
+
+    /**
+     * Construye el índice con la fuente dada la primera vez que se necesita
+     */
+    void construirSiHaceFalta(Supplier<Map<Long, List<Termino>>> fuente) {
+        if (construido) {
+            return;
+        }
+        synchronized (this) {
+            if (construido) {
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                escriturasDuranteConstruccion = new HashMap<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            try {
+                construir(fuente.get());
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    escriturasDuranteConstruccion = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Reemplaza el contenido del índice con los términos dados (id -> términos)
+     */
+    void construir(Map<Long, List<Termino>> terminos) {
+        lock.writeLock().lock();
+        try {
+            raiz = new Nodo();
+            terminosPorId.clear();
+            terminos.forEach(this::agregarSinBloqueo);
+            if (escriturasDuranteConstruccion != null) {
+                escriturasDuranteConstruccion.forEach((id, vigentes) -> {
+                    eliminarSinBloqueo(id);
+                    if (vigentes != null) {
+                        agregarSinBloqueo(id, vigentes);
+                    }
+                });
+                escriturasDuranteConstruccion = null;
+            }
+            construido = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Agrega o reemplaza los términos de un id. Durante la construcción la escritura se
+     * guarda y se aplica al terminar; antes de ella no hace falta: la fuente leerá el
+     * estado ya confirmado.
+     */
+    void actualizar(Long id, List<Termino> terminos) {
+        lock.writeLock().lock();
+        try {
+            if (construido) {
+                eliminarSinBloqueo(id);
+                agregarSinBloqueo(id, terminos);
+            } else if (escriturasDuranteConstruccion != null) {
+                escriturasDuranteConstruccion.put(id, new ArrayList<>(terminos));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void eliminar(Long id) {
+        lock.writeLock().lock();
+        try {
+            if (construido) {
+                eliminarSinBloqueo(id);
+            } else if (escriturasDuranteConstruccion != null) {
+                escriturasDuranteConstruccion.put(id, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    List<Coincidencia> buscar(String prefijo, int limite) {
+        return buscar(prefijo, limite, id -> true);
+    }
+
+    /**
+     * Hasta "limite" coincidencias (una por id) cuyos términos empiezan con el prefijo,
+     * en orden alfabético; se omiten los ids que no cumplen "incluir"
+     */
+    List<Coincidencia> buscar(String prefijo, int limite, Predicate<Long> incluir) {
+        String clave = normalizar(prefijo);
+
+        lock.readLock().lock();
+        try {
+            Nodo nodo = raiz;
+            for (int i = 0; i < clave.length() && nodo != null; i++) {
+                nodo = hijo(nodo, clave.charAt(i));
+            }
+            if (nodo == null) {
+                return List.of();
+            }
+
+            Map<Long, Coincidencia> resultado = new LinkedHashMap<>();
+            recorrer(nodo, limite, incluir, resultado);
+            return new ArrayList<>(resultado.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recorrido en orden alfabético; se detiene al completar el límite
+     */
+    private static boolean recorrer(Nodo nodo, int limite, Predicate<Long> incluir, Map<Long, Coincidencia> resultado) {
+        for (Coincidencia entrada : nodo.entradas) {
+            if (!resultado.containsKey(entrada.id()) && incluir.test(entrada.id())) {
+                resultado.put(entrada.id(), entrada);
+                if (resultado.size() >= limite) {
+                    return true;
+                }
+            }
+        }
+        for (Nodo hijo : nodo.hijos) {
+            if (recorrer(hijo, limite, incluir, resultado)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void agregarSinBloqueo(Long id, List<Termino> terminos) {
+        List<Termino> vigentes = new ArrayList<>();
+        for (Termino termino : terminos) {
+            if (termino.texto() == null || termino.texto().isBlank()) {
+                continue;
+            }
+            vigentes.add(termino);
+            Coincidencia entrada = new Coincidencia(id, termino.campo(), termino.texto().trim());
+            for (String clave : clavesDe(termino.texto())) {
+                insertar(clave, entrada);
+            }
+        }
+        terminosPorId.put(id, vigentes);
+    }
+
+    private void eliminarSinBloqueo(Long id) {
+        List<Termino> anteriores = terminosPorId.remove(id);
+        if (anteriores == null) {
+            return;
+        }
+        for (Termino termino : anteriores) {
+            for (String clave : clavesDe(termino.texto())) {
+                quitar(raiz, clave, 0, id);
+            }
+        }
+    }
+
+    private void insertar(String clave, Coincidencia entrada) {
+        Nodo nodo = raiz;
+        for (int i = 0; i < clave.length(); i++) {
+            char letra = clave.charAt(i);
+            int posicion = Arrays.binarySearch(nodo.letras, letra);
+            if (posicion < 0) {
+                posicion = -posicion - 1;
+                nodo.letras = insertarEn(nodo.letras, posicion, letra);
+                nodo.hijos = insertarEn(nodo.hijos, posicion, new Nodo());
+            }
+            nodo = nodo.hijos[posicion];
+        }
+
+        Coincidencia[] entradas = nodo.entradas;
+        int posicion = 0;
+        while (posicion < entradas.length && entradas[posicion].id() < entrada.id()) {
+            posicion++;
+        }
+        if (posicion < entradas.length && entradas[posicion].equals(entrada)) {
+            return;
+        }
+        nodo.entradas = insertarEn(entradas, posicion, entrada);
+    }
+
+    /**
+     * Quita las entradas del id bajo la clave y poda los nodos que quedan vacíos
+     */
+    private static boolean quitar(Nodo nodo, String clave, int desde, Long id) {
+        if (desde == clave.length()) {
+            nodo.entradas = Arrays.stream(nodo.entradas)
+                    .filter(entrada -> !entrada.id().equals(id))
+                    .toArray(Coincidencia[]::new);
+            return nodo.estaVacio();
+        }
+
+        int posicion = Arrays.binarySearch(nodo.letras, clave.charAt(desde));
+        if (posicion < 0) {
+            return false;
+        }
+        if (quitar(nodo.hijos[posicion], clave, desde + 1, id)) {
+            nodo.letras = quitarDe(nodo.letras, posicion);
+            nodo.hijos = quitarDe(nodo.hijos, posicion);
+        }
+        return nodo.estaVacio();
+    }
+
+    private static Nodo hijo(Nodo nodo, char letra) {
+        int posicion = Arrays.binarySearch(nodo.letras, letra);
+        return posicion < 0 ? null : nodo.hijos[posicion];
+    }
+
+    /**
+     * Claves indexadas de un texto: el texto completo y el resto desde cada palabra
+     */
+    static List<String> clavesDe(String texto) {
+        String normalizado = normalizar(texto);
+        List<String> claves = new ArrayList<>();
+        if (normalizado.isEmpty()) {
+            return claves;
+        }
+        claves.add(normalizado);
+        for (int i = 1; i < normalizado.length(); i++) {
+            if (normalizado.charAt(i - 1) == ' ' && normalizado.charAt(i) != ' ') {
+                claves.add(normalizado.substring(i));
+            }
+        }
+        return claves;
+    }
+
+    /**
+     * Minúsculas, sin tildes y con un solo espacio entre palabras
+     */
+    static String normalizar(String texto) {
+        return Normalizer.normalize(texto, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .trim()
+                .replaceAll("\\s+", " ");
+    }
+
+    private static char[] insertarEn(char[] arreglo, int posicion, char valor) {
+        char[] nuevo = new char[arreglo.length + 1];
+        System.arraycopy(arreglo, 0, nuevo, 0, posicion);
+        nuevo[posicion] = valor;
+        System.arraycopy(arreglo, posicion, nuevo, posicion + 1, arreglo.length - posicion);
+        return nuevo;
+    }
+
+    private static <T> T[] insertarEn(T[] arreglo, int posicion, T valor) {
+        T[] nuevo = Arrays.copyOf(arreglo, arreglo.length + 1);
+        System.arraycopy(arreglo, posicion, nuevo, posicion + 1, arreglo.length - posicion);
+        nuevo[posicion] = valor;
+        return nuevo;
+    }
+
+    private static char[] quitarDe(char[] arreglo, int posicion) {
+        char[] nuevo = new char[arreglo.length - 1];
+        System.arraycopy(arreglo, 0, nuevo, 0, posicion);
+        System.arraycopy(arreglo, posicion + 1, nuevo, posicion, arreglo.length - posicion - 1);
+        return nuevo;
+    }
+
+    private static <T> T[] quitarDe(T[] arreglo, int posicion) {
+        T[] nuevo = Arrays.copyOf(arreglo, arreglo.length - 1);
+        System.arraycopy(arreglo, posicion + 1, nuevo, posicion, arreglo.length - posicion - 1);
+        return nuevo;
+    }
+}
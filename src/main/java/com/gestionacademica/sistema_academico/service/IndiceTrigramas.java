@@ -0,0 +1,260 @@
+package com.gestionacademica.sistema_academico.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Índice invertido de trigramas en memoria. Se usa para la búsqueda por similitud
+ * cuando la base de datos no tiene la extensión pg_trgm: mismas coincidencias
+ * (subcadena sin distinguir mayúsculas) y mismo ranking (similitud de trigramas).
+ */
+class IndiceTrigramas {
+
+    private final Map<String, Set<Long>> idsPorTrigrama = new HashMap<>();
+    private final Map<Long, List<String>> textosPorId = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean construido = false;
+
+    // Escrituras recibidas mientras se lee la fuente de la construcción (id -> textos, null si
+    // se eliminó): la fuente puede no incluirlas, así que se aplican sobre su resultado.
+    // null cuando no hay una construcción en curso. Protegido por el bloqueo de escritura.
+    private Map<Long, List<String>> escriturasDuranteConstruccion;
+
+    boolean estaConstruido() {
+        return construido;
+    }
+
+    /**
+     * Construye el índice con la fuente dada la primera vez que se necesita
+     */
+    void construirSiHaceFalta(Supplier<Map<Long, List<String>>> fuente) {
+        if (construido) {
+            return;
+        }
+        synchronized (this) {
+            if (construido) {
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                escriturasDuranteConstruccion = new HashMap<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            try {
+                construir(fuente.get());
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    escriturasDuranteConstruccion = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Reemplaza el contenido del índice con los textos dados (id -> textos)
+     */
+    void construir(Map<Long, List<String>> textos) {
+        lock.writeLock().lock();
+        try {
+            idsPorTrigrama.clear();
+            textosPorId.clear();
+            textos.forEach(this::agregarSinBloqueo);
+            if (escriturasDuranteConstruccion != null) {
+                escriturasDuranteConstruccion.forEach((id, vigentes) -> {
+                    eliminarSinBloqueo(id);
+                    if (vigentes != null) {
+                        agregarSinBloqueo(id, vigentes);
+                    }
+                });
+                escriturasDuranteConstruccion = null;
+            }
+            construido = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Agrega o reemplaza los textos indexados de un id. Durante la construcción la
+     * escritura se guarda y se aplica al terminar; antes de ella no hace falta: la
+     * fuente leerá el estado ya confirmado.
+     */
+    void actualizar(Long id, List<String> textos) {
+        lock.writeLock().lock();
+        try {
+            if (construido) {
+                eliminarSinBloqueo(id);
+                agregarSinBloqueo(id, textos);
+            } else if (escriturasDuranteConstruccion != null) {
+                escriturasDuranteConstruccion.put(id, new ArrayList<>(textos));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void eliminar(Long id) {
+        lock.writeLock().lock();
+        try {
+            if (construido) {
+                eliminarSinBloqueo(id);
+            } else if (escriturasDuranteConstruccion != null) {
+                escriturasDuranteConstruccion.put(id, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retorna los ids cuyos textos contienen el término, ordenados por similitud descendente
+     */
+    List<Long> buscar(String termino, int limite) {
+        String buscado = termino.toLowerCase();
+        Set<String> trigramasTermino = trigramasDeSubcadena(buscado);
+
+        lock.readLock().lock();
+        try {
+            Iterable<Long> candidatos = trigramasTermino.isEmpty()
+                    ? textosPorId.keySet()
+                    : intersectar(trigramasTermino);
+
+            List<Coincidencia> coincidencias = new ArrayList<>();
+            for (Long id : candidatos) {
+                List<String> textos = textosPorId.get(id);
+                if (textos.stream().noneMatch(texto -> texto.contains(buscado))) {
+                    continue;
+                }
+                double mejor = 0;
+                for (String texto : textos) {
+                    mejor = Math.max(mejor, similitud(texto, buscado));
+                }
+                coincidencias.add(new Coincidencia(id, mejor));
+            }
+
+            return coincidencias.stream()
+                    .sorted(Comparator.comparingDouble(Coincidencia::similitud).reversed()
+                            .thenComparing(Coincidencia::id))
+                    .limit(limite)
+                    .map(Coincidencia::id)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Set<Long> intersectar(Set<String> trigramas) {
+        Set<Long> resultado = null;
+        for (String trigrama : trigramas) {
+            Set<Long> ids = idsPorTrigrama.get(trigrama);
+            if (ids == null) {
+                return Set.of();
+            }
+            if (resultado == null) {
+                resultado = new HashSet<>(ids);
+            } else {
+                resultado.retainAll(ids);
+            }
+            if (resultado.isEmpty()) {
+                break;
+            }
+        }
+        return resultado;
+    }
+
+    private void agregarSinBloqueo(Long id, List<String> textos) {
+        List<String> normalizados = new ArrayList<>();
+        for (String texto : textos) {
+            if (texto == null) {
+                continue;
+            }
+            String normalizado = texto.toLowerCase();
+            normalizados.add(normalizado);
+            for (String trigrama : trigramasDeSubcadena(normalizado)) {
+                idsPorTrigrama.computeIfAbsent(trigrama, t -> new HashSet<>()).add(id);
+            }
+        }
+        textosPorId.put(id, normalizados);
+    }
+
+    private void eliminarSinBloqueo(Long id) {
+        List<String> anteriores = textosPorId.remove(id);
+        if (anteriores == null) {
+            return;
+        }
+        for (String texto : anteriores) {
+            for (String trigrama : trigramasDeSubcadena(texto)) {
+                Set<Long> ids = idsPorTrigrama.get(trigrama);
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        idsPorTrigrama.remove(trigrama);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Trigramas contiguos del texto, usados para filtrar candidatos de subcadena
+     */
+    static Set<String> trigramasDeSubcadena(String texto) {
+        Set<String> trigramas = new HashSet<>();
+        for (int i = 0; i + 3 <= texto.length(); i++) {
+            trigramas.add(texto.substring(i, i + 3));
+        }
+        return trigramas;
+    }
+
+    /**
+     * Trigramas con el mismo criterio que pg_trgm: cada palabra alfanumérica
+     * se rellena con dos espacios al inicio y uno al final
+     */
+    static Set<String> trigramasPorPalabra(String texto) {
+        Set<String> trigramas = new LinkedHashSet<>();
+        for (String palabra : texto.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (palabra.isEmpty()) {
+                continue;
+            }
+            String relleno = "  " + palabra + " ";
+            for (int i = 0; i + 3 <= relleno.length(); i++) {
+                trigramas.add(relleno.substring(i, i + 3));
+            }
+        }
+        return trigramas;
+    }
+
+    /**
+     * Similitud de trigramas equivalente a similarity() de pg_trgm
+     */
+    static double similitud(String a, String b) {
+        Set<String> trigramasA = trigramasPorPalabra(a);
+        Set<String> trigramasB = trigramasPorPalabra(b);
+        if (trigramasA.isEmpty() || trigramasB.isEmpty()) {
+            return 0;
+        }
+
+        int comunes = 0;
+        for (String trigrama : trigramasA) {
+            if (trigramasB.contains(trigrama)) {
+                comunes++;
+            }
+        }
+        return (double) comunes / (trigramasA.size() + trigramasB.size() - comunes);
+    }
+
+    private record Coincidencia(Long id, double similitud) {}
+}
@@ -0,0 +1,315 @@
+package com.gestionacademica.sistema_academico.service;
+
+import com.gestionacademica.sistema_academico.dto.LoteInscripcionesResultadoDTO;
+import com.gestionacademica.sistema_academico.dto.ResultadoInscripcionDTO;
+import com.gestionacademica.sistema_academico.dto.SolicitudInscripcionDTO;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Creación de inscripciones, una o por lotes, pensada para la semana de matrícula.
+ *
+ * Las solicitudes válidas se envían en sentencias de hasta app.inscripciones.filas-por-sentencia
+ * filas: cada columna viaja como un arreglo y un solo INSERT ... SELECT FROM unnest(...) las
+ * inserta. La restricción uq_estudiante_curso se aplica con ON CONFLICT DO NOTHING, sin
+ * consultar antes si la inscripción existe, y la misma sentencia retorna el estado de cada
+ * solicitud. El profesor de la inscripción es el del curso (profesor_id es obligatorio).
+ *
+ * Los triggers de resumen bloquean filas compartidas (curso y ciclo) hasta el commit. Cada
+ * sentencia las toma en orden de clave, pero un lote de varias sentencias puede cruzarse con
+ * otro; PostgreSQL aborta uno y el lote se reintenta completo en una transacción nueva.
+ *
+ * El cupo de los cursos se controla en memoria con CuposCursos: cada solicitud válida toma un
+ * lugar antes de insertar (SIN_CUPO si no queda) y lo devuelve si no se creó la inscripción.
+ */
+@Service
+public class InscripcionService {
+    
+    public static final String CREADA = "CREADA";
+    public static final String DUPLICADA = "DUPLICADA";
+    public static final String REPETIDA = "REPETIDA";
+    public static final String INVALIDA = "INVALIDA";
+    public static final String ESTUDIANTE_NO_EXISTE = "ESTUDIANTE_NO_EXISTE";
+    public static final String CURSO_NO_EXISTE = "CURSO_NO_EXISTE";
+    public static final String CURSO_SIN_PROFESOR = "CURSO_SIN_PROFESOR";
+    public static final String SIN_CUPO = "SIN_CUPO";
+    
+    private static final int LONGITUD_MAXIMA_CICLO = 20;
+    private static final double NOTA_MAXIMA = 20;
+    private static final int INTENTOS_MAXIMOS = 3;
+    
+    // Solo la primera solicitud de cada (estudiante, curso) del lote se intenta insertar; el
+    // resto sale como REPETIDA. El estado de las no insertadas se deduce en la misma sentencia.
+    // Se inserta en orden de (estudiante, curso) para que dos lotes concurrentes que comparten
+    // inscripciones esperen uno al otro en el mismo orden en lugar de bloquearse mutuamente.
+    private static final String INSERTAR_INSCRIPCIONES =
+            "WITH solicitudes AS (" +
+            "  SELECT s.*, ROW_NUMBER() OVER (PARTITION BY s.estudiante_id, s.curso_id ORDER BY s.indice) = 1 AS primera" +
+            "  FROM unnest(CAST(? AS BIGINT[]), CAST(? AS BIGINT[]), CAST(? AS DATE[]), CAST(? AS VARCHAR[]), CAST(? AS DOUBLE PRECISION[]))" +
+            "    WITH ORDINALITY AS s(estudiante_id, curso_id, fecha_inscripcion, ciclo_academico, nota_final, indice)" +
+            "), insertadas AS (" +
+            "  INSERT INTO inscripciones (estudiante_id, curso_id, profesor_id, fecha_inscripcion, ciclo_academico, nota_final)" +
+            "  SELECT s.estudiante_id, s.curso_id, c.profesor_id, COALESCE(s.fecha_inscripcion, CURRENT_DATE)," +
+            "    s.ciclo_academico, s.nota_final" +
+            "  FROM solicitudes s" +
+            "  JOIN estudiantes e ON e.id = s.estudiante_id" +
+            "  JOIN cursos c ON c.id = s.curso_id" +
+            "  WHERE s.primera AND c.profesor_id IS NOT NULL" +
+            "  ORDER BY s.estudiante_id, s.curso_id" +
+            "  ON CONFLICT ON CONSTRAINT uq_estudiante_curso DO NOTHING" +
+            "  RETURNING id, estudiante_id, curso_id" +
+            ") " +
+            "SELECT s.indice, i.id, CASE" +
+            "  WHEN i.id IS NOT NULL THEN '" + CREADA + "'" +
+            "  WHEN NOT s.primera THEN '" + REPETIDA + "'" +
+            "  WHEN e.id IS NULL THEN '" + ESTUDIANTE_NO_EXISTE + "'" +
+            "  WHEN c.id IS NULL THEN '" + CURSO_NO_EXISTE + "'" +
+            "  WHEN c.profesor_id IS NULL THEN '" + CURSO_SIN_PROFESOR + "'" +
+            "  ELSE '" + DUPLICADA + "' END AS estado " +
+            "FROM solicitudes s " +
+            "LEFT JOIN insertadas i ON s.primera AND i.estudiante_id = s.estudiante_id AND i.curso_id = s.curso_id " +
+            "LEFT JOIN estudiantes e ON e.id = s.estudiante_id " +
+            "LEFT JOIN cursos c ON c.id = s.curso_id " +
+            "ORDER BY s.indice";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private CacheReportes cacheReportes;
+    
+    @Autowired
+    private CuposCursos cuposCursos;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${app.inscripciones.lote-maximo:10000}")
+    private int loteMaximo;
+    
+    @Value("${app.inscripciones.filas-por-sentencia:1000}")
+    private int filasPorSentencia;
+    
+    private TransactionTemplate escritura;
+    
+    @PostConstruct
+    void configurar() {
+        escritura = new TransactionTemplate(transactionManager);
+    }
+    
+    /**
+     * Crea una inscripción
+     * @return el resultado, con el ID si se creó o el motivo si no
+     */
+    public ResultadoInscripcionDTO crearInscripcion(SolicitudInscripcionDTO solicitud) {
+        return crearLote(Collections.singletonList(solicitud)).getResultados().get(0);
+    }
+    
+    /**
+     * Crea un lote de inscripciones en una transacción. Las solicitudes rechazadas no
+     * impiden crear las demás: cada una tiene su resultado, en el orden del lote.
+     * Si la transacción se aborta por un bloqueo mutuo, se reintenta hasta INTENTOS_MAXIMOS veces.
+     */
+    public LoteInscripcionesResultadoDTO crearLote(List<SolicitudInscripcionDTO> solicitudes) {
+        return crearLote(solicitudes, true);
+    }
+    
+    /**
+     * Crea un lote de inscripciones cuyo lugar en el curso ya reservó quien las envía
+     * (ReservaCuposService). Los lugares de las que no se crean se liberan igual.
+     */
+    LoteInscripcionesResultadoDTO crearLoteReservado(List<SolicitudInscripcionDTO> solicitudes) {
+        return crearLote(solicitudes, false);
+    }
+    
+    int loteMaximo() {
+        return loteMaximo;
+    }
+    
+    private LoteInscripcionesResultadoDTO crearLote(List<SolicitudInscripcionDTO> solicitudes, boolean reservarCupos) {
+        long inicio = System.nanoTime();
+        
+        if (solicitudes == null || solicitudes.isEmpty()) {
+            throw new IllegalArgumentException("El lote de inscripciones está vacío");
+        }
+        if (solicitudes.size() > loteMaximo) {
+            if (!reservarCupos) {
+                // Los lugares ya estaban reservados y no llegará un resultado que los libere
+                for (SolicitudInscripcionDTO solicitud : solicitudes) {
+                    cuposCursos.liberar(solicitud.getCursoId());
+                }
+            }
+            throw new IllegalArgumentException("El lote no puede tener más de " + loteMaximo + " inscripciones");
+        }
+        
+        ResultadoInscripcionDTO[] resultados = new ResultadoInscripcionDTO[solicitudes.size()];
+        List<Integer> validas = new ArrayList<>(solicitudes.size());
+        boolean confirmado = false;
+        try {
+            for (int i = 0; i < solicitudes.size(); i++) {
+                String error = validarSolicitud(solicitudes.get(i));
+                if (error != null) {
+                    resultados[i] = new ResultadoInscripcionDTO(i, INVALIDA, null, error);
+                } else if (!reservarCupos) {
+                    validas.add(i);
+                } else {
+                    CuposCursos.Reserva reserva = cuposCursos.reservar(solicitudes.get(i).getCursoId());
+                    if (reserva == CuposCursos.Reserva.RESERVADA) {
+                        validas.add(i);
+                    } else {
+                        String estado = reserva == CuposCursos.Reserva.SIN_CUPO ? SIN_CUPO : CURSO_NO_EXISTE;
+                        resultados[i] = new ResultadoInscripcionDTO(i, estado, null, mensaje(estado));
+                    }
+                }
+            }
+            
+            int creadas = insertarConReintentos(solicitudes, validas, resultados);
+            confirmado = true;
+            long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+            return new LoteInscripcionesResultadoDTO(creadas, duracionMs, Arrays.asList(resultados));
+        } finally {
+            // Los lugares de las solicitudes que no terminaron en inscripción vuelven al curso;
+            // si la transacción falló, ninguna se creó aunque un intento las haya marcado CREADA.
+            // Si falló una reserva, vuelven los que ya se habían reservado.
+            for (int i : validas) {
+                if (!confirmado || !CREADA.equals(resultados[i].getEstado())) {
+                    cuposCursos.liberar(solicitudes.get(i).getCursoId());
+                }
+            }
+        }
+    }
+    
+    private int insertarConReintentos(List<SolicitudInscripcionDTO> solicitudes, List<Integer> validas,
+                                      ResultadoInscripcionDTO[] resultados) {
+        int creadas = 0;
+        for (int intento = 1; !validas.isEmpty(); intento++) {
+            try {
+                creadas = escritura.execute(estado -> {
+                    int insertadas = insertarValidas(solicitudes, validas, resultados);
+                    if (insertadas > 0) {
+                        cacheReportes.invalidar();
+                    }
+                    return insertadas;
+                });
+                break;
+            } catch (ConcurrencyFailureException e) {
+                if (intento == INTENTOS_MAXIMOS) {
+                    throw new RuntimeException("Error al crear las inscripciones: " + e.getMessage());
+                }
+            } catch (Exception e) {
+                throw new RuntimeException("Error al crear las inscripciones: " + e.getMessage());
+            }
+        }
+        return creadas;
+    }
+    
+    /**
+     * Inserta las solicitudes válidas en sentencias de hasta filasPorSentencia filas
+     * @return cantidad de inscripciones creadas
+     */
+    private int insertarValidas(List<SolicitudInscripcionDTO> solicitudes, List<Integer> validas,
+                                ResultadoInscripcionDTO[] resultados) {
+        int creadas = 0;
+        for (int desde = 0; desde < validas.size(); desde += filasPorSentencia) {
+            creadas += insertar(solicitudes, validas.subList(desde, Math.min(desde + filasPorSentencia, validas.size())),
+                    resultados);
+        }
+        return creadas;
+    }
+    
+    /**
+     * Inserta las solicitudes indicadas con una sola sentencia y registra el resultado de cada una
+     * @return cantidad de inscripciones creadas
+     */
+    private int insertar(List<SolicitudInscripcionDTO> solicitudes, List<Integer> indices,
+                         ResultadoInscripcionDTO[] resultados) {
+        int cantidad = indices.size();
+        Long[] estudiantes = new Long[cantidad];
+        Long[] cursos = new Long[cantidad];
+        String[] fechas = new String[cantidad];
+        String[] ciclos = new String[cantidad];
+        Double[] notas = new Double[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            SolicitudInscripcionDTO solicitud = solicitudes.get(indices.get(i));
+            estudiantes[i] = solicitud.getEstudianteId();
+            cursos[i] = solicitud.getCursoId();
+            fechas[i] = solicitud.getFechaInscripcion() == null ? null : solicitud.getFechaInscripcion().toString();
+            ciclos[i] = vacioANulo(solicitud.getCicloAcademico());
+            notas[i] = solicitud.getNotaFinal();
+        }
+        
+        int[] creadas = {0};
+        jdbcTemplate.query(con -> {
+            var sentencia = con.prepareStatement(INSERTAR_INSCRIPCIONES);
+            sentencia.setArray(1, con.createArrayOf("bigint", estudiantes));
+            sentencia.setArray(2, con.createArrayOf("bigint", cursos));
+            sentencia.setArray(3, con.createArrayOf("varchar", fechas));
+            sentencia.setArray(4, con.createArrayOf("varchar", ciclos));
+            sentencia.setArray(5, con.createArrayOf("float8", notas));
+            return sentencia;
+        }, rs -> {
+            // indice (WITH ORDINALITY) empieza en 1 y recorre las solicitudes enviadas
+            int indice = indices.get(rs.getInt("indice") - 1);
+            String estado = rs.getString("estado");
+            Long id = CREADA.equals(estado) ? rs.getLong("id") : null;
+            resultados[indice] = new ResultadoInscripcionDTO(indice, estado, id, mensaje(estado));
+            if (id != null) {
+                creadas[0]++;
+            }
+        });
+        return creadas[0];
+    }
+    
+    /**
+     * Reglas de la solicitud que no requieren consultar la base de datos
+     * @return el motivo del rechazo, o null si es válida
+     */
+    static String validarSolicitud(SolicitudInscripcionDTO solicitud) {
+        if (solicitud == null) {
+            return "La solicitud está vacía";
+        }
+        if (solicitud.getEstudianteId() == null || solicitud.getEstudianteId() <= 0) {
+            return "El ID del estudiante es obligatorio";
+        }
+        if (solicitud.getCursoId() == null || solicitud.getCursoId() <= 0) {
+            return "El ID del curso es obligatorio";
+        }
+        String ciclo = vacioANulo(solicitud.getCicloAcademico());
+        if (ciclo != null && ciclo.length() > LONGITUD_MAXIMA_CICLO) {
+            return "El ciclo académico no puede tener más de " + LONGITUD_MAXIMA_CICLO + " caracteres";
+        }
+        Double nota = solicitud.getNotaFinal();
+        if (nota != null && !(nota >= 0 && nota <= NOTA_MAXIMA)) {
+            return "La nota final debe estar entre 0 y " + (int) NOTA_MAXIMA;
+        }
+        return null;
+    }
+    
+    private static String mensaje(String estado) {
+        return switch (estado) {
+            case CREADA -> "Inscripción creada";
+            case DUPLICADA -> "El estudiante ya está inscrito en el curso";
+            case REPETIDA -> "La inscripción está repetida en el lote";
+            case ESTUDIANTE_NO_EXISTE -> "Estudiante no encontrado";
+            case CURSO_NO_EXISTE -> "Curso no encontrado";
+            case CURSO_SIN_PROFESOR -> "El curso no tiene profesor asignado";
+            case SIN_CUPO -> "El curso no tiene cupos disponibles";
+            default -> estado;
+        };
+    }
+    
+    private static String vacioANulo(String valor) {
+        return valor == null || valor.trim().isEmpty() ? null : valor.trim();
+    }
+}
\ No newline at end of file
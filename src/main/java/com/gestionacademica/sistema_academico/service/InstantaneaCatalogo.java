@@ -0,0 +1,120 @@
+package com.gestionacademica.sistema_academico.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Copia inmutable de un catálogo (filas ordenadas por ID) con índices secundarios.
+ * Nunca se modifica: cada cambio produce una instantánea nueva (copy-on-write), así
+ * las lecturas concurrentes no necesitan sincronización.
+ */
+final class InstantaneaCatalogo<F> {
+
+    private final Function<F, Long> id;
+    private final Map<String, Function<F, ?>> clavesIndice;
+
+    private final List<F> filas;
+    private final long[] ids;
+    private final Map<Long, F> porId;
+    private final Map<String, Map<Object, List<F>>> indices;
+
+    private InstantaneaCatalogo(Collection<F> filas, Function<F, Long> id, Map<String, Function<F, ?>> clavesIndice) {
+        this.id = id;
+        this.clavesIndice = clavesIndice;
+
+        List<F> ordenadas = new ArrayList<>(filas);
+        ordenadas.sort(Comparator.comparing(id));
+        this.filas = Collections.unmodifiableList(ordenadas);
+        this.ids = ordenadas.stream().mapToLong(id::apply).toArray();
+
+        Map<Long, F> mapa = new HashMap<>();
+        ordenadas.forEach(fila -> mapa.put(id.apply(fila), fila));
+        this.porId = Collections.unmodifiableMap(mapa);
+
+        // Cada índice agrupa las filas por el valor de su clave (las claves null no se indexan)
+        Map<String, Map<Object, List<F>>> construidos = new HashMap<>();
+        clavesIndice.forEach((nombre, clave) -> {
+            Map<Object, List<F>> grupos = new LinkedHashMap<>();
+            for (F fila : ordenadas) {
+                Object valor = clave.apply(fila);
+                if (valor != null) {
+                    grupos.computeIfAbsent(valor, v -> new ArrayList<>()).add(fila);
+                }
+            }
+            grupos.replaceAll((valor, grupo) -> Collections.unmodifiableList(grupo));
+            construidos.put(nombre, Collections.unmodifiableMap(grupos));
+        });
+        this.indices = Collections.unmodifiableMap(construidos);
+    }
+
+    static <F> InstantaneaCatalogo<F> de(Collection<F> filas, Function<F, Long> id,
+                                         Map<String, Function<F, ?>> clavesIndice) {
+        return new InstantaneaCatalogo<>(filas, id, clavesIndice);
+    }
+
+    /**
+     * Nueva instantánea con la fila agregada o reemplazada (mismo ID)
+     */
+    InstantaneaCatalogo<F> conFila(F fila) {
+        Map<Long, F> nuevas = new HashMap<>(porId);
+        nuevas.put(id.apply(fila), fila);
+        return new InstantaneaCatalogo<>(nuevas.values(), id, clavesIndice);
+    }
+
+    /**
+     * Nueva instantánea sin la fila del ID
+     */
+    InstantaneaCatalogo<F> sinFila(Long idFila) {
+        if (!porId.containsKey(idFila)) {
+            return this;
+        }
+        Map<Long, F> nuevas = new HashMap<>(porId);
+        nuevas.remove(idFila);
+        return new InstantaneaCatalogo<>(nuevas.values(), id, clavesIndice);
+    }
+
+    List<F> todas() {
+        return filas;
+    }
+
+    int tamaño() {
+        return filas.size();
+    }
+
+    Optional<F> buscar(Long idFila) {
+        return Optional.ofNullable(porId.get(idFila));
+    }
+
+    /**
+     * Hasta "cantidad" filas con ID mayor al indicado, en orden de ID
+     */
+    List<F> despuesDeId(long idFila, int cantidad) {
+        int posicion = Arrays.binarySearch(ids, idFila);
+        int desde = posicion >= 0 ? posicion + 1 : -posicion - 1;
+        return filas.subList(desde, Math.min(filas.size(), desde + cantidad));
+    }
+
+    /**
+     * Filas cuyo valor en el índice es igual al indicado, en orden de ID
+     */
+    List<F> porIndice(String indice, Object valor) {
+        return indices.get(indice).getOrDefault(valor, List.of());
+    }
+
+    /**
+     * Valores distintos presentes en el índice
+     */
+    Set<Object> valoresIndice(String indice) {
+        return indices.get(indice).keySet();
+    }
+}
@@ -0,0 +1,88 @@
+package com.gestionacademica.sistema_academico.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector CSV mínimo (RFC 4180): separador coma, campos entre comillas dobles
+ * con comillas escapadas ("") y saltos de línea dentro de comillas.
+ */
+final class LectorCsv {
+    
+    private LectorCsv() {}
+    
+    static List<List<String>> leer(Reader contenido) {
+        Reader entrada = contenido.markSupported() ? contenido : new BufferedReader(contenido);
+        List<List<String>> registros = new ArrayList<>();
+        List<String> registro = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        boolean registroIniciado = false;
+        
+        try {
+            int c;
+            while ((c = entrada.read()) != -1) {
+                char caracter = (char) c;
+                
+                if (entreComillas) {
+                    if (caracter == '"') {
+                        entrada.mark(1);
+                        int siguiente = entrada.read();
+                        if (siguiente == '"') {
+                            campo.append('"');
+                        } else {
+                            entreComillas = false;
+                            if (siguiente == -1) {
+                                break;
+                            }
+                            entrada.reset();
+                        }
+                    } else {
+                        campo.append(caracter);
+                    }
+                    continue;
+                }
+                
+                switch (caracter) {
+                    case '"' -> {
+                        entreComillas = true;
+                        registroIniciado = true;
+                    }
+                    case ',' -> {
+                        registro.add(campo.toString());
+                        campo.setLength(0);
+                        registroIniciado = true;
+                    }
+                    case '\r' -> {
+                        // Se ignora: el fin de registro lo marca '\n'
+                    }
+                    case '\n' -> {
+                        if (registroIniciado || campo.length() > 0) {
+                            registro.add(campo.toString());
+                            registros.add(registro);
+                        }
+                        registro = new ArrayList<>();
+                        campo.setLength(0);
+                        registroIniciado = false;
+                    }
+                    default -> {
+                        campo.append(caracter);
+                        registroIniciado = true;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        
+        if (registroIniciado || campo.length() > 0) {
+            registro.add(campo.toString());
+            registros.add(registro);
+        }
+        return registros;
+    }
+}
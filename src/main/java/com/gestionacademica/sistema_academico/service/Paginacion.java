@@ -0,0 +1,88 @@
+package com.gestionacademica.sistema_academico.service;
+
+import com.gestionacademica.sistema_academico.dto.PaginaDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Paginación por cursor (keyset): cada página se busca a partir de la última clave
+ * devuelta, de modo que las páginas profundas cuestan lo mismo que la primera.
+ * El cursor es opaco para el cliente (Base64 de la clave de ordenamiento).
+ */
+@Component
+public class Paginacion {
+
+    @Value("${app.paginacion.limite-por-defecto:20}")
+    private int limitePorDefecto;
+
+    @Value("${app.paginacion.limite-maximo:100}")
+    private int limiteMaximo;
+
+    /**
+     * Valida el límite solicitado y lo ajusta al máximo configurado
+     */
+    public int normalizarLimite(Integer limite) {
+        if (limite == null) {
+            return Math.min(limitePorDefecto, limiteMaximo);
+        }
+        if (limite <= 0) {
+            throw new IllegalArgumentException("El límite debe ser un número positivo");
+        }
+        return Math.min(limite, limiteMaximo);
+    }
+
+    /**
+     * Arma la página a partir de filas consultadas con límite + 1, para saber si hay más
+     */
+    static <E, D> PaginaDTO<D> armarPagina(List<E> filas, int limite, Function<E, D> conversor,
+                                           Function<E, String> claveCursor, Long total) {
+        boolean hayMas = filas.size() > limite;
+        List<E> pagina = hayMas ? filas.subList(0, limite) : filas;
+
+        String siguienteCursor = hayMas ? codificar(claveCursor.apply(pagina.get(pagina.size() - 1))) : null;
+        List<D> data = pagina.stream()
+                .map(conversor)
+                .collect(Collectors.toList());
+
+        return new PaginaDTO<>(data, siguienteCursor, hayMas, limite, total);
+    }
+
+    static String codificar(String clave) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(clave.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica el cursor; retorna null si no se envió (primera página)
+     */
+    static String decodificar(String cursor) {
+        if (cursor == null || cursor.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("El cursor de paginación no es válido");
+        }
+    }
+
+    /**
+     * Cursor cuya clave es únicamente el ID; la primera página empieza después de 0
+     */
+    static long decodificarId(String cursor) {
+        String clave = decodificar(cursor);
+        if (clave == null) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(clave);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("El cursor de paginación no es válido");
+        }
+    }
+}
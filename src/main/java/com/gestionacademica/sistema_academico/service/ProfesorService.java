@@ -1,16 +1,21 @@
 package com.gestionacademica.sistema_academico.service;
 
 import com.gestionacademica.sistema_academico.dto.ProfesorDTO;
+import com.gestionacademica.sistema_academico.dto.PaginaDTO;
 import com.gestionacademica.sistema_academico.entity.Profesor;
 import com.gestionacademica.sistema_academico.repository.ProfesorRepository;
+import com.gestionacademica.sistema_academico.repository.proyeccion.ProfesorFila;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.time.Period;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,18 +25,56 @@ public class ProfesorService {
     @Autowired
     private ProfesorRepository profesorRepository;
     
+    @Autowired
+    private Paginacion paginacion;
+    
+    @Autowired
+    private SoporteTrigramas soporteTrigramas;
+    
+    @Autowired
+    private FiltrosUnicidad filtrosUnicidad;
+    
+    @Autowired
+    private CachesBusqueda cachesBusqueda;
+    
+    @Autowired
+    private CatalogoEnMemoria catalogo;
+    
+    @Autowired
+    private CacheReportes cacheReportes;
+    
+    @Autowired
+    private CuposCursos cuposCursos;
+    
+    // Índice de nombres en memoria, solo se construye si la base de datos no tiene pg_trgm
+    private final IndiceTrigramas indiceNombres = new IndiceTrigramas();
+    
+    // Campos por los que se puede ordenar el resultado de filtrarDTO
+    private static final Map<String, Function<ProfesorFila, ?>> CAMPOS_ORDEN = Map.of(
+            "id", ProfesorFila::id,
+            "nombre", ProfesorFila::nombre,
+            "apellido", ProfesorFila::apellido,
+            "email", ProfesorFila::email,
+            "especialidad", ProfesorFila::especialidad,
+            "fechaContratacion", ProfesorFila::fechaContratacion);
+    
     // ============ MÉTODOS CRUD ORIGINALES (mantener para POST, PUT, DELETE) ============
     
     /**
      * Crear un nuevo profesor
      */
     public Profesor crearProfesor(Profesor profesor) {
-        if (profesorRepository.existsByEmail(profesor.getEmail())) {
+        if (filtrosUnicidad.emailProfesor().existe(profesor.getEmail(), profesorRepository::existsByEmail)) {
             throw new RuntimeException("Ya existe un profesor con el email: " + profesor.getEmail());
         }
         
         try {
-            return profesorRepository.save(profesor);
+            Profesor guardado = profesorRepository.save(profesor);
+            filtrosUnicidad.emailProfesor().registrar(guardado.getEmail());
+            CachesBusqueda.invalidar(cachesBusqueda.profesorPorEmail(), claveEmail(guardado.getEmail()));
+            catalogo.publicarProfesor(guardado);
+            actualizarIndiceNombres(guardado);
+            return guardado;
         } catch (Exception e) {
             throw new RuntimeException("Error al crear el profesor: " + e.getMessage());
         }
@@ -48,10 +91,12 @@ public class ProfesorService {
         return profesorRepository.findById(id)
             .map(profesorExistente -> {
                 if (!profesorExistente.getEmail().equals(profesorActualizado.getEmail()) &&
-                    profesorRepository.existsByEmail(profesorActualizado.getEmail())) {
+                    filtrosUnicidad.emailProfesor().existe(profesorActualizado.getEmail(), profesorRepository::existsByEmail)) {
                     throw new RuntimeException("Ya existe un profesor con el email: " + profesorActualizado.getEmail());
                 }
                 
+                CachesBusqueda.invalidar(cachesBusqueda.profesorPorEmail(), claveEmail(profesorExistente.getEmail()));
+                
                 profesorExistente.setNombre(profesorActualizado.getNombre());
                 profesorExistente.setApellido(profesorActualizado.getApellido());
                 profesorExistente.setEmail(profesorActualizado.getEmail());
@@ -60,7 +105,16 @@ public class ProfesorService {
                 profesorExistente.setFechaContratacion(profesorActualizado.getFechaContratacion());
                 
                 try {
-                    return profesorRepository.save(profesorExistente);
+                    Profesor guardado = profesorRepository.save(profesorExistente);
+                    filtrosUnicidad.emailProfesor().registrar(guardado.getEmail());
+                    CachesBusqueda.invalidar(cachesBusqueda.profesorPorEmail(), claveEmail(guardado.getEmail()));
+                    // Los cursos en caché incluyen los datos de su profesor
+                    CachesBusqueda.invalidarTodo(cachesBusqueda.cursoPorCodigo());
+                    catalogo.publicarProfesor(guardado);
+                    // Los reportes muestran el nombre del profesor
+                    cacheReportes.invalidar();
+                    actualizarIndiceNombres(guardado);
+                    return guardado;
                 } catch (Exception e) {
                     throw new RuntimeException("Error al actualizar el profesor: " + e.getMessage());
                 }
@@ -76,12 +130,19 @@ public class ProfesorService {
             throw new IllegalArgumentException("El ID debe ser un número positivo");
         }
         
-        if (!profesorRepository.existsById(id)) {
-            throw new RuntimeException("Profesor no encontrado con ID: " + id);
-        }
+        ProfesorFila existente = profesorRepository.findFilaById(id)
+                .orElseThrow(() -> new RuntimeException("Profesor no encontrado con ID: " + id));
         
         try {
+            // Sus cursos se eliminan en cascada y dejan de llevar cupo
+            cuposCursos.quitarCursosDe(id);
             profesorRepository.deleteById(id);
+            CachesBusqueda.invalidar(cachesBusqueda.profesorPorEmail(), claveEmail(existente.email()));
+            CachesBusqueda.invalidarTodo(cachesBusqueda.cursoPorCodigo());
+            catalogo.retirarProfesor(id);
+            catalogo.recargarCursos();
+            cacheReportes.invalidar();
+            DespuesDelCommit.ejecutar(() -> indiceNombres.eliminar(id));
         } catch (Exception e) {
             throw new RuntimeException("Error al eliminar el profesor: " + e.getMessage());
         }
@@ -95,15 +156,32 @@ public class ProfesorService {
     @Transactional(readOnly = true)
     public List<ProfesorDTO> obtenerTodosDTO() {
         try {
-            List<Profesor> profesores = profesorRepository.findAll();
-            return profesores.stream()
-                    .map(this::convertirAProfesorDTO)
+            return catalogo.profesores().todas().stream()
+                    .map(conversorDTO(FechasDerivadas.deHoy()))
                     .collect(Collectors.toList());
         } catch (Exception e) {
             throw new RuntimeException("Error al obtener los profesores: " + e.getMessage());
         }
     }
     
+    /**
+     * Obtener una página de profesores como DTOs, ordenada por ID (paginación por cursor)
+     */
+    @Transactional(readOnly = true)
+    public PaginaDTO<ProfesorDTO> obtenerPaginaDTO(String cursor, Integer limite, boolean incluirTotal) {
+        int limiteValido = paginacion.normalizarLimite(limite);
+        long despuesDeId = Paginacion.decodificarId(cursor);
+        
+        try {
+            InstantaneaCatalogo<ProfesorFila> profesores = catalogo.profesores();
+            Long total = incluirTotal ? (long) profesores.tamaño() : null;
+            return Paginacion.armarPagina(profesores.despuesDeId(despuesDeId, limiteValido + 1), limiteValido,
+                    conversorDTO(FechasDerivadas.deHoy()), profesor -> String.valueOf(profesor.id()), total);
+        } catch (Exception e) {
+            throw new RuntimeException("Error al obtener los profesores: " + e.getMessage());
+        }
+    }
+    
     /**
      * Obtener un profesor por ID como DTO
      */
@@ -114,8 +192,8 @@ public class ProfesorService {
         }
         
         try {
-            return profesorRepository.findById(id)
-                    .map(this::convertirAProfesorDTO);
+            return catalogo.profesores().buscar(id)
+                    .map(conversorDTO(FechasDerivadas.deHoy()));
         } catch (Exception e) {
             throw new RuntimeException("Error al buscar el profesor: " + e.getMessage());
         }
@@ -131,9 +209,8 @@ public class ProfesorService {
         }
         
         try {
-            List<Profesor> profesores = profesorRepository.findByEspecialidadContainingIgnoreCase(especialidad.trim());
-            return profesores.stream()
-                    .map(this::convertirAProfesorDTO)
+            return CatalogoEnMemoria.profesoresConEspecialidad(catalogo.profesores(), especialidad).stream()
+                    .map(conversorDTO(FechasDerivadas.deHoy()))
                     .collect(Collectors.toList());
         } catch (Exception e) {
             throw new RuntimeException("Error al buscar profesores por especialidad: " + e.getMessage());
@@ -150,46 +227,144 @@ public class ProfesorService {
         }
         
         try {
-            List<Profesor> profesores = profesorRepository.findAll();
-            return profesores.stream()
-                    .filter(profesor -> {
-                        if (profesor.getFechaContratacion() == null) return false;
-                        int añosExp = Period.between(profesor.getFechaContratacion(), LocalDate.now()).getYears();
-                        return añosExp >= añosMinimos;
-                    })
-                    .map(this::convertirAProfesorDTO)
+            FechasDerivadas fechas = FechasDerivadas.deHoy();
+            LocalDate hasta = CalculadoraRangosFecha.fechaLimiteParaAñosCumplidos(fechas.getHoy(), añosMinimos);
+            return catalogo.profesores().todas().stream()
+                    .filter(profesor -> contratadoHasta(profesor, hasta))
+                    .map(conversorDTO(fechas))
                     .collect(Collectors.toList());
         } catch (Exception e) {
             throw new RuntimeException("Error al buscar profesores por experiencia: " + e.getMessage());
         }
     }
     
+    /**
+     * Buscar profesores combinando los filtros recibidos (deben cumplirse todos).
+     * Los filtros null o vacíos se ignoran; el orden es "campo" o "campo,desc".
+     */
+    @Transactional(readOnly = true)
+    public List<ProfesorDTO> filtrarDTO(String especialidad, Integer experienciaMinima, String apellido,
+                                        String dominioEmail, String orden) {
+        if (experienciaMinima != null && experienciaMinima < 0) {
+            throw new IllegalArgumentException("Los años mínimos deben ser un número positivo");
+        }
+        
+        Sort sort = FiltroCompuesto.ordenar(orden, CAMPOS_ORDEN.keySet());
+        
+        try {
+            FechasDerivadas fechas = FechasDerivadas.deHoy();
+            InstantaneaCatalogo<ProfesorFila> profesores = catalogo.profesores();
+            
+            // La especialidad se resuelve con su índice; el resto se filtra en memoria
+            List<ProfesorFila> candidatos = FiltroCompuesto.vacio(especialidad)
+                    ? profesores.todas()
+                    : CatalogoEnMemoria.profesoresConEspecialidad(profesores, especialidad);
+            LocalDate hasta = experienciaMinima == null ? null
+                    : CalculadoraRangosFecha.fechaLimiteParaAñosCumplidos(fechas.getHoy(), experienciaMinima);
+            String apellidoBuscado = FiltroCompuesto.vacio(apellido) ? null : apellido.trim().toLowerCase();
+            String sufijoEmail = FiltroCompuesto.vacio(dominioEmail) ? null
+                    : "@" + dominioEmail.trim().replaceFirst("^@", "").toLowerCase();
+            
+            return candidatos.stream()
+                    .filter(profesor -> hasta == null || contratadoHasta(profesor, hasta))
+                    .filter(profesor -> apellidoBuscado == null
+                            || (profesor.apellido() != null && profesor.apellido().toLowerCase().contains(apellidoBuscado)))
+                    .filter(profesor -> sufijoEmail == null
+                            || (profesor.email() != null && profesor.email().toLowerCase().endsWith(sufijoEmail)))
+                    .sorted(FiltroCompuesto.comparador(sort, CAMPOS_ORDEN))
+                    .map(conversorDTO(fechas))
+                    .collect(Collectors.toList());
+        } catch (Exception e) {
+            throw new RuntimeException("Error al filtrar profesores: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Buscar profesores por nombre o apellido, ordenados por similitud con el término
+     */
+    @Transactional(readOnly = true)
+    public List<ProfesorDTO> buscarPorSimilitudDTO(String termino, Integer limite) {
+        int limiteValido = SoporteTrigramas.validarBusqueda(termino, limite);
+        
+        try {
+            List<Long> ids = soporteTrigramas.pgTrgmDisponible()
+                    ? profesorRepository.buscarIdsPorSimilitud(termino.trim(),
+                            SoporteTrigramas.patronSubcadena(termino.trim()), limiteValido)
+                    : buscarEnIndiceNombres(termino.trim(), limiteValido);
+            
+            // Las filas se devuelven en el orden de similitud de los IDs
+            InstantaneaCatalogo<ProfesorFila> profesores = catalogo.profesores();
+            return ids.stream()
+                    .map(profesores::buscar)
+                    .flatMap(Optional::stream)
+                    .map(conversorDTO(FechasDerivadas.deHoy()))
+                    .collect(Collectors.toList());
+        } catch (Exception e) {
+            throw new RuntimeException("Error al buscar profesores por similitud: " + e.getMessage());
+        }
+    }
+    
+    private static boolean contratadoHasta(ProfesorFila profesor, LocalDate fecha) {
+        return profesor.fechaContratacion() != null && !profesor.fechaContratacion().isAfter(fecha);
+    }
+    
+    /**
+     * Resuelve la búsqueda por similitud con el índice en memoria; retorna los IDs ordenados
+     */
+    private List<Long> buscarEnIndiceNombres(String termino, int limite) {
+        indiceNombres.construirSiHaceFalta(() -> profesorRepository.findFilas().stream()
+                .collect(Collectors.toMap(ProfesorFila::id, fila -> Arrays.asList(fila.nombre(), fila.apellido()))));
+        
+        return indiceNombres.buscar(termino, limite);
+    }
+    
+    private List<String> textosIndexables(Profesor profesor) {
+        return Arrays.asList(profesor.getNombre(), profesor.getApellido());
+    }
+    
+    private static String claveEmail(String email) {
+        return email == null ? null : email.trim();
+    }
+    
+    private void actualizarIndiceNombres(Profesor profesor) {
+        Long id = profesor.getId();
+        List<String> textos = textosIndexables(profesor);
+        DespuesDelCommit.ejecutar(() -> indiceNombres.actualizar(id, textos));
+    }
+    
     // ============ MÉTODOS DE CONVERSIÓN PRIVADOS ============
     
     /**
-     * Convierte una entidad Profesor a ProfesorDTO
+     * Conversor de proyecciones a ProfesorDTO con la fecha de la consulta
+     */
+    private Function<ProfesorFila, ProfesorDTO> conversorDTO(FechasDerivadas fechas) {
+        return profesor -> convertirAProfesorDTO(profesor, fechas);
+    }
+    
+    /**
+     * Convierte una proyección de profesor a ProfesorDTO
      */
-    private ProfesorDTO convertirAProfesorDTO(Profesor profesor) {
+    private ProfesorDTO convertirAProfesorDTO(ProfesorFila profesor, FechasDerivadas fechas) {
         if (profesor == null) {
             return null;
         }
         
         // Combinar nombre y apellido
-        String nombreCompleto = profesor.getNombre() + " " + profesor.getApellido();
+        String nombreCompleto = profesor.nombre() + " " + profesor.apellido();
         
         // Calcular años de experiencia
         Integer añosExperiencia = 0;
-        if (profesor.getFechaContratacion() != null) {
-            añosExperiencia = Period.between(profesor.getFechaContratacion(), LocalDate.now()).getYears();
+        if (profesor.fechaContratacion() != null) {
+            añosExperiencia = fechas.añosCumplidos(profesor.fechaContratacion());
         }
         
         return new ProfesorDTO(
-            profesor.getId(),
+            profesor.id(),
             nombreCompleto,
-            profesor.getEmail(),
-            profesor.getTelefono(),
-            profesor.getEspecialidad(),
-            profesor.getFechaContratacion(),
+            profesor.email(),
+            profesor.telefono(),
+            profesor.especialidad(),
+            profesor.fechaContratacion(),
             añosExperiencia
         );
     }
@@ -225,7 +400,9 @@ public class ProfesorService {
         }
         
         try {
-            return profesorRepository.findByEmail(email.trim());
+            return cachesBusqueda.profesorPorEmail()
+                    .obtener(claveEmail(email), clave -> profesorRepository.findByEmail(clave).map(CopiasEntidad::profesor))
+                    .map(CopiasEntidad::profesor);
         } catch (Exception e) {
             throw new RuntimeException("Error al buscar el profesor por email: " + e.getMessage());
         }
@@ -251,7 +428,7 @@ public class ProfesorService {
         }
         
         try {
-            return profesorRepository.existsByEmail(email.trim());
+            return filtrosUnicidad.emailProfesor().existe(email.trim(), profesorRepository::existsByEmail);
         } catch (Exception e) {
             throw new RuntimeException("Error al verificar el email: " + e.getMessage());
         }
@@ -1,26 +1,104 @@
 package com.gestionacademica.sistema_academico.service;
 
+import com.gestionacademica.sistema_academico.dto.reporte.CursoRankingDTO;
 import com.gestionacademica.sistema_academico.dto.reporte.CursosPorProfesorDTO;
 import com.gestionacademica.sistema_academico.dto.reporte.EstudiantesPorCicloDTO;
 import com.gestionacademica.sistema_academico.dto.reporte.NotaPromedioPorCursoDTO;
 import com.gestionacademica.sistema_academico.repository.InscripcionRepository;
+import com.gestionacademica.sistema_academico.repository.ResumenReporteRepository;
+import com.gestionacademica.sistema_academico.repository.proyeccion.FilaResumenAgrupado;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 @Service
 public class ReporteService {
     
+    // Secciones del resumen, en el orden de la respuesta
+    public static final String CURSOS_POR_PROFESOR = "cursosPorProfesor";
+    public static final String NOTA_PROMEDIO_POR_CURSO = "notaPromedioPorCurso";
+    public static final String ESTUDIANTES_POR_CICLO = "estudiantesPorCiclo";
+    public static final String TOP_3_CURSOS = "top3CursosMejorPromedio";
+    public static final String ERRORES = "errores";
+    
+    private static final int TOP_CURSOS_POR_DEFECTO = 10;
+    private static final int TOP_CURSOS_MAXIMO = 100;
+    private static final String RESUMEN_AGRUPADO = "resumenAgrupado";
+    
+    @Autowired
+    private ResumenReporteRepository resumenReporteRepository;
+    
     @Autowired
     private InscripcionRepository inscripcionRepository;
     
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private CacheReportes cacheReportes;
+    
+    @Value("${app.reportes.resumen.hilos:8}")
+    private int hilosResumen;
+    
+    @Value("${app.reportes.resumen.cola:64}")
+    private int colaResumen;
+    
+    @Value("${app.reportes.resumen.timeout:PT5S}")
+    private Duration timeoutResumen;
+    
+    private ThreadPoolTaskExecutor ejecutorResumen;
+    private TransactionTemplate lecturaResumen;
+    
+    /**
+     * Ejecutor acotado para las consultas del resumen (hilos virtuales desde Java 21)
+     * y transacción de solo lectura con el mismo tiempo máximo que la respuesta
+     */
+    @PostConstruct
+    void crearEjecutorResumen() {
+        ejecutorResumen = new ThreadPoolTaskExecutor();
+        ejecutorResumen.setCorePoolSize(hilosResumen);
+        ejecutorResumen.setMaxPoolSize(hilosResumen);
+        ejecutorResumen.setQueueCapacity(colaResumen);
+        ejecutorResumen.setThreadNamePrefix("reporte-resumen-");
+        ejecutorResumen.setVirtualThreads(Runtime.version().feature() >= 21);
+        ejecutorResumen.initialize();
+        
+        lecturaResumen = new TransactionTemplate(transactionManager);
+        lecturaResumen.setReadOnly(true);
+        lecturaResumen.setTimeout((int) Math.max(1, (timeoutResumen.toMillis() + 999) / 1000));
+    }
+    
+    @PreDestroy
+    void cerrarEjecutorResumen() {
+        ejecutorResumen.shutdown();
+    }
+    
     /**
      * Obtiene el número total de cursos que imparte cada profesor
      * @return Lista de DTOs con nombre del profesor y cantidad de cursos
      */
     public List<CursosPorProfesorDTO> obtenerCursosPorProfesor() {
-        return inscripcionRepository.findCursosPorProfesor();
+        return resumenReporteRepository.findCursosPorProfesor();
         //return inscripcionRepository.findCursosPorProfesor();
     }
     
@@ -29,7 +107,7 @@ public class ReporteService {
      * @return Lista de DTOs con nombre del curso y nota promedio
      */
     public List<NotaPromedioPorCursoDTO> obtenerNotaPromedioPorCurso() {
-        return inscripcionRepository.findNotaPromedioPorCurso();
+        return resumenReporteRepository.findNotaPromedioPorCurso();
     }
     
     /**
@@ -37,7 +115,7 @@ public class ReporteService {
      * @return Lista de DTOs con ciclo académico y cantidad de estudiantes
      */
     public List<EstudiantesPorCicloDTO> obtenerEstudiantesPorCiclo() {
-        return inscripcionRepository.findEstudiantesPorCiclo();
+        return resumenReporteRepository.findEstudiantesPorCiclo();
     }
     
     /**
@@ -45,13 +123,243 @@ public class ReporteService {
      * @return Lista de máximo 3 DTOs con los cursos mejor calificados
      */
     public List<NotaPromedioPorCursoDTO> obtenerTop3CursosConMejorPromedio() {
-        List<NotaPromedioPorCursoDTO> todosCursos = inscripcionRepository.findTop3CursosConMejorPromedio();
+        // El límite se aplica en la consulta: no se leen los demás cursos
+        return resumenReporteRepository.findCursosConMejorPromedio(Limit.of(3));
+    }
+    
+    /**
+     * Ranking de cursos por nota promedio, ordenado y limitado en la base de datos
+     * @param n cantidad de cursos (por defecto 10, máximo 100)
+     * @param ciclo ciclo académico (opcional; todos si se omite)
+     * @param orden "desc" (mejor promedio primero, por defecto) o "asc"
+     * @param minimoInscritos mínimo de inscripciones del curso para entrar al ranking (opcional)
+     * @return Lista de hasta n DTOs con código, nombre, nota promedio e inscritos
+     */
+    public List<CursoRankingDTO> obtenerTopCursos(Integer n, String ciclo, String orden, Integer minimoInscritos) {
+        return consultarTopCursos(ParametrosTopCursos.de(n, ciclo, orden, minimoInscritos));
+    }
+    
+    private List<CursoRankingDTO> consultarTopCursos(ParametrosTopCursos parametros) {
+        Limit limite = Limit.of(parametros.limite());
+        return parametros.descendente()
+                ? resumenReporteRepository.findRankingCursosMejorPromedio(parametros.ciclo(), parametros.minimoInscritos(), limite)
+                : resumenReporteRepository.findRankingCursosPeorPromedio(parametros.ciclo(), parametros.minimoInscritos(), limite);
+    }
+    
+    /**
+     * Parámetros del ranking ya validados y normalizados (también forman la clave de caché)
+     */
+    private record ParametrosTopCursos(int limite, String ciclo, boolean descendente, long minimoInscritos) {
+        
+        static ParametrosTopCursos de(Integer n, String ciclo, String orden, Integer minimoInscritos) {
+            int limite = n == null ? TOP_CURSOS_POR_DEFECTO : n;
+            if (limite < 1 || limite > TOP_CURSOS_MAXIMO) {
+                throw new IllegalArgumentException("n debe estar entre 1 y " + TOP_CURSOS_MAXIMO);
+            }
+            if (minimoInscritos != null && minimoInscritos < 0) {
+                throw new IllegalArgumentException("El mínimo de inscritos no puede ser negativo");
+            }
+            
+            String direccion = orden == null || orden.isBlank() ? "desc" : orden.trim().toLowerCase();
+            if (!direccion.equals("desc") && !direccion.equals("asc")) {
+                throw new IllegalArgumentException("Orden no soportado: " + orden + " (valores: asc, desc)");
+            }
+            
+            String cicloBuscado = ciclo == null || ciclo.isBlank() ? null : ciclo.trim();
+            return new ParametrosTopCursos(limite, cicloBuscado, direccion.equals("desc"),
+                    minimoInscritos == null ? 0 : minimoInscritos);
+        }
+        
+        String clave() {
+            return "topCursos:" + limite + ":" + ciclo + ":" + (descendente ? "desc" : "asc") + ":" + minimoInscritos;
+        }
+    }
+    
+    // ============ REPORTES EN CACHÉ (con su antigüedad, para /api/reportes) ============
+    
+    public ResultadoCacheado<List<CursosPorProfesorDTO>> obtenerCursosPorProfesorEnCache() {
+        return cacheReportes.obtener(CURSOS_POR_PROFESOR, this::obtenerCursosPorProfesor);
+    }
+    
+    public ResultadoCacheado<List<NotaPromedioPorCursoDTO>> obtenerNotaPromedioPorCursoEnCache() {
+        return cacheReportes.obtener(NOTA_PROMEDIO_POR_CURSO, this::obtenerNotaPromedioPorCurso);
+    }
+    
+    public ResultadoCacheado<List<EstudiantesPorCicloDTO>> obtenerEstudiantesPorCicloEnCache() {
+        return cacheReportes.obtener(ESTUDIANTES_POR_CICLO, this::obtenerEstudiantesPorCiclo);
+    }
+    
+    public ResultadoCacheado<List<NotaPromedioPorCursoDTO>> obtenerTop3CursosConMejorPromedioEnCache() {
+        return cacheReportes.obtener(TOP_3_CURSOS, this::obtenerTop3CursosConMejorPromedio);
+    }
+    
+    public ResultadoCacheado<List<CursoRankingDTO>> obtenerTopCursosEnCache(Integer n, String ciclo, String orden,
+                                                                            Integer minimoInscritos) {
+        ParametrosTopCursos parametros = ParametrosTopCursos.de(n, ciclo, orden, minimoInscritos);
+        return cacheReportes.obtener(parametros.clave(), () -> consultarTopCursos(parametros));
+    }
+    
+    /**
+     * Compara las tablas de resumen con la agregación directa sobre inscripciones y cursos.
+     * Con reconstruir=true y alguna diferencia, las regenera (bloqueando las escrituras sobre
+     * las tablas de origen mientras tanto) y vuelve a verificar.
+     * @return diferencias por tabla, si quedaron consistentes y si se reconstruyeron
+     */
+    @Transactional
+    public Map<String, Object> verificarResumenes(boolean reconstruir) {
+        try {
+            if (reconstruir) {
+                resumenReporteRepository.bloquearEscrituras();
+            }
+            
+            Map<String, Long> diferencias = contarDiferenciasResumenes();
+            boolean consistente = diferencias.values().stream().allMatch(cantidad -> cantidad == 0);
+            
+            Map<String, Object> resultado = new LinkedHashMap<>();
+            resultado.put("diferencias", diferencias);
+            resultado.put("consistente", consistente);
+            resultado.put("reconstruido", false);
+            
+            if (reconstruir && !consistente) {
+                resumenReporteRepository.vaciarNotasCurso();
+                resumenReporteRepository.vaciarCicloEstudiante();
+                resumenReporteRepository.vaciarEstudiantesCiclo();
+                resumenReporteRepository.vaciarCursosProfesor();
+                
+                resumenReporteRepository.reconstruirNotasCurso();
+                resumenReporteRepository.reconstruirCicloEstudiante();
+                resumenReporteRepository.reconstruirEstudiantesCiclo();
+                resumenReporteRepository.reconstruirCursosProfesor();
+                cacheReportes.invalidar();
+                
+                Map<String, Long> despues = contarDiferenciasResumenes();
+                resultado.put("reconstruido", true);
+                resultado.put("diferenciasDespues", despues);
+                resultado.put("consistente", despues.values().stream().allMatch(cantidad -> cantidad == 0));
+            }
+            
+            return resultado;
+        } catch (Exception e) {
+            throw new RuntimeException("Error al verificar los resúmenes de reportes: " + e.getMessage());
+        }
+    }
+    
+    private Map<String, Long> contarDiferenciasResumenes() {
+        Map<String, Long> diferencias = new LinkedHashMap<>();
+        diferencias.put("resumen_notas_curso", resumenReporteRepository.contarDiferenciasNotasCurso());
+        diferencias.put("resumen_ciclo_estudiante", resumenReporteRepository.contarDiferenciasCicloEstudiante());
+        diferencias.put("resumen_estudiantes_ciclo", resumenReporteRepository.contarDiferenciasEstudiantesCiclo());
+        diferencias.put("resumen_cursos_profesor", resumenReporteRepository.contarDiferenciasCursosProfesor());
+        return diferencias;
+    }
+    
+    /**
+     * Ejecuta las cuatro consultas del resumen en paralelo. Cada sección sale de la caché de
+     * reportes y, si hay que calcularla, se calcula en su propia transacción de solo lectura.
+     * Las que fallan o no terminan a tiempo quedan en null y su causa se informa en la
+     * sección "errores"; el resto del resumen se retorna igual.
+     * @return el resumen, con la antigüedad de su sección más antigua
+     */
+    public ResultadoCacheado<Map<String, Object>> obtenerResumen() {
+        Map<String, Supplier<List<?>>> consultas = new LinkedHashMap<>();
+        consultas.put(CURSOS_POR_PROFESOR, this::obtenerCursosPorProfesor);
+        consultas.put(NOTA_PROMEDIO_POR_CURSO, this::obtenerNotaPromedioPorCurso);
+        consultas.put(ESTUDIANTES_POR_CICLO, this::obtenerEstudiantesPorCiclo);
+        consultas.put(TOP_3_CURSOS, this::obtenerTop3CursosConMejorPromedio);
+        
+        long limite = System.nanoTime() + timeoutResumen.toNanos();
+        Map<String, Future<ResultadoCacheado<List<?>>>> pendientes = new LinkedHashMap<>();
+        Map<String, String> errores = new LinkedHashMap<>();
+        consultas.forEach((seccion, consulta) -> {
+            try {
+                pendientes.put(seccion, ejecutorResumen.submit(() -> cacheReportes.obtener(seccion,
+                        () -> lecturaResumen.execute(estado -> consulta.get()))));
+            } catch (TaskRejectedException e) {
+                errores.put(seccion, "Consulta rechazada: hay demasiados reportes en curso");
+            }
+        });
+        
+        Map<String, Object> resumen = new LinkedHashMap<>();
+        ResultadoCacheado<?> masAntiguo = null;
+        boolean obsoleto = false;
+        for (String seccion : consultas.keySet()) {
+            Future<ResultadoCacheado<List<?>>> pendiente = pendientes.get(seccion);
+            ResultadoCacheado<List<?>> resultado = pendiente == null ? null : esperar(seccion, pendiente, limite, errores);
+            resumen.put(seccion, resultado == null ? null : resultado.valor());
+            if (resultado != null) {
+                obsoleto |= resultado.obsoleto();
+                if (masAntiguo == null || resultado.generado().isBefore(masAntiguo.generado())) {
+                    masAntiguo = resultado;
+                }
+            }
+        }
+        if (!errores.isEmpty()) {
+            resumen.put(ERRORES, errores);
+        }
+        
+        if (masAntiguo == null) {
+            return new ResultadoCacheado<>(resumen, Instant.now(), Duration.ZERO, Duration.ZERO, false);
+        }
+        return new ResultadoCacheado<>(resumen, masAntiguo.generado(), masAntiguo.edad(), masAntiguo.vigencia(), obsoleto);
+    }
+    
+    /**
+     * Resumen calculado directamente de cursos e inscripciones, sin las tablas de resumen:
+     * una sola consulta con GROUPING SETS recorre los datos una vez y trae las cuatro secciones.
+     * Las secciones son las mismas que las de obtenerResumen, pero salen juntas o fallan juntas.
+     * @return el resumen, en la caché de reportes como una sola entrada
+     */
+    public ResultadoCacheado<Map<String, Object>> obtenerResumenAgrupado() {
+        return cacheReportes.obtener(RESUMEN_AGRUPADO, () -> lecturaResumen.execute(estado -> calcularResumenAgrupado()));
+    }
+    
+    private Map<String, Object> calcularResumenAgrupado() {
+        List<CursosPorProfesorDTO> cursosPorProfesor = new ArrayList<>();
+        List<NotaPromedioPorCursoDTO> notaPromedioPorCurso = new ArrayList<>();
+        List<EstudiantesPorCicloDTO> estudiantesPorCiclo = new ArrayList<>();
+        List<NotaPromedioPorCursoDTO> top3Cursos = new ArrayList<>();
         
-        // Limitar a los primeros 3 resultados
-        if (todosCursos.size() > 3) {
-            return todosCursos.subList(0, 3);
+        // Las filas vienen ordenadas por sección, ciclo y puesto
+        for (FilaResumenAgrupado fila : inscripcionRepository.findResumenAgrupado()) {
+            switch (fila.getSeccion()) {
+                case FilaResumenAgrupado.SECCION_CURSO -> {
+                    NotaPromedioPorCursoDTO curso = new NotaPromedioPorCursoDTO(fila.getNombre(), fila.getPromedio());
+                    notaPromedioPorCurso.add(curso);
+                    if (fila.getPosicion() <= 3) {
+                        top3Cursos.add(curso);
+                    }
+                }
+                case FilaResumenAgrupado.SECCION_PROFESOR ->
+                        cursosPorProfesor.add(new CursosPorProfesorDTO(fila.getNombre(), fila.getCantidad()));
+                case FilaResumenAgrupado.SECCION_CICLO ->
+                        estudiantesPorCiclo.add(new EstudiantesPorCicloDTO(fila.getCiclo(), fila.getCantidad()));
+                default -> throw new IllegalStateException("Sección de resumen desconocida: " + fila.getSeccion());
+            }
         }
         
-        return todosCursos;
+        Map<String, Object> resumen = new LinkedHashMap<>();
+        resumen.put(CURSOS_POR_PROFESOR, cursosPorProfesor);
+        resumen.put(NOTA_PROMEDIO_POR_CURSO, notaPromedioPorCurso);
+        resumen.put(ESTUDIANTES_POR_CICLO, estudiantesPorCiclo);
+        resumen.put(TOP_3_CURSOS, top3Cursos);
+        return resumen;
+    }
+    
+    /**
+     * Espera el resultado de una sección hasta el límite común; si no llega, la cancela
+     */
+    private <T> T esperar(String seccion, Future<T> pendiente, long limite, Map<String, String> errores) {
+        try {
+            return pendiente.get(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            pendiente.cancel(true);
+            errores.put(seccion, "Tiempo de espera agotado (" + timeoutResumen.toMillis() + " ms)");
+        } catch (ExecutionException e) {
+            errores.put(seccion, "Error al obtener el reporte: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            errores.put(seccion, "Consulta interrumpida");
+        }
+        return null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,216 @@
+package com.gestionacademica.sistema_academico.service;
+
+import com.gestionacademica.sistema_academico.dto.ResultadoInscripcionDTO;
+import com.gestionacademica.sistema_academico.dto.SolicitudInscripcionDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Reserva de cupos para la apertura de matrícula, cuando miles de estudiantes piden los
+ * mismos cursos a la vez. El lugar se decide en memoria (CuposCursos, sin bloquear la fila
+ * del curso) y la inscripción se escribe después: un único hilo toma las reservas de la cola
+ * y las inserta en lotes de hasta app.inscripciones.reservas.lote con InscripcionService.
+ *
+ * Cada reserva retorna un CompletableFuture que se completa al confirmarse su lote, o de
+ * inmediato si se rechaza. Si la inscripción no se crea (ya existía, el estudiante no
+ * existe...) el lugar se libera. Al detener la aplicación, las reservas que el escritor no
+ * alcanzó a escribir se completan con error y liberan su lugar. Si se detiene abruptamente
+ * se pierden; al reiniciar, CuposCursos se reconcilia con las inscripciones, así que sus
+ * lugares vuelven a estar disponibles.
+ */
+@Service
+public class ReservaCuposService {
+    
+    public static final String RESERVADA = "RESERVADA";
+    public static final String COLA_LLENA = "COLA_LLENA";
+    
+    @Autowired
+    private InscripcionService inscripcionService;
+    
+    @Autowired
+    private CuposCursos cuposCursos;
+    
+    @Value("${app.inscripciones.reservas.cola:100000}")
+    private int capacidadCola;
+    
+    @Value("${app.inscripciones.reservas.lote:1000}")
+    private int tamañoLote;
+    
+    private record Pendiente(SolicitudInscripcionDTO solicitud, CompletableFuture<ResultadoInscripcionDTO> resultado) {}
+    
+    private BlockingQueue<Pendiente> cola;
+    
+    // Estudiante y curso de las reservas que aún no se escriben, para no reservar dos lugares
+    private final Set<String> enCurso = ConcurrentHashMap.newKeySet();
+    
+    private volatile boolean activo;
+    private Thread escritor;
+    
+    @PostConstruct
+    void iniciar() {
+        cola = new ArrayBlockingQueue<>(capacidadCola);
+        activo = true;
+        escritor = new Thread(this::escribir, "reserva-cupos-escritor");
+        escritor.setDaemon(true);
+        escritor.start();
+    }
+    
+    /**
+     * Deja de aceptar reservas y espera a que se escriban las que están en la cola; las que
+     * queden después de la espera se cancelan
+     */
+    @PreDestroy
+    void detener() throws InterruptedException {
+        activo = false;
+        escritor.join(TimeUnit.SECONDS.toMillis(30));
+        
+        List<Pendiente> restantes = new ArrayList<>();
+        cola.drainTo(restantes);
+        restantes.forEach(this::cancelar);
+    }
+    
+    /**
+     * Reserva un lugar en el curso para el estudiante
+     * @return el resultado final: CREADA con el ID de la inscripción, o el motivo del rechazo
+     *         (SIN_CUPO, INVALIDA, REPETIDA, COLA_LLENA y los de InscripcionService)
+     */
+    public CompletableFuture<ResultadoInscripcionDTO> reservar(SolicitudInscripcionDTO solicitud) {
+        if (!activo) {
+            throw new IllegalStateException("El servicio de reservas se está deteniendo");
+        }
+        
+        String error = InscripcionService.validarSolicitud(solicitud);
+        if (error != null) {
+            return rechazo(InscripcionService.INVALIDA, error);
+        }
+        
+        String clave = clave(solicitud);
+        if (!enCurso.add(clave)) {
+            return rechazo(InscripcionService.REPETIDA, "El estudiante ya tiene una reserva en proceso para el curso");
+        }
+        
+        CuposCursos.Reserva reserva = cuposCursos.reservar(solicitud.getCursoId());
+        if (reserva != CuposCursos.Reserva.RESERVADA) {
+            enCurso.remove(clave);
+            return reserva == CuposCursos.Reserva.SIN_CUPO
+                    ? rechazo(InscripcionService.SIN_CUPO, "El curso no tiene cupos disponibles")
+                    : rechazo(InscripcionService.CURSO_NO_EXISTE, "Curso no encontrado");
+        }
+        
+        CompletableFuture<ResultadoInscripcionDTO> resultado = new CompletableFuture<>();
+        Pendiente pendiente = new Pendiente(solicitud, resultado);
+        if (!cola.offer(pendiente)) {
+            cuposCursos.liberar(solicitud.getCursoId());
+            enCurso.remove(clave);
+            return rechazo(COLA_LLENA, "Hay demasiadas reservas pendientes, intente nuevamente");
+        }
+        // Si detener() empezó mientras se encolaba, puede que ya nadie lea la cola
+        if (!activo && cola.remove(pendiente)) {
+            cancelar(pendiente);
+        }
+        return resultado;
+    }
+    
+    /**
+     * Cupo máximo, lugares ocupados (incluye reservas pendientes) y disponibles del curso
+     */
+    public Map<String, Object> obtenerCupo(Long cursoId) {
+        if (cursoId == null || cursoId <= 0) {
+            throw new IllegalArgumentException("El ID debe ser un número positivo");
+        }
+        
+        CuposCursos.Ocupacion ocupacion = cuposCursos.ocupacion(cursoId);
+        if (ocupacion == null) {
+            return null;
+        }
+        
+        Map<String, Object> cupo = new LinkedHashMap<>();
+        cupo.put("cursoId", cursoId);
+        cupo.put("cupoMaximo", ocupacion.capacidad());
+        cupo.put("ocupados", ocupacion.ocupados());
+        cupo.put("disponibles", ocupacion.disponibles());
+        return cupo;
+    }
+    
+    public int pendientes() {
+        return cola.size();
+    }
+    
+    /**
+     * Hilo escritor: toma todas las reservas que esperan (hasta tamañoLote, sin pasar el lote
+     * máximo de InscripcionService) y las inserta juntas
+     */
+    private void escribir() {
+        int maximo = Math.max(1, Math.min(tamañoLote, inscripcionService.loteMaximo()));
+        List<Pendiente> lote = new ArrayList<>(maximo);
+        while (activo || !cola.isEmpty()) {
+            try {
+                Pendiente primera = cola.poll(100, TimeUnit.MILLISECONDS);
+                if (primera == null) {
+                    continue;
+                }
+                lote.add(primera);
+                cola.drainTo(lote, maximo - 1);
+                persistir(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+    
+    private void persistir(List<Pendiente> lote) {
+        List<SolicitudInscripcionDTO> solicitudes = lote.stream()
+                .map(Pendiente::solicitud)
+                .collect(Collectors.toList());
+        
+        try {
+            // crearLoteReservado libera los lugares de las que no se crean
+            List<ResultadoInscripcionDTO> resultados = inscripcionService.crearLoteReservado(solicitudes).getResultados();
+            for (int i = 0; i < lote.size(); i++) {
+                Pendiente pendiente = lote.get(i);
+                ResultadoInscripcionDTO resultado = resultados.get(i);
+                enCurso.remove(clave(pendiente.solicitud()));
+                pendiente.resultado().complete(new ResultadoInscripcionDTO(0, resultado.getEstado(),
+                        resultado.getId(), resultado.getMensaje()));
+            }
+        } catch (Exception e) {
+            for (Pendiente pendiente : lote) {
+                enCurso.remove(clave(pendiente.solicitud()));
+                pendiente.resultado().completeExceptionally(e);
+            }
+        }
+    }
+    
+    private void cancelar(Pendiente pendiente) {
+        cuposCursos.liberar(pendiente.solicitud().getCursoId());
+        enCurso.remove(clave(pendiente.solicitud()));
+        pendiente.resultado().completeExceptionally(
+                new IllegalStateException("El servicio de reservas se detuvo antes de escribir la reserva"));
+    }
+    
+    private static CompletableFuture<ResultadoInscripcionDTO> rechazo(String estado, String mensaje) {
+        return CompletableFuture.completedFuture(new ResultadoInscripcionDTO(0, estado, null, mensaje));
+    }
+    
+    private static String clave(SolicitudInscripcionDTO solicitud) {
+        return solicitud.getEstudianteId() + ":" + solicitud.getCursoId();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.gestionacademica.sistema_academico.service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Resultado servido desde una caché, con su antigüedad
+ * @param valor el resultado
+ * @param generado cuándo se calculó
+ * @param edad tiempo transcurrido desde que se calculó
+ * @param vigencia tiempo que le queda antes de vencer (cero si ya venció)
+ * @param obsoleto true si venció y se está recalculando en segundo plano
+ */
+public record ResultadoCacheado<V>(V valor, Instant generado, Duration edad, Duration vigencia, boolean obsoleto) {}
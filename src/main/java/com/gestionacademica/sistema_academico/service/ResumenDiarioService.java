@@ -0,0 +1,141 @@
+package com.gestionacademica.sistema_academico.service;
+
+import com.gestionacademica.sistema_academico.dto.reporte.InscripcionesPorCursoDTO;
+import com.gestionacademica.sistema_academico.dto.reporte.InscripcionesPorFechaDTO;
+import com.gestionacademica.sistema_academico.repository.ResumenDiarioRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reportes de inscripciones por rango de fechas, leídos del resumen diario (día, curso y ciclo)
+ * en lugar de recorrer las inscripciones por fecha_inscripcion.
+ *
+ * El resumen se actualiza cada app.reportes.diario.intervalo: se vuelven a agregar los días
+ * desde la marca de agua (el día de la actualización anterior) y los días anteriores que el
+ * trigger de schema.sql marcó como pendientes, y la marca pasa al día actual. Así los
+ * reportes reflejan las inscripciones hasta la última actualización.
+ *
+ * Las escrituras sobre inscripciones no esperan a la actualización: los días pendientes se
+ * toman y borran antes de agregar, así que lo que se confirme mientras tanto queda pendiente
+ * para la próxima, y la marca solo se bloquea al moverla.
+ */
+@Service
+public class ResumenDiarioService {
+    
+    @Autowired
+    private ResumenDiarioRepository resumenDiarioRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private CacheReportes cacheReportes;
+    
+    private TransactionTemplate escritura;
+    
+    @PostConstruct
+    void configurar() {
+        escritura = new TransactionTemplate(transactionManager);
+    }
+    
+    /**
+     * Inscripciones, notas registradas y nota promedio de cada curso entre dos fechas
+     * @param desde primera fecha de inscripción (inclusive)
+     * @param hasta última fecha de inscripción (inclusive)
+     * @param ciclo ciclo académico (opcional; todos si se omite)
+     */
+    public ResultadoCacheado<List<InscripcionesPorCursoDTO>> obtenerInscripcionesPorCurso(LocalDate desde, LocalDate hasta,
+                                                                                          String ciclo) {
+        validarRango(desde, hasta);
+        String cicloBuscado = normalizar(ciclo);
+        
+        return cacheReportes.obtener("inscripcionesPorCurso:" + desde + ":" + hasta + ":" + cicloBuscado,
+                () -> resumenDiarioRepository.findInscripcionesPorCurso(desde, hasta, cicloBuscado));
+    }
+    
+    /**
+     * Inscripciones, notas registradas y nota promedio de cada día con inscripciones entre dos fechas
+     * @param curso código del curso (opcional; todos si se omite)
+     */
+    public ResultadoCacheado<List<InscripcionesPorFechaDTO>> obtenerInscripcionesPorFecha(LocalDate desde, LocalDate hasta,
+                                                                                           String ciclo, String curso) {
+        validarRango(desde, hasta);
+        String cicloBuscado = normalizar(ciclo);
+        String cursoBuscado = normalizar(curso);
+        
+        return cacheReportes.obtener("inscripcionesPorFecha:" + desde + ":" + hasta + ":" + cicloBuscado + ":" + cursoBuscado,
+                () -> resumenDiarioRepository.findInscripcionesPorFecha(desde, hasta, cicloBuscado, cursoBuscado));
+    }
+    
+    @Scheduled(initialDelayString = "${app.reportes.diario.intervalo:PT15M}",
+               fixedDelayString = "${app.reportes.diario.intervalo:PT15M}")
+    void actualizarProgramado() {
+        actualizar(false);
+    }
+    
+    /**
+     * Actualiza el resumen diario en una transacción. Sin marca (primera vez) o con
+     * reconstruir=true lo regenera completo.
+     * @return desde qué día se agregó, días pendientes anteriores, filas escritas y si se reconstruyó
+     */
+    public Map<String, Object> actualizar(boolean reconstruir) {
+        try {
+            return escritura.execute(estado -> {
+                resumenDiarioRepository.bloquearActualizacion();
+                LocalDate desde = resumenDiarioRepository.leerMarca();
+                boolean completo = reconstruir || desde == null;
+        
+                Map<String, Object> resultado = new LinkedHashMap<>();
+                resultado.put("desde", completo ? null : desde);
+                if (completo) {
+                    resumenDiarioRepository.vaciarPendientes();
+                    resultado.put("diasPendientes", 0);
+                    resumenDiarioRepository.vaciar();
+                    resultado.put("filas", resumenDiarioRepository.agregarTodo());
+                } else {
+                    List<LocalDate> pendientes = resumenDiarioRepository.tomarPendientes(desde);
+                    resultado.put("diasPendientes", pendientes.size());
+                    int filas = 0;
+                    if (!pendientes.isEmpty()) {
+                        resumenDiarioRepository.vaciarDias(pendientes);
+                        filas += resumenDiarioRepository.agregarDias(pendientes);
+                    }
+                    resumenDiarioRepository.vaciarDesde(desde);
+                    filas += resumenDiarioRepository.agregarDesde(desde);
+                    resultado.put("filas", filas);
+                }
+        
+                if (resumenDiarioRepository.moverMarca() == 0) {
+                    throw new IllegalStateException("Falta la fila de resumen_diario_marca (ver schema.sql)");
+                }
+                resultado.put("reconstruido", completo);
+                cacheReportes.invalidar();
+                return resultado;
+            });
+        } catch (Exception e) {
+            throw new RuntimeException("Error al actualizar el resumen diario de inscripciones: " + e.getMessage());
+        }
+    }
+    
+    private static void validarRango(LocalDate desde, LocalDate hasta) {
+        if (desde == null || hasta == null) {
+            throw new IllegalArgumentException("Las fechas desde y hasta son obligatorias");
+        }
+        if (desde.isAfter(hasta)) {
+            throw new IllegalArgumentException("La fecha desde no puede ser posterior a hasta");
+        }
+    }
+    
+    private static String normalizar(String valor) {
+        return valor == null || valor.isBlank() ? null : valor.trim();
+    }
+}
\ No newline at end of file
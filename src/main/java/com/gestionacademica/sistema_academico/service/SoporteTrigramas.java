@@ -0,0 +1,72 @@
+package com.gestionacademica.sistema_academico.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Detecta si la base de datos tiene la extensión pg_trgm instalada.
+ * Si no la tiene, las búsquedas por similitud usan un IndiceTrigramas en memoria.
+ */
+@Component
+public class SoporteTrigramas {
+    
+    public static final String MODO_PG_TRGM = "pg_trgm";
+    public static final String MODO_MEMORIA = "indice-en-memoria";
+    
+    static final int LIMITE_POR_DEFECTO = 20;
+    static final int LIMITE_MAXIMO = 100;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private volatile Boolean disponible;
+    
+    /**
+     * Solo se guarda una respuesta de la base de datos; si la consulta falla se usa
+     * el índice en memoria esta vez y se vuelve a consultar en la próxima búsqueda.
+     */
+    public boolean pgTrgmDisponible() {
+        Boolean resultado = disponible;
+        if (resultado == null) {
+            try {
+                resultado = Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                        "SELECT EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm')", Boolean.class));
+            } catch (DataAccessException e) {
+                return false;
+            }
+            disponible = resultado;
+        }
+        return resultado;
+    }
+    
+    public String modoActual() {
+        return pgTrgmDisponible() ? MODO_PG_TRGM : MODO_MEMORIA;
+    }
+    
+    /**
+     * Valida el término y normaliza el límite de resultados
+     */
+    static int validarBusqueda(String termino, Integer limite) {
+        if (termino == null || termino.trim().isEmpty()) {
+            throw new IllegalArgumentException("El término de búsqueda no puede estar vacío");
+        }
+        if (limite == null) {
+            return LIMITE_POR_DEFECTO;
+        }
+        if (limite <= 0) {
+            throw new IllegalArgumentException("El límite debe ser un número positivo");
+        }
+        return Math.min(limite, LIMITE_MAXIMO);
+    }
+    
+    /**
+     * Patrón LIKE que busca el término como subcadena literal, igual que el índice en memoria:
+     * escapa \, % y _ para usarlo con ESCAPE '\'
+     */
+    static String patronSubcadena(String termino) {
+        String escapado = termino.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "%" + escapado + "%";
+    }
+}
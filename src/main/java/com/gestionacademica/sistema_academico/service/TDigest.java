@@ -0,0 +1,379 @@
+package com.gestionacademica.sistema_academico.service;
+
+import java.util.Arrays;
+
+/**
+ * Resumen de una distribución (t-digest con fusión) para estimar percentiles sin guardar los
+ * valores. Se puede combinar: el resumen de una unión es la combinación de los resúmenes.
+ *
+ * Los valores se acumulan en un búfer; al llenarse se ordenan junto con los centroides y se
+ * fusionan los vecinos mientras el centroide resultante respete la función de escala
+ * k(q) = compresión / 2π · asin(2q - 1). Así los centroides de los extremos son pequeños
+ * (percentiles 1 y 99 precisos) y los del centro más grandes. Con la compresión por defecto
+ * quedan unos 65 centroides y el error de rango del percentil ronda el 0.1 %, también al
+ * combinar resúmenes.
+ *
+ * Las notas se repiten mucho (15, 15.5, ...): un centroide que solo contiene un valor lo
+ * recuerda, no se mezcla con el valor siguiente si ya va por la mitad de su tamaño, y el
+ * cuantil que cae en él es ese valor exacto en lugar de una interpolación entre dos notas.
+ *
+ * Los métodos son sincronizados, como en HyperLogLog.
+ */
+final class TDigest {
+
+    static final double COMPRESION_POR_DEFECTO = 100;
+
+    private final double compresion;
+    private final int capacidadBufer;
+
+    private double[] medias = new double[0];
+    private double[] pesos = new double[0];
+    private boolean[] unicos = new boolean[0];
+    private int centroides;
+
+    // El búfer crece a medida que llegan valores: la mayoría de los resúmenes son pequeños
+    private double[] mediasBufer = new double[8];
+    private double[] pesosBufer = new double[8];
+    private boolean[] unicosBufer = new boolean[8];
+    private int enBufer;
+    // Si el búfer solo tiene valores sueltos (no centroides combinados) basta ordenar las medias
+    private boolean buferDeValores = true;
+
+    private double pesoTotal;
+    private double minimo = Double.POSITIVE_INFINITY;
+    private double maximo = Double.NEGATIVE_INFINITY;
+
+    TDigest() {
+        this(COMPRESION_POR_DEFECTO);
+    }
+
+    TDigest(double compresion) {
+        if (!(compresion >= 10)) {
+            throw new IllegalArgumentException("La compresión debe ser al menos 10");
+        }
+        this.compresion = compresion;
+        this.capacidadBufer = (int) (5 * compresion);
+    }
+
+    private TDigest(TDigest original) {
+        this.compresion = original.compresion;
+        this.capacidadBufer = original.capacidadBufer;
+        this.medias = Arrays.copyOf(original.medias, original.centroides);
+        this.pesos = Arrays.copyOf(original.pesos, original.centroides);
+        this.unicos = Arrays.copyOf(original.unicos, original.centroides);
+        this.centroides = original.centroides;
+        this.mediasBufer = Arrays.copyOf(original.mediasBufer, Math.max(8, original.enBufer));
+        this.pesosBufer = Arrays.copyOf(original.pesosBufer, Math.max(8, original.enBufer));
+        this.unicosBufer = Arrays.copyOf(original.unicosBufer, Math.max(8, original.enBufer));
+        this.enBufer = original.enBufer;
+        this.buferDeValores = original.buferDeValores;
+        this.pesoTotal = original.pesoTotal;
+        this.minimo = original.minimo;
+        this.maximo = original.maximo;
+    }
+
+    synchronized void agregar(double valor) {
+        if (Double.isNaN(valor)) {
+            throw new IllegalArgumentException("No se puede agregar NaN");
+        }
+        agregarCentroide(valor, 1, true);
+    }
+
+    /**
+     * Quita un valor agregado antes (una nota modificada). El resumen no guarda los valores: se
+     * descuenta del centroide más cercano, exacto si ese centroide solo contiene ese valor. El
+     * mínimo y el máximo se ajustan si el extremo queda en un centroide de un solo valor.
+     */
+    synchronized void quitar(double valor) {
+        if (Double.isNaN(valor)) {
+            throw new IllegalArgumentException("No se puede quitar NaN");
+        }
+        fusionar();
+        if (centroides == 0) {
+            return;
+        }
+
+        int posicion = Arrays.binarySearch(medias, 0, centroides, valor);
+        if (posicion < 0) {
+            int siguiente = -posicion - 1;
+            posicion = siguiente == centroides
+                    || (siguiente > 0 && valor - medias[siguiente - 1] <= medias[siguiente] - valor)
+                    ? siguiente - 1 : siguiente;
+        }
+        if (pesos[posicion] <= 1) {
+            int despues = centroides - posicion - 1;
+            System.arraycopy(medias, posicion + 1, medias, posicion, despues);
+            System.arraycopy(pesos, posicion + 1, pesos, posicion, despues);
+            System.arraycopy(unicos, posicion + 1, unicos, posicion, despues);
+            centroides--;
+        } else {
+            if (!unicos[posicion]) {
+                // La nueva media no pasa a los vecinos: los centroides siguen ordenados
+                double media = (medias[posicion] * pesos[posicion] - valor) / (pesos[posicion] - 1);
+                double desde = posicion == 0 ? Double.NEGATIVE_INFINITY : medias[posicion - 1];
+                double hasta = posicion == centroides - 1 ? Double.POSITIVE_INFINITY : medias[posicion + 1];
+                medias[posicion] = Math.min(hasta, Math.max(desde, media));
+            }
+            pesos[posicion]--;
+        }
+        pesoTotal--;
+
+        if (centroides == 0) {
+            pesoTotal = 0;
+            minimo = Double.POSITIVE_INFINITY;
+            maximo = Double.NEGATIVE_INFINITY;
+            return;
+        }
+        if (valor <= minimo && unicos[0]) {
+            minimo = medias[0];
+        }
+        if (valor >= maximo && unicos[centroides - 1]) {
+            maximo = medias[centroides - 1];
+        }
+    }
+
+    /**
+     * Agrega los valores resumidos en otro t-digest
+     */
+    void combinar(TDigest otro) {
+        TDigest origen = otro.copia();
+        synchronized (this) {
+            for (int i = 0; i < origen.centroides; i++) {
+                agregarCentroide(origen.medias[i], origen.pesos[i], origen.unicos[i]);
+            }
+            for (int i = 0; i < origen.enBufer; i++) {
+                agregarCentroide(origen.mediasBufer[i], origen.pesosBufer[i], origen.unicosBufer[i]);
+            }
+            if (origen.pesoTotal > 0) {
+                minimo = Math.min(minimo, origen.minimo);
+                maximo = Math.max(maximo, origen.maximo);
+            }
+        }
+    }
+
+    synchronized TDigest copia() {
+        return new TDigest(this);
+    }
+
+    /**
+     * Fusiona el búfer y libera el espacio sobrante; conviene tras una carga grande
+     */
+    synchronized void compactar() {
+        if (enBufer == 0 && medias.length == centroides && mediasBufer.length == 8) {
+            return;
+        }
+        fusionar();
+        medias = Arrays.copyOf(medias, centroides);
+        pesos = Arrays.copyOf(pesos, centroides);
+        unicos = Arrays.copyOf(unicos, centroides);
+        mediasBufer = new double[8];
+        pesosBufer = new double[8];
+        unicosBufer = new boolean[8];
+    }
+
+    synchronized long cantidad() {
+        return Math.round(pesoTotal);
+    }
+
+    synchronized double minimo() {
+        return pesoTotal == 0 ? Double.NaN : minimo;
+    }
+
+    synchronized double maximo() {
+        return pesoTotal == 0 ? Double.NaN : maximo;
+    }
+
+    synchronized int centroides() {
+        fusionar();
+        return centroides;
+    }
+
+    /**
+     * Valor estimado del cuantil q (entre 0 y 1); NaN si el resumen está vacío
+     */
+    synchronized double cuantil(double q) {
+        if (!(q >= 0 && q <= 1)) {
+            throw new IllegalArgumentException("El cuantil debe estar entre 0 y 1: " + q);
+        }
+        fusionar();
+        if (centroides == 0) {
+            return Double.NaN;
+        }
+
+        // Interpola entre puntos (peso acumulado, valor): el mínimo en 0, cada centroide en
+        // el centro de su peso y el máximo en el total. Un centroide de un solo valor da ese valor.
+        double indice = q * pesoTotal;
+        double acumuladoAnterior = 0;
+        double valorAnterior = minimo;
+        double acumulado = 0;
+        for (int i = 0; i < centroides; i++) {
+            double inicio = acumulado;
+            acumulado += pesos[i];
+            if (unicos[i] && indice >= inicio && indice <= acumulado) {
+                return medias[i];
+            }
+            double centro = inicio + pesos[i] / 2;
+            if (indice <= centro) {
+                return interpolar(acumuladoAnterior, valorAnterior, centro, medias[i], indice);
+            }
+            acumuladoAnterior = centro;
+            valorAnterior = medias[i];
+        }
+        return interpolar(acumuladoAnterior, valorAnterior, pesoTotal, maximo, indice);
+    }
+
+    // ============ MÉTODOS AUXILIARES ============
+
+    private void agregarCentroide(double media, double peso, boolean unico) {
+        if (enBufer == mediasBufer.length) {
+            if (enBufer >= capacidadBufer) {
+                fusionar();
+            } else {
+                int capacidad = Math.min(capacidadBufer, enBufer * 2);
+                mediasBufer = Arrays.copyOf(mediasBufer, capacidad);
+                pesosBufer = Arrays.copyOf(pesosBufer, capacidad);
+                unicosBufer = Arrays.copyOf(unicosBufer, capacidad);
+            }
+        }
+        mediasBufer[enBufer] = media;
+        pesosBufer[enBufer] = peso;
+        unicosBufer[enBufer] = unico;
+        enBufer++;
+        buferDeValores &= peso == 1 && unico;
+        pesoTotal += peso;
+        minimo = Math.min(minimo, media);
+        maximo = Math.max(maximo, media);
+    }
+
+    private void fusionar() {
+        if (enBufer == 0) {
+            return;
+        }
+        int total = centroides + enBufer;
+        double[] todasMedias = new double[total];
+        double[] todosPesos = new double[total];
+        boolean[] todosUnicos = new boolean[total];
+        if (buferDeValores) {
+            // Los centroides ya están ordenados: se ordena el búfer y se intercalan
+            Arrays.sort(mediasBufer, 0, enBufer);
+            int centroide = 0;
+            int valor = 0;
+            for (int i = 0; i < total; i++) {
+                if (valor == enBufer || (centroide < centroides && medias[centroide] <= mediasBufer[valor])) {
+                    todasMedias[i] = medias[centroide];
+                    todosPesos[i] = pesos[centroide];
+                    todosUnicos[i] = unicos[centroide];
+                    centroide++;
+                } else {
+                    todasMedias[i] = mediasBufer[valor++];
+                    todosPesos[i] = 1;
+                    todosUnicos[i] = true;
+                }
+            }
+        } else {
+            System.arraycopy(medias, 0, todasMedias, 0, centroides);
+            System.arraycopy(pesos, 0, todosPesos, 0, centroides);
+            System.arraycopy(unicos, 0, todosUnicos, 0, centroides);
+            System.arraycopy(mediasBufer, 0, todasMedias, centroides, enBufer);
+            System.arraycopy(pesosBufer, 0, todosPesos, centroides, enBufer);
+            System.arraycopy(unicosBufer, 0, todosUnicos, centroides, enBufer);
+            ordenar(todasMedias, todosPesos, todosUnicos, 0, total - 1);
+        }
+        enBufer = 0;
+        buferDeValores = true;
+
+        // Recorre de menor a mayor y fusiona mientras el centroide no supere k + 1
+        double normalizador = compresion / (2 * Math.PI);
+        int resultado = 0;
+        double pesoPrevio = 0;
+        double limite = pesoTotal * cuantilDeEscala(escala(0, normalizador) + 1, normalizador);
+        for (int i = 1; i < total; i++) {
+            // Un valor repetido no se reparte entre centroides aunque supere el tamaño: partirlo no
+            // mejora ningún cuantil. Un centroide de un solo valor a mitad de tamaño se cierra
+            // cuando el valor cambia; cada cierre deja un centroide al menos a la mitad, así que
+            // a lo sumo se duplica la cantidad de centroides.
+            boolean mismoValor = todosUnicos[resultado] && todosUnicos[i] && todasMedias[i] == todasMedias[resultado];
+            boolean cerrarValor = todosUnicos[resultado] && !mismoValor
+                    && todosPesos[resultado] * 2 >= limite - pesoPrevio;
+            if (mismoValor || (!cerrarValor && pesoPrevio + todosPesos[resultado] + todosPesos[i] <= limite)) {
+                todosPesos[resultado] += todosPesos[i];
+                todasMedias[resultado] += (todasMedias[i] - todasMedias[resultado]) * todosPesos[i] / todosPesos[resultado];
+                todosUnicos[resultado] = mismoValor;
+            } else {
+                pesoPrevio += todosPesos[resultado];
+                limite = pesoTotal * cuantilDeEscala(escala(pesoPrevio / pesoTotal, normalizador) + 1, normalizador);
+                resultado++;
+                todasMedias[resultado] = todasMedias[i];
+                todosPesos[resultado] = todosPesos[i];
+                todosUnicos[resultado] = todosUnicos[i];
+            }
+        }
+        centroides = resultado + 1;
+        medias = todasMedias;
+        pesos = todosPesos;
+        unicos = todosUnicos;
+    }
+
+    private static double escala(double q, double normalizador) {
+        return normalizador * Math.asin(2 * Math.min(1, Math.max(0, q)) - 1);
+    }
+
+    private static double cuantilDeEscala(double k, double normalizador) {
+        double angulo = k / normalizador;
+        return angulo >= Math.PI / 2 ? 1 : (Math.sin(angulo) + 1) / 2;
+    }
+
+    private static double interpolar(double x0, double y0, double x1, double y1, double x) {
+        if (x1 <= x0) {
+            return y1;
+        }
+        return y0 + (y1 - y0) * (x - x0) / (x1 - x0);
+    }
+
+    /**
+     * Ordena arreglos paralelos por el primero (quicksort; inserción en tramos cortos)
+     */
+    private static void ordenar(double[] claves, double[] valores, boolean[] marcas, int desde, int hasta) {
+        while (hasta - desde > 16) {
+            double pivote = claves[(desde + hasta) >>> 1];
+            int i = desde;
+            int j = hasta;
+            while (i <= j) {
+                while (claves[i] < pivote) {
+                    i++;
+                }
+                while (claves[j] > pivote) {
+                    j--;
+                }
+                if (i <= j) {
+                    intercambiar(claves, valores, marcas, i++, j--);
+                }
+            }
+            // Recursión en el tramo más corto para acotar la pila
+            if (j - desde < hasta - i) {
+                ordenar(claves, valores, marcas, desde, j);
+                desde = i;
+            } else {
+                ordenar(claves, valores, marcas, i, hasta);
+                hasta = j;
+            }
+        }
+        for (int i = desde + 1; i <= hasta; i++) {
+            for (int j = i; j > desde && claves[j - 1] > claves[j]; j--) {
+                intercambiar(claves, valores, marcas, j, j - 1);
+            }
+        }
+    }
+
+    private static void intercambiar(double[] claves, double[] valores, boolean[] marcas, int i, int j) {
+        double clave = claves[i];
+        claves[i] = claves[j];
+        claves[j] = clave;
+        double valor = valores[i];
+        valores[i] = valores[j];
+        valores[j] = valor;
+        boolean marca = marcas[i];
+        marcas[i] = marcas[j];
+        marcas[j] = marca;
+    }
+}
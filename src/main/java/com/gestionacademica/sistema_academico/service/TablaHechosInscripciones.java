@@ -0,0 +1,814 @@
+package com.gestionacademica.sistema_academico.service;
+
+import com.gestionacademica.sistema_academico.repository.proyeccion.CursoProfesorFila;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * Inscripciones en memoria por columnas, para agrupar y agregar sin consultar la base de datos.
+ *
+ * Las filas se guardan en segmentos de tamaño fijo con un arreglo primitivo por columna:
+ * curso, ciclo y cohorte como códigos de diccionario, la nota como float (NaN = sin nota) y
+ * el ID como diferencia con el primero del segmento.
+ * El profesor no se guarda por fila: se obtiene del curso, así que un cambio de profesor
+ * solo requiere actualizar los cursos. Las consultas recorren los segmentos en paralelo
+ * y combinan los agregados parciales.
+ *
+ * Los estudiantes no se guardan por fila: se cuentan en sketches HyperLogLog por ciclo y por
+ * ciclo y curso, que se combinan para contar estudiantes distintos de cualquier unión. Del
+ * mismo modo las notas se resumen en DistribucionNotas (t-digest e histograma) por ciclo, por
+ * curso y por ciclo y curso, y los percentiles se calculan sin recorrer las filas.
+ *
+ * Un solo hilo agrega filas a la vez (solo se agregan al final); las consultas no se
+ * bloquean y ven las filas publicadas hasta el momento en que empiezan. Una nota modificada
+ * se cambia en su fila (buscada por ID) y en los resúmenes de notas; una consulta en curso
+ * puede ver la nota anterior o la nueva.
+ */
+final class TablaHechosInscripciones {
+
+    static final int TAMAÑO_SEGMENTO = 1 << 16;
+
+    enum Dimension {
+        CICLO("ciclo"), CURSO("curso"), PROFESOR("profesor"), COHORTE("cohorte"), RANGO_NOTA("rangoNota");
+
+        final String nombre;
+
+        Dimension(String nombre) {
+            this.nombre = nombre;
+        }
+
+        static Dimension de(String nombre) {
+            for (Dimension dimension : values()) {
+                if (dimension.nombre.equalsIgnoreCase(nombre.trim())) {
+                    return dimension;
+                }
+            }
+            throw new IllegalArgumentException("Dimensión no soportada: " + nombre +
+                    " (valores: ciclo, curso, profesor, cohorte, rangoNota)");
+        }
+    }
+
+    /**
+     * Agrupación y filtros de una consulta; un filtro null no restringe
+     */
+    record Consulta(List<Dimension> agrupar, Set<String> ciclos, Set<String> cursos, Set<Long> profesores,
+                    Set<Integer> cohortes, Double notaMinima, Double notaMaxima, double anchoRango) {}
+
+    /**
+     * Valores de las dimensiones agrupadas (null = sin valor) y sus agregados
+     */
+    record Grupo(List<String> valores, long inscripciones, long conNota, Double notaPromedio,
+                 Double notaMinima, Double notaMaxima) {}
+
+    record Resultado(List<Grupo> grupos, long filasEscaneadas, int segmentos) {}
+
+    private static final class Segmento {
+        // ID de la primera fila; las demás guardan la diferencia (los IDs crecen dentro del segmento)
+        final long primerId;
+        final int[] desplazamientoId = new int[TAMAÑO_SEGMENTO];
+        final int[] curso = new int[TAMAÑO_SEGMENTO];
+        final short[] ciclo = new short[TAMAÑO_SEGMENTO];
+        final short[] cohorte = new short[TAMAÑO_SEGMENTO];
+        final float[] nota = new float[TAMAÑO_SEGMENTO];
+        // Se escribe después de las columnas: las filas por debajo ya están completas
+        volatile int filas;
+
+        Segmento(long primerId) {
+            this.primerId = primerId;
+        }
+    }
+
+    /**
+     * Datos de los cursos por código de curso; se reemplaza completa al actualizar cursos
+     */
+    private record DimensionCursos(String[] codigos, int[] profesores, Map<String, Integer> porCodigo,
+                                   String[] nombresProfesores) {}
+
+    // Los códigos de ciclo y cohorte se guardan en columnas short
+    private final Diccionario<String> ciclos = new Diccionario<>(Short.MAX_VALUE + 1);
+    private final Diccionario<Integer> cohortes = new Diccionario<>(Short.MAX_VALUE + 1);
+    private final Diccionario<Long> cursos = new Diccionario<>(Integer.MAX_VALUE);
+    private final Diccionario<Long> profesores = new Diccionario<>(Integer.MAX_VALUE);
+
+    private volatile Segmento[] segmentos = new Segmento[0];
+    private volatile DimensionCursos dimensionCursos =
+            new DimensionCursos(new String[0], new int[0], Map.of(), new String[0]);
+    private volatile float notaMaxima;
+    private volatile long ultimoId;
+    // Última modificación de notas ya reflejada (ID de analitica_notas_modificadas)
+    private volatile long ultimaModificacion;
+
+    // Estudiantes y notas por código de ciclo y por claveCicloCurso (juntos: una búsqueda por
+    // fila en cada mapa); notas también por código de curso
+    private final Map<Integer, Resumenes> resumenesPorCiclo = new ConcurrentHashMap<>();
+    private final Map<Long, Resumenes> resumenesPorCicloCurso = new ConcurrentHashMap<>();
+    private final Map<Integer, DistribucionNotas> notasPorCurso = new ConcurrentHashMap<>();
+
+    private record Resumenes(HyperLogLog estudiantes, DistribucionNotas notas) {
+        Resumenes() {
+            this(new HyperLogLog(), new DistribucionNotas());
+        }
+    }
+
+    // ============ CARGA ============
+
+    /**
+     * Agrega una inscripción al final; las inscripciones deben llegar en orden de ID
+     */
+    synchronized void agregar(long id, long estudianteId, long cursoId, String ciclo, Double nota,
+                              LocalDate fechaIngreso) {
+        Segmento[] actuales = segmentos;
+        Segmento ultimo = actuales.length == 0 ? null : actuales[actuales.length - 1];
+        if (ultimo == null || ultimo.filas == TAMAÑO_SEGMENTO || id - ultimo.primerId > Integer.MAX_VALUE) {
+            ultimo = new Segmento(id);
+            actuales = Arrays.copyOf(actuales, actuales.length + 1);
+            actuales[actuales.length - 1] = ultimo;
+            segmentos = actuales;
+        }
+
+        int fila = ultimo.filas;
+        int codigoCurso = cursos.codificar(cursoId);
+        int codigoCiclo = ciclos.codificar(ciclo == null ? "" : ciclo);
+        ultimo.desplazamientoId[fila] = (int) (id - ultimo.primerId);
+        ultimo.curso[fila] = codigoCurso;
+        ultimo.ciclo[fila] = (short) codigoCiclo;
+        ultimo.cohorte[fila] = (short) cohortes.codificar(fechaIngreso == null ? 0 : fechaIngreso.getYear());
+        float valorNota = nota == null ? Float.NaN : nota.floatValue();
+        ultimo.nota[fila] = valorNota;
+        if (valorNota > notaMaxima) {
+            notaMaxima = valorNota;
+        }
+        Resumenes delCiclo = resumenesPorCiclo.computeIfAbsent(codigoCiclo, codigo -> new Resumenes());
+        Resumenes delCicloCurso = resumenesPorCicloCurso.computeIfAbsent(
+                claveCicloCurso(codigoCiclo, codigoCurso), clave -> new Resumenes());
+        delCiclo.estudiantes().agregar(estudianteId);
+        delCicloCurso.estudiantes().agregar(estudianteId);
+        if (nota != null) {
+            delCiclo.notas().agregar(nota);
+            delCicloCurso.notas().agregar(nota);
+            notasPorCurso.computeIfAbsent(codigoCurso, codigo -> new DistribucionNotas()).agregar(nota);
+        }
+        ultimoId = id;
+        ultimo.filas = fila + 1;
+    }
+
+    /**
+     * Cambia la nota de una inscripción ya cargada en su fila y en los resúmenes de notas.
+     * Retorna false si la inscripción cambió de curso o de ciclo: los sketches de estudiantes
+     * no permiten moverla y la tabla se debe reconstruir. Una inscripción que no está cargada
+     * se ignora (llegará con su nota actual al cargar las nuevas).
+     */
+    synchronized boolean actualizarNota(long id, long cursoId, String ciclo, Double nota) {
+        Segmento[] actuales = segmentos;
+        int posicion = segmentoDe(actuales, id);
+        if (posicion < 0) {
+            return true;
+        }
+        Segmento segmento = actuales[posicion];
+        long desplazamiento = id - segmento.primerId;
+        int fila = desplazamiento > Integer.MAX_VALUE ? -1
+                : Arrays.binarySearch(segmento.desplazamientoId, 0, segmento.filas, (int) desplazamiento);
+        if (fila < 0) {
+            return true;
+        }
+
+        int codigoCurso = segmento.curso[fila];
+        int codigoCiclo = segmento.ciclo[fila];
+        if (codigoCurso != cursos.codigo(cursoId) || codigoCiclo != ciclos.codigo(ciclo == null ? "" : ciclo)) {
+            return false;
+        }
+        float anterior = segmento.nota[fila];
+        float valorNota = nota == null ? Float.NaN : nota.floatValue();
+        if (Float.compare(anterior, valorNota) == 0) {
+            return true;
+        }
+
+        if (valorNota > notaMaxima) {
+            notaMaxima = valorNota;
+        }
+        segmento.nota[fila] = valorNota;
+        List<DistribucionNotas> distribuciones = List.of(
+                resumenesPorCiclo.get(codigoCiclo).notas(),
+                resumenesPorCicloCurso.get(claveCicloCurso(codigoCiclo, codigoCurso)).notas(),
+                notasPorCurso.computeIfAbsent(codigoCurso, codigo -> new DistribucionNotas()));
+        for (DistribucionNotas distribucion : distribuciones) {
+            // La fila guarda la nota como float: el centroide más cercano absorbe la diferencia
+            if (!Float.isNaN(anterior)) {
+                distribucion.quitar(anterior);
+            }
+            if (nota != null) {
+                distribucion.agregar(nota);
+            }
+        }
+        return true;
+    }
+
+    // Posición del último segmento que empieza en o antes del ID; -1 si no hay
+    private static int segmentoDe(Segmento[] actuales, long id) {
+        int desde = 0;
+        int hasta = actuales.length - 1;
+        int encontrado = -1;
+        while (desde <= hasta) {
+            int medio = (desde + hasta) >>> 1;
+            if (actuales[medio].primerId <= id) {
+                encontrado = medio;
+                desde = medio + 1;
+            } else {
+                hasta = medio - 1;
+            }
+        }
+        return encontrado;
+    }
+
+    /**
+     * Reemplaza los códigos y profesores de los cursos
+     */
+    synchronized void actualizarCursos(List<CursoProfesorFila> filas) {
+        Map<Integer, CursoProfesorFila> porCodigoCurso = new HashMap<>();
+        Map<Integer, String> nombres = new HashMap<>();
+        for (CursoProfesorFila fila : filas) {
+            porCodigoCurso.put(cursos.codificar(fila.id()), fila);
+            if (fila.profesorId() != null) {
+                nombres.put(profesores.codificar(fila.profesorId()),
+                        (fila.profesorNombre() + " " + fila.profesorApellido()).trim());
+            }
+        }
+
+        DimensionCursos anterior = dimensionCursos;
+        String[] codigos = new String[cursos.tamaño()];
+        int[] profesorDeCurso = new int[cursos.tamaño()];
+        Map<String, Integer> porCodigo = new HashMap<>();
+        for (int codigo = 0; codigo < codigos.length; codigo++) {
+            CursoProfesorFila fila = porCodigoCurso.get(codigo);
+            if (fila != null) {
+                codigos[codigo] = fila.codigo();
+                profesorDeCurso[codigo] = fila.profesorId() == null ? 0 : profesores.codigo(fila.profesorId()) + 1;
+                porCodigo.put(fila.codigo(), codigo);
+            } else if (codigo < anterior.codigos().length) {
+                // Curso que ya no existe: conserva lo último conocido para sus filas históricas
+                codigos[codigo] = anterior.codigos()[codigo];
+                profesorDeCurso[codigo] = anterior.profesores()[codigo];
+            }
+        }
+
+        String[] nombresProfesores = Arrays.copyOf(anterior.nombresProfesores(), profesores.tamaño());
+        nombres.forEach((codigo, nombre) -> nombresProfesores[codigo] = nombre);
+        dimensionCursos = new DimensionCursos(codigos, profesorDeCurso, porCodigo, nombresProfesores);
+    }
+
+    /**
+     * Libera el espacio sobrante de los resúmenes de notas; se llama al terminar una carga
+     */
+    void compactar() {
+        resumenesPorCiclo.values().forEach(resumenes -> resumenes.notas().compactar());
+        resumenesPorCicloCurso.values().forEach(resumenes -> resumenes.notas().compactar());
+        notasPorCurso.values().forEach(DistribucionNotas::compactar);
+    }
+
+    long filas() {
+        long total = 0;
+        for (Segmento segmento : segmentos) {
+            total += segmento.filas;
+        }
+        return total;
+    }
+
+    long ultimoId() {
+        return ultimoId;
+    }
+
+    long ultimaModificacion() {
+        return ultimaModificacion;
+    }
+
+    void marcarModificacion(long modificacion) {
+        ultimaModificacion = modificacion;
+    }
+
+    int segmentos() {
+        return segmentos.length;
+    }
+
+    // ============ ESTUDIANTES DISTINTOS ============
+
+    /**
+     * Ciclos cargados (null = inscripciones sin ciclo)
+     */
+    List<String> ciclos() {
+        List<String> valores = new ArrayList<>();
+        for (int codigo = 0; codigo < ciclos.tamaño(); codigo++) {
+            valores.add(valorCiclo(codigo));
+        }
+        return valores;
+    }
+
+    /**
+     * Sketch de los estudiantes de un ciclo (null = sin ciclo); vacío si el ciclo no está cargado
+     */
+    HyperLogLog estudiantesDelCiclo(String ciclo) {
+        HyperLogLog sketch = estudiantes(resumenesPorCiclo.get(ciclos.codigo(ciclo == null ? "" : ciclo)));
+        return sketch == null ? new HyperLogLog() : sketch.copia();
+    }
+
+    /**
+     * Sketch de los estudiantes inscritos en alguno de los ciclos (null = todos) y, si se
+     * indican cursos (por código), en alguno de esos cursos
+     */
+    HyperLogLog estudiantesDistintos(Set<String> ciclosBuscados, Set<String> cursosBuscados) {
+        List<Integer> codigosCiclo = codigosCiclo(ciclosBuscados);
+
+        HyperLogLog union = new HyperLogLog();
+        if (cursosBuscados == null) {
+            for (int codigoCiclo : codigosCiclo) {
+                HyperLogLog sketch = estudiantes(resumenesPorCiclo.get(codigoCiclo));
+                if (sketch != null) {
+                    union.combinar(sketch);
+                }
+            }
+            return union;
+        }
+
+        for (int codigoCurso : codigosCurso(cursosBuscados, dimensionCursos)) {
+            for (int codigoCiclo : codigosCiclo) {
+                HyperLogLog sketch = estudiantes(resumenesPorCicloCurso.get(claveCicloCurso(codigoCiclo, codigoCurso)));
+                if (sketch != null) {
+                    union.combinar(sketch);
+                }
+            }
+        }
+        return union;
+    }
+
+    // ============ DISTRIBUCIÓN DE NOTAS ============
+
+    /**
+     * Distribución de las notas de los ciclos y cursos (por código) indicados; null = todos
+     */
+    DistribucionNotas distribucionNotas(Set<String> ciclosBuscados, Set<String> cursosBuscados) {
+        DistribucionNotas total = new DistribucionNotas();
+        if (cursosBuscados == null) {
+            for (int codigoCiclo : codigosCiclo(ciclosBuscados)) {
+                combinar(total, notas(resumenesPorCiclo.get(codigoCiclo)));
+            }
+        } else if (ciclosBuscados == null) {
+            for (int codigoCurso : codigosCurso(cursosBuscados, dimensionCursos)) {
+                combinar(total, notasPorCurso.get(codigoCurso));
+            }
+        } else {
+            List<Integer> codigosCiclo = codigosCiclo(ciclosBuscados);
+            for (int codigoCurso : codigosCurso(cursosBuscados, dimensionCursos)) {
+                for (int codigoCiclo : codigosCiclo) {
+                    combinar(total, notas(resumenesPorCicloCurso.get(claveCicloCurso(codigoCiclo, codigoCurso))));
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Distribución de notas por ciclo o por curso (código), con los mismos filtros; solo
+     * incluye los grupos que tienen notas
+     */
+    Map<String, DistribucionNotas> distribucionNotasPor(Dimension por, Set<String> ciclosBuscados,
+                                                       Set<String> cursosBuscados) {
+        if (por != Dimension.CICLO && por != Dimension.CURSO) {
+            throw new IllegalArgumentException("La distribución de notas se agrupa por ciclo o por curso");
+        }
+        DimensionCursos dimension = dimensionCursos;
+        List<Integer> codigosCiclo = codigosCiclo(ciclosBuscados);
+        List<Integer> codigosCurso = codigosCurso(cursosBuscados, dimension);
+        boolean porCiclo = por == Dimension.CICLO;
+
+        Map<String, DistribucionNotas> grupos = new HashMap<>();
+        for (int codigo : porCiclo ? codigosCiclo : codigosCurso) {
+            DistribucionNotas distribucion;
+            if (porCiclo && cursosBuscados == null) {
+                distribucion = copiar(notas(resumenesPorCiclo.get(codigo)));
+            } else if (!porCiclo && ciclosBuscados == null) {
+                distribucion = copiar(notasPorCurso.get(codigo));
+            } else {
+                distribucion = new DistribucionNotas();
+                for (int otro : porCiclo ? codigosCurso : codigosCiclo) {
+                    long clave = porCiclo ? claveCicloCurso(codigo, otro) : claveCicloCurso(otro, codigo);
+                    combinar(distribucion, notas(resumenesPorCicloCurso.get(clave)));
+                }
+            }
+            if (distribucion != null && distribucion.cantidad() > 0) {
+                grupos.put(porCiclo ? valorCiclo(codigo) : valorCurso(dimension, codigo), distribucion);
+            }
+        }
+        return grupos;
+    }
+
+    private static HyperLogLog estudiantes(Resumenes resumenes) {
+        return resumenes == null ? null : resumenes.estudiantes();
+    }
+
+    private static DistribucionNotas notas(Resumenes resumenes) {
+        return resumenes == null ? null : resumenes.notas();
+    }
+
+    private static void combinar(DistribucionNotas destino, DistribucionNotas origen) {
+        if (origen != null) {
+            destino.combinar(origen);
+        }
+    }
+
+    private static DistribucionNotas copiar(DistribucionNotas distribucion) {
+        return distribucion == null ? null : distribucion.copia();
+    }
+
+    // ============ CÓDIGOS DE DICCIONARIO ============
+
+    private List<Integer> codigosCiclo(Set<String> ciclosBuscados) {
+        List<Integer> codigos = new ArrayList<>();
+        if (ciclosBuscados == null) {
+            for (int codigo = 0; codigo < ciclos.tamaño(); codigo++) {
+                codigos.add(codigo);
+            }
+        } else {
+            for (String ciclo : ciclosBuscados) {
+                int codigo = ciclos.codigo(ciclo);
+                if (codigo >= 0) {
+                    codigos.add(codigo);
+                }
+            }
+        }
+        return codigos;
+    }
+
+    private List<Integer> codigosCurso(Set<String> cursosBuscados, DimensionCursos dimension) {
+        List<Integer> codigos = new ArrayList<>();
+        if (cursosBuscados == null) {
+            for (int codigo = 0; codigo < cursos.tamaño(); codigo++) {
+                codigos.add(codigo);
+            }
+        } else {
+            for (String curso : cursosBuscados) {
+                Integer codigo = dimension.porCodigo().get(curso);
+                if (codigo != null) {
+                    codigos.add(codigo);
+                }
+            }
+        }
+        return codigos;
+    }
+
+    private String valorCiclo(int codigo) {
+        return ciclos.valor(codigo).isEmpty() ? null : ciclos.valor(codigo);
+    }
+
+    /**
+     * Código del curso; su ID si el curso no está en la dimensión
+     */
+    private String valorCurso(DimensionCursos dimension, int codigo) {
+        return codigo < dimension.codigos().length && dimension.codigos()[codigo] != null
+                ? dimension.codigos()[codigo]
+                : String.valueOf(cursos.valor(codigo));
+    }
+
+    /**
+     * Curso en los bits altos y ciclo (15 bits) en los bajos: con menos de 2^17 cursos la clave
+     * cabe en 32 bits y su hashCode no se repite.
+     */
+    private static long claveCicloCurso(int codigoCiclo, int codigoCurso) {
+        return (long) codigoCurso << 15 | codigoCiclo;
+    }
+
+    // ============ CONSULTAS ============
+
+    Resultado consultar(Consulta consulta) {
+        // Primero la cantidad de filas: los diccionarios y la nota máxima leídos después las cubren
+        Segmento[] actuales = segmentos;
+        int[] limites = new int[actuales.length];
+        long escaneadas = 0;
+        for (int i = 0; i < actuales.length; i++) {
+            limites[i] = actuales[i].filas;
+            escaneadas += limites[i];
+        }
+
+        // Cada tarea recorre un tramo contiguo de segmentos con su propia tabla de grupos
+        Plan plan = new Plan(consulta);
+        int tareas = Math.max(1, Math.min(actuales.length, Runtime.getRuntime().availableProcessors()));
+        TablaGrupos total = IntStream.range(0, tareas).parallel()
+                .mapToObj(tarea -> {
+                    TablaGrupos grupos = plan.tablaGrupos();
+                    int hasta = (int) ((long) actuales.length * (tarea + 1) / tareas);
+                    for (int i = (int) ((long) actuales.length * tarea / tareas); i < hasta; i++) {
+                        plan.agregar(actuales[i], limites[i], grupos);
+                    }
+                    return grupos;
+                })
+                .reduce(TablaGrupos::combinar)
+                .orElseGet(plan::tablaGrupos);
+
+        List<Grupo> grupos = new ArrayList<>(total.usados);
+        for (int i = 0; i < total.claves.length; i++) {
+            if (total.claves[i] != TablaGrupos.VACIA) {
+                grupos.add(plan.grupo(total, i));
+            }
+        }
+        return new Resultado(grupos, escaneadas, actuales.length);
+    }
+
+    /**
+     * Consulta traducida a códigos: filtros como arreglos de códigos permitidos y
+     * agrupación como clave numérica de base mixta (un dígito por dimensión)
+     */
+    private final class Plan {
+
+        private final Dimension[] agrupar;
+        private final long[] cardinalidades;
+        private final long combinaciones;
+        private final DimensionCursos dimension = dimensionCursos;
+        private final int[] profesorDeCurso;
+        private final boolean[] cursosPermitidos;
+        private final boolean[] ciclosPermitidos;
+        private final boolean[] cohortesPermitidas;
+        private final boolean filtraNota;
+        private final float notaMinima;
+        private final float notaMaxima;
+        private final double anchoRango;
+        private final int ultimoRango;
+        // Etiqueta ya calculada de cada código, por dimensión agrupada
+        private final List<Map<Integer, String>> etiquetas;
+
+        Plan(Consulta consulta) {
+            int cantidadCursos = cursos.tamaño();
+            profesorDeCurso = Arrays.copyOf(dimension.profesores(), cantidadCursos);
+            anchoRango = consulta.anchoRango();
+            ultimoRango = (int) (TablaHechosInscripciones.this.notaMaxima / anchoRango);
+
+            agrupar = consulta.agrupar().toArray(Dimension[]::new);
+            etiquetas = new ArrayList<>(agrupar.length);
+            for (int i = 0; i < agrupar.length; i++) {
+                etiquetas.add(new HashMap<>());
+            }
+            cardinalidades = new long[agrupar.length];
+            long producto = 1;
+            for (int i = 0; i < agrupar.length; i++) {
+                cardinalidades[i] = switch (agrupar[i]) {
+                    case CICLO -> ciclos.tamaño();
+                    case CURSO -> cantidadCursos;
+                    case PROFESOR -> profesores.tamaño() + 1;
+                    case COHORTE -> cohortes.tamaño();
+                    case RANGO_NOTA -> 2L + ultimoRango;
+                };
+                producto = Math.multiplyExact(producto, Math.max(1, cardinalidades[i]));
+            }
+            combinaciones = producto;
+
+            cursosPermitidos = cursosPermitidos(consulta, cantidadCursos);
+            ciclosPermitidos = permitidos(consulta.ciclos(), ciclos, ciclos.tamaño());
+            cohortesPermitidas = permitidos(consulta.cohortes(), cohortes, cohortes.tamaño());
+            filtraNota = consulta.notaMinima() != null || consulta.notaMaxima() != null;
+            notaMinima = consulta.notaMinima() == null ? Float.NEGATIVE_INFINITY : consulta.notaMinima().floatValue();
+            notaMaxima = consulta.notaMaxima() == null ? Float.POSITIVE_INFINITY : consulta.notaMaxima().floatValue();
+        }
+
+        private boolean[] cursosPermitidos(Consulta consulta, int cantidadCursos) {
+            if (consulta.cursos() == null && consulta.profesores() == null) {
+                return null;
+            }
+            boolean[] permitidos = new boolean[cantidadCursos];
+            if (consulta.cursos() != null) {
+                for (String codigo : consulta.cursos()) {
+                    Integer curso = dimension.porCodigo().get(codigo);
+                    if (curso != null && curso < cantidadCursos) {
+                        permitidos[curso] = true;
+                    }
+                }
+            } else {
+                Arrays.fill(permitidos, true);
+            }
+            // El filtro por profesor se aplica sobre el curso: cursos de otros profesores quedan fuera
+            if (consulta.profesores() != null) {
+                boolean[] profesoresPermitidos = permitidos(consulta.profesores(), profesores, profesores.tamaño());
+                for (int curso = 0; curso < cantidadCursos; curso++) {
+                    int profesor = profesorDeCurso[curso];
+                    permitidos[curso] &= profesor > 0 && profesoresPermitidos[profesor - 1];
+                }
+            }
+            return permitidos;
+        }
+
+        private static <T> boolean[] permitidos(Set<T> valores, Diccionario<T> diccionario, int tamaño) {
+            if (valores == null) {
+                return null;
+            }
+            boolean[] permitidos = new boolean[tamaño];
+            for (T valor : valores) {
+                int codigo = diccionario.codigo(valor);
+                if (codigo >= 0 && codigo < tamaño) {
+                    permitidos[codigo] = true;
+                }
+            }
+            return permitidos;
+        }
+
+        TablaGrupos tablaGrupos() {
+            return new TablaGrupos(combinaciones);
+        }
+
+        void agregar(Segmento segmento, int filas, TablaGrupos grupos) {
+            int[] curso = segmento.curso;
+            short[] ciclo = segmento.ciclo;
+            short[] cohorte = segmento.cohorte;
+            float[] nota = segmento.nota;
+
+            for (int fila = 0; fila < filas; fila++) {
+                if (cursosPermitidos != null && !cursosPermitidos[curso[fila]]) {
+                    continue;
+                }
+                if (ciclosPermitidos != null && !ciclosPermitidos[ciclo[fila]]) {
+                    continue;
+                }
+                if (cohortesPermitidas != null && !cohortesPermitidas[cohorte[fila]]) {
+                    continue;
+                }
+                float valorNota = nota[fila];
+                if (filtraNota && !(valorNota >= notaMinima && valorNota <= notaMaxima)) {
+                    continue;
+                }
+
+                long clave = 0;
+                for (int i = 0; i < agrupar.length; i++) {
+                    int codigo = switch (agrupar[i]) {
+                        case CICLO -> ciclo[fila];
+                        case CURSO -> curso[fila];
+                        case PROFESOR -> profesorDeCurso[curso[fila]];
+                        case COHORTE -> cohorte[fila];
+                        case RANGO_NOTA -> rangoNota(valorNota);
+                    };
+                    clave = clave * cardinalidades[i] + codigo;
+                }
+                grupos.acumular(clave, valorNota);
+            }
+        }
+
+        // 0 = sin nota; 1 = [0, ancho), 2 = [ancho, 2 * ancho)...
+        private int rangoNota(float nota) {
+            if (Float.isNaN(nota)) {
+                return 0;
+            }
+            return 1 + Math.min(ultimoRango, Math.max(0, (int) (nota / anchoRango)));
+        }
+
+        Grupo grupo(TablaGrupos tabla, int posicion) {
+            String[] valores = new String[agrupar.length];
+            long clave = tabla.claves[posicion];
+            for (int i = agrupar.length - 1; i >= 0; i--) {
+                int codigo = (int) (clave % cardinalidades[i]);
+                clave /= cardinalidades[i];
+                Dimension dimensionAgrupada = agrupar[i];
+                valores[i] = etiquetas.get(i).computeIfAbsent(codigo, c -> etiqueta(dimensionAgrupada, c));
+            }
+
+            long conNota = tabla.conNota[posicion];
+            return new Grupo(Arrays.asList(valores), tabla.inscripciones[posicion], conNota,
+                    conNota == 0 ? null : tabla.suma[posicion] / conNota,
+                    conNota == 0 ? null : (double) tabla.minima[posicion],
+                    conNota == 0 ? null : (double) tabla.maxima[posicion]);
+        }
+
+        private String etiqueta(Dimension dimensionAgrupada, int codigo) {
+            return switch (dimensionAgrupada) {
+                case CICLO -> valorCiclo(codigo);
+                case CURSO -> valorCurso(dimension, codigo);
+                case PROFESOR -> codigo == 0 ? null
+                        : codigo - 1 < dimension.nombresProfesores().length && dimension.nombresProfesores()[codigo - 1] != null
+                        ? dimension.nombresProfesores()[codigo - 1]
+                        : String.valueOf(profesores.valor(codigo - 1));
+                case COHORTE -> cohortes.valor(codigo) == 0 ? null : String.valueOf(cohortes.valor(codigo));
+                case RANGO_NOTA -> codigo == 0 ? null
+                        : numero((codigo - 1) * anchoRango) + "-" + numero(codigo * anchoRango);
+            };
+        }
+
+        private static String numero(double valor) {
+            return BigDecimal.valueOf(valor).stripTrailingZeros().toPlainString();
+        }
+    }
+
+    /**
+     * Agregados por clave de grupo sobre arreglos primitivos. Si hay pocas combinaciones
+     * posibles la clave es directamente la posición; si no, direccionamiento abierto.
+     */
+    private static final class TablaGrupos {
+
+        static final long VACIA = -1;
+        static final long MAXIMO_DIRECTO = 1 << 18;
+
+        final boolean directa;
+
+        long[] claves;
+        long[] inscripciones;
+        long[] conNota;
+        double[] suma;
+        float[] minima;
+        float[] maxima;
+        int usados;
+
+        TablaGrupos(long combinaciones) {
+            directa = combinaciones <= MAXIMO_DIRECTO;
+            crear(directa ? (int) combinaciones : 64);
+        }
+
+        private void crear(int capacidad) {
+            claves = new long[capacidad];
+            Arrays.fill(claves, VACIA);
+            inscripciones = new long[capacidad];
+            conNota = new long[capacidad];
+            suma = new double[capacidad];
+            minima = new float[capacidad];
+            maxima = new float[capacidad];
+            usados = 0;
+        }
+
+        void acumular(long clave, float nota) {
+            int i = posicion(clave);
+            inscripciones[i]++;
+            if (!Float.isNaN(nota)) {
+                conNota[i]++;
+                suma[i] += nota;
+                minima[i] = Math.min(minima[i], nota);
+                maxima[i] = Math.max(maxima[i], nota);
+            }
+        }
+
+        TablaGrupos combinar(TablaGrupos otra) {
+            for (int j = 0; j < otra.claves.length; j++) {
+                if (otra.claves[j] == VACIA) {
+                    continue;
+                }
+                int i = posicion(otra.claves[j]);
+                inscripciones[i] += otra.inscripciones[j];
+                conNota[i] += otra.conNota[j];
+                suma[i] += otra.suma[j];
+                minima[i] = Math.min(minima[i], otra.minima[j]);
+                maxima[i] = Math.max(maxima[i], otra.maxima[j]);
+            }
+            return this;
+        }
+
+        private int posicion(long clave) {
+            if (directa) {
+                int i = (int) clave;
+                if (claves[i] == VACIA) {
+                    claves[i] = clave;
+                    minima[i] = Float.POSITIVE_INFINITY;
+                    maxima[i] = Float.NEGATIVE_INFINITY;
+                    usados++;
+                }
+                return i;
+            }
+            int mascara = claves.length - 1;
+            int i = (int) ((clave * 0x9E3779B97F4A7C15L) >>> 32) & mascara;
+            while (claves[i] != VACIA && claves[i] != clave) {
+                i = (i + 1) & mascara;
+            }
+            if (claves[i] == VACIA) {
+                if ((usados + 1) * 2 > claves.length) {
+                    crecer();
+                    return posicion(clave);
+                }
+                claves[i] = clave;
+                minima[i] = Float.POSITIVE_INFINITY;
+                maxima[i] = Float.NEGATIVE_INFINITY;
+                usados++;
+            }
+            return i;
+        }
+
+        private void crecer() {
+            long[] clavesAnteriores = claves;
+            long[] inscripcionesAnteriores = inscripciones;
+            long[] conNotaAnteriores = conNota;
+            double[] sumaAnteriores = suma;
+            float[] minimaAnteriores = minima;
+            float[] maximaAnteriores = maxima;
+
+            crear(clavesAnteriores.length * 2);
+            for (int j = 0; j < clavesAnteriores.length; j++) {
+                if (clavesAnteriores[j] == VACIA) {
+                    continue;
+                }
+                int i = posicion(clavesAnteriores[j]);
+                inscripciones[i] = inscripcionesAnteriores[j];
+                conNota[i] = conNotaAnteriores[j];
+                suma[i] = sumaAnteriores[j];
+                minima[i] = minimaAnteriores[j];
+                maxima[i] = maximaAnteriores[j];
+            }
+        }
+    }
+}
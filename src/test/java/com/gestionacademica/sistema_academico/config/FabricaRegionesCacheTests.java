@@ -0,0 +1,53 @@
+package com.gestionacademica.sistema_academico.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FabricaRegionesCacheTests {
+
+	@Test
+	void desalojaLaEntradaUsadaHaceMasTiempo() {
+		FabricaRegionesCache.AlmacenRegion almacen = new FabricaRegionesCache.AlmacenRegion(2, Duration.ofMinutes(1));
+
+		almacen.putIntoCache("a", 1, null);
+		almacen.putIntoCache("b", 2, null);
+		almacen.getFromCache("a", null);
+		almacen.putIntoCache("c", 3, null);
+
+		assertEquals(2, almacen.tamaño());
+		assertEquals(1, almacen.getFromCache("a", null));
+		assertNull(almacen.getFromCache("b", null));
+		assertTrue(almacen.contains("c"));
+	}
+
+	@Test
+	void lasEntradasVencidasNoSeDevuelven() throws InterruptedException {
+		FabricaRegionesCache.AlmacenRegion almacen = new FabricaRegionesCache.AlmacenRegion(10, Duration.ofMillis(1));
+
+		almacen.putIntoCache("a", 1, null);
+		Thread.sleep(5);
+
+		assertNull(almacen.getFromCache("a", null));
+		assertFalse(almacen.contains("a"));
+		assertEquals(0, almacen.tamaño());
+	}
+
+	@Test
+	void sinTtlLasEntradasNoVencen() throws InterruptedException {
+		FabricaRegionesCache.AlmacenRegion almacen = new FabricaRegionesCache.AlmacenRegion(10, Duration.ZERO);
+
+		almacen.putIntoCache("a", 1, null);
+		Thread.sleep(5);
+		almacen.evictData("b");
+
+		assertEquals(1, almacen.getFromCache("a", null));
+		almacen.evictData();
+		assertEquals(0, almacen.tamaño());
+	}
+}
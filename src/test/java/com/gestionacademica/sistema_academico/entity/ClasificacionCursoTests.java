@@ -0,0 +1,60 @@
+package com.gestionacademica.sistema_academico.entity;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ClasificacionCursoTests {
+
+	@Test
+	void nivelSegunElNumeroDelCodigo() {
+		assertEquals(ClasificacionCurso.NIVEL_BASICO, ClasificacionCurso.determinarNivelDificultad("MAT101"));
+		assertEquals(ClasificacionCurso.NIVEL_BASICO, ClasificacionCurso.determinarNivelDificultad("MAT199"));
+		assertEquals(ClasificacionCurso.NIVEL_INTERMEDIO, ClasificacionCurso.determinarNivelDificultad("FIS200"));
+		assertEquals(ClasificacionCurso.NIVEL_INTERMEDIO, ClasificacionCurso.determinarNivelDificultad("FIS299"));
+		assertEquals(ClasificacionCurso.NIVEL_AVANZADO, ClasificacionCurso.determinarNivelDificultad("QUI300"));
+		assertEquals(ClasificacionCurso.NIVEL_AVANZADO, ClasificacionCurso.determinarNivelDificultad("QUI450"));
+	}
+
+	@Test
+	void codigosSinNumeroValidoSonBasicos() {
+		assertEquals(ClasificacionCurso.NIVEL_BASICO, ClasificacionCurso.determinarNivelDificultad(null));
+		assertEquals(ClasificacionCurso.NIVEL_BASICO, ClasificacionCurso.determinarNivelDificultad("MAT"));
+		assertEquals(ClasificacionCurso.NIVEL_BASICO, ClasificacionCurso.determinarNivelDificultad("MAT050"));
+		assertEquals(ClasificacionCurso.NIVEL_BASICO, ClasificacionCurso.determinarNivelDificultad("MATA01"));
+	}
+
+	@Test
+	void cargaSegunCreditosYHoras() {
+		// Puntaje = créditos * 2 + horas semanales; hasta 8 baja, hasta 16 media
+		assertEquals(ClasificacionCurso.CARGA_BAJA, ClasificacionCurso.determinarCargaAcademica(3, 2));
+		assertEquals(ClasificacionCurso.CARGA_MEDIA, ClasificacionCurso.determinarCargaAcademica(3, 3));
+		assertEquals(ClasificacionCurso.CARGA_MEDIA, ClasificacionCurso.determinarCargaAcademica(4, 8));
+		assertEquals(ClasificacionCurso.CARGA_ALTA, ClasificacionCurso.determinarCargaAcademica(4, 9));
+		assertEquals(ClasificacionCurso.CARGA_BAJA, ClasificacionCurso.determinarCargaAcademica(null, null));
+		assertEquals(ClasificacionCurso.CARGA_ALTA, ClasificacionCurso.determinarCargaAcademica(9, null));
+	}
+
+	@Test
+	void normalizaSinDistinguirMayusculas() {
+		assertEquals(ClasificacionCurso.NIVEL_INTERMEDIO, ClasificacionCurso.normalizarNivel(" intermedio "));
+		assertEquals(ClasificacionCurso.CARGA_ALTA, ClasificacionCurso.normalizarCarga("ALTA"));
+		assertNull(ClasificacionCurso.normalizarNivel("Experto"));
+		assertNull(ClasificacionCurso.normalizarCarga(null));
+	}
+
+	@Test
+	void elCursoMantieneSusColumnasDerivadas() {
+		Curso curso = new Curso("MAT210", "Cálculo II", null, 4, 6);
+		curso.actualizarClasificacion();
+		assertEquals(ClasificacionCurso.NIVEL_INTERMEDIO, curso.getNivelDificultad());
+		assertEquals(ClasificacionCurso.CARGA_MEDIA, curso.getCargaAcademica());
+
+		curso.setCodigo("MAT310");
+		curso.setHorasSemanales(10);
+		curso.actualizarClasificacion();
+		assertEquals(ClasificacionCurso.NIVEL_AVANZADO, curso.getNivelDificultad());
+		assertEquals(ClasificacionCurso.CARGA_ALTA, curso.getCargaAcademica());
+	}
+}
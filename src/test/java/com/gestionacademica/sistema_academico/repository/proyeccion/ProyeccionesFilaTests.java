@@ -0,0 +1,49 @@
+package com.gestionacademica.sistema_academico.repository.proyeccion;
+
+import com.gestionacademica.sistema_academico.entity.Curso;
+import com.gestionacademica.sistema_academico.entity.Estudiante;
+import com.gestionacademica.sistema_academico.entity.Profesor;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Las expresiones constructoras (JPQL y Criteria) deben seguir el orden del constructor del
+ * record y nombrar atributos de la entidad con el mismo tipo; si no, la consulta falla al ejecutarse.
+ */
+class ProyeccionesFilaTests {
+
+	@Test
+	void estudianteFilaCoincideConLaEntidad() throws Exception {
+		verificar(EstudianteFila.class, Estudiante.class, "e", EstudianteFila.SELECT, EstudianteFila.ATRIBUTOS);
+	}
+
+	@Test
+	void cursoFilaCoincideConLaEntidad() throws Exception {
+		verificar(CursoFila.class, Curso.class, "c", CursoFila.SELECT, CursoFila.ATRIBUTOS);
+	}
+
+	@Test
+	void profesorFilaCoincideConLaEntidad() throws Exception {
+		verificar(ProfesorFila.class, Profesor.class, "p", ProfesorFila.SELECT, ProfesorFila.ATRIBUTOS);
+	}
+
+	private static void verificar(Class<? extends Record> proyeccion, Class<?> entidad, String alias,
+								  String select, List<String> atributos) throws Exception {
+		RecordComponent[] componentes = proyeccion.getRecordComponents();
+		assertEquals(Arrays.stream(componentes).map(RecordComponent::getName).toList(), atributos);
+
+		String columnas = atributos.stream().map(atributo -> alias + "." + atributo).collect(Collectors.joining(", "));
+		assertEquals("SELECT new " + proyeccion.getName() + "(" + columnas + ") ", select);
+
+		for (RecordComponent componente : componentes) {
+			assertEquals(componente.getType(), entidad.getDeclaredField(componente.getName()).getType(),
+					entidad.getSimpleName() + "." + componente.getName());
+		}
+	}
+}
@@ -0,0 +1,172 @@
+package com.gestionacademica.sistema_academico.service;
+
+import com.gestionacademica.sistema_academico.dto.reporte.DistribucionNotasDTO;
+import com.gestionacademica.sistema_academico.repository.CursoRepository;
+import com.gestionacademica.sistema_academico.repository.InscripcionRepository;
+import com.gestionacademica.sistema_academico.repository.proyeccion.CursoProfesorFila;
+import com.gestionacademica.sistema_academico.repository.proyeccion.InscripcionHecho;
+import com.gestionacademica.sistema_academico.repository.proyeccion.NotaModificada;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Refresco de la analítica en memoria con los repositorios simulados: las notas modificadas
+ * llegan sin reconstruir, y una reconstrucción en curso no detiene las consultas.
+ */
+class AnaliticaInscripcionesServiceTests {
+
+	private final InscripcionRepository inscripcionRepository = mock(InscripcionRepository.class);
+	private final CursoRepository cursoRepository = mock(CursoRepository.class);
+	private final AnaliticaInscripcionesService analitica = new AnaliticaInscripcionesService();
+
+	// Tablas de inscripciones y de notas modificadas
+	private final List<InscripcionHecho> inscripciones = new CopyOnWriteArrayList<>();
+	private final List<NotaModificada> modificadas = new CopyOnWriteArrayList<>();
+
+	private final PlatformTransactionManager transacciones = new PlatformTransactionManager() {
+		@Override
+		public TransactionStatus getTransaction(TransactionDefinition definicion) {
+			return new SimpleTransactionStatus();
+		}
+
+		@Override
+		public void commit(TransactionStatus estado) {
+		}
+
+		@Override
+		public void rollback(TransactionStatus estado) {
+		}
+	};
+
+	@BeforeEach
+	void preparar() {
+		for (long id = 1; id <= 4; id++) {
+			inscripciones.add(new InscripcionHecho(id, 100 + id, 10L, "2024-1", 10.0 + id, LocalDate.of(2023, 3, 1)));
+		}
+		when(inscripcionRepository.findHechosDesde(anyLong(), any(Limit.class))).thenAnswer(invocacion -> {
+			long desde = invocacion.getArgument(0);
+			return inscripciones.stream().filter(hecho -> hecho.id() > desde).toList();
+		});
+		when(inscripcionRepository.countByIdLessThanEqual(anyLong())).thenAnswer(invocacion -> {
+			long hasta = invocacion.getArgument(0);
+			return inscripciones.stream().filter(hecho -> hecho.id() <= hasta).count();
+		});
+		when(inscripcionRepository.findUltimaNotaModificada()).thenAnswer(invocacion -> (long) modificadas.size());
+		when(inscripcionRepository.findNotasModificadasDesde(anyLong(), anyInt())).thenAnswer(invocacion -> {
+			long desde = invocacion.getArgument(0);
+			return modificadas.stream().filter(modificada -> modificada.getModificacion() > desde).toList();
+		});
+		when(cursoRepository.findCursosConProfesor()).thenReturn(
+				List.of(new CursoProfesorFila(10L, "MAT101", 1L, "Eva", "Ríos")));
+
+		ReflectionTestUtils.setField(analitica, "inscripcionRepository", inscripcionRepository);
+		ReflectionTestUtils.setField(analitica, "cursoRepository", cursoRepository);
+		ReflectionTestUtils.setField(analitica, "transactionManager", transacciones);
+		ReflectionTestUtils.setField(analitica, "intervaloRefresco", Duration.ZERO);
+		ReflectionTestUtils.setField(analitica, "intervaloReconstruccion", Duration.ofHours(1));
+		ReflectionTestUtils.setField(analitica, "tamañoLote", 1_000);
+		analitica.configurar();
+	}
+
+	@AfterEach
+	void cerrar() {
+		analitica.cerrar();
+	}
+
+	@Test
+	void unaNotaModificadaSeAplicaAlRefrescarSinReconstruir() {
+		assertEquals(14.0, total().getNotaMaxima());
+
+		inscripciones.set(0, new InscripcionHecho(1L, 101L, 10L, "2024-1", 19.0, LocalDate.of(2023, 3, 1)));
+		modificadas.add(modificada(1, 1L, 10L, "2024-1", 19.0));
+
+		DistribucionNotasDTO total = total();
+		assertEquals(4, total.getCantidad());
+		assertEquals(12.0, total.getNotaMinima());
+		assertEquals(19.0, total.getNotaMaxima());
+		assertEquals(0, total.getHistograma().get("11-12"));
+		assertEquals(1, total.getHistograma().get("19-20"));
+	}
+
+	@Test
+	void lasConsultasUsanLaTablaAnteriorMientrasSeReconstruye() throws Exception {
+		assertEquals(4, total().getCantidad());
+
+		CountDownLatch reconstruyendo = new CountDownLatch(1);
+		CountDownLatch continuar = new CountDownLatch(1);
+		when(inscripcionRepository.findUltimaNotaModificada()).thenAnswer(invocacion -> {
+			reconstruyendo.countDown();
+			assertTrue(continuar.await(10, TimeUnit.SECONDS));
+			return (long) modificadas.size();
+		});
+		CompletableFuture<Map<String, Object>> recarga = CompletableFuture.supplyAsync(analitica::recargar);
+		assertTrue(reconstruyendo.await(10, TimeUnit.SECONDS));
+
+		// La reconstrucción espera; la consulta no
+		inscripciones.add(new InscripcionHecho(5L, 105L, 10L, "2024-1", 16.0, LocalDate.of(2024, 3, 1)));
+		assertEquals(5, CompletableFuture.supplyAsync(this::total).get(5, TimeUnit.SECONDS).getCantidad());
+		assertFalse(recarga.isDone());
+
+		continuar.countDown();
+		assertEquals(5L, recarga.get(10, TimeUnit.SECONDS).get("filas"));
+		assertEquals(5, total().getCantidad());
+	}
+
+	private DistribucionNotasDTO total() {
+		return analitica.obtenerDistribucionNotas("total", null, null, null, null).get(0);
+	}
+
+	private static NotaModificada modificada(long modificacion, Long id, Long cursoId, String ciclo, Double nota) {
+		return new NotaModificada() {
+			@Override
+			public Long getModificacion() {
+				return modificacion;
+			}
+
+			@Override
+			public Long getId() {
+				return id;
+			}
+
+			@Override
+			public Long getCursoId() {
+				return cursoId;
+			}
+
+			@Override
+			public String getCiclo() {
+				return ciclo;
+			}
+
+			@Override
+			public Double getNota() {
+				return nota;
+			}
+		};
+	}
+}
@@ -0,0 +1,110 @@
+package com.gestionacademica.sistema_academico.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheCercanoTests {
+
+	private final AtomicLong reloj = new AtomicLong();
+	private final AtomicInteger cargas = new AtomicInteger();
+
+	private CacheCercano<String> crear(int tamañoMaximo) {
+		return new CacheCercano<>("prueba", tamañoMaximo, Duration.ofMinutes(5), Duration.ofSeconds(30),
+				new SimpleMeterRegistry(), reloj::get);
+	}
+
+	private Optional<String> cargar(String clave) {
+		cargas.incrementAndGet();
+		return clave.startsWith("EST") ? Optional.of("estudiante " + clave) : Optional.empty();
+	}
+
+	@Test
+	void guardaTambienLasBusquedasSinResultado() {
+		CacheCercano<String> cache = crear(100);
+
+		assertEquals(Optional.of("estudiante EST1"), cache.obtener("EST1", this::cargar));
+		assertEquals(Optional.of("estudiante EST1"), cache.obtener("EST1", this::cargar));
+		assertFalse(cache.obtener("X1", this::cargar).isPresent());
+		assertFalse(cache.obtener("X1", this::cargar).isPresent());
+
+		assertEquals(2, cargas.get());
+		assertEquals(0.5, cache.tasaAciertos());
+	}
+
+	@Test
+	void lasBusquedasSinResultadoVencenAntes() {
+		CacheCercano<String> cache = crear(100);
+		cache.obtener("EST1", this::cargar);
+		cache.obtener("X1", this::cargar);
+
+		reloj.addAndGet(Duration.ofSeconds(31).toNanos());
+		cache.obtener("EST1", this::cargar);
+		cache.obtener("X1", this::cargar);
+		assertEquals(3, cargas.get());
+
+		reloj.addAndGet(Duration.ofMinutes(5).toNanos());
+		cache.obtener("EST1", this::cargar);
+		assertEquals(4, cargas.get());
+	}
+
+	@Test
+	void invalidarObligaARecargar() {
+		CacheCercano<String> cache = crear(100);
+		cache.obtener("X1", this::cargar);
+
+		cache.invalidar("X1");
+		cache.obtener("X1", this::cargar);
+
+		assertEquals(2, cargas.get());
+	}
+
+	@Test
+	void noGuardaUnaCargaQueEmpezoAntesDeInvalidar() {
+		CacheCercano<String> cache = crear(100);
+
+		cache.obtener("EST1", clave -> {
+			cache.invalidar(clave);
+			return Optional.of("valor anterior");
+		});
+
+		assertEquals(Optional.of("estudiante EST1"), cache.obtener("EST1", this::cargar));
+	}
+
+	@Test
+	void respetaElTamañoMaximo() {
+		CacheCercano<String> cache = crear(100);
+		for (int i = 0; i < 1_000; i++) {
+			cache.obtener("EST" + i, this::cargar);
+		}
+
+		assertTrue(cache.tamaño() <= 100, "Entradas: " + cache.tamaño());
+	}
+
+	@Test
+	void unRecorridoDeClavesNuevasNoDesalojaLasFrecuentes() {
+		CacheCercano<String> cache = crear(100);
+		for (int vuelta = 0; vuelta < 5; vuelta++) {
+			for (int i = 0; i < 50; i++) {
+				cache.obtener("EST" + i, this::cargar);
+			}
+		}
+		for (int i = 0; i < 1_000; i++) {
+			cache.obtener("ESTUNICO" + i, this::cargar);
+		}
+
+		cargas.set(0);
+		for (int i = 0; i < 50; i++) {
+			cache.obtener("EST" + i, this::cargar);
+		}
+		assertEquals(0, cargas.get());
+	}
+}
@@ -0,0 +1,205 @@
+package com.gestionacademica.sistema_academico.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheResultadosTests {
+
+	private final AtomicLong reloj = new AtomicLong(1_000_000);
+	private final List<Runnable> refrescosPendientes = new ArrayList<>();
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private CacheResultados<Integer> cache(int tamañoMaximo) {
+		return new CacheResultados<>("prueba", Duration.ofSeconds(30), Duration.ofMinutes(5), tamañoMaximo,
+				refrescosPendientes::add, registry, reloj::get);
+	}
+
+	private double consultas(String resultado) {
+		return registry.get("cache.resultados.consultas").tag("resultado", resultado).counter().count();
+	}
+
+	@Test
+	void sirveElResultadoFrescoSinRecalcular() {
+		CacheResultados<Integer> cache = cache(10);
+		AtomicInteger calculos = new AtomicInteger();
+
+		assertEquals(1, cache.obtener("a", calculos::incrementAndGet).valor());
+		reloj.addAndGet(10_000);
+		ResultadoCacheado<Integer> resultado = cache.obtener("a", calculos::incrementAndGet);
+
+		assertEquals(1, resultado.valor());
+		assertFalse(resultado.obsoleto());
+		assertEquals(Duration.ofSeconds(10), resultado.edad());
+		assertEquals(Duration.ofSeconds(20), resultado.vigencia());
+		assertEquals(1, calculos.get());
+		assertEquals(1, consultas("fresco"));
+		assertEquals(1, consultas("fallo"));
+	}
+
+	@Test
+	void sirveElResultadoObsoletoYLoRecalculaEnSegundoPlano() {
+		CacheResultados<Integer> cache = cache(10);
+		AtomicInteger calculos = new AtomicInteger();
+		cache.obtener("a", calculos::incrementAndGet);
+
+		reloj.addAndGet(60_000);
+		ResultadoCacheado<Integer> obsoleto = cache.obtener("a", calculos::incrementAndGet);
+		assertEquals(1, obsoleto.valor());
+		assertTrue(obsoleto.obsoleto());
+		assertEquals(Duration.ZERO, obsoleto.vigencia());
+
+		// Mientras el refresco está encolado, otras consultas obsoletas no encolan otro
+		cache.obtener("a", calculos::incrementAndGet);
+		assertEquals(1, refrescosPendientes.size());
+		refrescosPendientes.remove(0).run();
+
+		ResultadoCacheado<Integer> refrescado = cache.obtener("a", calculos::incrementAndGet);
+		assertEquals(2, refrescado.valor());
+		assertFalse(refrescado.obsoleto());
+		assertEquals(2, consultas("obsoleto"));
+	}
+
+	@Test
+	void recalculaAntesDeResponderPasadoElMargenDeObsolescencia() {
+		CacheResultados<Integer> cache = cache(10);
+		AtomicInteger calculos = new AtomicInteger();
+		cache.obtener("a", calculos::incrementAndGet);
+
+		reloj.addAndGet(Duration.ofSeconds(30).plusMinutes(5).toMillis());
+		ResultadoCacheado<Integer> resultado = cache.obtener("a", calculos::incrementAndGet);
+
+		assertEquals(2, resultado.valor());
+		assertFalse(resultado.obsoleto());
+		assertTrue(refrescosPendientes.isEmpty());
+	}
+
+	@Test
+	void unRefrescoIniciadoAntesDeInvalidarNoSeGuarda() {
+		CacheResultados<Integer> cache = cache(10);
+		AtomicInteger calculos = new AtomicInteger();
+		cache.obtener("a", calculos::incrementAndGet);
+
+		reloj.addAndGet(60_000);
+		cache.obtener("a", calculos::incrementAndGet);
+		cache.invalidarTodo();
+		refrescosPendientes.remove(0).run();
+
+		assertEquals(0, cache.tamaño());
+		assertEquals(3, cache.obtener("a", calculos::incrementAndGet).valor());
+	}
+
+	@Test
+	void descartaElResultadoMasAntiguoAlSuperarElTamaño() {
+		CacheResultados<Integer> cache = cache(2);
+		AtomicInteger calculos = new AtomicInteger();
+		cache.obtener("a", calculos::incrementAndGet);
+		reloj.addAndGet(1);
+		cache.obtener("b", calculos::incrementAndGet);
+		reloj.addAndGet(1);
+		cache.obtener("c", calculos::incrementAndGet);
+
+		assertEquals(2, cache.tamaño());
+		assertEquals(4, cache.obtener("a", calculos::incrementAndGet).valor());
+		assertEquals(3, cache.obtener("c", calculos::incrementAndGet).valor());
+	}
+
+	@Test
+	void unErrorAlCalcularSePropagaYNoSeGuarda() {
+		CacheResultados<Integer> cache = cache(10);
+
+		RuntimeException error = assertThrows(RuntimeException.class,
+				() -> cache.obtener("a", () -> { throw new IllegalStateException("sin conexión"); }));
+
+		assertEquals("sin conexión", error.getMessage());
+		assertEquals(0, cache.tamaño());
+		assertEquals(7, cache.obtener("a", () -> 7).valor());
+	}
+
+	@Test
+	void lasConsultasSimultaneasCompartenUnSoloCalculo() throws Exception {
+		CacheResultados<Integer> cache = cache(10);
+		AtomicInteger calculos = new AtomicInteger();
+		CountDownLatch calculando = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+
+		ExecutorService hilos = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Integer>> resultados = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				resultados.add(hilos.submit(() -> cache.obtener("a", () -> {
+					calculando.countDown();
+					try {
+						liberar.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					return calculos.incrementAndGet();
+				}).valor()));
+			}
+			assertTrue(calculando.await(5, TimeUnit.SECONDS));
+			Thread.sleep(50);
+			liberar.countDown();
+
+			for (Future<Integer> resultado : resultados) {
+				int valor = resultado.get(5, TimeUnit.SECONDS);
+				// Quien llegue después de guardado el resultado lo recibe fresco; nadie recalcula
+				assertEquals(1, valor);
+			}
+			assertEquals(1, calculos.get());
+		} finally {
+			hilos.shutdownNow();
+		}
+	}
+
+	@Test
+	void unErrorDeLaJvmNoDejaEsperandoALasConsultasSimultaneas() throws Exception {
+		CacheResultados<Integer> cache = cache(10);
+		CountDownLatch calculando = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+
+		ExecutorService hilos = Executors.newFixedThreadPool(2);
+		try {
+			Future<Integer> primera = hilos.submit(() -> cache.obtener("a", () -> {
+				calculando.countDown();
+				try {
+					liberar.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				throw new StackOverflowError("recursión del reporte");
+			}).valor());
+			assertTrue(calculando.await(5, TimeUnit.SECONDS));
+			// La segunda consulta espera el mismo cálculo
+			Future<Integer> segunda = hilos.submit(() -> cache.obtener("a", () -> 1).valor());
+			Thread.sleep(50);
+			liberar.countDown();
+
+			for (Future<Integer> consulta : List.of(primera, segunda)) {
+				ExecutionException error = assertThrows(ExecutionException.class, () -> consulta.get(5, TimeUnit.SECONDS));
+				assertInstanceOf(StackOverflowError.class, error.getCause());
+			}
+			assertEquals(0, cache.tamaño());
+			assertEquals(7, cache.obtener("a", () -> 7).valor());
+		} finally {
+			hilos.shutdownNow();
+		}
+	}
+}
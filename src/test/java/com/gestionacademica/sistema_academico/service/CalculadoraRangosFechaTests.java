@@ -0,0 +1,106 @@
+package com.gestionacademica.sistema_academico.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Compara los rangos de fecha usados en SQL contra las reglas originales
+ * (Period.between / ChronoUnit.MONTHS.between) sobre un conjunto de fechas generado.
+ */
+class CalculadoraRangosFechaTests {
+
+	private static final List<LocalDate> DIAS_DE_CONSULTA = List.of(
+			LocalDate.of(2024, 2, 29),
+			LocalDate.of(2024, 2, 28),
+			LocalDate.of(2023, 2, 28),
+			LocalDate.of(2024, 3, 1),
+			LocalDate.of(2024, 3, 31),
+			LocalDate.of(2025, 1, 31),
+			LocalDate.of(2025, 8, 31),
+			LocalDate.of(2025, 12, 31),
+			LocalDate.of(2026, 6, 15));
+
+	private static List<LocalDate> generarFechas(LocalDate hoy) {
+		List<LocalDate> fechas = new ArrayList<>();
+		for (LocalDate fecha = hoy.minusYears(45); fecha.isBefore(hoy.plusYears(2)); fecha = fecha.plusDays(1)) {
+			fechas.add(fecha);
+		}
+		return fechas;
+	}
+
+	private static int semestreOriginal(LocalDate fechaIngreso, LocalDate hoy) {
+		long meses = ChronoUnit.MONTHS.between(fechaIngreso, hoy);
+		int semestre = (int) (meses / 6) + 1;
+		return Math.max(1, Math.min(12, semestre));
+	}
+
+	private static boolean enSemestrePorRango(LocalDate fecha, LocalDate hoy, int semestre) {
+		boolean despuesDeDesde = semestre == 12
+				|| fecha.isAfter(CalculadoraRangosFecha.fechaLimiteParaMesesCumplidos(hoy, semestre * 6L));
+		boolean antesDeHasta = semestre == 1
+				|| !fecha.isAfter(CalculadoraRangosFecha.fechaLimiteParaMesesCumplidos(hoy, (semestre - 1) * 6L));
+		return despuesDeDesde && antesDeHasta;
+	}
+
+	@Test
+	void semestrePorRangoCoincideConCalculoOriginal() {
+		for (LocalDate hoy : DIAS_DE_CONSULTA) {
+			for (LocalDate fecha : generarFechas(hoy)) {
+				int esperado = semestreOriginal(fecha, hoy);
+				for (int semestre = 1; semestre <= 12; semestre++) {
+					assertEquals(semestre == esperado, enSemestrePorRango(fecha, hoy, semestre),
+							"hoy=" + hoy + " ingreso=" + fecha + " semestre=" + semestre);
+				}
+			}
+		}
+	}
+
+	@Test
+	void rangoDeEdadCoincideConPeriodBetween() {
+		int[][] rangos = {{0, 0}, {0, 1}, {0, 17}, {18, 25}, {20, 20}, {30, 44}};
+		for (LocalDate hoy : DIAS_DE_CONSULTA) {
+			for (int[] rango : rangos) {
+				LocalDate desde = CalculadoraRangosFecha.fechaLimiteParaAñosCumplidos(hoy, rango[1] + 1);
+				LocalDate hasta = CalculadoraRangosFecha.fechaLimiteParaAñosCumplidos(hoy, rango[0]);
+				for (LocalDate fecha : generarFechas(hoy)) {
+					int edad = Period.between(fecha, hoy).getYears();
+					boolean esperado = edad >= rango[0] && edad <= rango[1];
+					boolean obtenido = fecha.isAfter(desde) && !fecha.isAfter(hasta);
+					assertEquals(esperado, obtenido, "hoy=" + hoy + " nacimiento=" + fecha
+							+ " rango=" + rango[0] + "-" + rango[1]);
+				}
+			}
+		}
+	}
+
+	@Test
+	void experienciaMinimaCoincideConPeriodBetween() {
+		for (LocalDate hoy : DIAS_DE_CONSULTA) {
+			for (int añosMinimos = 0; añosMinimos <= 40; añosMinimos += 5) {
+				LocalDate hasta = CalculadoraRangosFecha.fechaLimiteParaAñosCumplidos(hoy, añosMinimos);
+				for (LocalDate fecha : generarFechas(hoy)) {
+					boolean esperado = Period.between(fecha, hoy).getYears() >= añosMinimos;
+					assertEquals(esperado, !fecha.isAfter(hasta),
+							"hoy=" + hoy + " contratacion=" + fecha + " años=" + añosMinimos);
+				}
+			}
+		}
+	}
+
+	@Test
+	void interpretaSemestreComoElFiltroOriginal() {
+		assertEquals(5, CalculadoraRangosFecha.interpretarSemestre(" 5° semestre "));
+		assertEquals(12, CalculadoraRangosFecha.interpretarSemestre("12° SEMESTRE"));
+		assertNull(CalculadoraRangosFecha.interpretarSemestre("5"));
+		assertNull(CalculadoraRangosFecha.interpretarSemestre("13° Semestre"));
+		assertNull(CalculadoraRangosFecha.interpretarSemestre("05° Semestre"));
+	}
+}
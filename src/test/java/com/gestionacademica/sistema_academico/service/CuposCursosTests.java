@@ -0,0 +1,230 @@
+package com.gestionacademica.sistema_academico.service;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Incluye pruebas de estrés: muchos hilos reservan y liberan lugares de los mismos cursos a
+ * la vez, arrancando juntos, y se verifica que ningún curso quede con más inscripciones que
+ * su cupo en ningún momento.
+ */
+class CuposCursosTests {
+
+	private static final int HILOS = Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+
+	/**
+	 * Sin base de datos: los cursos que no se cargaron no existen
+	 */
+	private final CuposCursos cupos = new CuposCursos() {
+		@Override
+		Ocupacion leer(Long cursoId) {
+			return cursoId == 99L ? new Ocupacion(2, 1) : null;
+		}
+	};
+
+	@Test
+	void reservaHastaElCupoYLiberaLugares() {
+		cupos.cargar(1L, 2, 0);
+
+		assertEquals(CuposCursos.Reserva.RESERVADA, cupos.reservar(1L));
+		assertEquals(CuposCursos.Reserva.RESERVADA, cupos.reservar(1L));
+		assertEquals(CuposCursos.Reserva.SIN_CUPO, cupos.reservar(1L));
+
+		cupos.liberar(1L);
+		assertEquals(CuposCursos.Reserva.RESERVADA, cupos.reservar(1L));
+		assertEquals(new CuposCursos.Ocupacion(2, 2), cupos.ocupacion(1L));
+		assertEquals(0, cupos.ocupacion(1L).disponibles());
+	}
+
+	@Test
+	void cuentaLasInscripcionesExistentesAlReconciliar() {
+		cupos.cargar(1L, 30, 29);
+
+		assertEquals(CuposCursos.Reserva.RESERVADA, cupos.reservar(1L));
+		assertEquals(CuposCursos.Reserva.SIN_CUPO, cupos.reservar(1L));
+	}
+
+	@Test
+	void cursoSinCupoMaximoNoTieneLimite() {
+		cupos.cargar(1L, null, 0);
+
+		for (int i = 0; i < 10_000; i++) {
+			assertEquals(CuposCursos.Reserva.RESERVADA, cupos.reservar(1L));
+		}
+		assertNull(cupos.ocupacion(1L).capacidad());
+		assertNull(cupos.ocupacion(1L).disponibles());
+		assertEquals(10_000, cupos.ocupacion(1L).ocupados());
+	}
+
+	@Test
+	void cambiarElCupoRespetaLasInscripcionesExistentes() {
+		cupos.cargar(1L, 5, 4);
+
+		cupos.cambiarCapacidad(1L, 3);
+		assertEquals(CuposCursos.Reserva.SIN_CUPO, cupos.reservar(1L));
+		assertEquals(4, cupos.ocupacion(1L).ocupados());
+
+		cupos.cambiarCapacidad(1L, null);
+		assertEquals(CuposCursos.Reserva.RESERVADA, cupos.reservar(1L));
+	}
+
+	@Test
+	void cursoDesconocidoSeLeeUnaVezOSeRechaza() {
+		assertEquals(CuposCursos.Reserva.RESERVADA, cupos.reservar(99L));
+		assertEquals(CuposCursos.Reserva.SIN_CUPO, cupos.reservar(99L));
+		assertEquals(CuposCursos.Reserva.CURSO_NO_EXISTE, cupos.reservar(7L));
+		assertNull(cupos.ocupacion(7L));
+
+		cupos.quitar(99L);
+		assertEquals(CuposCursos.Reserva.RESERVADA, cupos.reservar(99L));
+	}
+
+	/**
+	 * Varios hilos leen a la vez un curso que no estaba cargado: todos usan el mismo contador
+	 */
+	@RepeatedTest(20)
+	void laPrimeraLecturaSimultaneaDeUnCursoRegistraUnSoloContador() throws Exception {
+		AtomicInteger reservadas = new AtomicInteger();
+		ejecutarJuntos(() -> {
+			if (cupos.reservar(99L) == CuposCursos.Reserva.RESERVADA) {
+				reservadas.incrementAndGet();
+			}
+		});
+
+		assertEquals(1, reservadas.get());
+		assertEquals(new CuposCursos.Ocupacion(2, 2), cupos.ocupacion(99L));
+	}
+
+	@Test
+	void quitaLosCursosDelProfesorEliminado() {
+		JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+		when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(5L))).thenReturn(List.of(1L, 2L));
+		ReflectionTestUtils.setField(cupos, "jdbcTemplate", jdbcTemplate);
+		cupos.cargar(1L, 10, 3);
+		cupos.cargar(2L, 10, 3);
+		cupos.cargar(3L, 10, 3);
+
+		// Sin transacción activa se quitan en el momento
+		cupos.quitarCursosDe(5L);
+
+		assertEquals(CuposCursos.Reserva.CURSO_NO_EXISTE, cupos.reservar(1L));
+		assertEquals(CuposCursos.Reserva.CURSO_NO_EXISTE, cupos.reservar(2L));
+		assertEquals(CuposCursos.Reserva.RESERVADA, cupos.reservar(3L));
+	}
+
+	@Test
+	void liberarNuncaDejaOcupadosNegativos() {
+		cupos.cargar(1L, 1, 0);
+
+		cupos.liberar(1L);
+		cupos.liberar(2L);
+		assertEquals(0, cupos.ocupacion(1L).ocupados());
+	}
+
+	/**
+	 * Todos los hilos compiten por pocos cursos con mucha más demanda que cupo: se otorgan
+	 * exactamente los lugares disponibles, ni uno más ni uno menos
+	 */
+	@RepeatedTest(20)
+	void nuncaSobrevendeConReservasSimultaneas() throws Exception {
+		int cursos = 4;
+		int capacidad = 250;
+		int intentosPorHilo = 2_000;
+		for (long curso = 1; curso <= cursos; curso++) {
+			cupos.cargar(curso, capacidad, 0);
+		}
+
+		AtomicIntegerArray otorgadas = new AtomicIntegerArray(cursos + 1);
+		ejecutarJuntos(() -> {
+			ThreadLocalRandom azar = ThreadLocalRandom.current();
+			for (int i = 0; i < intentosPorHilo; i++) {
+				int curso = 1 + azar.nextInt(cursos);
+				if (cupos.reservar((long) curso) == CuposCursos.Reserva.RESERVADA) {
+					otorgadas.incrementAndGet(curso);
+				}
+			}
+		});
+
+		for (int curso = 1; curso <= cursos; curso++) {
+			assertEquals(capacidad, otorgadas.get(curso), "curso " + curso);
+			assertEquals(capacidad, cupos.ocupacion((long) curso).ocupados());
+		}
+	}
+
+	/**
+	 * Reservas y liberaciones mezcladas (inscripciones que fallan al escribirse): en ningún
+	 * instante hay más lugares tomados que el cupo, y al final todos se devolvieron
+	 */
+	@RepeatedTest(20)
+	void nuncaSuperaElCupoMientrasSeReservaYLibera() throws Exception {
+		int capacidad = 16;
+		cupos.cargar(1L, capacidad, 0);
+
+		AtomicInteger tomados = new AtomicInteger();
+		AtomicInteger maximoObservado = new AtomicInteger();
+		AtomicInteger otorgadas = new AtomicInteger();
+		ejecutarJuntos(() -> {
+			for (int i = 0; i < 5_000; i++) {
+				if (cupos.reservar(1L) != CuposCursos.Reserva.RESERVADA) {
+					continue;
+				}
+				otorgadas.incrementAndGet();
+				maximoObservado.accumulateAndGet(tomados.incrementAndGet(), Math::max);
+				Thread.onSpinWait();
+				tomados.decrementAndGet();
+				cupos.liberar(1L);
+			}
+		});
+
+		assertTrue(maximoObservado.get() <= capacidad, "Se tomaron " + maximoObservado.get() + " lugares");
+		assertTrue(otorgadas.get() > capacidad, "Los lugares liberados deben volver a otorgarse");
+		assertEquals(0, cupos.ocupacion(1L).ocupados());
+	}
+
+	/**
+	 * Ejecuta la tarea en HILOS hilos que arrancan al mismo tiempo y espera a que terminen
+	 */
+	private static void ejecutarJuntos(Runnable tarea) throws Exception {
+		ExecutorService ejecutor = Executors.newFixedThreadPool(HILOS);
+		CountDownLatch listos = new CountDownLatch(HILOS);
+		CountDownLatch largada = new CountDownLatch(1);
+		List<Future<?>> tareas = new ArrayList<>();
+		try {
+			for (int h = 0; h < HILOS; h++) {
+				tareas.add(ejecutor.submit(() -> {
+					listos.countDown();
+					largada.await();
+					tarea.run();
+					return null;
+				}));
+			}
+			listos.await();
+			largada.countDown();
+			for (Future<?> resultado : tareas) {
+				resultado.get();
+			}
+		} finally {
+			ejecutor.shutdownNow();
+		}
+	}
+}
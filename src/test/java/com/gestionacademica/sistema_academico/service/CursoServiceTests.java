@@ -0,0 +1,86 @@
+package com.gestionacademica.sistema_academico.service;
+
+import com.gestionacademica.sistema_academico.entity.ClasificacionCurso;
+import com.gestionacademica.sistema_academico.entity.Curso;
+import com.gestionacademica.sistema_academico.repository.CursoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CursoServiceTests {
+
+	private final CursoRepository cursoRepository = mock(CursoRepository.class);
+	private final CatalogoEnMemoria catalogo = mock(CatalogoEnMemoria.class);
+	private final CursoService cursoService = new CursoService();
+
+	@BeforeEach
+	void preparar() {
+		ReflectionTestUtils.setField(cursoService, "cursoRepository", cursoRepository);
+		ReflectionTestUtils.setField(cursoService, "catalogo", catalogo);
+
+		CachesBusqueda cachesBusqueda = new CachesBusqueda();
+		ReflectionTestUtils.setField(cachesBusqueda, "tamañoMaximo", 100);
+		ReflectionTestUtils.setField(cachesBusqueda, "ttl", Duration.ofMinutes(5));
+		ReflectionTestUtils.setField(cachesBusqueda, "ttlNegativo", Duration.ofSeconds(30));
+		ReflectionTestUtils.setField(cachesBusqueda, "meterRegistry", new SimpleMeterRegistry());
+		cachesBusqueda.crearCaches();
+		ReflectionTestUtils.setField(cursoService, "cachesBusqueda", cachesBusqueda);
+	}
+
+	@Test
+	void buscaPorCodigoUnCursoSinProfesor() {
+		Curso sinProfesor = new Curso("MAT101", "Cálculo I", null, 3, 2);
+		sinProfesor.setId(1L);
+		when(cursoRepository.findConProfesorByCodigo("MAT101")).thenReturn(Optional.of(sinProfesor));
+
+		Optional<Curso> encontrado = cursoService.buscarPorCodigo(" mat101 ");
+		assertTrue(encontrado.isPresent());
+		assertEquals(1L, encontrado.get().getId());
+		assertNull(encontrado.get().getProfesor());
+
+		// La segunda búsqueda sale de la caché, también como acierto
+		assertTrue(cursoService.buscarPorCodigo("MAT101").isPresent());
+		verify(cursoRepository, times(1)).findConProfesorByCodigo("MAT101");
+	}
+
+	@Test
+	void completaLaClasificacionDeLosCursosPendientes() {
+		Curso basico = new Curso("MAT101", "Cálculo I", null, 3, 2);
+		Curso avanzado = new Curso("FIS305", "Mecánica Cuántica", null, 5, 8);
+		when(cursoRepository.findByNivelDificultadIsNullOrCargaAcademicaIsNull()).thenReturn(List.of(basico, avanzado));
+
+		cursoService.completarClasificacionesPendientes();
+
+		assertEquals(ClasificacionCurso.NIVEL_BASICO, basico.getNivelDificultad());
+		assertEquals(ClasificacionCurso.CARGA_BAJA, basico.getCargaAcademica());
+		assertEquals(ClasificacionCurso.NIVEL_AVANZADO, avanzado.getNivelDificultad());
+		assertEquals(ClasificacionCurso.CARGA_ALTA, avanzado.getCargaAcademica());
+		verify(cursoRepository).saveAll(List.of(basico, avanzado));
+		verify(catalogo).recargarCursos();
+	}
+
+	@Test
+	void sinCursosPendientesNoEscribeNiRecargaElCatalogo() {
+		when(cursoRepository.findByNivelDificultadIsNullOrCargaAcademicaIsNull()).thenReturn(List.of());
+
+		cursoService.completarClasificacionesPendientes();
+
+		verify(cursoRepository, never()).saveAll(any());
+		verify(catalogo, never()).recargarCursos();
+	}
+}
@@ -0,0 +1,156 @@
+package com.gestionacademica.sistema_academico.service;
+
+import com.gestionacademica.sistema_academico.dto.EstudianteDTO;
+import com.gestionacademica.sistema_academico.dto.PaginaDTO;
+import com.gestionacademica.sistema_academico.entity.Estudiante;
+import com.gestionacademica.sistema_academico.repository.EstudianteRepository;
+import com.gestionacademica.sistema_academico.repository.proyeccion.EstudianteFila;
+import com.gestionacademica.sistema_academico.service.EstudianteService.PosicionFechaIngreso;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EstudianteServiceTests {
+
+	private static final Comparator<Estudiante> POR_FECHA_DESC = Comparator
+			.comparing(Estudiante::getFechaIngreso, Comparator.nullsLast(Comparator.reverseOrder()))
+			.thenComparing(Estudiante::getId, Comparator.reverseOrder());
+
+	private final EstudianteRepository estudianteRepository = mock(EstudianteRepository.class);
+	private final EstudianteService estudianteService = new EstudianteService();
+	private final List<Estudiante> estudiantes = new ArrayList<>();
+
+	@BeforeEach
+	void preparar() {
+		Paginacion paginacion = new Paginacion();
+		ReflectionTestUtils.setField(paginacion, "limitePorDefecto", 20);
+		ReflectionTestUtils.setField(paginacion, "limiteMaximo", 100);
+		ReflectionTestUtils.setField(estudianteService, "paginacion", paginacion);
+		ReflectionTestUtils.setField(estudianteService, "estudianteRepository", estudianteRepository);
+
+		// Las consultas de la paginación por fecha de ingreso, evaluadas en memoria
+		when(estudianteRepository.findPrimerosPorFechaIngresoDesc(any())).thenAnswer(invocacion ->
+				primeros(estudiantes.stream().filter(e -> e.getFechaIngreso() != null), invocacion.getArgument(0)));
+		when(estudianteRepository.findSiguientesPorFechaIngresoDesc(any(), anyLong(), any())).thenAnswer(invocacion -> {
+			LocalDate fecha = invocacion.getArgument(0);
+			long id = invocacion.getArgument(1);
+			return primeros(estudiantes.stream().filter(e -> e.getFechaIngreso() != null
+					&& (e.getFechaIngreso().isBefore(fecha) || (e.getFechaIngreso().equals(fecha) && e.getId() < id))),
+					invocacion.getArgument(2));
+		});
+		when(estudianteRepository.findByFechaIngresoIsNullAndIdLessThanOrderByIdDesc(anyLong(), any())).thenAnswer(invocacion -> {
+			long id = invocacion.getArgument(0);
+			return primeros(estudiantes.stream().filter(e -> e.getFechaIngreso() == null && e.getId() < id),
+					invocacion.getArgument(1));
+		});
+	}
+
+	private static List<Estudiante> primeros(Stream<Estudiante> candidatos, Limit limite) {
+		return candidatos.sorted(POR_FECHA_DESC).limit(limite.max()).toList();
+	}
+
+	private void agregar(long id, LocalDate fechaIngreso) {
+		Estudiante estudiante = new Estudiante();
+		estudiante.setId(id);
+		estudiante.setFechaIngreso(fechaIngreso);
+		estudiantes.add(estudiante);
+	}
+
+	@Test
+	void laClaveDelCursorIdaYVuelta() {
+		Estudiante conFecha = new Estudiante();
+		conFecha.setId(17L);
+		conFecha.setFechaIngreso(LocalDate.of(2024, 3, 1));
+		Estudiante sinFecha = new Estudiante();
+		sinFecha.setId(9L);
+
+		assertEquals("2024-03-01|17", PosicionFechaIngreso.claveDe(conFecha));
+		assertEquals("|9", PosicionFechaIngreso.claveDe(sinFecha));
+		assertEquals(new PosicionFechaIngreso(LocalDate.of(2024, 3, 1), 17),
+				PosicionFechaIngreso.desdeCursor(Paginacion.codificar(PosicionFechaIngreso.claveDe(conFecha))));
+		assertEquals(new PosicionFechaIngreso(null, 9),
+				PosicionFechaIngreso.desdeCursor(Paginacion.codificar(PosicionFechaIngreso.claveDe(sinFecha))));
+		assertNull(PosicionFechaIngreso.desdeCursor(null));
+	}
+
+	@Test
+	void rechazaCursoresDeFechaInvalidos() {
+		for (String clave : List.of("2024-13-01|5", "2024-03-01|", "2024-03-01|x", "ayer|5")) {
+			String cursor = Paginacion.codificar(clave);
+			assertThrows(IllegalArgumentException.class, () -> PosicionFechaIngreso.desdeCursor(cursor), clave);
+		}
+		assertThrows(IllegalArgumentException.class, () -> PosicionFechaIngreso.desdeCursor("%%%"));
+	}
+
+	/**
+	 * Varios estudiantes con la misma fecha y otros sin fecha: las páginas de 3 recorren
+	 * todo el orden (fecha DESC, id DESC, sin fecha al final) sin saltar ni repetir
+	 */
+	@Test
+	void recorreLosEmpatesDeFechaYLuegoLosSinFecha() {
+		LocalDate marzo = LocalDate.of(2024, 3, 1);
+		LocalDate agosto = LocalDate.of(2023, 8, 1);
+		for (long id = 1; id <= 5; id++) {
+			agregar(id, marzo);
+		}
+		agregar(6, agosto);
+		agregar(7, null);
+		agregar(8, agosto);
+		agregar(9, null);
+		agregar(10, marzo);
+
+		List<Long> recorridos = new ArrayList<>();
+		String cursor = null;
+		int paginas = 0;
+		do {
+			PaginaDTO<Estudiante> pagina = estudianteService.obtenerPaginaOrdenadaPorFechaIngreso(cursor, 3, false);
+			pagina.getData().forEach(e -> recorridos.add(e.getId()));
+			cursor = pagina.getSiguienteCursor();
+			paginas++;
+		} while (cursor != null);
+
+		assertEquals(List.of(10L, 5L, 4L, 3L, 2L, 1L, 8L, 6L, 9L, 7L), recorridos);
+		assertEquals(4, paginas);
+	}
+
+	@Test
+	void convierteLasFilasProyectadasEnDTO() {
+		LocalDate hoy = LocalDate.now();
+		when(estudianteRepository.findFilasByApellidoContaining("Ríos")).thenReturn(List.of(
+				new EstudianteFila(3L, "2024003", "Eva", "Ríos", "eva@universidad.edu", "555-0103",
+						hoy.minusYears(20), hoy.minusMonths(7)),
+				new EstudianteFila(4L, "2024004", "Leo", "Ríos", "leo@universidad.edu", null, null, null)));
+
+		List<EstudianteDTO> estudiantes = estudianteService.buscarPorApellidoDTO(" Ríos ");
+
+		EstudianteDTO eva = estudiantes.get(0);
+		assertEquals(3L, eva.getId());
+		assertEquals("2024003", eva.getCarnet());
+		assertEquals("Eva Ríos", eva.getNombreCompleto());
+		assertEquals("eva@universidad.edu", eva.getEmail());
+		assertEquals(20, eva.getEdad());
+		assertEquals(hoy.minusMonths(7), eva.getFechaIngreso());
+		assertEquals("2° Semestre", eva.getSemestreActual());
+		assertEquals("Activo", eva.getEstadoAcademico());
+
+		EstudianteDTO leo = estudiantes.get(1);
+		assertNull(leo.getEdad());
+		assertNull(leo.getTelefono());
+		assertEquals("Sin determinar", leo.getSemestreActual());
+	}
+}
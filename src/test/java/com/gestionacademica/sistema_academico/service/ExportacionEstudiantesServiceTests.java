@@ -0,0 +1,117 @@
+package com.gestionacademica.sistema_academico.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.gestionacademica.sistema_academico.dto.EstudianteDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Exportación del padrón con el recorrido de estudiantes simulado
+ */
+class ExportacionEstudiantesServiceTests {
+
+	private final EstudianteService estudianteService = mock(EstudianteService.class);
+	private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+			.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+	private final ExportacionEstudiantesService exportacion = new ExportacionEstudiantesService();
+
+	private final List<EstudianteDTO> estudiantes = List.of(
+			new EstudianteDTO(1L, "2023001", "Ana Pérez", "ana@universidad.edu", "555-0101",
+					20, LocalDate.of(2023, 3, 1), "4° Semestre", "Activo"),
+			new EstudianteDTO(2L, "2023002", "Luis \"Lucho\" Gómez, Jr.", "luis@universidad.edu", null,
+					null, null, "Sin determinar", "Línea 1\nLínea 2"));
+
+	@BeforeEach
+	void preparar() {
+		when(estudianteService.recorrerTodosDTO(any())).thenAnswer(invocacion -> {
+			Consumer<EstudianteDTO> consumidor = invocacion.getArgument(0);
+			estudiantes.forEach(consumidor);
+			return (long) estudiantes.size();
+		});
+		ReflectionTestUtils.setField(exportacion, "estudianteService", estudianteService);
+		ReflectionTestUtils.setField(exportacion, "objectMapper", objectMapper);
+	}
+
+	@Test
+	void valorCsvEscapaSeparadoresYComillas() {
+		assertEquals("", ExportacionEstudiantesService.valorCsv(null));
+		assertEquals("Ana", ExportacionEstudiantesService.valorCsv("Ana"));
+		assertEquals("20", ExportacionEstudiantesService.valorCsv(20));
+		assertEquals("\"Gómez, Jr.\"", ExportacionEstudiantesService.valorCsv("Gómez, Jr."));
+		assertEquals("\"Luis \"\"Lucho\"\"\"", ExportacionEstudiantesService.valorCsv("Luis \"Lucho\""));
+		assertEquals("\"Línea 1\nLínea 2\"", ExportacionEstudiantesService.valorCsv("Línea 1\nLínea 2"));
+		assertEquals("\"a\r\nb\"", ExportacionEstudiantesService.valorCsv("a\r\nb"));
+	}
+
+	@Test
+	void exportaCsvConEncabezadoYUnaFilaPorEstudiante() {
+		ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+		assertEquals(2, exportacion.exportar(salida, "CSV"));
+
+		assertEquals("id,carnet,nombreCompleto,email,telefono,edad,fechaIngreso,semestreActual,estadoAcademico\n"
+						+ "1,2023001,Ana Pérez,ana@universidad.edu,555-0101,20,2023-03-01,4° Semestre,Activo\n"
+						+ "2,2023002,\"Luis \"\"Lucho\"\" Gómez, Jr.\",luis@universidad.edu,,,,Sin determinar,\"Línea 1\nLínea 2\"\n",
+				salida.toString(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void exportaNdjsonConUnObjetoPorLinea() throws IOException {
+		ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+		assertEquals(2, exportacion.exportar(salida, null));
+
+		String[] lineas = salida.toString(StandardCharsets.UTF_8).split("\n");
+		assertEquals(2, lineas.length);
+		JsonNode segundo = objectMapper.readTree(lineas[1]);
+		assertEquals(2, segundo.get("id").asLong());
+		assertEquals("Luis \"Lucho\" Gómez, Jr.", segundo.get("nombreCompleto").asText());
+		assertEquals("Línea 1\nLínea 2", segundo.get("estadoAcademico").asText());
+		assertEquals("2023-03-01", objectMapper.readTree(lineas[0]).get("fechaIngreso").asText());
+	}
+
+	@Test
+	void seDetieneSiElClienteSeDesconecta() {
+		AtomicInteger escrituras = new AtomicInteger();
+		OutputStream desconectado = new OutputStream() {
+			@Override
+			public void write(int b) throws IOException {
+				escrituras.incrementAndGet();
+				throw new IOException("Broken pipe");
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				escrituras.incrementAndGet();
+				throw new IOException("Broken pipe");
+			}
+		};
+
+		assertEquals(-1, exportacion.exportar(desconectado, "ndjson"));
+		assertTrue(escrituras.get() > 0);
+	}
+
+	@Test
+	void rechazaFormatosDesconocidos() {
+		assertThrows(IllegalArgumentException.class, () -> exportacion.validarFormato("xml"));
+	}
+}
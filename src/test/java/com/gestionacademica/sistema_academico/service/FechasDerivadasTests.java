@@ -0,0 +1,54 @@
+package com.gestionacademica.sistema_academico.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class FechasDerivadasTests {
+
+	private static final List<LocalDate> HOY = List.of(
+			LocalDate.of(2024, 2, 29),
+			LocalDate.of(2025, 2, 28),
+			LocalDate.of(2025, 3, 1),
+			LocalDate.of(2025, 8, 31),
+			LocalDate.of(2025, 12, 31));
+
+	@Test
+	void añosCumplidosIgualAPeriodBetween() {
+		for (LocalDate hoy : HOY) {
+			FechasDerivadas fechas = FechasDerivadas.para(hoy);
+			for (LocalDate fecha = hoy.minusYears(140); fecha.isBefore(hoy.plusYears(2)); fecha = fecha.plusDays(1)) {
+				assertEquals(Period.between(fecha, hoy).getYears(), fechas.añosCumplidos(fecha), hoy + " / " + fecha);
+			}
+		}
+	}
+
+	@Test
+	void semestreActualIgualAlCalculoPorMeses() {
+		for (LocalDate hoy : HOY) {
+			FechasDerivadas fechas = FechasDerivadas.para(hoy);
+			for (LocalDate ingreso = hoy.minusYears(8); ingreso.isBefore(hoy.plusYears(1)); ingreso = ingreso.plusDays(1)) {
+				long meses = ChronoUnit.MONTHS.between(ingreso, hoy);
+				int semestre = (int) Math.max(1, Math.min(12, meses / 6 + 1));
+				assertEquals(semestre + "° Semestre", fechas.semestreActual(ingreso), hoy + " / " + ingreso);
+			}
+		}
+	}
+
+	@Test
+	void sinFechaDeIngresoNoHaySemestre() {
+		assertEquals(FechasDerivadas.SEMESTRE_SIN_DETERMINAR, FechasDerivadas.para(LocalDate.of(2025, 1, 1)).semestreActual(null));
+	}
+
+	@Test
+	void reutilizaLasTablasDelMismoDia() {
+		LocalDate hoy = LocalDate.of(2025, 6, 15);
+		assertSame(FechasDerivadas.para(hoy), FechasDerivadas.para(LocalDate.of(2025, 6, 15)));
+	}
+}
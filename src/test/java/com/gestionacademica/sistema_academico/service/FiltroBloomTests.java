@@ -0,0 +1,37 @@
+package com.gestionacademica.sistema_academico.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FiltroBloomTests {
+
+	@Test
+	void nuncaDescartaUnValorAgregado() {
+		FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filtro.agregar("EST" + i);
+		}
+
+		for (int i = 0; i < 10_000; i++) {
+			assertTrue(filtro.puedeContener("EST" + i));
+		}
+	}
+
+	@Test
+	void tasaDeFalsosPositivosCercanaALaConfigurada() {
+		FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filtro.agregar("estudiante" + i + "@universidad.edu");
+		}
+
+		int falsosPositivos = 0;
+		for (int i = 0; i < 100_000; i++) {
+			if (filtro.puedeContener("otro" + i + "@universidad.edu")) {
+				falsosPositivos++;
+			}
+		}
+
+		assertTrue(falsosPositivos < 2_000, "Falsos positivos: " + falsosPositivos);
+	}
+}
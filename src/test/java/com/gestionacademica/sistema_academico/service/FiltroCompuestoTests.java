@@ -0,0 +1,153 @@
+package com.gestionacademica.sistema_academico.service;
+
+import com.gestionacademica.sistema_academico.entity.Estudiante;
+import com.gestionacademica.sistema_academico.repository.proyeccion.EstudianteFila;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FiltroCompuestoTests {
+
+	private static final Set<String> CAMPOS = Set.of("id", "apellido");
+
+	@Test
+	void ordenaPorIdSiNoSeIndica() {
+		assertEquals(Sort.by("id"), FiltroCompuesto.ordenar(null, CAMPOS));
+		assertEquals(Sort.by("id"), FiltroCompuesto.ordenar(" ", CAMPOS));
+	}
+
+	@Test
+	void agregaElIdComoDesempate() {
+		assertEquals(Sort.by(Sort.Direction.DESC, "apellido").and(Sort.by("id")),
+				FiltroCompuesto.ordenar("apellido,desc", CAMPOS));
+		assertEquals(Sort.by(Sort.Direction.DESC, "id"), FiltroCompuesto.ordenar("id,DESC", CAMPOS));
+	}
+
+	@Test
+	void rechazaCamposYDireccionesDesconocidos() {
+		assertThrows(IllegalArgumentException.class, () -> FiltroCompuesto.ordenar("password", CAMPOS));
+		assertThrows(IllegalArgumentException.class, () -> FiltroCompuesto.ordenar("apellido,arriba", CAMPOS));
+	}
+
+	@Test
+	void ignoraLasCondicionesSinValor() {
+		FiltroCompuesto<Object> filtro = new FiltroCompuesto<>()
+				.y(FiltroCompuesto.contiene("apellido", " "))
+				.y(FiltroCompuesto.igual("creditos", null));
+
+		assertTrue(filtro.estaVacio());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void proyectaLosAtributosConLosFiltrosElOrdenYElLimite() {
+		EntityManager entityManager = mock(EntityManager.class);
+		CriteriaBuilder cb = mock(CriteriaBuilder.class);
+		CriteriaQuery<EstudianteFila> query = mock(CriteriaQuery.class);
+		Root<Estudiante> root = mock(Root.class);
+		TypedQuery<EstudianteFila> consulta = mock(TypedQuery.class);
+		when(entityManager.getCriteriaBuilder()).thenReturn(cb);
+		when(cb.createQuery(EstudianteFila.class)).thenReturn(query);
+		when(query.from(Estudiante.class)).thenReturn(root);
+		when(entityManager.createQuery(query)).thenReturn(consulta);
+
+		// Una ruta por atributo de la entidad
+		Map<String, Path<Object>> rutas = new HashMap<>();
+		when(root.get(anyString())).thenAnswer(invocacion ->
+				rutas.computeIfAbsent(invocacion.getArgument(0), atributo -> mock(Path.class)));
+		doReturn(Estudiante.class).when(root).getJavaType();
+		Selection<?>[][] seleccion = new Selection<?>[1][];
+		when(cb.construct(eq(EstudianteFila.class), any(Selection[].class))).thenAnswer(invocacion -> {
+			seleccion[0] = (Selection<?>[]) invocacion.getRawArguments()[1];
+			return mock(CompoundSelection.class);
+		});
+
+		// (nombre LIKE ... OR apellido LIKE ...) AND carnet = ...
+		when(cb.lower(any())).thenAnswer(invocacion -> invocacion.getArgument(0));
+		Predicate porNombre = mock(Predicate.class, "porNombre");
+		Predicate porApellido = mock(Predicate.class, "porApellido");
+		Predicate alguno = mock(Predicate.class, "alguno");
+		Predicate porCarnet = mock(Predicate.class, "porCarnet");
+		Predicate todos = mock(Predicate.class, "todos");
+		when(cb.like(any(), eq("%gonz\\_%"), eq('\\'))).thenAnswer(invocacion ->
+				invocacion.getArgument(0) == rutas.get("nombre") ? porNombre : porApellido);
+		when(cb.or(new Predicate[] {porNombre, porApellido})).thenReturn(alguno);
+		when(cb.equal(any(), eq("2023001"))).thenReturn(porCarnet);
+		when(cb.and(alguno, porCarnet)).thenReturn(todos);
+		Order porApellidoDesc = mock(Order.class);
+		Order porId = mock(Order.class);
+		when(cb.desc(any())).thenReturn(porApellidoDesc);
+		when(cb.asc(any())).thenReturn(porId);
+
+		List<EstudianteFila> filas = List.of(new EstudianteFila(1L, "2023001", "Ana", "Gonz_lez",
+				"ana@universidad.edu", null, LocalDate.of(2004, 5, 1), LocalDate.of(2023, 3, 1)));
+		when(consulta.getResultList()).thenReturn(filas);
+
+		FiltroCompuesto<Estudiante> filtro = new FiltroCompuesto<Estudiante>()
+				.y(FiltroCompuesto.contieneEnAlguno(" Gonz_ ", "nombre", "apellido"))
+				.y(FiltroCompuesto.igual("carnet", "2023001"));
+		Sort sort = FiltroCompuesto.ordenar("apellido,desc", Set.of("id", "apellido"));
+
+		assertEquals(filas, filtro.proyectar(entityManager, Estudiante.class, sort,
+				EstudianteFila.class, EstudianteFila.ATRIBUTOS, 21));
+
+		assertEquals(EstudianteFila.ATRIBUTOS.stream().map(rutas::get).toList(), Arrays.asList(seleccion[0]));
+		verify(query).where(todos);
+		verify(query).orderBy(List.of(porApellidoDesc, porId));
+		verify(cb).desc(rutas.get("apellido"));
+		verify(cb).asc(rutas.get("id"));
+		verify(consulta).setMaxResults(21);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void sinLimiteNiFiltrosProyectaTodasLasFilas() {
+		EntityManager entityManager = mock(EntityManager.class);
+		CriteriaBuilder cb = mock(CriteriaBuilder.class);
+		CriteriaQuery<EstudianteFila> query = mock(CriteriaQuery.class);
+		Root<Estudiante> root = mock(Root.class);
+		TypedQuery<EstudianteFila> consulta = mock(TypedQuery.class);
+		when(entityManager.getCriteriaBuilder()).thenReturn(cb);
+		when(cb.createQuery(EstudianteFila.class)).thenReturn(query);
+		when(query.from(Estudiante.class)).thenReturn(root);
+		when(root.get(anyString())).thenReturn(mock(Path.class));
+		doReturn(Estudiante.class).when(root).getJavaType();
+		when(entityManager.createQuery(query)).thenReturn(consulta);
+		when(consulta.getResultList()).thenReturn(List.of());
+
+		new FiltroCompuesto<Estudiante>().proyectar(entityManager, Estudiante.class, Sort.by("id"),
+				EstudianteFila.class, EstudianteFila.ATRIBUTOS);
+
+		verify(query, never()).where(any(Predicate.class));
+		verify(consulta, never()).setMaxResults(anyInt());
+	}
+}
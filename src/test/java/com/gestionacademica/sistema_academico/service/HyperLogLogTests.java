@@ -0,0 +1,121 @@
+package com.gestionacademica.sistema_academico.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HyperLogLogTests {
+
+	private static void assertDentroDelError(long exacto, HyperLogLog sketch) {
+		// 3 errores estándar: con 0.81 % por sketch, falla por azar con probabilidad ~0.3 %
+		double error = Math.abs(sketch.estimar() - exacto) / (double) exacto;
+		assertTrue(error <= 3 * sketch.errorRelativo(),
+				"exacto = " + exacto + ", estimado = " + sketch.estimar() + ", error = " + error);
+	}
+
+	@Test
+	void cuentaExactoMientrasHayPocosElementos() {
+		HyperLogLog sketch = new HyperLogLog();
+		for (long id = 1; id <= 1000; id++) {
+			sketch.agregar(id);
+			sketch.agregar(id);
+		}
+
+		assertTrue(sketch.esExacto());
+		assertEquals(1000, sketch.estimar());
+		assertEquals(0, sketch.errorRelativo());
+	}
+
+	@Test
+	void elErrorQuedaDentroDeLaCotaEnTodoElRango() {
+		Random aleatorio = new Random(2025);
+		for (int distintos : new int[] {2_000, 10_000, 50_000, 100_000, 1_000_000}) {
+			HyperLogLog sketch = new HyperLogLog();
+			Set<Long> exactos = new HashSet<>();
+			while (exactos.size() < distintos) {
+				long id = aleatorio.nextLong() & Long.MAX_VALUE;
+				exactos.add(id);
+				sketch.agregar(id);
+				// Repetidos (un estudiante con varias inscripciones) no cambian el conteo
+				if (exactos.size() % 3 == 0) {
+					sketch.agregar(id);
+				}
+			}
+
+			assertFalse(sketch.esExacto());
+			assertDentroDelError(exactos.size(), sketch);
+		}
+	}
+
+	@Test
+	void conIdsConsecutivosTambienQuedaDentroDeLaCota() {
+		HyperLogLog sketch = new HyperLogLog();
+		for (long id = 1; id <= 300_000; id++) {
+			sketch.agregar(id);
+		}
+
+		assertDentroDelError(300_000, sketch);
+	}
+
+	@Test
+	void combinarEquivaleAContarLaUnion() {
+		// Dos ciclos que comparten 20 000 estudiantes
+		HyperLogLog ciclo1 = new HyperLogLog();
+		HyperLogLog ciclo2 = new HyperLogLog();
+		HyperLogLog union = new HyperLogLog();
+		for (long id = 1; id <= 60_000; id++) {
+			ciclo1.agregar(id);
+			union.agregar(id);
+		}
+		for (long id = 40_001; id <= 90_000; id++) {
+			ciclo2.agregar(id);
+			union.agregar(id);
+		}
+
+		HyperLogLog combinado = new HyperLogLog();
+		combinado.combinar(ciclo1);
+		combinado.combinar(ciclo2);
+
+		assertEquals(union.estimar(), combinado.estimar());
+		assertDentroDelError(90_000, combinado);
+		// Los sketches combinados no cambian
+		assertDentroDelError(60_000, ciclo1);
+	}
+
+	@Test
+	void combinaSketchesExactosConSketchesDeRegistros() {
+		HyperLogLog pocos = new HyperLogLog();
+		for (long id = 1; id <= 500; id++) {
+			pocos.agregar(id);
+		}
+		HyperLogLog muchos = new HyperLogLog();
+		for (long id = 1_001; id <= 51_000; id++) {
+			muchos.agregar(id);
+		}
+
+		HyperLogLog exactoPrimero = pocos.copia();
+		exactoPrimero.combinar(muchos);
+		HyperLogLog registrosPrimero = muchos.copia();
+		registrosPrimero.combinar(pocos);
+
+		assertEquals(exactoPrimero.estimar(), registrosPrimero.estimar());
+		assertDentroDelError(50_500, exactoPrimero);
+
+		HyperLogLog dosExactos = pocos.copia();
+		dosExactos.combinar(pocos);
+		assertEquals(500, dosExactos.estimar());
+		assertTrue(dosExactos.esExacto());
+	}
+
+	@Test
+	void noCombinaPrecisionesDistintas() {
+		assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(14).combinar(new HyperLogLog(12)));
+	}
+}
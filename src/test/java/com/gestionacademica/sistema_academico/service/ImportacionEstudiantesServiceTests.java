@@ -0,0 +1,44 @@
+package com.gestionacademica.sistema_academico.service;
+
+import com.gestionacademica.sistema_academico.dto.ErrorFilaDTO;
+import com.gestionacademica.sistema_academico.entity.Estudiante;
+import com.gestionacademica.sistema_academico.service.ImportacionEstudiantesService.FilaImportacion;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ImportacionEstudiantesServiceTests {
+
+	private static FilaImportacion fila(int numero, String carnet, String email) {
+		Estudiante estudiante = new Estudiante(carnet, "Nombre", "Apellido", email, null, null, null);
+		return new FilaImportacion(numero, carnet, estudiante, null);
+	}
+
+	@Test
+	void soloLasFilasQueSeInsertanReservanCarnetYEmail() {
+		List<FilaImportacion> validas = List.of(
+				fila(2, "EST001", "a@uni.edu"),
+				fila(3, "EST001", "b@uni.edu"),
+				fila(4, "EST002", "b@uni.edu"),
+				fila(5, "EST003", "c@uni.edu"),
+				fila(6, "EST004", "c@uni.edu"),
+				fila(7, "EST005", "a@uni.edu"));
+		// La fila 5 choca con un estudiante ya registrado
+		Set<Integer> rechazadas = new HashSet<>(Set.of(5));
+		List<ErrorFilaDTO> errores = new ArrayList<>();
+
+		ImportacionEstudiantesService.rechazarRepetidas(validas, rechazadas, errores);
+
+		// La 3 repite el carnet de la 2; su email no impide insertar la 4. La 6 queda porque
+		// la 5 no se inserta; la 7 repite el email de la 2
+		assertEquals(Set.of(3, 5, 7), rechazadas);
+		assertEquals(List.of(3, 7), errores.stream().map(ErrorFilaDTO::getFila).toList());
+		assertEquals("El carnet está repetido en el archivo: EST001", errores.get(0).getMensaje());
+		assertEquals("El email está repetido en el archivo: a@uni.edu", errores.get(1).getMensaje());
+	}
+}
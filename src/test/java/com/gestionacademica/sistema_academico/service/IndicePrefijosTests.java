@@ -0,0 +1,172 @@
+package com.gestionacademica.sistema_academico.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndicePrefijosTests {
+
+	private static List<IndicePrefijos.Termino> terminos(String carnet, String apellido) {
+		return List.of(new IndicePrefijos.Termino("carnet", carnet), new IndicePrefijos.Termino("apellido", apellido));
+	}
+
+	private static List<Long> ids(List<IndicePrefijos.Coincidencia> coincidencias) {
+		return coincidencias.stream().map(IndicePrefijos.Coincidencia::id).toList();
+	}
+
+	private IndicePrefijos indice() {
+		IndicePrefijos indice = new IndicePrefijos();
+		indice.construir(Map.of(
+				1L, terminos("EST001", "Gómez"),
+				2L, terminos("EST002", "González"),
+				3L, terminos("EST010", "De la Cruz"),
+				4L, terminos("MAT100", "Gomera")));
+		return indice;
+	}
+
+	@Test
+	void buscaPorPrefijoSinMayusculasNiTildesEnOrdenAlfabetico() {
+		IndicePrefijos indice = indice();
+
+		assertEquals(List.of(4L, 1L, 2L), ids(indice.buscar("GO", 10)));
+		assertEquals(List.of(1L, 2L), ids(indice.buscar("est00", 10)));
+		assertEquals("Gómez", indice.buscar("gom", 10).get(1).texto());
+		assertEquals(List.of(3L), ids(indice.buscar("cruz", 10)));
+		assertTrue(indice.buscar("xyz", 10).isEmpty());
+	}
+
+	@Test
+	void respetaElLimiteYDevuelveUnResultadoPorId() {
+		IndicePrefijos indice = new IndicePrefijos();
+		indice.construir(Map.of(1L, terminos("ANA1", "Anaya")));
+
+		assertEquals(1, indice.buscar("ana", 10).size());
+		assertEquals(List.of(1L, 2L), ids(indice().buscar("est", 2)));
+	}
+
+	@Test
+	void seMantieneConCadaEscritura() {
+		IndicePrefijos indice = indice();
+
+		indice.actualizar(2L, terminos("EST002", "Pérez"));
+		indice.eliminar(1L);
+		indice.actualizar(5L, terminos("EST005", "Gonzalo"));
+
+		assertEquals(List.of(4L, 5L), ids(indice.buscar("go", 10)));
+		assertEquals(List.of(2L), ids(indice.buscar("pere", 10)));
+		assertEquals(List.of(2L, 5L, 3L), ids(indice.buscar("est0", 10)));
+	}
+
+	@Test
+	void aplicaLasEscriturasHechasDuranteLaConstruccion() {
+		IndicePrefijos indice = new IndicePrefijos();
+		indice.actualizar(9L, terminos("EST009", "Ignorado"));
+
+		// La fuente lee el estado antes de que otro hilo confirme sus escrituras
+		indice.construirSiHaceFalta(() -> {
+			Map<Long, List<IndicePrefijos.Termino>> leidos = new HashMap<>(Map.of(
+					1L, terminos("EST001", "Gómez"),
+					2L, terminos("EST002", "González")));
+			Thread escritor = new Thread(() -> {
+				indice.actualizar(2L, terminos("EST002", "Pérez"));
+				indice.eliminar(1L);
+				indice.actualizar(3L, terminos("EST003", "Gonzalo"));
+			});
+			escritor.start();
+			try {
+				escritor.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return leidos;
+		});
+
+		assertTrue(indice.estaConstruido());
+		assertEquals(List.of(3L), ids(indice.buscar("go", 10)));
+		assertEquals(List.of(2L), ids(indice.buscar("pere", 10)));
+		assertEquals(List.of(2L, 3L), ids(indice.buscar("est", 10)));
+
+		// Una vez construido se escribe directo, sin cola pendiente
+		indice.eliminar(3L);
+		assertTrue(indice.buscar("gonzalo", 10).isEmpty());
+	}
+
+	/**
+	 * Carga de escritura en el buscador: varios hilos "tecleando" prefijos de 1 a 6
+	 * caracteres sobre 100 000 estudiantes mientras otro hilo actualiza el índice.
+	 * El límite del p99 es holgado para no depender de la máquina. Solo se ejecuta a pedido:
+	 * mvn test -Dtest=IndicePrefijosTests -Dcarga.autocompletar=true
+	 */
+	@Test
+	@EnabledIfSystemProperty(named = "carga.autocompletar", matches = "true")
+	void p99BajoCargaConcurrenteDeTecleo() throws Exception {
+		String[] apellidos = {"Gómez", "González", "Pérez", "Rodríguez", "Martínez", "López", "Sánchez", "Ramírez"};
+		Map<Long, List<IndicePrefijos.Termino>> datos = new HashMap<>();
+		for (long id = 1; id <= 100_000; id++) {
+			datos.put(id, terminos(String.format("EST%06d", id), apellidos[(int) (id % apellidos.length)] + " " + id));
+		}
+		IndicePrefijos indice = new IndicePrefijos();
+		indice.construir(datos);
+
+		int hilos = 8;
+		int consultasPorHilo = 20_000;
+		ExecutorService ejecutor = Executors.newFixedThreadPool(hilos + 1);
+		try {
+			Future<?> escritor = ejecutor.submit(() -> {
+				Random aleatorio = new Random(7);
+				for (int i = 0; i < 5_000; i++) {
+					long id = 1 + aleatorio.nextInt(100_000);
+					indice.actualizar(id, terminos(String.format("EST%06d", id), "Actualizado " + id));
+				}
+			});
+
+			List<Future<long[]>> tiempos = new ArrayList<>();
+			for (int h = 0; h < hilos; h++) {
+				int semilla = h;
+				tiempos.add(ejecutor.submit(() -> {
+					Random aleatorio = new Random(semilla);
+					long[] nanos = new long[consultasPorHilo];
+					for (int i = 0; i < consultasPorHilo; i++) {
+						String palabra = aleatorio.nextBoolean()
+								? String.format("EST%06d", 1 + aleatorio.nextInt(100_000))
+								: apellidos[aleatorio.nextInt(apellidos.length)];
+						String prefijo = palabra.substring(0, 1 + aleatorio.nextInt(Math.min(6, palabra.length())));
+						long inicio = System.nanoTime();
+						indice.buscar(prefijo, 10);
+						nanos[i] = System.nanoTime() - inicio;
+					}
+					return nanos;
+				}));
+			}
+
+			escritor.get(1, TimeUnit.MINUTES);
+			long[] todos = new long[0];
+			for (Future<long[]> tiempo : tiempos) {
+				long[] parcial = tiempo.get(1, TimeUnit.MINUTES);
+				todos = Arrays.copyOf(todos, todos.length + parcial.length);
+				System.arraycopy(parcial, 0, todos, todos.length - parcial.length, parcial.length);
+			}
+			Arrays.sort(todos);
+
+			long p50 = todos[todos.length / 2];
+			long p99 = todos[(int) (todos.length * 0.99)];
+			assertTrue(p99 < TimeUnit.MILLISECONDS.toNanos(5),
+					"p50 = " + p50 / 1_000 + " µs, p99 = " + p99 / 1_000 + " µs");
+		} finally {
+			ejecutor.shutdownNow();
+		}
+	}
+}
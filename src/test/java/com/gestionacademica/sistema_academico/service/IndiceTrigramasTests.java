@@ -0,0 +1,76 @@
+package com.gestionacademica.sistema_academico.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndiceTrigramasTests {
+
+	@Test
+	void similitudCoincideConPgTrgm() {
+		// Valor documentado por PostgreSQL: similarity('word', 'two words') = 0.363636
+		assertEquals(0.363636, IndiceTrigramas.similitud("word", "two words"), 1e-6);
+		assertEquals(1.0, IndiceTrigramas.similitud("González", "gonzález"), 1e-9);
+	}
+
+	@Test
+	void buscaPorSubcadenaYOrdenaPorSimilitud() {
+		IndiceTrigramas indice = new IndiceTrigramas();
+		indice.construir(Map.of(
+				1L, List.of("María José", "González López"),
+				2L, List.of("Pedro", "Gonzalo"),
+				3L, List.of("Ana", "Pérez"),
+				4L, List.of("Gonz", "Ruiz")));
+
+		assertEquals(List.of(4L, 2L, 1L), indice.buscar("GONZ", 10));
+		assertEquals(List.of(4L), indice.buscar("gonz", 1));
+		assertTrue(indice.buscar("xyz", 10).isEmpty());
+	}
+
+	@Test
+	void mantieneElIndiceConActualizacionesYEliminaciones() {
+		IndiceTrigramas indice = new IndiceTrigramas();
+		indice.construir(Map.of(1L, List.of("Ana", "Pérez")));
+
+		indice.actualizar(1L, List.of("Ana", "Ramírez"));
+		indice.actualizar(2L, List.of("Luis", "Pérez"));
+		assertEquals(List.of(2L), indice.buscar("pérez", 10));
+
+		indice.eliminar(2L);
+		assertTrue(indice.buscar("pérez", 10).isEmpty());
+		assertEquals(List.of(1L), indice.buscar("ra", 10));
+	}
+
+	@Test
+	void aplicaLasEscriturasHechasDuranteLaConstruccion() {
+		IndiceTrigramas indice = new IndiceTrigramas();
+
+		indice.construirSiHaceFalta(() -> {
+			Map<Long, List<String>> leidos = new HashMap<>(Map.of(
+					1L, List.of("Ana", "Pérez"),
+					2L, List.of("Luis", "Gómez")));
+			Thread escritor = new Thread(() -> {
+				indice.actualizar(1L, List.of("Ana", "Ramírez"));
+				indice.eliminar(2L);
+				indice.actualizar(3L, List.of("Marta", "Pérez"));
+			});
+			escritor.start();
+			try {
+				escritor.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return leidos;
+		});
+
+		assertTrue(indice.estaConstruido());
+		assertEquals(List.of(3L), indice.buscar("pérez", 10));
+		assertEquals(List.of(1L), indice.buscar("ramírez", 10));
+		assertTrue(indice.buscar("gómez", 10).isEmpty());
+	}
+}
@@ -0,0 +1,127 @@
+package com.gestionacademica.sistema_academico.service;
+
+import com.gestionacademica.sistema_academico.dto.LoteInscripcionesResultadoDTO;
+import com.gestionacademica.sistema_academico.dto.ResultadoInscripcionDTO;
+import com.gestionacademica.sistema_academico.dto.SolicitudInscripcionDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prueba de carga de la inscripción por lotes contra la base de datos configurada (PostgreSQL
+ * con schema.sql). Crea sus propios estudiantes, cursos y profesor y los elimina al terminar.
+ * Solo se ejecuta a pedido:
+ * mvn test -Dtest=InscripcionServiceCargaTests -Dcarga.inscripciones=true
+ * Parámetros opcionales: carga.hilos (8), carga.lotes (400), carga.tamano-lote (1000) y
+ * carga.minimo-por-segundo (2000).
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "carga.inscripciones", matches = "true")
+class InscripcionServiceCargaTests {
+
+	private static final int CURSOS = 50;
+
+	@Autowired
+	private InscripcionService inscripcionService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final int hilos = Integer.getInteger("carga.hilos", 8);
+	private final int lotes = Integer.getInteger("carga.lotes", 400);
+	private final int tamañoLote = Integer.getInteger("carga.tamano-lote", 1000);
+	private final int minimoPorSegundo = Integer.getInteger("carga.minimo-por-segundo", 2000);
+
+	private final String sufijo = Long.toString(System.nanoTime() % 1_000_000_000L, 36);
+	private long profesor;
+	private List<Long> cursos;
+	private List<Long> estudiantes;
+
+	@BeforeEach
+	void crearDatos() {
+		profesor = jdbcTemplate.queryForObject("INSERT INTO profesores (nombre, apellido, email) " +
+				"VALUES ('Carga', 'Prueba', ?) RETURNING id", Long.class, "carga-" + sufijo + "@prueba.local");
+		cursos = jdbcTemplate.queryForList("INSERT INTO cursos (codigo, nombre, creditos, profesor_id) " +
+				"SELECT 'CRG' || ? || '-' || g, 'Curso de carga ' || g, 3, ? FROM generate_series(1, ?) g " +
+				"RETURNING id", Long.class, sufijo, profesor, CURSOS);
+		// Cada estudiante se inscribe en todos los cursos: lotes × tamaño / CURSOS estudiantes
+		int cantidadEstudiantes = (lotes * tamañoLote + CURSOS - 1) / CURSOS;
+		estudiantes = jdbcTemplate.queryForList("INSERT INTO estudiantes (carnet, nombre, apellido, email) " +
+				"SELECT 'C' || ? || '-' || g, 'Estudiante', 'Carga ' || g, 'c' || g || '-' || ? || '@prueba.local' " +
+				"FROM generate_series(1, ?) g ORDER BY g RETURNING id", Long.class, sufijo, sufijo, cantidadEstudiantes);
+	}
+
+	@AfterEach
+	void eliminarDatos() {
+		String cursosCreados = "SELECT id FROM cursos WHERE codigo LIKE 'CRG' || ? || '-%'";
+		jdbcTemplate.update("DELETE FROM inscripciones WHERE curso_id IN (" + cursosCreados + ")", sufijo);
+		jdbcTemplate.update("DELETE FROM cursos WHERE codigo LIKE 'CRG' || ? || '-%'", sufijo);
+		jdbcTemplate.update("DELETE FROM estudiantes WHERE carnet LIKE 'C' || ? || '-%'", sufijo);
+		jdbcTemplate.update("DELETE FROM profesores WHERE id = ?", profesor);
+	}
+
+	/**
+	 * Solicitudes del lote indicado: la inscripción n es del estudiante n / CURSOS en el curso n % CURSOS
+	 */
+	private List<SolicitudInscripcionDTO> lote(int numero) {
+		List<SolicitudInscripcionDTO> solicitudes = new ArrayList<>(tamañoLote);
+		for (int n = numero * tamañoLote; n < (numero + 1) * tamañoLote; n++) {
+			solicitudes.add(new SolicitudInscripcionDTO(estudiantes.get(n / CURSOS), cursos.get(n % CURSOS),
+					"2025-1", LocalDate.of(2025, 3, 1).plusDays(n % 14), n % 3 == 0 ? null : (double) (n % 21)));
+		}
+		return solicitudes;
+	}
+
+	@Test
+	void sostieneMilesDeInscripcionesPorSegundo() throws Exception {
+		AtomicInteger siguiente = new AtomicInteger();
+		AtomicInteger creadas = new AtomicInteger();
+		ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+		List<Future<?>> tareas = new ArrayList<>();
+
+		long inicio = System.nanoTime();
+		for (int h = 0; h < hilos; h++) {
+			tareas.add(ejecutor.submit(() -> {
+				for (int numero = siguiente.getAndIncrement(); numero < lotes; numero = siguiente.getAndIncrement()) {
+					LoteInscripcionesResultadoDTO resultado = inscripcionService.crearLote(lote(numero));
+					assertEquals(tamañoLote, resultado.getCreadas(), "lote " + numero);
+					creadas.addAndGet(resultado.getCreadas());
+				}
+				return null;
+			}));
+		}
+		for (Future<?> tarea : tareas) {
+			tarea.get();
+		}
+		ejecutor.shutdown();
+		double segundos = (System.nanoTime() - inicio) / 1e9;
+		double porSegundo = creadas.get() / segundos;
+
+		assertEquals(lotes * tamañoLote, creadas.get());
+		assertTrue(porSegundo >= minimoPorSegundo, String.format(
+				"Rendimiento %.0f/s menor que %d (%d hilos, lotes de %d, %d inscripciones en %.1f s)",
+				porSegundo, minimoPorSegundo, hilos, tamañoLote, creadas.get(), segundos));
+
+		// Reenviar un lote ya creado: ON CONFLICT lo rechaza completo sin error
+		LoteInscripcionesResultadoDTO repetido = inscripcionService.crearLote(lote(0));
+		assertEquals(0, repetido.getCreadas());
+		for (ResultadoInscripcionDTO resultado : repetido.getResultados()) {
+			assertEquals(InscripcionService.DUPLICADA, resultado.getEstado());
+		}
+	}
+}
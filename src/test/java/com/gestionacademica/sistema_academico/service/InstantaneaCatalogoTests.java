@@ -0,0 +1,63 @@
+package com.gestionacademica.sistema_academico.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InstantaneaCatalogoTests {
+
+	record Fila(Long id, String nombre, Integer creditos) {}
+
+	private static final Map<String, Function<Fila, ?>> INDICES = Map.of("creditos", Fila::creditos);
+
+	private final InstantaneaCatalogo<Fila> catalogo = InstantaneaCatalogo.de(List.of(
+			new Fila(7L, "Física", 4),
+			new Fila(2L, "Álgebra", 3),
+			new Fila(5L, "cálculo", 4),
+			new Fila(9L, null, null)), Fila::id, INDICES);
+
+	@Test
+	void ordenaPorIdYPaginaDespuesDeUnId() {
+		assertEquals(List.of(2L, 5L, 7L, 9L), catalogo.todas().stream().map(Fila::id).toList());
+		assertEquals(List.of(5L, 7L), catalogo.despuesDeId(2L, 2).stream().map(Fila::id).toList());
+		assertEquals(List.of(7L, 9L), catalogo.despuesDeId(6L, 5).stream().map(Fila::id).toList());
+		assertTrue(catalogo.despuesDeId(9L, 5).isEmpty());
+	}
+
+	@Test
+	void indexaPorValorSinIncluirNulos() {
+		assertEquals(List.of(5L, 7L), catalogo.porIndice("creditos", 4).stream().map(Fila::id).toList());
+		assertTrue(catalogo.porIndice("creditos", 99).isEmpty());
+		assertEquals(2, catalogo.valoresIndice("creditos").size());
+	}
+
+	@Test
+	void losCambiosProducenUnaInstantaneaNueva() {
+		InstantaneaCatalogo<Fila> cambiado = catalogo.conFila(new Fila(5L, "Cálculo I", 3)).sinFila(7L);
+
+		assertEquals(List.of(2L, 5L, 9L), cambiado.todas().stream().map(Fila::id).toList());
+		assertEquals(List.of(2L, 5L), cambiado.porIndice("creditos", 3).stream().map(Fila::id).toList());
+		assertEquals(List.of(5L, 7L), catalogo.porIndice("creditos", 4).stream().map(Fila::id).toList());
+	}
+
+	@Test
+	void comparadorOrdenaComoLaBaseDeDatos() {
+		Map<String, Function<Fila, ?>> campos = Map.of("id", Fila::id, "nombre", Fila::nombre);
+
+		List<Long> ascendente = catalogo.todas().stream()
+				.sorted(FiltroCompuesto.comparador(FiltroCompuesto.ordenar("nombre", campos.keySet()), campos))
+				.map(Fila::id).toList();
+		List<Long> descendente = catalogo.todas().stream()
+				.sorted(FiltroCompuesto.comparador(Sort.by(Sort.Direction.DESC, "nombre").and(Sort.by("id")), campos))
+				.map(Fila::id).toList();
+
+		assertEquals(List.of(2L, 5L, 7L, 9L), ascendente);
+		assertEquals(List.of(9L, 7L, 5L, 2L), descendente);
+	}
+}
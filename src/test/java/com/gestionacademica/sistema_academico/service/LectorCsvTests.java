@@ -0,0 +1,28 @@
+package com.gestionacademica.sistema_academico.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LectorCsvTests {
+
+	@Test
+	void leeCamposEntreComillasYLineasVacias() {
+		String csv = "carnet,nombre\r\n"
+				+ "EST001,\"González, María\"\r\n"
+				+ "\n"
+				+ "EST002,\"Dice \"\"hola\"\"\nen dos líneas\"\n"
+				+ "EST003,";
+
+		List<List<String>> registros = LectorCsv.leer(new StringReader(csv));
+
+		assertEquals(List.of(
+				List.of("carnet", "nombre"),
+				List.of("EST001", "González, María"),
+				List.of("EST002", "Dice \"hola\"\nen dos líneas"),
+				List.of("EST003", "")), registros);
+	}
+}
@@ -0,0 +1,113 @@
+package com.gestionacademica.sistema_academico.service;
+
+import com.gestionacademica.sistema_academico.dto.PaginaDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PaginacionTests {
+
+	private record Fila(String orden, long id) {}
+
+	@Test
+	void elCursorEsOpacoYSeDecodificaIgual() {
+		for (String clave : List.of("42", "2024-03-01|17", "|9", "Núñez|ñ/+?=")) {
+			String cursor = Paginacion.codificar(clave);
+			assertTrue(cursor.matches("[A-Za-z0-9_-]+"), cursor);
+			assertEquals(clave, Paginacion.decodificar(cursor));
+			assertEquals(clave, Paginacion.decodificar(" " + cursor + " "));
+		}
+		assertEquals(42L, Paginacion.decodificarId(Paginacion.codificar("42")));
+	}
+
+	@Test
+	void sinCursorEsLaPrimeraPagina() {
+		assertNull(Paginacion.decodificar(null));
+		assertNull(Paginacion.decodificar("  "));
+		assertEquals(0L, Paginacion.decodificarId(null));
+	}
+
+	@Test
+	void rechazaCursoresInvalidosOAlterados() {
+		assertThrows(IllegalArgumentException.class, () -> Paginacion.decodificar("no es base64!"));
+		assertThrows(IllegalArgumentException.class, () -> Paginacion.decodificar("a"));
+		// Base64 válido pero con una clave que no es un ID
+		assertThrows(IllegalArgumentException.class, () -> Paginacion.decodificarId(Paginacion.codificar("12x")));
+		// Un carácter cambiado en el cursor de un ID
+		String alterado = "X" + Paginacion.codificar("123456").substring(1);
+		assertThrows(IllegalArgumentException.class, () -> Paginacion.decodificarId(alterado));
+	}
+
+	@Test
+	void normalizaElLimite() {
+		Paginacion paginacion = new Paginacion();
+		ReflectionTestUtils.setField(paginacion, "limitePorDefecto", 20);
+		ReflectionTestUtils.setField(paginacion, "limiteMaximo", 100);
+
+		assertEquals(20, paginacion.normalizarLimite(null));
+		assertEquals(5, paginacion.normalizarLimite(5));
+		assertEquals(100, paginacion.normalizarLimite(500));
+		assertThrows(IllegalArgumentException.class, () -> paginacion.normalizarLimite(0));
+	}
+
+	@Test
+	void laPaginaUsaLaUltimaFilaComoCursorSoloSiHayMas() {
+		List<Fila> filas = List.of(new Fila("a", 1), new Fila("b", 2), new Fila("c", 3));
+
+		PaginaDTO<Long> conMas = Paginacion.armarPagina(filas, 2, Fila::id, fila -> fila.orden() + "|" + fila.id(), 10L);
+		assertEquals(List.of(1L, 2L), conMas.getData());
+		assertTrue(conMas.isHayMas());
+		assertEquals("b|2", Paginacion.decodificar(conMas.getSiguienteCursor()));
+		assertEquals(10L, conMas.getTotal());
+
+		PaginaDTO<Long> ultima = Paginacion.armarPagina(filas, 3, Fila::id, fila -> fila.orden() + "|" + fila.id(), null);
+		assertEquals(List.of(1L, 2L, 3L), ultima.getData());
+		assertFalse(ultima.isHayMas());
+		assertNull(ultima.getSiguienteCursor());
+	}
+
+	/**
+	 * Muchas filas con la misma clave de orden: el ID en el cursor desempata, así que al
+	 * recorrer todas las páginas cada fila aparece exactamente una vez
+	 */
+	@Test
+	void losEmpatesEnLaClaveDeOrdenNoPierdenNiRepitenFilas() {
+		List<Fila> todas = new ArrayList<>();
+		for (long id = 1; id <= 23; id++) {
+			todas.add(new Fila(id <= 10 ? "a" : id <= 20 ? "b" : "c", id));
+		}
+		Function<Fila, String> clave = fila -> fila.orden() + "|" + fila.id();
+
+		List<Long> recorridas = new ArrayList<>();
+		String cursor = null;
+		do {
+			String despuesDe = Paginacion.decodificar(cursor);
+			List<Fila> siguientes = todas.stream()
+					.filter(fila -> despuesDe == null || despues(fila, despuesDe))
+					.limit(4 + 1)
+					.toList();
+			PaginaDTO<Long> pagina = Paginacion.armarPagina(siguientes, 4, Fila::id, clave, null);
+			recorridas.addAll(pagina.getData());
+			cursor = pagina.getSiguienteCursor();
+		} while (cursor != null);
+
+		assertEquals(todas.stream().map(Fila::id).toList(), recorridas);
+	}
+
+	private static boolean despues(Fila fila, String clave) {
+		int separador = clave.indexOf('|');
+		String orden = clave.substring(0, separador);
+		long id = Long.parseLong(clave.substring(separador + 1));
+		int comparacion = fila.orden().compareTo(orden);
+		return comparacion > 0 || (comparacion == 0 && fila.id() > id);
+	}
+}
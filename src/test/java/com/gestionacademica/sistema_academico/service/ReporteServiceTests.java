@@ -0,0 +1,170 @@
+package com.gestionacademica.sistema_academico.service;
+
+import com.gestionacademica.sistema_academico.dto.reporte.CursosPorProfesorDTO;
+import com.gestionacademica.sistema_academico.dto.reporte.EstudiantesPorCicloDTO;
+import com.gestionacademica.sistema_academico.dto.reporte.NotaPromedioPorCursoDTO;
+import com.gestionacademica.sistema_academico.repository.ResumenReporteRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Resumen de reportes con el repositorio simulado: las secciones que fallan, no terminan a
+ * tiempo o no entran al ejecutor quedan en null con su causa, y el resto se retorna igual.
+ */
+class ReporteServiceTests {
+
+	private final ResumenReporteRepository resumenReporteRepository = mock(ResumenReporteRepository.class);
+	private final CacheReportes cacheReportes = mock(CacheReportes.class);
+	private final ReporteService reportes = new ReporteService();
+
+	// Libera las consultas bloqueadas al terminar cada prueba
+	private final CountDownLatch liberar = new CountDownLatch(1);
+
+	private final PlatformTransactionManager transacciones = new PlatformTransactionManager() {
+		@Override
+		public TransactionStatus getTransaction(TransactionDefinition definicion) {
+			return new SimpleTransactionStatus();
+		}
+
+		@Override
+		public void commit(TransactionStatus estado) {
+		}
+
+		@Override
+		public void rollback(TransactionStatus estado) {
+		}
+	};
+
+	@BeforeEach
+	void preparar() {
+		// La caché calcula siempre la sección
+		when(cacheReportes.obtener(anyString(), any())).thenAnswer(invocacion -> {
+			Supplier<?> calcular = invocacion.getArgument(1);
+			return new ResultadoCacheado<>(calcular.get(), Instant.now(), Duration.ZERO, Duration.ofMinutes(5), false);
+		});
+		when(resumenReporteRepository.findCursosPorProfesor()).thenReturn(
+				List.of(new CursosPorProfesorDTO("Eva Ríos", 2L)));
+		when(resumenReporteRepository.findNotaPromedioPorCurso()).thenReturn(
+				List.of(new NotaPromedioPorCursoDTO("Cálculo I", 14.5)));
+		when(resumenReporteRepository.findEstudiantesPorCiclo()).thenReturn(
+				List.of(new EstudiantesPorCicloDTO("2024-1", 30L)));
+		when(resumenReporteRepository.findCursosConMejorPromedio(any(Limit.class))).thenReturn(
+				List.of(new NotaPromedioPorCursoDTO("Cálculo I", 14.5)));
+
+		ReflectionTestUtils.setField(reportes, "resumenReporteRepository", resumenReporteRepository);
+		ReflectionTestUtils.setField(reportes, "cacheReportes", cacheReportes);
+		ReflectionTestUtils.setField(reportes, "transactionManager", transacciones);
+		ReflectionTestUtils.setField(reportes, "hilosResumen", 4);
+		ReflectionTestUtils.setField(reportes, "colaResumen", 4);
+		ReflectionTestUtils.setField(reportes, "timeoutResumen", Duration.ofSeconds(5));
+	}
+
+	@AfterEach
+	void cerrar() {
+		liberar.countDown();
+		reportes.cerrarEjecutorResumen();
+	}
+
+	@Test
+	void elResumenTraeLasCuatroSeccionesSinErrores() {
+		reportes.crearEjecutorResumen();
+
+		Map<String, Object> resumen = reportes.obtenerResumen().valor();
+
+		assertEquals(4, resumen.size());
+		assertEquals(1, ((List<?>) resumen.get(ReporteService.CURSOS_POR_PROFESOR)).size());
+		assertEquals(1, ((List<?>) resumen.get(ReporteService.TOP_3_CURSOS)).size());
+		assertFalse(resumen.containsKey(ReporteService.ERRORES));
+	}
+
+	@Test
+	void unaSeccionQueNoTerminaATiempoQuedaEnNull() throws Exception {
+		ReflectionTestUtils.setField(reportes, "timeoutResumen", Duration.ofMillis(200));
+		CountDownLatch interrumpida = new CountDownLatch(1);
+		when(resumenReporteRepository.findEstudiantesPorCiclo()).thenAnswer(invocacion -> {
+			try {
+				liberar.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				interrumpida.countDown();
+			}
+			return List.of();
+		});
+		reportes.crearEjecutorResumen();
+
+		long inicio = System.nanoTime();
+		Map<String, Object> resumen = reportes.obtenerResumen().valor();
+
+		assertTrue(System.nanoTime() - inicio < TimeUnit.SECONDS.toNanos(5));
+		assertNull(resumen.get(ReporteService.ESTUDIANTES_POR_CICLO));
+		assertEquals(1, ((List<?>) resumen.get(ReporteService.CURSOS_POR_PROFESOR)).size());
+		assertEquals(1, ((List<?>) resumen.get(ReporteService.NOTA_PROMEDIO_POR_CURSO)).size());
+		assertEquals(Map.of(ReporteService.ESTUDIANTES_POR_CICLO, "Tiempo de espera agotado (200 ms)"),
+				resumen.get(ReporteService.ERRORES));
+		// La sección vencida se cancela y su hilo queda libre
+		assertTrue(interrumpida.await(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void unaSeccionQueFallaNoImpideElRestoDelResumen() {
+		when(resumenReporteRepository.findNotaPromedioPorCurso()).thenThrow(new IllegalStateException("sin conexión"));
+		reportes.crearEjecutorResumen();
+
+		Map<String, Object> resumen = reportes.obtenerResumen().valor();
+
+		assertNull(resumen.get(ReporteService.NOTA_PROMEDIO_POR_CURSO));
+		assertEquals(1, ((List<?>) resumen.get(ReporteService.CURSOS_POR_PROFESOR)).size());
+		assertEquals(1, ((List<?>) resumen.get(ReporteService.ESTUDIANTES_POR_CICLO)).size());
+		assertEquals(1, ((List<?>) resumen.get(ReporteService.TOP_3_CURSOS)).size());
+		assertEquals(Map.of(ReporteService.NOTA_PROMEDIO_POR_CURSO, "Error al obtener el reporte: sin conexión"),
+				resumen.get(ReporteService.ERRORES));
+	}
+
+	@Test
+	void lasSeccionesQueNoEntranAlEjecutorSeRechazan() {
+		// Un hilo ocupado por la primera sección y un lugar en la cola para la segunda
+		ReflectionTestUtils.setField(reportes, "hilosResumen", 1);
+		ReflectionTestUtils.setField(reportes, "colaResumen", 1);
+		ReflectionTestUtils.setField(reportes, "timeoutResumen", Duration.ofMillis(200));
+		when(resumenReporteRepository.findCursosPorProfesor()).thenAnswer(invocacion -> {
+			liberar.await(10, TimeUnit.SECONDS);
+			return List.of();
+		});
+		reportes.crearEjecutorResumen();
+
+		Map<String, Object> resumen = reportes.obtenerResumen().valor();
+
+		@SuppressWarnings("unchecked")
+		Map<String, String> errores = (Map<String, String>) resumen.get(ReporteService.ERRORES);
+		assertEquals("Consulta rechazada: hay demasiados reportes en curso",
+				errores.get(ReporteService.ESTUDIANTES_POR_CICLO));
+		assertEquals("Consulta rechazada: hay demasiados reportes en curso",
+				errores.get(ReporteService.TOP_3_CURSOS));
+		assertNull(resumen.get(ReporteService.ESTUDIANTES_POR_CICLO));
+		assertNull(resumen.get(ReporteService.TOP_3_CURSOS));
+		assertTrue(errores.get(ReporteService.CURSOS_POR_PROFESOR).startsWith("Tiempo de espera agotado"));
+	}
+}
@@ -0,0 +1,312 @@
+package com.gestionacademica.sistema_academico.service;
+
+import com.gestionacademica.sistema_academico.dto.ResultadoInscripcionDTO;
+import com.gestionacademica.sistema_academico.dto.SolicitudInscripcionDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.RepeatedTest;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Reservas concurrentes de punta a punta (InscripcionService.crearLote y ReservaCuposService)
+ * con la escritura simulada en memoria detrás de un JdbcTemplate: la inserción responde DUPLICADA, ESTUDIANTE_NO_EXISTE
+ * o CREADA, y cada tanto aborta la transacción o pide reintentarla (qué lote falla depende
+ * de cómo se intercalan los hilos). Al terminar, los lugares
+ * ocupados de cada curso deben ser exactamente las inscripciones confirmadas, y ninguna
+ * confirmación puede dejar un curso por encima de su cupo.
+ */
+class ReservaCuposServiceTests {
+
+	private static final int HILOS = Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+	private static final int CURSOS = 3;
+	// Alcanza para las inscripciones existentes (hasta dos por hilo en un curso) y deja lugares en disputa
+	private static final int CAPACIDAD = 40 * HILOS;
+	private static final long CURSO_INEXISTENTE = 9L;
+	// Cada hilo usa sus propios estudiantes: las repeticiones son secuenciales, como en la tabla real
+	private static final int ESTUDIANTES_POR_HILO = 200;
+
+	/**
+	 * Tabla de inscripciones en memoria: las filas de una transacción se ven al confirmarla
+	 */
+	private final Set<String> filas = ConcurrentHashMap.newKeySet();
+	private final Map<Long, AtomicInteger> filasPorCurso = new ConcurrentHashMap<>();
+	private final ThreadLocal<List<SolicitudInscripcionDTO>> enTransaccion = new ThreadLocal<>();
+	private final AtomicInteger sobrecupos = new AtomicInteger();
+	private final AtomicLong ids = new AtomicLong();
+	private final AtomicInteger intentos = new AtomicInteger();
+
+	private final PlatformTransactionManager transacciones = new PlatformTransactionManager() {
+		@Override
+		public TransactionStatus getTransaction(TransactionDefinition definicion) {
+			enTransaccion.set(new ArrayList<>());
+			return new SimpleTransactionStatus();
+		}
+
+		@Override
+		public void commit(TransactionStatus estado) {
+			for (SolicitudInscripcionDTO solicitud : enTransaccion.get()) {
+				filas.add(clave(solicitud));
+				if (filasPorCurso.get(solicitud.getCursoId()).incrementAndGet() > CAPACIDAD) {
+					sobrecupos.incrementAndGet();
+				}
+			}
+			enTransaccion.remove();
+		}
+
+		@Override
+		public void rollback(TransactionStatus estado) {
+			enTransaccion.remove();
+		}
+	};
+
+	private final CuposCursos cupos = new CuposCursos() {
+		@Override
+		Ocupacion leer(Long cursoId) {
+			return null;
+		}
+	};
+
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final InscripcionService inscripcionService = new InscripcionService();
+
+	/**
+	 * Escritura simulada de una sentencia de INSERTAR_INSCRIPCIONES: toma los arreglos de
+	 * estudiantes y cursos que arma la sentencia y responde una fila por solicitud
+	 */
+	private void insertar(PreparedStatementCreator sentencia, RowCallbackHandler respuesta) throws SQLException {
+		List<Object[]> arreglos = new ArrayList<>();
+		Connection conexion = mock(Connection.class);
+		when(conexion.prepareStatement(anyString())).thenReturn(mock(PreparedStatement.class));
+		when(conexion.createArrayOf(anyString(), any(Object[].class))).thenAnswer(invocacion -> {
+			arreglos.add(invocacion.getArgument(1));
+			return mock(Array.class);
+		});
+		sentencia.createPreparedStatement(conexion);
+		Object[] estudiantes = arreglos.get(0);
+		Object[] cursos = arreglos.get(1);
+
+		List<SolicitudInscripcionDTO> pendientes = enTransaccion.get();
+		for (int i = 0; i < estudiantes.length; i++) {
+			SolicitudInscripcionDTO solicitud = solicitud((Long) estudiantes[i], (Long) cursos[i]);
+			String estado;
+			if (solicitud.getEstudianteId() % 10 == 0) {
+				estado = InscripcionService.ESTUDIANTE_NO_EXISTE;
+			} else if (filas.contains(clave(solicitud))
+					|| pendientes.stream().anyMatch(p -> clave(p).equals(clave(solicitud)))) {
+				estado = InscripcionService.DUPLICADA;
+			} else {
+				estado = InscripcionService.CREADA;
+				pendientes.add(solicitud);
+			}
+			Map<String, Object> columnas = Map.of("indice", i + 1, "estado", estado,
+					"id", InscripcionService.CREADA.equals(estado) ? ids.incrementAndGet() : 0L);
+			respuesta.processRow(mock(ResultSet.class, invocacion -> columnas.get(invocacion.<String>getArgument(0))));
+		}
+
+		int intento = intentos.incrementAndGet();
+		if (intento % 11 == 0) {
+			throw new DataIntegrityViolationException("Falla simulada: la transacción se revierte");
+		}
+		if (intento % 7 == 0) {
+			throw new CannotAcquireLockException("Bloqueo mutuo simulado: se reintenta");
+		}
+	}
+
+	@BeforeEach
+	void preparar() {
+		for (long curso = 1; curso <= CURSOS; curso++) {
+			filasPorCurso.put(curso, new AtomicInteger());
+		}
+		// Inscripciones existentes antes de abrir la matrícula
+		for (int hilo = 0; hilo < HILOS; hilo++) {
+			for (int i = 1; i <= 5; i++) {
+				SolicitudInscripcionDTO existente = solicitud(estudiante(hilo, i * 7), 1 + i % CURSOS);
+				filas.add(clave(existente));
+				filasPorCurso.get(existente.getCursoId()).incrementAndGet();
+			}
+		}
+		for (long curso = 1; curso <= CURSOS; curso++) {
+			cupos.cargar(curso, CAPACIDAD, filasPorCurso.get(curso).get());
+		}
+
+		doAnswer(invocacion -> {
+			insertar(invocacion.getArgument(0), invocacion.getArgument(1));
+			return null;
+		}).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+		ReflectionTestUtils.setField(inscripcionService, "jdbcTemplate", jdbcTemplate);
+		ReflectionTestUtils.setField(inscripcionService, "cuposCursos", cupos);
+		ReflectionTestUtils.setField(inscripcionService, "cacheReportes", mock(CacheReportes.class));
+		ReflectionTestUtils.setField(inscripcionService, "transactionManager", transacciones);
+		ReflectionTestUtils.setField(inscripcionService, "loteMaximo", 30);
+		ReflectionTestUtils.setField(inscripcionService, "filasPorSentencia", 7);
+		inscripcionService.configurar();
+	}
+
+	@RepeatedTest(5)
+	void crearLoteOcupaSoloLosLugaresDeLasInscripcionesConfirmadas() throws Exception {
+		AtomicInteger creadas = new AtomicInteger();
+		AtomicInteger lotesRevertidos = new AtomicInteger();
+		ejecutarJuntos(hilo -> {
+			ThreadLocalRandom azar = ThreadLocalRandom.current();
+			for (int l = 0; l < 150; l++) {
+				List<SolicitudInscripcionDTO> lote = new ArrayList<>();
+				for (int i = 1 + azar.nextInt(30); i > 0; i--) {
+					lote.add(solicitudAlAzar(hilo, azar));
+				}
+				try {
+					creadas.addAndGet(inscripcionService.crearLote(lote).getCreadas());
+				} catch (RuntimeException e) {
+					lotesRevertidos.incrementAndGet();
+				}
+			}
+		});
+
+		assertTrue(lotesRevertidos.get() > 0, "La prueba debe incluir transacciones revertidas");
+		verificarCupos(creadas.get());
+	}
+
+	@RepeatedTest(5)
+	void reservarOcupaSoloLosLugaresDeLasInscripcionesConfirmadas() throws Exception {
+		ReservaCuposService reservas = new ReservaCuposService();
+		ReflectionTestUtils.setField(reservas, "inscripcionService", inscripcionService);
+		ReflectionTestUtils.setField(reservas, "cuposCursos", cupos);
+		ReflectionTestUtils.setField(reservas, "capacidadCola", 100_000);
+		// Mayor que el lote máximo de InscripcionService: el escritor debe acotarlo
+		ReflectionTestUtils.setField(reservas, "tamañoLote", 1_000);
+		reservas.iniciar();
+
+		List<CompletableFuture<ResultadoInscripcionDTO>> resultados = new ArrayList<>();
+		try {
+			ejecutarJuntos(hilo -> {
+				ThreadLocalRandom azar = ThreadLocalRandom.current();
+				List<CompletableFuture<ResultadoInscripcionDTO>> propios = new ArrayList<>();
+				for (int i = 0; i < 1_000; i++) {
+					propios.add(reservas.reservar(solicitudAlAzar(hilo, azar)));
+				}
+				synchronized (resultados) {
+					resultados.addAll(propios);
+				}
+			});
+			CompletableFuture.allOf(resultados.toArray(new CompletableFuture<?>[0]))
+					.handle((r, e) -> null)
+					.get(1, TimeUnit.MINUTES);
+		} finally {
+			reservas.detener();
+		}
+
+		int creadas = 0;
+		int fallidas = 0;
+		for (CompletableFuture<ResultadoInscripcionDTO> resultado : resultados) {
+			if (resultado.isCompletedExceptionally()) {
+				fallidas++;
+			} else if (InscripcionService.CREADA.equals(resultado.get().getEstado())) {
+				creadas++;
+			}
+		}
+		assertTrue(fallidas > 0, "La prueba debe incluir transacciones revertidas");
+		assertEquals(0, reservas.pendientes());
+		verificarCupos(creadas);
+	}
+
+	private void verificarCupos(int creadas) {
+		assertEquals(0, sobrecupos.get(), "Una confirmación dejó un curso por encima de su cupo");
+		int existentes = 5 * HILOS;
+		assertEquals(existentes + creadas, filas.size());
+		for (long curso = 1; curso <= CURSOS; curso++) {
+			int confirmadas = filasPorCurso.get(curso).get();
+			assertEquals(confirmadas, cupos.ocupacion(curso).ocupados(), "curso " + curso);
+			assertTrue(confirmadas <= CAPACIDAD, "curso " + curso + ": " + confirmadas);
+		}
+	}
+
+	private static SolicitudInscripcionDTO solicitudAlAzar(int hilo, ThreadLocalRandom azar) {
+		// Algunas piden un curso que no existe
+		long curso = azar.nextInt(20) == 0 ? CURSO_INEXISTENTE : 1 + azar.nextInt(CURSOS);
+		return solicitud(estudiante(hilo, 1 + azar.nextInt(ESTUDIANTES_POR_HILO)), curso);
+	}
+
+	private static long estudiante(int hilo, int numero) {
+		return (long) hilo * ESTUDIANTES_POR_HILO + numero;
+	}
+
+	private static SolicitudInscripcionDTO solicitud(long estudianteId, long cursoId) {
+		SolicitudInscripcionDTO solicitud = new SolicitudInscripcionDTO();
+		solicitud.setEstudianteId(estudianteId);
+		solicitud.setCursoId(cursoId);
+		solicitud.setCicloAcademico("2026-1");
+		return solicitud;
+	}
+
+	private static String clave(SolicitudInscripcionDTO solicitud) {
+		return solicitud.getEstudianteId() + ":" + solicitud.getCursoId();
+	}
+
+	private interface TareaDeHilo {
+		void ejecutar(int hilo);
+	}
+
+	/**
+	 * Ejecuta la tarea en HILOS hilos que arrancan al mismo tiempo y espera a que terminen
+	 */
+	private static void ejecutarJuntos(TareaDeHilo tarea) throws Exception {
+		ExecutorService ejecutor = Executors.newFixedThreadPool(HILOS);
+		CountDownLatch listos = new CountDownLatch(HILOS);
+		CountDownLatch largada = new CountDownLatch(1);
+		List<Future<?>> tareas = new ArrayList<>();
+		try {
+			for (int h = 0; h < HILOS; h++) {
+				int hilo = h;
+				tareas.add(ejecutor.submit(() -> {
+					listos.countDown();
+					largada.await();
+					tarea.ejecutar(hilo);
+					return null;
+				}));
+			}
+			listos.await();
+			largada.countDown();
+			for (Future<?> resultado : tareas) {
+				resultado.get();
+			}
+		} finally {
+			ejecutor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package com.gestionacademica.sistema_academico.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SoporteTrigramasTests {
+
+	@Test
+	void unFalloDeConsultaNoQuedaGuardado() {
+		JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+		when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class)))
+				.thenThrow(new DataAccessResourceFailureException("conexión rechazada"))
+				.thenReturn(true);
+		SoporteTrigramas soporte = new SoporteTrigramas();
+		ReflectionTestUtils.setField(soporte, "jdbcTemplate", jdbcTemplate);
+
+		assertFalse(soporte.pgTrgmDisponible());
+		assertTrue(soporte.pgTrgmDisponible());
+		assertTrue(soporte.pgTrgmDisponible());
+		verify(jdbcTemplate, times(2)).queryForObject(anyString(), eq(Boolean.class));
+	}
+
+	@Test
+	void elPatronLikeCoincideConLaBusquedaEnMemoria() {
+		Map<Long, List<String>> textos = Map.of(
+				1L, List.of("MAT_101", "Cálculo 100%"),
+				2L, List.of("MATX101", "Cálculo 1000"),
+				3L, List.of("C\\D", "Rutas c:\\datos"),
+				4L, List.of("CD", "Sin comodines"));
+		IndiceTrigramas indice = new IndiceTrigramas();
+		indice.construir(textos);
+
+		for (String termino : List.of("mat_", "_", "100%", "%", "c\\d", "\\", "cd", "lo 1")) {
+			// LIKE con ESCAPE '\' sobre LOWER(texto), como en la consulta de la base de datos
+			Pattern patron = likeComoRegex(SoporteTrigramas.patronSubcadena(termino).toLowerCase());
+			List<Long> enBaseDeDatos = textos.entrySet().stream()
+					.filter(fila -> fila.getValue().stream()
+							.anyMatch(texto -> patron.matcher(texto.toLowerCase()).matches()))
+					.map(Map.Entry::getKey)
+					.sorted()
+					.toList();
+			List<Long> enMemoria = indice.buscar(termino, 10).stream().sorted().toList();
+			assertEquals(enMemoria, enBaseDeDatos, termino);
+		}
+		assertEquals(List.of(1L), indice.buscar("mat_", 10));
+		assertEquals(List.of(3L), indice.buscar("\\", 10));
+	}
+
+	private static Pattern likeComoRegex(String like) {
+		StringBuilder regex = new StringBuilder();
+		for (int i = 0; i < like.length(); i++) {
+			char c = like.charAt(i);
+			if (c == '\\') {
+				regex.append(Pattern.quote(String.valueOf(like.charAt(++i))));
+			} else if (c == '%') {
+				regex.append(".*");
+			} else if (c == '_') {
+				regex.append('.');
+			} else {
+				regex.append(Pattern.quote(String.valueOf(c)));
+			}
+		}
+		return Pattern.compile(regex.toString(), Pattern.DOTALL);
+	}
+}
@@ -0,0 +1,213 @@
+package com.gestionacademica.sistema_academico.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.DoubleSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TDigestTests {
+
+	private static final double[] CUANTILES = {0.001, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 0.999};
+
+	/**
+	 * Error de rango: distancia entre q y la fracción de valores menores que el estimado.
+	 * Si el estimado es un valor repetido, cualquier fracción dentro de sus repeticiones es correcta.
+	 */
+	private static double errorDeRango(double[] ordenados, double q, double estimado) {
+		double desde = posicion(ordenados, estimado, false) / (double) ordenados.length;
+		double hasta = posicion(ordenados, estimado, true) / (double) ordenados.length;
+		return q < desde ? desde - q : q > hasta ? q - hasta : 0;
+	}
+
+	/**
+	 * Cantidad de valores menores (o menores o iguales) que el indicado
+	 */
+	private static int posicion(double[] ordenados, double valor, boolean incluirIguales) {
+		int desde = 0;
+		int hasta = ordenados.length;
+		while (desde < hasta) {
+			int medio = (desde + hasta) >>> 1;
+			if (ordenados[medio] < valor || (incluirIguales && ordenados[medio] == valor)) {
+				desde = medio + 1;
+			} else {
+				hasta = medio;
+			}
+		}
+		return desde;
+	}
+
+	private static double[] muestras(int cantidad, DoubleSupplier generador) {
+		double[] valores = new double[cantidad];
+		for (int i = 0; i < cantidad; i++) {
+			valores[i] = generador.getAsDouble();
+		}
+		return valores;
+	}
+
+	private static Map<String, double[]> continuas() {
+		Random aleatorio = new Random(7);
+		Map<String, double[]> distribuciones = new LinkedHashMap<>();
+		distribuciones.put("uniforme", muestras(500_000, () -> aleatorio.nextDouble() * 20));
+		distribuciones.put("normal", muestras(500_000, () -> 12 + 3 * aleatorio.nextGaussian()));
+		distribuciones.put("exponencial", muestras(500_000, () -> -Math.log(1 - aleatorio.nextDouble())));
+		// Curso con dos grupos de estudiantes: el promedio (11) no describe a ninguno
+		distribuciones.put("bimodal", muestras(500_000,
+				() -> aleatorio.nextBoolean() ? 6 + aleatorio.nextGaussian() : 16 + aleatorio.nextGaussian()));
+		return distribuciones;
+	}
+
+	@Test
+	void sinValoresNoHayCuantiles() {
+		TDigest digest = new TDigest();
+
+		assertEquals(0, digest.cantidad());
+		assertTrue(Double.isNaN(digest.cuantil(0.5)));
+		assertTrue(Double.isNaN(digest.minimo()));
+	}
+
+	@Test
+	void conPocosValoresLosCuantilesSonValoresExactos() {
+		TDigest digest = new TDigest();
+		for (double nota : new double[] {15, 17, 12, 20, 9}) {
+			digest.agregar(nota);
+		}
+
+		assertEquals(5, digest.cantidad());
+		assertEquals(9, digest.cuantil(0));
+		assertEquals(15, digest.cuantil(0.5));
+		assertEquals(20, digest.cuantil(1));
+		assertEquals(9, digest.minimo());
+		assertEquals(20, digest.maximo());
+	}
+
+	@Test
+	void elErrorDeRangoQuedaAcotadoEnDistribucionesContinuas() {
+		for (Map.Entry<String, double[]> distribucion : continuas().entrySet()) {
+			TDigest digest = new TDigest();
+			for (double valor : distribucion.getValue()) {
+				digest.agregar(valor);
+			}
+			double[] ordenados = distribucion.getValue().clone();
+			Arrays.sort(ordenados);
+
+			for (double q : CUANTILES) {
+				double error = errorDeRango(ordenados, q, digest.cuantil(q));
+				assertTrue(error <= 0.002, distribucion.getKey() + " q = " + q + ": error de rango " + error);
+			}
+			assertTrue(digest.centroides() <= TDigest.COMPRESION_POR_DEFECTO, distribucion.getKey());
+		}
+	}
+
+	@Test
+	void combinarResumenesParcialesMantieneLaPrecision() {
+		for (Map.Entry<String, double[]> distribucion : continuas().entrySet()) {
+			// Como los resúmenes por ciclo y curso combinados en uno por curso
+			TDigest[] partes = new TDigest[100];
+			Arrays.setAll(partes, i -> new TDigest());
+			double[] valores = distribucion.getValue();
+			for (int i = 0; i < valores.length; i++) {
+				partes[i % partes.length].agregar(valores[i]);
+			}
+			TDigest combinado = new TDigest();
+			for (TDigest parte : partes) {
+				combinado.combinar(parte);
+			}
+			double[] ordenados = valores.clone();
+			Arrays.sort(ordenados);
+
+			assertEquals(valores.length, combinado.cantidad());
+			assertEquals(ordenados[0], combinado.minimo());
+			assertEquals(ordenados[ordenados.length - 1], combinado.maximo());
+			for (double q : CUANTILES) {
+				double error = errorDeRango(ordenados, q, combinado.cuantil(q));
+				assertTrue(error <= 0.002, distribucion.getKey() + " q = " + q + ": error de rango " + error);
+			}
+		}
+	}
+
+	@Test
+	void conNotasRepetidasElPercentilEsUnaNotaCercana() {
+		Random aleatorio = new Random(11);
+		// Notas de 0 a 20 en medios puntos: cada valor se repite miles de veces
+		double[] notas = muestras(500_000,
+				() -> Math.round(Math.max(0, Math.min(20, 13 + 4 * aleatorio.nextGaussian())) * 2) / 2.0);
+		TDigest digest = new TDigest();
+		for (double nota : notas) {
+			digest.agregar(nota);
+		}
+		double[] ordenadas = notas.clone();
+		Arrays.sort(ordenadas);
+
+		for (double q : CUANTILES) {
+			double estimado = digest.cuantil(q);
+			double exacto = ordenadas[(int) Math.min(ordenadas.length - 1, q * ordenadas.length)];
+			assertTrue(errorDeRango(ordenadas, q, estimado) <= 0.01, "q = " + q);
+			assertTrue(Math.abs(estimado - exacto) <= 0.5, "q = " + q + ": " + estimado + " vs " + exacto);
+		}
+		// La mediana cae dentro de una nota repetida: da esa nota
+		assertEquals(ordenadas[ordenadas.length / 2], digest.cuantil(0.5));
+		assertTrue(digest.centroides() <= TDigest.COMPRESION_POR_DEFECTO);
+	}
+
+	@Test
+	void quitarUnValorLoDescuentaDelCentroide() {
+		TDigest digest = new TDigest();
+		for (double nota : new double[] {15, 17, 12, 20, 9}) {
+			digest.agregar(nota);
+		}
+
+		digest.quitar(9);
+		digest.quitar(20);
+
+		assertEquals(3, digest.cantidad());
+		assertEquals(12.0, digest.minimo());
+		assertEquals(17.0, digest.maximo());
+		assertEquals(15.0, digest.cuantil(0.5));
+		digest.quitar(12);
+		digest.quitar(15);
+		digest.quitar(17);
+		assertEquals(0, digest.cantidad());
+		assertTrue(Double.isNaN(digest.cuantil(0.5)));
+	}
+
+	@Test
+	void modificarValoresMantieneLaPrecision() {
+		Random aleatorio = new Random(13);
+		// Notas que suben al cerrar el ciclo: una de cada cinco se reemplaza por otra mayor
+		double[] notas = muestras(500_000, () -> Math.max(0, Math.min(20, 10 + 3 * aleatorio.nextGaussian())));
+		TDigest digest = new TDigest();
+		for (double nota : notas) {
+			digest.agregar(nota);
+		}
+		for (int i = 0; i < notas.length; i += 5) {
+			digest.quitar(notas[i]);
+			notas[i] = Math.min(20, notas[i] + 4 * aleatorio.nextDouble());
+			digest.agregar(notas[i]);
+		}
+		double[] ordenadas = notas.clone();
+		Arrays.sort(ordenadas);
+
+		assertEquals(notas.length, digest.cantidad());
+		for (double q : CUANTILES) {
+			double error = errorDeRango(ordenadas, q, digest.cuantil(q));
+			assertTrue(error <= 0.01, "q = " + q + ": error de rango " + error);
+		}
+	}
+
+	@Test
+	void rechazaCuantilesFueraDeRangoYNaN() {
+		TDigest digest = new TDigest();
+		digest.agregar(10);
+
+		assertThrows(IllegalArgumentException.class, () -> digest.cuantil(1.5));
+		assertThrows(IllegalArgumentException.class, () -> digest.agregar(Double.NaN));
+		assertThrows(IllegalArgumentException.class, () -> new TDigest(5));
+	}
+}
@@ -0,0 +1,354 @@
+package com.gestionacademica.sistema_academico.service;
+
+import com.gestionacademica.sistema_academico.repository.proyeccion.CursoProfesorFila;
+import com.gestionacademica.sistema_academico.service.TablaHechosInscripciones.Consulta;
+import com.gestionacademica.sistema_academico.service.TablaHechosInscripciones.Dimension;
+import com.gestionacademica.sistema_academico.service.TablaHechosInscripciones.Grupo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TablaHechosInscripcionesTests {
+
+	private static Consulta agrupar(Dimension... dimensiones) {
+		return new Consulta(List.of(dimensiones), null, null, null, null, null, null, 5);
+	}
+
+	private static Map<List<String>, Grupo> porValores(TablaHechosInscripciones.Resultado resultado) {
+		return resultado.grupos().stream().collect(Collectors.toMap(Grupo::valores, Function.identity()));
+	}
+
+	private TablaHechosInscripciones tabla() {
+		TablaHechosInscripciones tabla = new TablaHechosInscripciones();
+		LocalDate cohorte2023 = LocalDate.of(2023, 3, 1);
+		LocalDate cohorte2024 = LocalDate.of(2024, 3, 1);
+		tabla.agregar(1, 101, 10, "2024-1", 15.0, cohorte2023);
+		tabla.agregar(2, 102, 10, "2024-1", 17.0, cohorte2024);
+		tabla.agregar(3, 100, 20, "2024-1", 12.0, cohorte2023);
+		tabla.agregar(4, 101, 20, "2024-2", null, cohorte2024);
+		tabla.agregar(5, 102, 30, "2024-2", 20.0, null);
+		tabla.actualizarCursos(List.of(
+				new CursoProfesorFila(10L, "MAT101", 1L, "Eva", "Ríos"),
+				new CursoProfesorFila(20L, "FIS101", 1L, "Eva", "Ríos"),
+				new CursoProfesorFila(30L, "QUI101", 2L, "Luis", "Paz")));
+		return tabla;
+	}
+
+	@Test
+	void agrupaPorCicloYProfesorConLosAgregadosDeLaNota() {
+		Map<List<String>, Grupo> grupos = porValores(tabla().consultar(agrupar(Dimension.CICLO, Dimension.PROFESOR)));
+
+		assertEquals(3, grupos.size());
+		Grupo eva2024_1 = grupos.get(List.of("2024-1", "Eva Ríos"));
+		assertEquals(3, eva2024_1.inscripciones());
+		assertEquals(3, eva2024_1.conNota());
+		assertEquals(44.0 / 3, eva2024_1.notaPromedio(), 1e-6);
+		assertEquals(12.0, eva2024_1.notaMinima());
+		assertEquals(17.0, eva2024_1.notaMaxima());
+
+		// Inscripción sin nota: se cuenta, pero no entra en los agregados de la nota
+		Grupo eva2024_2 = grupos.get(List.of("2024-2", "Eva Ríos"));
+		assertEquals(1, eva2024_2.inscripciones());
+		assertEquals(0, eva2024_2.conNota());
+		assertNull(eva2024_2.notaPromedio());
+		assertEquals(1, grupos.get(List.of("2024-2", "Luis Paz")).inscripciones());
+	}
+
+	@Test
+	void sinAgruparRetornaElTotal() {
+		TablaHechosInscripciones.Resultado resultado = tabla().consultar(agrupar());
+
+		assertEquals(1, resultado.grupos().size());
+		assertEquals(5, resultado.grupos().get(0).inscripciones());
+		assertEquals(5, resultado.filasEscaneadas());
+	}
+
+	@Test
+	void filtraPorCursoProfesorCohorteYNota() {
+		TablaHechosInscripciones tabla = tabla();
+
+		Consulta porCursoYCohorte = new Consulta(List.of(Dimension.CURSO), null, Set.of("MAT101", "FIS101"),
+				null, Set.of(2023), null, null, 5);
+		assertEquals(Map.of(List.of("MAT101"), 1L, List.of("FIS101"), 1L),
+				porValores(tabla.consultar(porCursoYCohorte)).entrySet().stream()
+						.collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().inscripciones())));
+
+		Consulta porProfesorYNota = new Consulta(List.of(Dimension.CURSO), null, null, Set.of(1L),
+				null, 14.0, null, 5);
+		Map<List<String>, Grupo> grupos = porValores(tabla.consultar(porProfesorYNota));
+		assertEquals(Set.of(List.of("MAT101")), grupos.keySet());
+		assertEquals(2, grupos.get(List.of("MAT101")).inscripciones());
+
+		Consulta cicloDesconocido = new Consulta(List.of(), Set.of("1999-1"), null, null, null, null, null, 5);
+		assertTrue(tabla.consultar(cicloDesconocido).grupos().isEmpty());
+	}
+
+	@Test
+	void agrupaPorRangoDeNotaYCohorte() {
+		Map<List<String>, Grupo> grupos = porValores(tabla().consultar(agrupar(Dimension.RANGO_NOTA)));
+
+		assertEquals(1, grupos.get(List.of("10-15")).inscripciones());
+		assertEquals(2, grupos.get(List.of("15-20")).inscripciones());
+		assertEquals(1, grupos.get(List.of("20-25")).inscripciones());
+		assertEquals(1, grupos.get(Arrays.asList((String) null)).inscripciones());
+
+		Map<List<String>, Grupo> cohortes = porValores(tabla().consultar(agrupar(Dimension.COHORTE)));
+		assertEquals(2, cohortes.get(List.of("2023")).inscripciones());
+		assertEquals(2, cohortes.get(List.of("2024")).inscripciones());
+		assertEquals(1, cohortes.get(Arrays.asList((String) null)).inscripciones());
+	}
+
+	@Test
+	void elCambioDeProfesorDeUnCursoSeReflejaSinRecargarInscripciones() {
+		TablaHechosInscripciones tabla = tabla();
+		tabla.actualizarCursos(List.of(
+				new CursoProfesorFila(10L, "MAT101", 2L, "Luis", "Paz"),
+				new CursoProfesorFila(20L, "FIS101", 1L, "Eva", "Ríos"),
+				new CursoProfesorFila(30L, "QUI101", null, null, null)));
+
+		Map<List<String>, Grupo> grupos = porValores(tabla.consultar(agrupar(Dimension.PROFESOR)));
+
+		assertEquals(2, grupos.get(List.of("Luis Paz")).inscripciones());
+		assertEquals(2, grupos.get(List.of("Eva Ríos")).inscripciones());
+		assertEquals(1, grupos.get(Arrays.asList((String) null)).inscripciones());
+	}
+
+	@Test
+	void cuentaEstudiantesDistintosPorCicloCursoYUniones() {
+		TablaHechosInscripciones tabla = tabla();
+
+		assertEquals(3, tabla.estudiantesDelCiclo("2024-1").estimar());
+		assertEquals(2, tabla.estudiantesDelCiclo("2024-2").estimar());
+		assertEquals(0, tabla.estudiantesDelCiclo("1999-1").estimar());
+		assertEquals(3, tabla.estudiantesDistintos(null, null).estimar());
+		assertEquals(3, tabla.estudiantesDistintos(Set.of("2024-1", "2024-2"), null).estimar());
+		assertEquals(2, tabla.estudiantesDistintos(null, Set.of("FIS101")).estimar());
+		assertEquals(1, tabla.estudiantesDistintos(Set.of("2024-2"), Set.of("FIS101")).estimar());
+		assertEquals(0, tabla.estudiantesDistintos(null, Set.of("NOEXISTE")).estimar());
+		assertTrue(tabla.estudiantesDistintos(null, null).esExacto());
+	}
+
+	@Test
+	void resumeLaDistribucionDeNotasPorCicloYPorCurso() {
+		TablaHechosInscripciones tabla = tabla();
+
+		Map<String, DistribucionNotas> porCiclo = tabla.distribucionNotasPor(Dimension.CICLO, null, null);
+		assertEquals(Set.of("2024-1", "2024-2"), porCiclo.keySet());
+		DistribucionNotas ciclo2024_1 = porCiclo.get("2024-1");
+		assertEquals(3, ciclo2024_1.cantidad());
+		assertEquals(15.0, ciclo2024_1.percentil(50));
+		assertEquals(12.0, ciclo2024_1.minimo());
+		assertEquals(17.0, ciclo2024_1.maximo());
+		long[] histograma = ciclo2024_1.histograma(1);
+		assertEquals(18, histograma.length);
+		assertEquals(1, histograma[12]);
+		assertEquals(1, histograma[15]);
+		assertEquals(3, Arrays.stream(histograma).sum());
+		assertTrue(Arrays.equals(new long[] {0, 0, 1, 2}, ciclo2024_1.histograma(5)));
+		// La inscripción sin nota no cuenta
+		assertEquals(1, porCiclo.get("2024-2").cantidad());
+
+		Map<String, DistribucionNotas> porCurso = tabla.distribucionNotasPor(Dimension.CURSO, Set.of("2024-1"), null);
+		assertEquals(Set.of("MAT101", "FIS101"), porCurso.keySet());
+		assertEquals(2, porCurso.get("MAT101").cantidad());
+
+		DistribucionNotas total = tabla.distribucionNotas(null, Set.of("MAT101", "QUI101"));
+		assertEquals(3, total.cantidad());
+		assertEquals(17.0, total.percentil(50));
+		assertEquals(20.0, total.percentil(100));
+		assertEquals(1, tabla.distribucionNotas(Set.of("2024-1"), Set.of("FIS101")).cantidad());
+		assertEquals(0, tabla.distribucionNotas(Set.of("1999-1"), null).cantidad());
+		assertThrows(IllegalArgumentException.class, () -> tabla.distribucionNotasPor(Dimension.COHORTE, null, null));
+	}
+
+	@Test
+	void unaNotaModificadaSeReflejaEnLosGruposYEnLaDistribucion() {
+		TablaHechosInscripciones tabla = tabla();
+
+		assertTrue(tabla.actualizarNota(3, 20, "2024-1", 18.0));
+		assertTrue(tabla.actualizarNota(1, 10, "2024-1", null));
+		assertTrue(tabla.actualizarNota(4, 20, "2024-2", 11.0));
+		// Una inscripción que no está cargada llega con su nota al cargar las nuevas
+		assertTrue(tabla.actualizarNota(99, 10, "2024-1", 10.0));
+
+		Map<List<String>, Grupo> grupos = porValores(tabla.consultar(agrupar(Dimension.CICLO, Dimension.PROFESOR)));
+		Grupo eva2024_1 = grupos.get(List.of("2024-1", "Eva Ríos"));
+		assertEquals(3, eva2024_1.inscripciones());
+		assertEquals(2, eva2024_1.conNota());
+		assertEquals(17.5, eva2024_1.notaPromedio(), 1e-6);
+		assertEquals(17.0, eva2024_1.notaMinima());
+		assertEquals(18.0, eva2024_1.notaMaxima());
+		assertEquals(1, grupos.get(List.of("2024-2", "Eva Ríos")).conNota());
+
+		DistribucionNotas ciclo2024_1 = tabla.distribucionNotasPor(Dimension.CICLO, null, null).get("2024-1");
+		assertEquals(2, ciclo2024_1.cantidad());
+		assertEquals(17.0, ciclo2024_1.minimo());
+		assertEquals(18.0, ciclo2024_1.maximo());
+		long[] histograma = ciclo2024_1.histograma(1);
+		assertEquals(0, histograma[12] + histograma[15]);
+		assertEquals(1, histograma[18]);
+		assertEquals(1, tabla.distribucionNotas(null, Set.of("MAT101")).cantidad());
+		assertEquals(2, tabla.distribucionNotas(null, Set.of("FIS101")).cantidad());
+	}
+
+	@Test
+	void unCambioDeCursoOCicloPideReconstruir() {
+		TablaHechosInscripciones tabla = tabla();
+
+		assertFalse(tabla.actualizarNota(2, 20, "2024-1", 17.0));
+		assertFalse(tabla.actualizarNota(2, 10, "2024-2", 17.0));
+		assertEquals(17.0, tabla.distribucionNotas(null, Set.of("MAT101")).maximo());
+	}
+
+	@Test
+	void variosSegmentosDanLoMismoQueUnRecorridoDirecto() {
+		int filas = TablaHechosInscripciones.TAMAÑO_SEGMENTO * 3 + 123;
+		TablaHechosInscripciones tabla = new TablaHechosInscripciones();
+		Map<String, long[]> esperado = new HashMap<>();
+		Random aleatorio = new Random(7);
+		for (int i = 1; i <= filas; i++) {
+			String ciclo = (2020 + aleatorio.nextInt(5)) + "-" + (1 + aleatorio.nextInt(2));
+			Double nota = aleatorio.nextInt(10) == 0 ? null : (double) aleatorio.nextInt(21);
+			tabla.agregar(i, aleatorio.nextInt(5_000), 1 + aleatorio.nextInt(50), ciclo, nota, LocalDate.of(2020, 1, 1));
+			long[] acumulado = esperado.computeIfAbsent(ciclo, c -> new long[2]);
+			acumulado[0]++;
+			acumulado[1] += nota == null ? 0 : nota.longValue();
+		}
+
+		TablaHechosInscripciones.Resultado resultado = tabla.consultar(agrupar(Dimension.CICLO));
+
+		assertEquals(4, resultado.segmentos());
+		assertEquals(filas, resultado.filasEscaneadas());
+		assertEquals(esperado.size(), resultado.grupos().size());
+		for (Grupo grupo : resultado.grupos()) {
+			long[] acumulado = esperado.get(grupo.valores().get(0));
+			assertEquals(acumulado[0], grupo.inscripciones());
+			assertEquals(acumulado[1], Math.round(grupo.notaPromedio() * grupo.conNota()));
+		}
+	}
+
+	/**
+	 * Carga y consulta con muchas filas sintéticas (1 000 000 por defecto; con
+	 * -Dolap.filas=10000000 se prueba el caso de 10 millones). El límite de tiempo es
+	 * holgado para no depender de la máquina. Solo se ejecuta a pedido:
+	 * mvn test -Dtest=TablaHechosInscripcionesTests -Dcarga.analitica=true
+	 */
+	@Test
+	@EnabledIfSystemProperty(named = "carga.analitica", matches = "true")
+	void agregaMillonesDeFilasEnParalelo() {
+		int filas = Integer.getInteger("olap.filas", 1_000_000);
+		String[] ciclos = new String[20];
+		for (int i = 0; i < ciclos.length; i++) {
+			ciclos[i] = (2015 + i / 2) + "-" + (1 + i % 2);
+		}
+		LocalDate[] ingresos = new LocalDate[12];
+		for (int i = 0; i < ingresos.length; i++) {
+			ingresos[i] = LocalDate.of(2013 + i, 3, 1);
+		}
+		List<CursoProfesorFila> cursos = new ArrayList<>();
+		for (long curso = 1; curso <= 2_000; curso++) {
+			long profesor = 1 + curso % 300;
+			cursos.add(new CursoProfesorFila(curso, "CUR" + curso, profesor, "Profesor", String.valueOf(profesor)));
+		}
+
+		TablaHechosInscripciones tabla = new TablaHechosInscripciones();
+		Random aleatorio = new Random(42);
+		// Conteo exacto de estudiantes por ciclo para contrastar los sketches
+		Map<String, BitSet> estudiantesPorCiclo = new HashMap<>();
+		double[] notas = new double[filas];
+		int conNota = 0;
+		for (int i = 1; i <= filas; i++) {
+			Double nota = aleatorio.nextInt(20) == 0 ? null : aleatorio.nextInt(2001) / 100.0;
+			int estudiante = aleatorio.nextInt(Math.max(1_000, filas / 5));
+			String ciclo = ciclos[aleatorio.nextInt(ciclos.length)];
+			tabla.agregar(i, estudiante, 1 + aleatorio.nextInt(2_000), ciclo, nota,
+					ingresos[aleatorio.nextInt(ingresos.length)]);
+			estudiantesPorCiclo.computeIfAbsent(ciclo, c -> new BitSet()).set(estudiante);
+			if (nota != null) {
+				notas[conNota++] = nota;
+			}
+		}
+		tabla.actualizarCursos(cursos);
+
+		Map<String, Consulta> consultas = new LinkedHashMap<>();
+		consultas.put("ciclo", agrupar(Dimension.CICLO));
+		consultas.put("ciclo+profesor", agrupar(Dimension.CICLO, Dimension.PROFESOR));
+		consultas.put("curso+cohorte+rangoNota", agrupar(Dimension.CURSO, Dimension.COHORTE, Dimension.RANGO_NOTA));
+		consultas.put("profesor (filtro ciclo y nota)", new Consulta(List.of(Dimension.PROFESOR),
+				Set.of(ciclos[0], ciclos[1]), null, null, null, 11.0, null, 5));
+
+		int tamaño = TablaHechosInscripciones.TAMAÑO_SEGMENTO;
+		assertEquals((filas + tamaño - 1) / tamaño, tabla.segmentos());
+		for (Map.Entry<String, Consulta> consulta : consultas.entrySet()) {
+			// Primero se calienta el JIT; se toma la mejor de varias ejecuciones
+			long mejor = Long.MAX_VALUE;
+			TablaHechosInscripciones.Resultado resultado = null;
+			for (int i = 0; i < 5; i++) {
+				long inicio = System.nanoTime();
+				resultado = tabla.consultar(consulta.getValue());
+				mejor = Math.min(mejor, System.nanoTime() - inicio);
+			}
+			long total = resultado.grupos().stream().mapToLong(Grupo::inscripciones).sum();
+
+			assertEquals(filas, resultado.filasEscaneadas());
+			if (consulta.getValue().ciclos() == null) {
+				assertEquals(filas, total);
+			}
+			assertTrue(mejor < filas * 1_000L, consulta.getKey() + ": " + mejor / 1_000_000 + " ms");
+		}
+
+		for (String ciclo : ciclos) {
+			assertDentroDelError(estudiantesPorCiclo.get(ciclo).cardinality(), tabla.estudiantesDelCiclo(ciclo));
+		}
+		// Unión de un año (dos ciclos) y de todos los ciclos, combinando sketches
+		Set<String> anio = Set.of(ciclos[0], ciclos[1]);
+		BitSet exactosAnio = (BitSet) estudiantesPorCiclo.get(ciclos[0]).clone();
+		exactosAnio.or(estudiantesPorCiclo.get(ciclos[1]));
+		BitSet exactosTodos = new BitSet();
+		estudiantesPorCiclo.values().forEach(exactosTodos::or);
+
+		assertDentroDelError(exactosAnio.cardinality(), tabla.estudiantesDistintos(anio, null));
+		assertDentroDelError(exactosTodos.cardinality(), tabla.estudiantesDistintos(null, null));
+
+		// Percentiles e histograma de todas las notas contra el cálculo exacto
+		double[] ordenadas = Arrays.copyOf(notas, conNota);
+		Arrays.sort(ordenadas);
+		long[] histogramaExacto = new long[21];
+		for (double nota : ordenadas) {
+			histogramaExacto[(int) nota]++;
+		}
+		DistribucionNotas todas = tabla.distribucionNotas(null, null);
+		assertEquals(conNota, todas.cantidad());
+		assertTrue(Arrays.equals(histogramaExacto, todas.histograma(1)));
+		for (double percentil : new double[] {10, 50, 90}) {
+			double exacto = ordenadas[(int) (percentil / 100 * (conNota - 1))];
+			assertEquals(exacto, todas.percentil(percentil), 0.1, "p" + percentil);
+		}
+		int cursosConNota = tabla.distribucionNotasPor(Dimension.CURSO, Set.of(ciclos[0], ciclos[1]), null).size();
+		assertTrue(cursosConNota > 0 && cursosConNota <= 2_000, "cursos con nota: " + cursosConNota);
+	}
+
+	private static void assertDentroDelError(long exacto, HyperLogLog sketch) {
+		double error = Math.abs(sketch.estimar() - exacto) / (double) exacto;
+		assertTrue(error <= 3 * sketch.errorRelativo(),
+				"exacto = " + exacto + ", estimado = " + sketch.estimar() + ", error = " + error);
+	}
+}